@@ -0,0 +1,52 @@
+package com.automotive.sales.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Moves the PostgreSQL id sequences past the ids already in their tables before the application takes requests.
+ * <p>
+ * Entity ids come from pooled sequences ({@code vehicles_seq}, ...) that {@code ddl-auto: update} creates at 1
+ * next to tables that may already hold rows, either from the earlier IDENTITY columns or from a restore. Hibernate
+ * hands out the block of {@value #ALLOCATION_SIZE} ids ending at the value it fetches, so a sequence is moved
+ * whenever that next block would start at or below the highest id. Sequences that are already ahead are left
+ * alone, so this is a no-op after the first start. On H2, {@code data.sql} restarts the sequences instead.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceAlignment implements SmartInitializingSingleton {
+
+    static final List<String> TABLES = List.of("vehicles", "customers", "sales");
+    static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Runs once the schema is updated and before the web server accepts connections
+    @Override
+    public void afterSingletonsInstantiated() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if ("PostgreSQL".equals(database)) {
+            TABLES.forEach(this::align);
+        }
+    }
+
+    void align(String table) {
+        String sequence = table + "_seq";
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        Long next = jdbcTemplate.queryForObject("SELECT CASE WHEN is_called THEN last_value + " + ALLOCATION_SIZE +
+                " ELSE last_value END FROM " + sequence, Long.class);
+        if (next - ALLOCATION_SIZE < maxId) {
+            jdbcTemplate.queryForObject("SELECT setval(?, ?, false)", Long.class, sequence, maxId + ALLOCATION_SIZE);
+            log.info("Moved {} from {} to {} past the highest id {} in {}", sequence, next,
+                    maxId + ALLOCATION_SIZE, maxId, table);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.automotive.sales.controller;
+
+import com.automotive.sales.monitoring.QueryMetrics;
+import com.automotive.sales.service.AnalyticsCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/monitoring")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Monitoring", description = "APIs for inspecting the application's database usage")
+public class MonitoringController {
+
+    private final QueryMetrics queryMetrics;
+    private final AnalyticsCache analyticsCache;
+
+    @Operation(summary = "Get query metrics",
+            description = "SQL statements, entity loads and lazy collection fetches per endpoint and per service " +
+                    "method since startup or the last reset, heaviest first")
+    @ApiResponse(responseCode = "200", description = "Query metrics retrieved successfully")
+    @GetMapping("/query-metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<QueryMetricsReport> getQueryMetrics() {
+        log.debug("Fetching query metrics");
+        return ResponseEntity.ok(QueryMetricsReport.builder()
+                .requests(queryMetrics.getRequestMetrics())
+                .methods(queryMetrics.getMethodMetrics())
+                .build());
+    }
+
+    @Operation(summary = "Reset query metrics", description = "Start collecting query metrics afresh")
+    @ApiResponse(responseCode = "204", description = "Query metrics reset")
+    @DeleteMapping("/query-metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> resetQueryMetrics() {
+        log.info("Resetting query metrics");
+        queryMetrics.reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Get analytics cache statistics",
+            description = "Entries, hits, misses, load times, evictions and invalidations of each cached analytics " +
+                    "report since startup")
+    @ApiResponse(responseCode = "200", description = "Analytics cache statistics retrieved successfully")
+    @GetMapping("/analytics-cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<AnalyticsCache.CacheStatistics>> getAnalyticsCacheStatistics() {
+        log.debug("Fetching analytics cache statistics");
+        return ResponseEntity.ok(analyticsCache.statistics());
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    public static class QueryMetricsReport {
+        private List<QueryMetrics.QueryMetric> requests;
+        private List<QueryMetrics.QueryMetric> methods;
+    }
+}
@@ -0,0 +1,333 @@
+package com.automotive.sales.controller;
+
+import com.automotive.sales.dto.SaleCreateRequest;
+import com.automotive.sales.dto.SaleMapper;
+import com.automotive.sales.dto.SaleResponse;
+import com.automotive.sales.dto.SaleUpdateRequest;
+import com.automotive.sales.model.Sale;
+import com.automotive.sales.service.FinancingQuoteService;
+import com.automotive.sales.service.KeysetCursor;
+import com.automotive.sales.service.SaleBackfillService;
+import com.automotive.sales.service.SaleExportService;
+import com.automotive.sales.service.SaleService;
+import com.automotive.sales.service.SalespersonLeaderboard;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Sales API. Responses are flat {@link SaleResponse}s read through the fetch-planned finders of
+ * {@link SaleService}, so a page of N sales costs the same few statements whatever N is. Creation and lifecycle
+ * actions re-read the sale afterwards: the sale returned by the service only holds lazy references to its vehicle
+ * and customer, which cannot load once its transaction has ended.
+ */
+@RestController
+@RequestMapping("/api/sales")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Sales Management", description = "APIs for managing vehicle sales")
+public class SaleController {
+
+    private final SaleService saleService;
+    private final SaleBackfillService saleBackfillService;
+    private final SaleExportService saleExportService;
+    private final FinancingQuoteService financingQuoteService;
+    private final SalespersonLeaderboard salespersonLeaderboard;
+    private final SaleMapper saleMapper;
+
+    @Operation(summary = "Create a new sale",
+            description = "Open a pending sale for a vehicle and customer given by id. The vehicle is reserved for it")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Sale created successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid input data or unknown vehicle or customer"),
+            @ApiResponse(responseCode = "409", description = "Vehicle not available or customer inactive")
+    })
+    @PostMapping
+    public ResponseEntity<SaleResponse> createSale(@Valid @RequestBody SaleCreateRequest sale) {
+        log.info("Creating new sale");
+        try {
+            Long saleId = saleService.createSaleByReference(saleMapper.toSale(sale)).getId();
+            return saleService.getSaleById(saleId)
+                    .map(createdSale -> new ResponseEntity<>(saleMapper.toResponse(createdSale), HttpStatus.CREATED))
+                    .orElseThrow(() -> new IllegalStateException("Sale " + saleId + " vanished after creation"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @Operation(summary = "Backfill historical sales from NDJSON",
+            description = "Load completed, cancelled or refunded deals from a newline-delimited JSON stream, one sale " +
+                    "per line naming its vehicle by vin and its customer by customerEmail. Progress is checkpointed " +
+                    "per job: sending the same stream again with the same job id resumes after the last committed line")
+    @ApiResponse(responseCode = "200", description = "Backfill processed, see the result for rejected rows")
+    @PostMapping(value = "/backfill", consumes = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<SaleBackfillService.BackfillResult> backfillSales(
+            @Parameter(description = "Job id that identifies the backfill across restarts") @RequestParam String jobId,
+            InputStream body) {
+        log.info("Backfilling sales for job {}", jobId);
+        return ResponseEntity.ok(saleBackfillService.backfillNdjson(jobId, body));
+    }
+
+    @Operation(summary = "Export sales to a columnar file",
+            description = "Write the sales modified since the previous run of this export, with their vehicle and " +
+                    "customer keys, to a compressed columnar file in the export directory. The export's watermark " +
+                    "advances only once the file is complete")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export written, or nothing new to export"),
+            @ApiResponse(responseCode = "400", description = "Invalid export name"),
+            @ApiResponse(responseCode = "409", description = "This export is already running")
+    })
+    @PostMapping("/exports/{exportName}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<SaleExportService.ExportResult> exportSales(
+            @Parameter(description = "Name of the export, which keeps its own watermark") @PathVariable String exportName) {
+        log.info("Exporting sales for {}", exportName);
+        try {
+            return ResponseEntity.ok(saleExportService.export(exportName));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @Operation(summary = "Get sale by ID", description = "Retrieve a specific sale with its vehicle and customer")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sale found"),
+            @ApiResponse(responseCode = "404", description = "Sale not found")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<SaleResponse> getSaleById(@Parameter(description = "Sale ID") @PathVariable Long id) {
+        log.debug("Fetching sale with ID: {}", id);
+        return saleService.getSaleById(id)
+                .map(sale -> ResponseEntity.ok(saleMapper.toResponse(sale)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Get sales with filters", description = "Retrieve a page of sales matching the given filters")
+    @ApiResponse(responseCode = "200", description = "Sales retrieved successfully")
+    @GetMapping
+    public ResponseEntity<Page<SaleResponse>> getSales(
+            @Parameter(description = "Sale status") @RequestParam(required = false) Sale.SaleStatus status,
+            @Parameter(description = "Payment method") @RequestParam(required = false) Sale.PaymentMethod paymentMethod,
+            @Parameter(description = "Salesperson email") @RequestParam(required = false) String salespersonEmail,
+            @Parameter(description = "Earliest sale date") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "Latest sale date") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Minimum price") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum price") @RequestParam(required = false) BigDecimal maxPrice,
+            Pageable pageable) {
+
+        log.debug("Fetching sales with filters - status: {}, paymentMethod: {}, salesperson: {}",
+                 status, paymentMethod, salespersonEmail);
+        Page<Sale> sales = saleService.getSalesWithFilters(status, paymentMethod, salespersonEmail,
+                startDate, endDate, minPrice, maxPrice, pageable);
+        return ResponseEntity.ok(sales.map(saleMapper::toResponse));
+    }
+
+    @Operation(summary = "Scroll sales",
+            description = "Retrieve sales newest first using keyset pagination; pass the X-Next-Cursor header " +
+                    "of the previous response as 'after' to fetch the next slice")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sales retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or slice size")
+    })
+    @GetMapping("/scroll")
+    public ResponseEntity<Slice<SaleResponse>> scrollSales(
+            @Parameter(description = "Sale status") @RequestParam(required = false) Sale.SaleStatus status,
+            @Parameter(description = "Payment method") @RequestParam(required = false) Sale.PaymentMethod paymentMethod,
+            @Parameter(description = "Salesperson email") @RequestParam(required = false) String salespersonEmail,
+            @Parameter(description = "Earliest sale date") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "Latest sale date") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Minimum price") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum price") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Cursor returned with the previous slice") @RequestParam(required = false) String after,
+            @Parameter(description = "Slice size (1-100)") @RequestParam(defaultValue = "20") int size) {
+
+        log.debug("Scrolling sales after cursor {} with filters - status: {}, paymentMethod: {}, salesperson: {}",
+                 after, status, paymentMethod, salespersonEmail);
+        try {
+            Slice<SaleResponse> sales = saleService.getSalesWithFiltersAfter(status, paymentMethod, salespersonEmail,
+                    startDate, endDate, minPrice, maxPrice, after, size).map(saleMapper::toResponse);
+            String next = KeysetCursor.next(sales, SaleResponse::saleDate, SaleResponse::id);
+            return next != null
+                    ? ResponseEntity.ok().header("X-Next-Cursor", next).body(sales)
+                    : ResponseEntity.ok(sales);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Get sales by status", description = "Retrieve all sales in a specific status")
+    @ApiResponse(responseCode = "200", description = "Sales retrieved successfully")
+    @GetMapping("/status/{status}")
+    public ResponseEntity<List<SaleResponse>> getSalesByStatus(
+            @Parameter(description = "Sale status") @PathVariable Sale.SaleStatus status) {
+        log.debug("Fetching sales by status: {}", status);
+        return ResponseEntity.ok(saleMapper.toResponses(saleService.getSalesByStatus(status)));
+    }
+
+    @Operation(summary = "Get sales by customer", description = "Retrieve all sales of a customer")
+    @ApiResponse(responseCode = "200", description = "Sales retrieved successfully")
+    @GetMapping("/customer/{customerId}")
+    public ResponseEntity<List<SaleResponse>> getSalesByCustomer(
+            @Parameter(description = "Customer ID") @PathVariable Long customerId) {
+        log.debug("Fetching sales for customer ID: {}", customerId);
+        return ResponseEntity.ok(saleMapper.toResponses(saleService.getSalesByCustomer(customerId)));
+    }
+
+    @Operation(summary = "Get sales by vehicle", description = "Retrieve all sales of a vehicle")
+    @ApiResponse(responseCode = "200", description = "Sales retrieved successfully")
+    @GetMapping("/vehicle/{vehicleId}")
+    public ResponseEntity<List<SaleResponse>> getSalesByVehicle(
+            @Parameter(description = "Vehicle ID") @PathVariable Long vehicleId) {
+        log.debug("Fetching sales for vehicle ID: {}", vehicleId);
+        return ResponseEntity.ok(saleMapper.toResponses(saleService.getSalesByVehicle(vehicleId)));
+    }
+
+    @Operation(summary = "Get pending sales", description = "Retrieve pending sales that are not finalized yet")
+    @ApiResponse(responseCode = "200", description = "Sales retrieved successfully")
+    @GetMapping("/pending")
+    public ResponseEntity<List<SaleResponse>> getPendingSales() {
+        log.debug("Fetching pending unfinalized sales");
+        return ResponseEntity.ok(saleMapper.toResponses(saleService.getPendingUnfinalizedSales()));
+    }
+
+    @Operation(summary = "Get the salesperson leaderboard",
+            description = "Top salespeople by revenue of completed sales in the current day, week (from Monday), " +
+                    "month or all time, served from running totals")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Leaderboard retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Limit out of range")
+    })
+    @GetMapping("/leaderboard")
+    public ResponseEntity<List<SalespersonLeaderboard.Standing>> getLeaderboard(
+            @Parameter(description = "Window: DAY, WEEK, MONTH or ALL_TIME")
+            @RequestParam(defaultValue = "WEEK") SalespersonLeaderboard.Window window,
+            @Parameter(description = "Number of salespeople, at most 100") @RequestParam(defaultValue = "10") int limit) {
+
+        log.debug("Fetching {} leaderboard, top {}", window, limit);
+        try {
+            return ResponseEntity.ok(salespersonLeaderboard.top(window, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Quote a financing grid",
+            description = "Price every combination of the given down payments, annual interest rates and terms for " +
+                    "the sale's price and trade-in: monthly payment, total interest and, on request, the full " +
+                    "amortization schedules. An empty list uses the sale's own down payment, rate or term")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Grid quoted"),
+            @ApiResponse(responseCode = "400", description = "Missing or out of range values, or grid too large"),
+            @ApiResponse(responseCode = "404", description = "Sale not found")
+    })
+    @PostMapping("/{id}/financing-quotes")
+    public ResponseEntity<FinancingQuoteService.QuoteGridResult> quoteFinancing(
+            @Parameter(description = "Sale ID") @PathVariable Long id,
+            @RequestBody FinancingQuoteService.QuoteGridRequest request) {
+
+        log.debug("Quoting financing grid for sale ID: {}", id);
+        try {
+            return financingQuoteService.quoteSale(id, request)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Update sale", description = "Update the terms of a sale that is not finalized")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sale updated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid input data"),
+            @ApiResponse(responseCode = "404", description = "Sale not found"),
+            @ApiResponse(responseCode = "409", description = "Sale is finalized")
+    })
+    @PutMapping("/{id}")
+    public ResponseEntity<SaleResponse> updateSale(
+            @Parameter(description = "Sale ID") @PathVariable Long id,
+            @Valid @RequestBody SaleUpdateRequest saleDetails) {
+
+        log.info("Updating sale with ID: {}", id);
+        Sale details = saleMapper.toSale(saleDetails);
+        return transition(id, saleId -> saleService.updateSale(saleId, details));
+    }
+
+    @Operation(summary = "Approve sale", description = "Approve a pending sale")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sale approved successfully"),
+            @ApiResponse(responseCode = "404", description = "Sale not found"),
+            @ApiResponse(responseCode = "409", description = "Sale is not pending")
+    })
+    @PatchMapping("/{id}/approve")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<SaleResponse> approveSale(@Parameter(description = "Sale ID") @PathVariable Long id) {
+        log.info("Approving sale with ID: {}", id);
+        return transition(id, saleService::approveSale);
+    }
+
+    @Operation(summary = "Complete sale", description = "Complete an approved sale and mark its vehicle as sold")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sale completed successfully"),
+            @ApiResponse(responseCode = "404", description = "Sale not found"),
+            @ApiResponse(responseCode = "409", description = "Sale is not approved or vehicle cannot be sold")
+    })
+    @PatchMapping("/{id}/complete")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<SaleResponse> completeSale(@Parameter(description = "Sale ID") @PathVariable Long id) {
+        log.info("Completing sale with ID: {}", id);
+        return transition(id, saleService::completeSale);
+    }
+
+    @Operation(summary = "Cancel sale", description = "Cancel a sale that is not completed and release its vehicle")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sale cancelled successfully"),
+            @ApiResponse(responseCode = "404", description = "Sale not found"),
+            @ApiResponse(responseCode = "409", description = "Sale is completed")
+    })
+    @PatchMapping("/{id}/cancel")
+    public ResponseEntity<SaleResponse> cancelSale(
+            @Parameter(description = "Sale ID") @PathVariable Long id,
+            @Parameter(description = "Cancellation reason") @RequestParam String reason) {
+        log.info("Cancelling sale with ID: {}", id);
+        return transition(id, saleId -> saleService.cancelSale(saleId, reason));
+    }
+
+    private ResponseEntity<SaleResponse> transition(Long id, Function<Long, Sale> action) {
+        try {
+            action.apply(id);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return getSaleById(id);
+    }
+}
@@ -1,7 +1,14 @@
 package com.automotive.sales.controller;
 
 import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.model.VehicleVersion;
+import com.automotive.sales.service.InventoryFeed;
+import com.automotive.sales.service.KeysetCursor;
+import com.automotive.sales.service.VehicleBulkStatusService;
+import com.automotive.sales.service.VehicleImportService;
 import com.automotive.sales.service.VehicleService;
+import com.automotive.sales.service.VehicleStatisticsSnapshot;
+import com.automotive.sales.service.VehicleStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,13 +19,21 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/vehicles")
@@ -28,6 +43,10 @@ import java.util.List;
 public class VehicleController {
 
     private final VehicleService vehicleService;
+    private final VehicleImportService vehicleImportService;
+    private final VehicleStreamService vehicleStreamService;
+    private final VehicleBulkStatusService vehicleBulkStatusService;
+    private final InventoryFeed inventoryFeed;
 
     @Operation(summary = "Create a new vehicle", description = "Add a new vehicle to the inventory")
     @ApiResponses(value = {
@@ -43,29 +62,74 @@ public class VehicleController {
         return new ResponseEntity<>(createdVehicle, HttpStatus.CREATED);
     }
 
-    @Operation(summary = "Get vehicle by ID", description = "Retrieve a specific vehicle by its ID")
+    @Operation(summary = "Import vehicles from NDJSON",
+            description = "Bulk import vehicles from a newline-delimited JSON stream, one vehicle per line. " +
+                    "Invalid rows and known VINs are reported per line without aborting the import")
+    @ApiResponse(responseCode = "200", description = "Import processed, see the result for rejected rows")
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<VehicleImportService.ImportResult> importVehiclesNdjson(InputStream body) {
+        log.info("Importing vehicles from NDJSON");
+        return ResponseEntity.ok(vehicleImportService.importNdjson(body));
+    }
+
+    @Operation(summary = "Import vehicles from CSV",
+            description = "Bulk import vehicles from a CSV stream whose header row names vehicle fields " +
+                    "(e.g. vin,make,model,year,sellingPrice). Invalid rows and known VINs are reported per line " +
+                    "without aborting the import")
+    @ApiResponse(responseCode = "200", description = "Import processed, see the result for rejected rows")
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<VehicleImportService.ImportResult> importVehiclesCsv(InputStream body) {
+        log.info("Importing vehicles from CSV");
+        return ResponseEntity.ok(vehicleImportService.importCsv(body));
+    }
+
+    @Operation(summary = "Get vehicle by ID",
+            description = "Retrieve a specific vehicle by its ID. Responses carry an ETag and Last-Modified; " +
+                    "send them back in If-None-Match / If-Modified-Since to get 304 while the vehicle is unchanged")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Vehicle found"),
+            @ApiResponse(responseCode = "304", description = "Vehicle unchanged since the given ETag or date"),
             @ApiResponse(responseCode = "404", description = "Vehicle not found")
     })
     @GetMapping("/{id}")
     public ResponseEntity<Vehicle> getVehicleById(
-            @Parameter(description = "Vehicle ID") @PathVariable Long id) {
+            @Parameter(description = "Vehicle ID") @PathVariable Long id,
+            WebRequest request) {
         log.debug("Fetching vehicle with ID: {}", id);
+        Optional<VehicleVersion> version = vehicleService.getVehicleVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (notModified(version.get(), request)) {
+            return null;
+        }
         return vehicleService.getVehicleById(id)
                 .map(vehicle -> ResponseEntity.ok(vehicle))
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    @Operation(summary = "Get vehicle by VIN", description = "Retrieve a specific vehicle by its VIN")
+    @Operation(summary = "Get vehicle by VIN",
+            description = "Retrieve a specific vehicle by its VIN. Supports the same conditional requests as " +
+                    "the lookup by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Vehicle found"),
+            @ApiResponse(responseCode = "304", description = "Vehicle unchanged since the given ETag or date"),
             @ApiResponse(responseCode = "404", description = "Vehicle not found")
     })
     @GetMapping("/vin/{vin}")
     public ResponseEntity<Vehicle> getVehicleByVin(
-            @Parameter(description = "Vehicle VIN") @PathVariable String vin) {
+            @Parameter(description = "Vehicle VIN") @PathVariable String vin,
+            WebRequest request) {
         log.debug("Fetching vehicle with VIN: {}", vin);
+        Optional<VehicleVersion> version = vehicleService.getVehicleVersionByVin(vin);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (notModified(version.get(), request)) {
+            return null;
+        }
         return vehicleService.getVehicleByVin(vin)
                 .map(vehicle -> ResponseEntity.ok(vehicle))
                 .orElse(ResponseEntity.notFound().build());
@@ -91,6 +155,80 @@ public class VehicleController {
         return ResponseEntity.ok(vehicles);
     }
 
+    @Operation(summary = "Get vehicles with facet counts",
+            description = "First page of vehicles for the same filters as the vehicle list, together with the " +
+                    "number of matching vehicles per make, year, condition, status and price range")
+    @ApiResponse(responseCode = "200", description = "Vehicles and facet counts retrieved successfully")
+    @GetMapping("/facets")
+    public ResponseEntity<VehicleService.FacetedVehicles<Vehicle>> getFacetedVehicles(
+            @Parameter(description = "Vehicle make") @RequestParam(required = false) String make,
+            @Parameter(description = "Vehicle model") @RequestParam(required = false) String model,
+            @Parameter(description = "Vehicle year") @RequestParam(required = false) Integer year,
+            @Parameter(description = "Vehicle status") @RequestParam(required = false) Vehicle.VehicleStatus status,
+            @Parameter(description = "Minimum price") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum price") @RequestParam(required = false) BigDecimal maxPrice,
+            Pageable pageable) {
+        
+        log.debug("Fetching faceted vehicles with filters - make: {}, model: {}, year: {}, status: {}", 
+                 make, model, year, status);
+        
+        VehicleService.FacetedVehicles<Vehicle> vehicles = vehicleService.getFacetedVehicles(
+                make, model, year, status, minPrice, maxPrice, pageable);
+        return ResponseEntity.ok(vehicles);
+    }
+
+    @Operation(summary = "Search vehicles",
+            description = "Free-text search over make, model, color and description. Matches partial words " +
+                    "and small typos (e.g. 'f-15', 'cx', 'camery') and returns the best matches first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Matching vehicles, best match first"),
+            @ApiResponse(responseCode = "400", description = "Blank query or invalid limit")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<Vehicle>> searchVehicles(
+            @Parameter(description = "Search text") @RequestParam String q,
+            @Parameter(description = "Maximum number of results (1-100)") @RequestParam(defaultValue = "20") int limit) {
+        
+        log.debug("Searching vehicles for: {}", q);
+        try {
+            return ResponseEntity.ok(vehicleService.searchVehicles(q, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Scroll vehicles",
+            description = "Retrieve vehicles newest first using keyset pagination; pass the X-Next-Cursor header " +
+                    "of the previous response as 'after' to fetch the next slice")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Vehicles retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or slice size")
+    })
+    @GetMapping("/scroll")
+    public ResponseEntity<Slice<Vehicle>> scrollVehicles(
+            @Parameter(description = "Vehicle make") @RequestParam(required = false) String make,
+            @Parameter(description = "Vehicle model") @RequestParam(required = false) String model,
+            @Parameter(description = "Vehicle year") @RequestParam(required = false) Integer year,
+            @Parameter(description = "Vehicle status") @RequestParam(required = false) Vehicle.VehicleStatus status,
+            @Parameter(description = "Minimum price") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum price") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Cursor returned with the previous slice") @RequestParam(required = false) String after,
+            @Parameter(description = "Slice size (1-100)") @RequestParam(defaultValue = "20") int size) {
+        
+        log.debug("Scrolling vehicles after cursor {} with filters - make: {}, model: {}, year: {}, status: {}", 
+                 after, make, model, year, status);
+        try {
+            Slice<Vehicle> vehicles = vehicleService.getVehiclesWithFiltersAfter(
+                    make, model, year, status, minPrice, maxPrice, after, size);
+            String next = KeysetCursor.next(vehicles, Vehicle::getCreatedAt, Vehicle::getId);
+            return next != null
+                    ? ResponseEntity.ok().header("X-Next-Cursor", next).body(vehicles)
+                    : ResponseEntity.ok(vehicles);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @Operation(summary = "Get available vehicles", description = "Retrieve all available vehicles")
     @ApiResponse(responseCode = "200", description = "Available vehicles retrieved successfully")
     @GetMapping("/available")
@@ -112,6 +250,27 @@ public class VehicleController {
         return ResponseEntity.ok(vehicles);
     }
 
+    @Operation(summary = "Stream available vehicles",
+            description = "Stream all available vehicles as NDJSON, one vehicle per line, without buffering the result")
+    @ApiResponse(responseCode = "200", description = "Available vehicles streamed")
+    @GetMapping(value = "/available/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAvailableVehicles() {
+        log.debug("Streaming available vehicles");
+        return ndjson(vehicleStreamService::streamAvailableVehicles);
+    }
+
+    @Operation(summary = "Stream vehicles by price range",
+            description = "Stream vehicles within a specific price range as NDJSON, one vehicle per line")
+    @ApiResponse(responseCode = "200", description = "Vehicles streamed")
+    @GetMapping(value = "/price-range/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamVehiclesByPriceRange(
+            @Parameter(description = "Minimum price") @RequestParam BigDecimal minPrice,
+            @Parameter(description = "Maximum price") @RequestParam BigDecimal maxPrice) {
+        
+        log.debug("Streaming vehicles in price range: {} - {}", minPrice, maxPrice);
+        return ndjson(out -> vehicleStreamService.streamVehiclesByPriceRange(minPrice, maxPrice, out));
+    }
+
     @Operation(summary = "Update vehicle", description = "Update an existing vehicle")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Vehicle updated successfully"),
@@ -153,10 +312,33 @@ public class VehicleController {
         }
     }
 
+    @Operation(summary = "Update the status of many vehicles",
+            description = "Move the vehicles given by id list or by filter (make, model, year, status, location, " +
+                    "price range) to one status in a single transaction. With expectedStatuses only vehicles " +
+                    "currently in one of them are moved. Reports an outcome per vehicle")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Update applied, see the per-vehicle outcomes"),
+            @ApiResponse(responseCode = "400", description = "Missing status, ambiguous or empty selection, " +
+                    "or more than 10000 vehicles")
+    })
+    @PatchMapping("/status")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<VehicleBulkStatusService.BulkStatusResult> updateVehicleStatuses(
+            @RequestBody VehicleBulkStatusService.BulkStatusUpdate request) {
+        
+        log.info("Bulk updating vehicle status to {}", request.getStatus());
+        try {
+            return ResponseEntity.ok(vehicleBulkStatusService.updateStatuses(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @Operation(summary = "Reserve vehicle", description = "Reserve a vehicle for a potential sale")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Vehicle reserved successfully"),
-            @ApiResponse(responseCode = "404", description = "Vehicle not found")
+            @ApiResponse(responseCode = "404", description = "Vehicle not found"),
+            @ApiResponse(responseCode = "409", description = "Vehicle status does not allow this change")
     })
     @PatchMapping("/{id}/reserve")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('SALESPERSON')")
@@ -169,13 +351,16 @@ public class VehicleController {
             return ResponseEntity.ok(reservedVehicle);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
     @Operation(summary = "Mark vehicle as sold", description = "Mark a vehicle as sold")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Vehicle marked as sold successfully"),
-            @ApiResponse(responseCode = "404", description = "Vehicle not found")
+            @ApiResponse(responseCode = "404", description = "Vehicle not found"),
+            @ApiResponse(responseCode = "409", description = "Vehicle status does not allow this change")
     })
     @PatchMapping("/{id}/sold")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
@@ -188,6 +373,8 @@ public class VehicleController {
             return ResponseEntity.ok(soldVehicle);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
@@ -224,34 +411,53 @@ public class VehicleController {
         return ResponseEntity.ok(vehicles);
     }
 
+    @Operation(summary = "Stream low mileage vehicles",
+            description = "Stream available vehicles with mileage below the threshold as NDJSON, one vehicle per line")
+    @ApiResponse(responseCode = "200", description = "Low mileage vehicles streamed")
+    @GetMapping(value = "/low-mileage/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamLowMileageVehicles(
+            @Parameter(description = "Maximum mileage threshold") @RequestParam Integer maxMileage) {
+        
+        log.debug("Streaming low mileage vehicles with max mileage: {}", maxMileage);
+        return ndjson(out -> vehicleStreamService.streamLowMileageVehicles(maxMileage, out));
+    }
+
+    @Operation(summary = "Subscribe to inventory changes",
+            description = "Server-sent events stream of committed vehicle creations, updates, status changes and " +
+                    "removals. Changes are batched into one 'inventory' event (a JSON array) per flush interval, " +
+                    "with rapid changes to the same vehicle merged into one entry. A 'resync' event means updates " +
+                    "were dropped because the client fell behind; reload the vehicles you display")
+    @ApiResponse(responseCode = "200", description = "Event stream opened")
+    @GetMapping(value = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToInventoryFeed() {
+        log.debug("Opening inventory feed subscription");
+        return inventoryFeed.subscribe();
+    }
+
     @Operation(summary = "Get vehicle statistics", description = "Retrieve vehicle inventory statistics")
     @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
     @GetMapping("/statistics")
-    public ResponseEntity<VehicleStatistics> getVehicleStatistics() {
+    public ResponseEntity<VehicleStatisticsSnapshot.VehicleStatistics> getVehicleStatistics() {
         log.debug("Fetching vehicle statistics");
-        
-        VehicleStatistics stats = VehicleStatistics.builder()
-                .averageSellingPrice(vehicleService.getAverageSellingPrice())
-                .totalPotentialProfit(vehicleService.getTotalPotentialProfit())
-                .vehicleCountByMake(vehicleService.getVehicleCountByMake())
-                .availableCount(vehicleService.getVehicleCountByStatus(Vehicle.VehicleStatus.AVAILABLE))
-                .soldCount(vehicleService.getVehicleCountByStatus(Vehicle.VehicleStatus.SOLD))
-                .reservedCount(vehicleService.getVehicleCountByStatus(Vehicle.VehicleStatus.RESERVED))
-                .maintenanceCount(vehicleService.getVehicleCountByStatus(Vehicle.VehicleStatus.MAINTENANCE))
-                .build();
-        
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok(vehicleService.getVehicleStatistics());
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
-    @lombok.Data
-    @lombok.Builder
-    public static class VehicleStatistics {
-        private BigDecimal averageSellingPrice;
-        private BigDecimal totalPotentialProfit;
-        private List<Object[]> vehicleCountByMake;
-        private Long availableCount;
-        private Long soldCount;
-        private Long reservedCount;
-        private Long maintenanceCount;
+    /**
+     * Validates the request's If-None-Match / If-Modified-Since against a version-only lookup. Either way the
+     * ETag ({@code "id-version"}) and Last-Modified headers are set on the response; when the client copy is
+     * current the status is already 304 and the handler returns {@code null} without loading the vehicle.
+     */
+    private boolean notModified(VehicleVersion version, WebRequest request) {
+        String eTag = "\"" + version.id() + "-" + version.version() + "\"";
+        long lastModified = version.updatedAt() != null
+                ? version.updatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+        return request.checkNotModified(eTag, lastModified);
     }
 }
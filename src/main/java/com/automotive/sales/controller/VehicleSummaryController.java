@@ -0,0 +1,162 @@
+package com.automotive.sales.controller;
+
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.model.VehicleSummary;
+import com.automotive.sales.service.KeysetCursor;
+import com.automotive.sales.service.VehicleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Slim {@link VehicleSummary} rows for the vehicle list endpoints of {@link VehicleController}, under the same
+ * paths below {@code /summaries}. Neither the description text nor the sales of a vehicle are loaded.
+ */
+@RestController
+@RequestMapping("/api/vehicles/summaries")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Vehicle Summaries", description = "Read-only vehicle list views without descriptions or sales")
+public class VehicleSummaryController {
+
+    private final VehicleService vehicleService;
+
+    @Operation(summary = "Get vehicle summaries", description = "Retrieve vehicle summaries with optional filtering")
+    @ApiResponse(responseCode = "200", description = "Vehicle summaries retrieved successfully")
+    @GetMapping
+    public ResponseEntity<Page<VehicleSummary>> getAllVehicleSummaries(
+            @Parameter(description = "Vehicle make") @RequestParam(required = false) String make,
+            @Parameter(description = "Vehicle model") @RequestParam(required = false) String model,
+            @Parameter(description = "Vehicle year") @RequestParam(required = false) Integer year,
+            @Parameter(description = "Vehicle status") @RequestParam(required = false) Vehicle.VehicleStatus status,
+            @Parameter(description = "Minimum price") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum price") @RequestParam(required = false) BigDecimal maxPrice,
+            Pageable pageable) {
+
+        log.debug("Fetching vehicle summaries with filters - make: {}, model: {}, year: {}, status: {}",
+                 make, model, year, status);
+
+        Page<VehicleSummary> vehicles = vehicleService.getVehicleSummariesWithFilters(
+                make, model, year, status, minPrice, maxPrice, pageable);
+        return ResponseEntity.ok(vehicles);
+    }
+
+    @Operation(summary = "Get vehicle summaries with facet counts",
+            description = "First page of vehicle summaries for the same filters as the summary list, together " +
+                    "with the number of matching vehicles per make, year, condition, status and price range")
+    @ApiResponse(responseCode = "200", description = "Vehicle summaries and facet counts retrieved successfully")
+    @GetMapping("/facets")
+    public ResponseEntity<VehicleService.FacetedVehicles<VehicleSummary>> getFacetedVehicleSummaries(
+            @Parameter(description = "Vehicle make") @RequestParam(required = false) String make,
+            @Parameter(description = "Vehicle model") @RequestParam(required = false) String model,
+            @Parameter(description = "Vehicle year") @RequestParam(required = false) Integer year,
+            @Parameter(description = "Vehicle status") @RequestParam(required = false) Vehicle.VehicleStatus status,
+            @Parameter(description = "Minimum price") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum price") @RequestParam(required = false) BigDecimal maxPrice,
+            Pageable pageable) {
+
+        log.debug("Fetching faceted vehicle summaries with filters - make: {}, model: {}, year: {}, status: {}",
+                 make, model, year, status);
+
+        VehicleService.FacetedVehicles<VehicleSummary> vehicles = vehicleService.getFacetedVehicleSummaries(
+                make, model, year, status, minPrice, maxPrice, pageable);
+        return ResponseEntity.ok(vehicles);
+    }
+
+    @Operation(summary = "Search vehicle summaries",
+            description = "Free-text search over make, model, color and description, ranked like the vehicle search")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Matching vehicle summaries, best match first"),
+            @ApiResponse(responseCode = "400", description = "Blank query or invalid limit")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<VehicleSummary>> searchVehicleSummaries(
+            @Parameter(description = "Search text") @RequestParam String q,
+            @Parameter(description = "Maximum number of results (1-100)") @RequestParam(defaultValue = "20") int limit) {
+
+        log.debug("Searching vehicle summaries for: {}", q);
+        try {
+            return ResponseEntity.ok(vehicleService.searchVehicleSummaries(q, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Scroll vehicle summaries",
+            description = "Retrieve vehicle summaries newest first using keyset pagination; pass the X-Next-Cursor " +
+                    "header of the previous response as 'after' to fetch the next slice")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Vehicle summaries retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or slice size")
+    })
+    @GetMapping("/scroll")
+    public ResponseEntity<Slice<VehicleSummary>> scrollVehicleSummaries(
+            @Parameter(description = "Vehicle make") @RequestParam(required = false) String make,
+            @Parameter(description = "Vehicle model") @RequestParam(required = false) String model,
+            @Parameter(description = "Vehicle year") @RequestParam(required = false) Integer year,
+            @Parameter(description = "Vehicle status") @RequestParam(required = false) Vehicle.VehicleStatus status,
+            @Parameter(description = "Minimum price") @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum price") @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Cursor returned with the previous slice") @RequestParam(required = false) String after,
+            @Parameter(description = "Slice size (1-100)") @RequestParam(defaultValue = "20") int size) {
+
+        log.debug("Scrolling vehicle summaries after cursor {} with filters - make: {}, model: {}, year: {}, status: {}",
+                 after, make, model, year, status);
+        try {
+            Slice<VehicleSummary> vehicles = vehicleService.getVehicleSummariesWithFiltersAfter(
+                    make, model, year, status, minPrice, maxPrice, after, size);
+            String next = KeysetCursor.next(vehicles, VehicleSummary::createdAt, VehicleSummary::id);
+            return next != null
+                    ? ResponseEntity.ok().header("X-Next-Cursor", next).body(vehicles)
+                    : ResponseEntity.ok(vehicles);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Get available vehicle summaries", description = "Retrieve summaries of all available vehicles")
+    @ApiResponse(responseCode = "200", description = "Available vehicle summaries retrieved successfully")
+    @GetMapping("/available")
+    public ResponseEntity<List<VehicleSummary>> getAvailableVehicleSummaries() {
+        log.debug("Fetching available vehicle summaries");
+        return ResponseEntity.ok(vehicleService.getAvailableVehicleSummaries());
+    }
+
+    @Operation(summary = "Get vehicle summaries by price range",
+            description = "Retrieve summaries of vehicles within a specific price range")
+    @ApiResponse(responseCode = "200", description = "Vehicle summaries retrieved successfully")
+    @GetMapping("/price-range")
+    public ResponseEntity<List<VehicleSummary>> getVehicleSummariesByPriceRange(
+            @Parameter(description = "Minimum price") @RequestParam BigDecimal minPrice,
+            @Parameter(description = "Maximum price") @RequestParam BigDecimal maxPrice) {
+
+        log.debug("Fetching vehicle summaries in price range: {} - {}", minPrice, maxPrice);
+        return ResponseEntity.ok(vehicleService.getVehicleSummariesByPriceRange(minPrice, maxPrice));
+    }
+
+    @Operation(summary = "Get low mileage vehicle summaries",
+            description = "Retrieve summaries of vehicles with mileage below specified threshold")
+    @ApiResponse(responseCode = "200", description = "Low mileage vehicle summaries retrieved successfully")
+    @GetMapping("/low-mileage")
+    public ResponseEntity<List<VehicleSummary>> getLowMileageVehicleSummaries(
+            @Parameter(description = "Maximum mileage threshold") @RequestParam Integer maxMileage) {
+
+        log.debug("Fetching low mileage vehicle summaries with max mileage: {}", maxMileage);
+        return ResponseEntity.ok(vehicleService.getLowMileageVehicleSummaries(maxMileage));
+    }
+}
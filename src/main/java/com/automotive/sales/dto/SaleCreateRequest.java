@@ -0,0 +1,71 @@
+package com.automotive.sales.dto;
+
+import com.automotive.sales.model.Sale;
+import jakarta.validation.constraints.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A new sale as accepted by {@code POST /api/sales}: the vehicle and customer by id and the deal terms. Status,
+ * finalization, contract signature and commission amount are set by the sale workflow, not by the client, so
+ * they are not part of the request. Sale date and payment method default to today and cash.
+ */
+public record SaleCreateRequest(
+        @NotNull(message = "Vehicle is required")
+        Long vehicleId,
+
+        @NotNull(message = "Customer is required")
+        Long customerId,
+
+        LocalDate saleDate,
+
+        @NotNull(message = "Sale price is required")
+        @DecimalMin(value = "0.0", message = "Sale price cannot be negative")
+        BigDecimal salePrice,
+
+        @DecimalMin(value = "0.0", message = "Down payment cannot be negative")
+        BigDecimal downPayment,
+
+        @DecimalMin(value = "0.0", message = "Trade-in value cannot be negative")
+        BigDecimal tradeInValue,
+
+        @DecimalMin(value = "0.0", message = "Financing amount cannot be negative")
+        BigDecimal financingAmount,
+
+        @DecimalMin(value = "0.0", message = "Interest rate cannot be negative")
+        @DecimalMax(value = "100.0", message = "Interest rate cannot exceed 100%")
+        BigDecimal interestRate,
+
+        @Min(value = 1, message = "Loan term must be at least 1 month")
+        @Max(value = 120, message = "Loan term cannot exceed 120 months")
+        Integer loanTermMonths,
+
+        @DecimalMin(value = "0.0", message = "Monthly payment cannot be negative")
+        BigDecimal monthlyPayment,
+
+        Sale.PaymentMethod paymentMethod,
+
+        String salespersonName,
+
+        @Email(message = "Salesperson email should be valid")
+        String salespersonEmail,
+
+        @DecimalMin(value = "0.0", message = "Commission rate cannot be negative")
+        @DecimalMax(value = "100.0", message = "Commission rate cannot exceed 100%")
+        BigDecimal commissionRate,
+
+        @Min(value = 0, message = "Warranty months cannot be negative")
+        Integer warrantyMonths,
+
+        Boolean extendedWarranty,
+
+        @DecimalMin(value = "0.0", message = "Extended warranty cost cannot be negative")
+        BigDecimal extendedWarrantyCost,
+
+        LocalDate deliveryDate,
+
+        String deliveryAddress,
+
+        String notes) {
+}
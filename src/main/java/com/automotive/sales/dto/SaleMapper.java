@@ -0,0 +1,52 @@
+package com.automotive.sales.dto;
+
+import com.automotive.sales.model.Customer;
+import com.automotive.sales.model.Sale;
+import com.automotive.sales.model.Vehicle;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface SaleMapper {
+
+    @Mapping(target = "vehicleId", source = "vehicle.id")
+    @Mapping(target = "vehicleVin", source = "vehicle.vin")
+    @Mapping(target = "vehicleMake", source = "vehicle.make")
+    @Mapping(target = "vehicleModel", source = "vehicle.model")
+    @Mapping(target = "vehicleYear", source = "vehicle.year")
+    @Mapping(target = "customerId", source = "customer.id")
+    @Mapping(target = "customerFirstName", source = "customer.firstName")
+    @Mapping(target = "customerLastName", source = "customer.lastName")
+    @Mapping(target = "customerEmail", source = "customer.email")
+    SaleResponse toResponse(Sale sale);
+
+    List<SaleResponse> toResponses(List<Sale> sales);
+
+    // A new sale referencing vehicle and customer by id; workflow state stays unset and is set by the service
+    @BeanMapping(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+    @Mapping(target = "vehicle", source = "vehicleId")
+    @Mapping(target = "customer", source = "customerId")
+    @Mapping(target = "paymentMethod", defaultValue = "CASH")
+    @Mapping(target = "extendedWarranty", defaultValue = "false")
+    Sale toSale(SaleCreateRequest request);
+
+    // The new terms of an existing sale; everything else stays unset and is not copied by the service
+    @BeanMapping(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+    Sale toSale(SaleUpdateRequest request);
+
+    default Vehicle vehicleReference(Long id) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(id);
+        return vehicle;
+    }
+
+    default Customer customerReference(Long id) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        return customer;
+    }
+}
@@ -0,0 +1,48 @@
+package com.automotive.sales.dto;
+
+import com.automotive.sales.model.Sale;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat API representation of a {@link Sale}, with the identifying fields of its vehicle and customer inlined.
+ * Built by {@link SaleMapper} from a sale whose vehicle and customer were fetched with it, so serializing a
+ * list never loads them one row at a time.
+ */
+public record SaleResponse(Long id,
+                           Long vehicleId,
+                           String vehicleVin,
+                           String vehicleMake,
+                           String vehicleModel,
+                           Integer vehicleYear,
+                           Long customerId,
+                           String customerFirstName,
+                           String customerLastName,
+                           String customerEmail,
+                           LocalDate saleDate,
+                           BigDecimal salePrice,
+                           BigDecimal downPayment,
+                           BigDecimal tradeInValue,
+                           BigDecimal financingAmount,
+                           BigDecimal interestRate,
+                           Integer loanTermMonths,
+                           BigDecimal monthlyPayment,
+                           Sale.PaymentMethod paymentMethod,
+                           Sale.SaleStatus status,
+                           String salespersonName,
+                           String salespersonEmail,
+                           BigDecimal commissionRate,
+                           BigDecimal commissionAmount,
+                           Integer warrantyMonths,
+                           Boolean extendedWarranty,
+                           BigDecimal extendedWarrantyCost,
+                           LocalDate deliveryDate,
+                           String deliveryAddress,
+                           String notes,
+                           LocalDateTime contractSignedAt,
+                           Boolean isFinalized,
+                           LocalDateTime createdAt,
+                           LocalDateTime updatedAt) {
+}
@@ -0,0 +1,310 @@
+package com.automotive.sales.export;
+
+import com.automotive.sales.money.Cents;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static com.automotive.sales.export.SaleColumnarWriter.FORMAT_VERSION;
+import static com.automotive.sales.export.SaleColumnarWriter.MAGIC;
+
+/**
+ * Random access to the row groups of a sales export written by {@link SaleColumnarWriter}. Only the chunk of the
+ * requested column is read and inflated, so summing one column of a large export touches a fraction of the file.
+ * <p>
+ * Values come back as the types the export query produced: {@code Long} ids, {@code String}s, {@code LocalDate},
+ * {@code LocalDateTime}, {@code BigDecimal} amounts, {@code Boolean} and the enum constants, resolved by name
+ * from the file header. A truncated file or a file of another format raises an {@link IllegalStateException}.
+ * <pre>{@code
+ * try (SaleColumnarReader reader = SaleColumnarReader.open(file)) {
+ *     for (int group = 0; group < reader.rowGroupCount(); group++) {
+ *         for (Object price : reader.column(group, SaleExportColumn.SALE_PRICE)) {
+ *             revenue = revenue.add((BigDecimal) price);
+ *         }
+ *     }
+ * }
+ * }</pre>
+ */
+public final class SaleColumnarReader implements AutoCloseable {
+
+    private static final SaleExportColumn[] COLUMNS = SaleExportColumn.values();
+    private static final int TRAILER_BYTES = 12;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long[] rowGroupOffsets;
+    private final long rowCount;
+    private final Enum<?>[][] constants = new Enum<?>[COLUMNS.length][];
+    private final Inflater inflater = new Inflater();
+
+    private SaleColumnarReader(Path file, FileChannel channel) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        readHeader();
+        long size = channel.size();
+        if (size < TRAILER_BYTES) {
+            throw corrupt("missing trailer");
+        }
+        ByteBuffer trailer = read(size - TRAILER_BYTES, TRAILER_BYTES);
+        long footerOffset = trailer.getLong();
+        if (trailer.getInt() != MAGIC || footerOffset < 0 || footerOffset > size - TRAILER_BYTES - 12) {
+            throw corrupt("missing trailer");
+        }
+        ByteBuffer footer = read(footerOffset, (int) (size - TRAILER_BYTES - footerOffset));
+        rowGroupOffsets = new long[footer.getInt()];
+        for (int i = 0; i < rowGroupOffsets.length; i++) {
+            rowGroupOffsets[i] = footer.getLong();
+        }
+        rowCount = footer.getLong();
+    }
+
+    public static SaleColumnarReader open(Path file) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            return new SaleColumnarReader(file, channel);
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new UncheckedIOException("Cannot open sales export " + file, e);
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    public long rowCount() {
+        return rowCount;
+    }
+
+    public int rowGroupCount() {
+        return rowGroupOffsets.length;
+    }
+
+    public int rowGroupRows(int rowGroup) {
+        return read(rowGroupOffsets[rowGroup], 4).getInt();
+    }
+
+    /**
+     * The values of {@code column} in row group {@code rowGroup}, nulls included, in row order.
+     */
+    public Object[] column(int rowGroup, SaleExportColumn column) {
+        long position = rowGroupOffsets[rowGroup];
+        int rows = read(position, 4).getInt();
+        position += 4;
+        for (int c = 0; c < column.ordinal(); c++) {
+            ByteBuffer chunkHeader = read(position, 8);
+            chunkHeader.getInt();
+            position += 8 + chunkHeader.getInt();
+        }
+        ByteBuffer chunkHeader = read(position, 8);
+        int rawLength = chunkHeader.getInt();
+        int compressedLength = chunkHeader.getInt();
+        return decode(column, rows, inflate(read(position + 8, compressedLength), rawLength));
+    }
+
+    @Override
+    public void close() {
+        inflater.end();
+        closeQuietly(channel);
+    }
+
+    private void readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate((int) Math.min(channel.size(), 64 * 1024));
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < 12 || header.getInt() != MAGIC) {
+            throw corrupt("not a sales export");
+        }
+        int version = header.getInt();
+        if (version != FORMAT_VERSION) {
+            throw corrupt("unsupported format version " + version);
+        }
+        if (header.getInt() != COLUMNS.length) {
+            throw corrupt("unexpected column count");
+        }
+        for (SaleExportColumn column : COLUMNS) {
+            String name = readString(header);
+            int encoding = header.get();
+            boolean nullable = header.get() != 0;
+            if (!column.name().equals(name) || column.encoding().ordinal() != encoding
+                    || column.nullable() != nullable) {
+                throw corrupt("unexpected column " + name);
+            }
+            if (column.encoding() == SaleExportColumn.Encoding.ENUM) {
+                constants[column.ordinal()] = new Enum<?>[header.getInt()];
+                for (int i = 0; i < constants[column.ordinal()].length; i++) {
+                    constants[column.ordinal()][i] = constant(column, readString(header));
+                }
+            }
+        }
+    }
+
+    private Object[] decode(SaleExportColumn column, int rows, ByteBuffer chunk) {
+        boolean[] isNull = column.nullable() ? readBits(chunk, rows) : new boolean[rows];
+        Object[] values = new Object[rows];
+        long previous = 0;
+        switch (column.encoding()) {
+            case VARINT, CENTS -> {
+                for (int i = 0; i < rows; i++) {
+                    if (!isNull[i]) {
+                        long value = readZigzag(chunk);
+                        values[i] = column.encoding() == SaleExportColumn.Encoding.CENTS
+                                ? Cents.toBigDecimal(value) : (Object) value;
+                    }
+                }
+            }
+            case DELTA, DATE, TIMESTAMP -> {
+                for (int i = 0; i < rows; i++) {
+                    if (!isNull[i]) {
+                        previous += readZigzag(chunk);
+                        values[i] = switch (column.encoding()) {
+                            case DATE -> LocalDate.ofEpochDay(previous);
+                            case TIMESTAMP -> LocalDateTime.ofInstant(Instant.ofEpochMilli(previous), ZoneOffset.UTC);
+                            default -> previous;
+                        };
+                    }
+                }
+            }
+            case ENUM -> {
+                Enum<?>[] dictionary = constants[column.ordinal()];
+                for (int i = 0; i < rows; i++) {
+                    if (!isNull[i]) {
+                        values[i] = dictionary[chunk.get() & 0xFF];
+                    }
+                }
+            }
+            case BOOLEAN -> {
+                int count = 0;
+                for (boolean missing : isNull) {
+                    count += missing ? 0 : 1;
+                }
+                boolean[] bits = readBits(chunk, count);
+                for (int i = 0, bit = 0; i < rows; i++) {
+                    if (!isNull[i]) {
+                        values[i] = bits[bit++];
+                    }
+                }
+            }
+            case STRING -> {
+                for (int i = 0; i < rows; i++) {
+                    if (!isNull[i]) {
+                        values[i] = readString(chunk);
+                    }
+                }
+            }
+            case DICTIONARY -> {
+                String[] dictionary = new String[(int) readVarint(chunk)];
+                for (int i = 0; i < dictionary.length; i++) {
+                    dictionary[i] = readString(chunk);
+                }
+                for (int i = 0; i < rows; i++) {
+                    if (!isNull[i]) {
+                        values[i] = dictionary[(int) readVarint(chunk)];
+                    }
+                }
+            }
+        }
+        return values;
+    }
+
+    private ByteBuffer inflate(ByteBuffer compressed, int rawLength) {
+        byte[] raw = new byte[rawLength];
+        inflater.reset();
+        inflater.setInput(compressed);
+        try {
+            int length = 0;
+            while (length < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, rawLength - length);
+                if (inflated == 0 && inflater.needsInput()) {
+                    throw corrupt("truncated column chunk");
+                }
+                length += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw corrupt("damaged column chunk");
+        }
+        return ByteBuffer.wrap(raw);
+    }
+
+    private ByteBuffer read(long position, int length) {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw corrupt("unexpected end of file");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read sales export " + file, e);
+        }
+        return buffer.flip();
+    }
+
+    private IllegalStateException corrupt(String reason) {
+        return new IllegalStateException("Invalid sales export " + file + ": " + reason);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Enum<?> constant(SaleExportColumn column, String name) {
+        Class enumType = column.constants()[0].getDeclaringClass();
+        try {
+            return Enum.valueOf(enumType, name);
+        } catch (IllegalArgumentException e) {
+            throw corrupt("unknown " + column + " value " + name);
+        }
+    }
+
+    private static boolean[] readBits(ByteBuffer chunk, int count) {
+        boolean[] bits = new boolean[count];
+        for (int from = 0; from < count; from += 8) {
+            int b = chunk.get();
+            for (int bit = 0; bit < 8 && from + bit < count; bit++) {
+                bits[from + bit] = (b & (1 << bit)) != 0;
+            }
+        }
+        return bits;
+    }
+
+    private static long readVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static long readZigzag(ByteBuffer buffer) {
+        long value = readVarint(buffer);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] utf8 = new byte[(int) readVarint(buffer)];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Nothing left to release
+            }
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.automotive.sales.export;
+
+import com.automotive.sales.money.Cents;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes sales in a compressed columnar file, one row group at a time.
+ * <p>
+ * Rows are buffered column by column in primitive arrays of {@code rowGroupSize}; when the group is full each
+ * column is encoded as described by {@link SaleExportColumn.Encoding}, deflated on its own and appended through
+ * the file channel, and the arrays are reused for the next group. Memory therefore stays at one row group
+ * whatever the number of rows, and a reader can decode a single column without inflating the others.
+ * <p>
+ * Layout, all integers big-endian:
+ * <pre>
+ * header     magic "SCOL", format version, column count, per column: name, encoding, nullable,
+ *            enum constant names for ENUM columns
+ * row group  row count, per column: raw length, compressed length, deflated chunk
+ * footer     row group count, offset of each row group, total row count
+ * trailer    footer offset, magic
+ * </pre>
+ * Closing writes the pending row group and the footer; a file without its trailer is incomplete.
+ */
+public final class SaleColumnarWriter implements AutoCloseable {
+
+    public static final int MAGIC = 0x53434F4C; // "SCOL"
+    public static final int FORMAT_VERSION = 1;
+
+    private static final SaleExportColumn[] COLUMNS = SaleExportColumn.values();
+
+    private final FileChannel channel;
+    private final int rowGroupSize;
+    private final long[][] longs = new long[COLUMNS.length][];
+    private final String[][] strings = new String[COLUMNS.length][];
+    private final boolean[][] nulls = new boolean[COLUMNS.length][];
+    private final List<Long> rowGroupOffsets = new ArrayList<>();
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private final Encoder raw = new Encoder();
+    private byte[] compressed = new byte[8192];
+    private int rows;
+    private long rowCount;
+    private boolean closed;
+
+    public SaleColumnarWriter(Path file, int rowGroupSize) {
+        if (rowGroupSize < 1) {
+            throw new IllegalArgumentException("Row group size must be positive");
+        }
+        this.rowGroupSize = rowGroupSize;
+        for (int c = 0; c < COLUMNS.length; c++) {
+            SaleExportColumn.Encoding encoding = COLUMNS[c].encoding();
+            if (encoding == SaleExportColumn.Encoding.STRING || encoding == SaleExportColumn.Encoding.DICTIONARY) {
+                strings[c] = new String[rowGroupSize];
+            } else {
+                longs[c] = new long[rowGroupSize];
+            }
+            nulls[c] = new boolean[rowGroupSize];
+        }
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            writeHeader();
+        } catch (IOException e) {
+            deflater.end();
+            throw new UncheckedIOException("Cannot create sales export " + file, e);
+        }
+    }
+
+    /**
+     * Appends one row, holding the values of {@link SaleExportColumn#values()} in order.
+     */
+    public void append(Object[] row) {
+        if (row.length != COLUMNS.length) {
+            throw new IllegalArgumentException("Expected " + COLUMNS.length + " values, got " + row.length);
+        }
+        for (int c = 0; c < COLUMNS.length; c++) {
+            Object value = row[c];
+            nulls[c][rows] = value == null;
+            if (value == null) {
+                if (!COLUMNS[c].nullable()) {
+                    throw new IllegalArgumentException("Column " + COLUMNS[c] + " cannot be null");
+                }
+            } else if (strings[c] != null) {
+                strings[c][rows] = (String) value;
+            } else {
+                longs[c][rows] = toLong(COLUMNS[c], value);
+            }
+        }
+        rows++;
+        rowCount++;
+        if (rows == rowGroupSize) {
+            flushRowGroup();
+        }
+    }
+
+    public long rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Writes the last row group and the footer, forces the file to disk and closes it.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (rows > 0) {
+                flushRowGroup();
+            }
+            long footerOffset = channel.position();
+            raw.reset();
+            raw.writeInt(rowGroupOffsets.size());
+            rowGroupOffsets.forEach(raw::writeLong);
+            raw.writeLong(rowCount);
+            raw.writeLong(footerOffset);
+            raw.writeInt(MAGIC);
+            write(raw.buffer());
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to finish sales export", e);
+        } finally {
+            deflater.end();
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Nothing left to release
+            }
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        raw.reset();
+        raw.writeInt(MAGIC);
+        raw.writeInt(FORMAT_VERSION);
+        raw.writeInt(COLUMNS.length);
+        for (SaleExportColumn column : COLUMNS) {
+            raw.writeString(column.name());
+            raw.writeByte(column.encoding().ordinal());
+            raw.writeByte(column.nullable() ? 1 : 0);
+            if (column.encoding() == SaleExportColumn.Encoding.ENUM) {
+                Enum<?>[] constants = column.constants();
+                raw.writeInt(constants.length);
+                for (Enum<?> constant : constants) {
+                    raw.writeString(constant.name());
+                }
+            }
+        }
+        write(raw.buffer());
+    }
+
+    private void flushRowGroup() {
+        try {
+            rowGroupOffsets.add(channel.position());
+            raw.reset();
+            raw.writeInt(rows);
+            write(raw.buffer());
+            for (int c = 0; c < COLUMNS.length; c++) {
+                raw.reset();
+                encode(c);
+                writeCompressed();
+            }
+            rows = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write sales export row group", e);
+        }
+    }
+
+    private void encode(int c) {
+        SaleExportColumn column = COLUMNS[c];
+        boolean[] isNull = nulls[c];
+        if (column.nullable()) {
+            writeBits(isNull, rows);
+        }
+        long previous = 0;
+        switch (column.encoding()) {
+            case VARINT, CENTS -> {
+                for (int i = 0; i < rows; i++) {
+                    if (!isNull[i]) {
+                        raw.writeZigzag(longs[c][i]);
+                    }
+                }
+            }
+            case DELTA, DATE, TIMESTAMP -> {
+                for (int i = 0; i < rows; i++) {
+                    if (!isNull[i]) {
+                        raw.writeZigzag(longs[c][i] - previous);
+                        previous = longs[c][i];
+                    }
+                }
+            }
+            case ENUM -> {
+                for (int i = 0; i < rows; i++) {
+                    if (!isNull[i]) {
+                        raw.writeByte((int) longs[c][i]);
+                    }
+                }
+            }
+            case BOOLEAN -> {
+                boolean[] values = new boolean[rows];
+                int count = 0;
+                for (int i = 0; i < rows; i++) {
+                    if (!isNull[i]) {
+                        values[count++] = longs[c][i] != 0;
+                    }
+                }
+                writeBits(values, count);
+            }
+            case STRING -> {
+                for (int i = 0; i < rows; i++) {
+                    if (!isNull[i]) {
+                        raw.writeString(strings[c][i]);
+                    }
+                }
+            }
+            case DICTIONARY -> {
+                Map<String, Integer> dictionary = new HashMap<>();
+                List<String> entries = new ArrayList<>();
+                int[] indexes = new int[rows];
+                for (int i = 0; i < rows; i++) {
+                    if (!isNull[i]) {
+                        String value = strings[c][i];
+                        indexes[i] = dictionary.computeIfAbsent(value, key -> {
+                            entries.add(key);
+                            return entries.size() - 1;
+                        });
+                    }
+                }
+                raw.writeVarint(entries.size());
+                entries.forEach(raw::writeString);
+                for (int i = 0; i < rows; i++) {
+                    if (!isNull[i]) {
+                        raw.writeVarint(indexes[i]);
+                    }
+                }
+            }
+        }
+        if (strings[c] != null) {
+            // Let the strings of this group go before the next one is read
+            Arrays.fill(strings[c], 0, rows, null);
+        }
+    }
+
+    private void writeBits(boolean[] bits, int count) {
+        for (int from = 0; from < count; from += 8) {
+            int b = 0;
+            for (int bit = 0; bit < 8 && from + bit < count; bit++) {
+                if (bits[from + bit]) {
+                    b |= 1 << bit;
+                }
+            }
+            raw.writeByte(b);
+        }
+    }
+
+    private void writeCompressed() throws IOException {
+        deflater.reset();
+        deflater.setInput(raw.bytes, 0, raw.size);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        ByteBuffer chunkHeader = ByteBuffer.allocate(8).putInt(raw.size).putInt(length).flip();
+        write(chunkHeader);
+        write(ByteBuffer.wrap(compressed, 0, length));
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static long toLong(SaleExportColumn column, Object value) {
+        return switch (column.encoding()) {
+            case VARINT, DELTA -> ((Number) value).longValue();
+            case DATE -> ((LocalDate) value).toEpochDay();
+            case TIMESTAMP -> ((LocalDateTime) value).toInstant(ZoneOffset.UTC).toEpochMilli();
+            case CENTS -> Cents.of((BigDecimal) value);
+            case ENUM -> ((Enum<?>) value).ordinal();
+            case BOOLEAN -> (Boolean) value ? 1 : 0;
+            case STRING, DICTIONARY -> throw new IllegalStateException("String column " + column);
+        };
+    }
+
+    // Growable big-endian buffer with zigzag varints
+    private static final class Encoder {
+
+        private byte[] bytes = new byte[8192];
+        private int size;
+
+        void reset() {
+            size = 0;
+        }
+
+        ByteBuffer buffer() {
+            return ByteBuffer.wrap(bytes, 0, size);
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            bytes[size++] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            ensure(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                bytes[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void writeZigzag(long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        void writeString(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(utf8.length);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.automotive.sales.export;
+
+import com.automotive.sales.model.Sale;
+
+/**
+ * Columns of the sales export, in file order. The export query selects exactly these values in this order.
+ */
+public enum SaleExportColumn {
+
+    SALE_ID(Encoding.DELTA, false),
+    VEHICLE_ID(Encoding.VARINT, false),
+    VIN(Encoding.STRING, false),
+    CUSTOMER_ID(Encoding.VARINT, false),
+    CUSTOMER_EMAIL(Encoding.STRING, false),
+    SALE_DATE(Encoding.DATE, false),
+    STATUS(Encoding.ENUM, false, Sale.SaleStatus.class),
+    PAYMENT_METHOD(Encoding.ENUM, true, Sale.PaymentMethod.class),
+    SALE_PRICE(Encoding.CENTS, false),
+    DOWN_PAYMENT(Encoding.CENTS, true),
+    TRADE_IN_VALUE(Encoding.CENTS, true),
+    FINANCING_AMOUNT(Encoding.CENTS, true),
+    COMMISSION_AMOUNT(Encoding.CENTS, true),
+    SALESPERSON_EMAIL(Encoding.DICTIONARY, true),
+    IS_FINALIZED(Encoding.BOOLEAN, true),
+    CREATED_AT(Encoding.TIMESTAMP, false),
+    UPDATED_AT(Encoding.TIMESTAMP, true);
+
+    /**
+     * How a column chunk stores its non-null values; nullable columns are preceded by a null bitmap.
+     */
+    public enum Encoding {
+        // Zigzag varints, as is and as differences from the previous value
+        VARINT, DELTA,
+        // Varint length and UTF-8 bytes per value
+        STRING,
+        // The chunk's distinct values, then a varint index per value
+        DICTIONARY,
+        // One byte per value: the constant's position in the dictionary in the file header
+        ENUM,
+        // Epoch days and epoch milliseconds of the wall-clock time, delta-encoded
+        DATE, TIMESTAMP,
+        // Zigzag varint of the amount in cents
+        CENTS,
+        // One bit per value
+        BOOLEAN
+    }
+
+    private final Encoding encoding;
+    private final boolean nullable;
+    private final Class<? extends Enum<?>> enumType;
+
+    SaleExportColumn(Encoding encoding, boolean nullable) {
+        this(encoding, nullable, null);
+    }
+
+    SaleExportColumn(Encoding encoding, boolean nullable, Class<? extends Enum<?>> enumType) {
+        this.encoding = encoding;
+        this.nullable = nullable;
+        this.enumType = enumType;
+    }
+
+    public Encoding encoding() {
+        return encoding;
+    }
+
+    public boolean nullable() {
+        return nullable;
+    }
+
+    /**
+     * The constants of an {@link Encoding#ENUM} column, in the order their positions refer to.
+     */
+    public Enum<?>[] constants() {
+        return enumType != null ? enumType.getEnumConstants() : new Enum<?>[0];
+    }
+}
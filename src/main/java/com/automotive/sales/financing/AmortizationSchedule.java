@@ -0,0 +1,20 @@
+package com.automotive.sales.financing;
+
+/**
+ * Payment, principal, interest and remaining balance in cents for each month of a loan, index 0 being the
+ * first month.
+ */
+public record AmortizationSchedule(long[] payments, long[] principal, long[] interest, long[] balances) {
+
+    public int months() {
+        return payments.length;
+    }
+
+    public long totalInterest() {
+        long total = 0;
+        for (long month : interest) {
+            total += month;
+        }
+        return total;
+    }
+}
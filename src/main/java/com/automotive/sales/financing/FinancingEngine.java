@@ -0,0 +1,142 @@
+package com.automotive.sales.financing;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Amortized loan quotes in {@code double} and {@code long} arithmetic. Amounts are cents and annual rates are
+ * basis points (5.49% is {@code 549}), as in {@link com.automotive.sales.money.Cents}.
+ * <p>
+ * The monthly payment of a loan is its principal times the annuity factor {@code r / (1 - (1 + r)^-n)} of the
+ * monthly rate {@code r} and the term {@code n}, rounded half up to the cent once, at the end. The factor only
+ * depends on rate and term, so it is computed once per pair and cached: a grid prices every down payment with
+ * the same few factors, and desks reuse a small set of rates and terms. Total interest comes from the same
+ * month by month amortization as {@link #schedule}, so a quote and its schedule always agree to the cent.
+ */
+@Component
+public class FinancingEngine {
+
+    public static final int MAX_TERM_MONTHS = 120;
+    public static final int MAX_RATE_BASIS_POINTS = 10_000;
+    static final int MAX_CACHED_FACTORS = 10_000;
+
+    private final Map<Integer, Double> annuityFactors = new ConcurrentHashMap<>();
+
+    /**
+     * Prices every combination of down payment, rate and term for a vehicle at {@code priceCents} with a trade-in
+     * worth {@code tradeInCents}. Down payment and trade-in beyond the price leave nothing to finance.
+     */
+    public QuoteGrid quote(long priceCents, long tradeInCents, long[] downPaymentCents, int[] rateBasisPoints,
+                           int[] termMonths) {
+        for (int rate : rateBasisPoints) {
+            checkRate(rate);
+        }
+        for (int term : termMonths) {
+            checkTerm(term);
+        }
+        int downs = downPaymentCents.length;
+        int rates = rateBasisPoints.length;
+        int terms = termMonths.length;
+        long[] financed = new long[downs];
+        for (int d = 0; d < downs; d++) {
+            if (downPaymentCents[d] < 0) {
+                throw new IllegalArgumentException("Down payment cannot be negative");
+            }
+            financed[d] = Math.max(0, priceCents - tradeInCents - downPaymentCents[d]);
+        }
+
+        long[] payments = new long[downs * rates * terms];
+        long[] interest = new long[payments.length];
+        for (int r = 0; r < rates; r++) {
+            for (int t = 0; t < terms; t++) {
+                double factor = annuityFactor(rateBasisPoints[r], termMonths[t]);
+                double monthlyRate = monthlyRate(rateBasisPoints[r]);
+                int months = termMonths[t];
+                for (int d = 0; d < downs; d++) {
+                    int cell = (d * rates + r) * terms + t;
+                    payments[cell] = Math.round(financed[d] * factor);
+                    interest[cell] = amortize(financed[d], payments[cell], monthlyRate, months, null);
+                }
+            }
+        }
+        return new QuoteGrid(downPaymentCents.clone(), rateBasisPoints.clone(), termMonths.clone(), financed,
+                payments, interest);
+    }
+
+    public long monthlyPayment(long principalCents, int rateBasisPoints, int termMonths) {
+        checkRate(rateBasisPoints);
+        checkTerm(termMonths);
+        return Math.round(Math.max(0, principalCents) * annuityFactor(rateBasisPoints, termMonths));
+    }
+
+    /**
+     * Month by month split of a loan into interest and principal. Interest is rounded to the cent each month
+     * and the last payment settles the remaining balance, so it can differ from the others by a few cents.
+     */
+    public AmortizationSchedule schedule(long principalCents, int rateBasisPoints, int termMonths) {
+        long principal = Math.max(0, principalCents);
+        long payment = monthlyPayment(principal, rateBasisPoints, termMonths);
+        AmortizationSchedule schedule = new AmortizationSchedule(new long[termMonths], new long[termMonths],
+                new long[termMonths], new long[termMonths]);
+        amortize(principal, payment, monthlyRate(rateBasisPoints), termMonths, schedule);
+        return schedule;
+    }
+
+    /**
+     * Pays {@code principal} down month by month and returns the total interest, filling {@code schedule} when
+     * given. Shared by grid and schedule so both round the same way.
+     */
+    private static long amortize(long principal, long payment, double monthlyRate, int termMonths,
+                                 AmortizationSchedule schedule) {
+        long balance = principal;
+        long totalInterest = 0;
+        for (int month = 0; month < termMonths; month++) {
+            long interest = Math.round(balance * monthlyRate);
+            long repaid = month == termMonths - 1 ? balance : Math.min(balance, payment - interest);
+            balance -= repaid;
+            totalInterest += interest;
+            if (schedule != null) {
+                schedule.payments()[month] = repaid + interest;
+                schedule.principal()[month] = repaid;
+                schedule.interest()[month] = interest;
+                schedule.balances()[month] = balance;
+            }
+        }
+        return totalInterest;
+    }
+
+    double annuityFactor(int rateBasisPoints, int termMonths) {
+        int key = rateBasisPoints * (MAX_TERM_MONTHS + 1) + termMonths;
+        Double cached = annuityFactors.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        double monthlyRate = monthlyRate(rateBasisPoints);
+        double factor = monthlyRate == 0
+                ? 1.0 / termMonths
+                : monthlyRate / -Math.expm1(-termMonths * Math.log1p(monthlyRate));
+        // Bounded so a client sweeping arbitrary rates cannot grow the map without limit
+        if (annuityFactors.size() < MAX_CACHED_FACTORS) {
+            annuityFactors.put(key, factor);
+        }
+        return factor;
+    }
+
+    private static double monthlyRate(int rateBasisPoints) {
+        return rateBasisPoints / 10_000.0 / 12;
+    }
+
+    private static void checkRate(int rateBasisPoints) {
+        if (rateBasisPoints < 0 || rateBasisPoints > MAX_RATE_BASIS_POINTS) {
+            throw new IllegalArgumentException("Interest rate must be between 0% and 100%");
+        }
+    }
+
+    private static void checkTerm(int termMonths) {
+        if (termMonths < 1 || termMonths > MAX_TERM_MONTHS) {
+            throw new IllegalArgumentException("Loan term must be between 1 and " + MAX_TERM_MONTHS + " months");
+        }
+    }
+}
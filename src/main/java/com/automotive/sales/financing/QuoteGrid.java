@@ -0,0 +1,65 @@
+package com.automotive.sales.financing;
+
+/**
+ * Quotes for every down payment × rate × term combination, held in flat primitive arrays. Amounts are cents,
+ * rates basis points. Total interest is the sum of the loan's monthly interest, each rounded to the cent, and
+ * equals the total of its {@link AmortizationSchedule}.
+ */
+public final class QuoteGrid {
+
+    private final long[] downPayments;
+    private final int[] rates;
+    private final int[] terms;
+    private final long[] financed;
+    private final long[] payments;
+    private final long[] totalInterest;
+
+    QuoteGrid(long[] downPayments, int[] rates, int[] terms, long[] financed, long[] payments, long[] totalInterest) {
+        this.downPayments = downPayments;
+        this.rates = rates;
+        this.terms = terms;
+        this.financed = financed;
+        this.payments = payments;
+        this.totalInterest = totalInterest;
+    }
+
+    public int downPaymentCount() {
+        return downPayments.length;
+    }
+
+    public int rateCount() {
+        return rates.length;
+    }
+
+    public int termCount() {
+        return terms.length;
+    }
+
+    public long downPayment(int d) {
+        return downPayments[d];
+    }
+
+    public int rate(int r) {
+        return rates[r];
+    }
+
+    public int term(int t) {
+        return terms[t];
+    }
+
+    public long financed(int d) {
+        return financed[d];
+    }
+
+    public long monthlyPayment(int d, int r, int t) {
+        return payments[cell(d, r, t)];
+    }
+
+    public long totalInterest(int d, int r, int t) {
+        return totalInterest[cell(d, r, t)];
+    }
+
+    private int cell(int d, int r, int t) {
+        return (d * rates.length + r) * terms.length + t;
+    }
+}
@@ -0,0 +1,248 @@
+package com.automotive.sales.journal;
+
+import com.automotive.sales.money.Cents;
+import com.automotive.sales.service.SaleChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of sale state transitions, one binary record per committed {@link SaleChangedEvent}.
+ * <p>
+ * Records are appended to memory-mapped segment files of a fixed size; when a record no longer fits, a new
+ * segment named after its first sequence number is started. Every record is prefixed by its payload length and
+ * a CRC32C of the payload, and the length is written last, so a record torn by a crash is either all zeroes or
+ * fails its checksum. On startup the last segment is scanned and appending resumes after its last valid record.
+ * <p>
+ * Written pages reach the file through the page cache, which survives a crash of the process but not of the
+ * machine; set {@code app.journal.sync-on-write} to force every record to disk. Events are sequenced in commit
+ * order, starting at 1. Read them back with {@link #reader(long)}, or with {@link SaleJournalReader#open} on
+ * the directory of a journal that is not running.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.journal", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class SaleJournal implements AutoCloseable {
+
+    static final int SEGMENT_MAGIC = 0x534A524E; // "SJRN"
+    static final int FORMAT_VERSION = 1;
+    // magic, format version, first sequence of the segment
+    static final int SEGMENT_HEADER_SIZE = 16;
+    // payload length, CRC32C of the payload
+    static final int RECORD_HEADER_SIZE = 8;
+    // sequence, timestamp, type, status, sale, vehicle and customer ids, price in cents, sale date
+    static final int PAYLOAD_SIZE = 8 + 8 + 1 + 1 + 8 + 8 + 8 + 8 + 4;
+    static final int RECORD_SIZE = RECORD_HEADER_SIZE + PAYLOAD_SIZE;
+    static final int NO_DATE = Integer.MIN_VALUE;
+    static final byte NONE = -1;
+
+    private static final String LOCK_FILE = "journal.lock";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean syncOnWrite;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final CRC32C crc = new CRC32C();
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long nextSequence;
+    private boolean closed;
+
+    public SaleJournal(@Value("${app.journal.directory:data/sale-journal}") Path directory,
+                       @Value("${app.journal.segment-size:67108864}") int segmentSize,
+                       @Value("${app.journal.sync-on-write:false}") boolean syncOnWrite) {
+        if (segmentSize < SEGMENT_HEADER_SIZE + RECORD_SIZE) {
+            throw new IllegalArgumentException("Journal segment size too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.syncOnWrite = syncOnWrite;
+        try {
+            Files.createDirectories(directory);
+            // A second writer on the same directory would interleave sequences, refuse it up front
+            lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            lock = tryLock(lockChannel);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open sale journal in " + directory, e);
+        }
+        log.info("Sale journal opened in {}, next sequence {}", directory, nextSequence);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleChanged(SaleChangedEvent event) {
+        try {
+            append(event);
+        } catch (RuntimeException e) {
+            // The sale itself has committed; a journal gap is reported, not turned into a failed request
+            log.error("Failed to journal {} of sale {}", event.type(), event.saleId(), e);
+        }
+    }
+
+    /**
+     * Appends the event and returns its sequence number.
+     */
+    public synchronized long append(SaleChangedEvent event) {
+        if (closed) {
+            throw new IllegalStateException("Sale journal is closed");
+        }
+        if (segment.remaining() < RECORD_SIZE) {
+            roll();
+        }
+        long sequence = nextSequence;
+        int start = segment.position();
+
+        segment.position(start + RECORD_HEADER_SIZE);
+        segment.putLong(sequence);
+        segment.putLong(event.occurredAt() != null ? event.occurredAt().toEpochMilli() : System.currentTimeMillis());
+        segment.put((byte) event.type().ordinal());
+        segment.put(event.status() != null ? (byte) event.status().ordinal() : NONE);
+        segment.putLong(event.saleId());
+        segment.putLong(event.vehicleId());
+        segment.putLong(event.customerId());
+        segment.putLong(Cents.ofNullable(event.salePrice()));
+        segment.putInt(event.saleDate() != null ? (int) event.saleDate().toEpochDay() : NO_DATE);
+
+        crc.reset();
+        crc.update(segment.slice(start + RECORD_HEADER_SIZE, PAYLOAD_SIZE));
+        segment.putInt(start + 4, (int) crc.getValue());
+        // The length goes in last: until it is set, the record reads as the end of the journal
+        segment.putInt(start, PAYLOAD_SIZE);
+        segment.position(start + RECORD_SIZE);
+        if (syncOnWrite) {
+            segment.force(start, RECORD_SIZE);
+        }
+        nextSequence = sequence + 1;
+        return sequence;
+    }
+
+    /**
+     * A reader over the events from {@code fromSequence} up to the last one appended before this call.
+     */
+    public SaleJournalReader reader(long fromSequence) {
+        long endSequence;
+        synchronized (this) {
+            endSequence = nextSequence;
+        }
+        return SaleJournalReader.open(directory, fromSequence, endSequence);
+    }
+
+    public synchronized long getNextSequence() {
+        return nextSequence;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @PreDestroy
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            segment.force();
+            channel.close();
+            lock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close sale journal in " + directory, e);
+        }
+        log.info("Sale journal closed at sequence {}", nextSequence - 1);
+    }
+
+    private void recover() throws IOException {
+        List<Path> segments = SaleJournalReader.listSegments(directory);
+        if (segments.isEmpty()) {
+            nextSequence = 1;
+            openSegment(1, true);
+            return;
+        }
+        Path last = segments.get(segments.size() - 1);
+        long baseSequence = SaleJournalReader.baseSequence(last);
+        openSegment(baseSequence, false);
+
+        long sequence = baseSequence;
+        int position = SEGMENT_HEADER_SIZE;
+        while (position + RECORD_SIZE <= segmentSize
+                && SaleJournalReader.isValidRecord(segment, position, sequence, crc)) {
+            position += RECORD_SIZE;
+            sequence++;
+        }
+        if (position + RECORD_SIZE <= segmentSize && segment.getInt(position) != 0) {
+            log.warn("Discarding torn sale journal record at sequence {} in {}", sequence, last);
+            segment.put(position, new byte[RECORD_SIZE]);
+            segment.force(position, RECORD_SIZE);
+        }
+        segment.position(position);
+        nextSequence = sequence;
+    }
+
+    private void roll() {
+        try {
+            segment.force();
+            channel.close();
+            openSegment(nextSequence, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot roll sale journal segment in " + directory, e);
+        }
+        log.debug("Sale journal rolled to segment starting at sequence {}", nextSequence);
+    }
+
+    private void openSegment(long baseSequence, boolean create) throws IOException {
+        Path file = directory.resolve(SaleJournalReader.segmentName(baseSequence));
+        channel = create
+                ? FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (!create && channel.size() != segmentSize) {
+            // Appending continues in the segment as it was sized when created
+            channel.close();
+            throw new IllegalStateException("Sale journal segment " + file + " is " + Files.size(file) +
+                    " bytes, expected app.journal.segment-size of " + segmentSize);
+        }
+        // Mapping past the end of a new file grows it to the full, zero-filled segment size
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        if (create || segment.getInt(0) == 0) {
+            // A crash right after creating a segment can leave it without its header
+            segment.putInt(SEGMENT_MAGIC);
+            segment.putInt(FORMAT_VERSION);
+            segment.putLong(baseSequence);
+        } else {
+            SaleJournalReader.checkHeader(segment, file);
+            segment.position(SEGMENT_HEADER_SIZE);
+        }
+    }
+
+    private static FileLock tryLock(FileChannel lockChannel) throws IOException {
+        try {
+            FileLock lock = lockChannel.tryLock();
+            if (lock != null) {
+                return lock;
+            }
+        } catch (OverlappingFileLockException e) {
+            // Held by another journal in this JVM, same outcome as another process
+        }
+        lockChannel.close();
+        throw new IllegalStateException("Sale journal directory is in use by another writer");
+    }
+}
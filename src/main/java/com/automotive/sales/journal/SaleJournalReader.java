@@ -0,0 +1,243 @@
+package com.automotive.sales.journal;
+
+import com.automotive.sales.model.Sale;
+import com.automotive.sales.money.Cents;
+import com.automotive.sales.service.SaleChangedEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import static com.automotive.sales.journal.SaleJournal.*;
+
+/**
+ * Forward-only cursor over the sale journal. Each segment is mapped read-only and {@link #next()} moves to the
+ * following record in place; the accessors read its fields straight from the mapping, so replaying millions of
+ * events allocates nothing per event unless {@link #toEvent()} is called.
+ * <p>
+ * Every record's checksum and sequence are verified; a damaged record raises an {@link IllegalStateException}
+ * rather than being skipped. Without an end sequence the reader stops at the last complete record, so it may
+ * also be pointed at the directory of a journal that was not closed cleanly.
+ * <pre>{@code
+ * try (SaleJournalReader reader = saleJournal.reader(1)) {
+ *     while (reader.next()) {
+ *         revenue += reader.salePriceCents();
+ *     }
+ * }
+ * }</pre>
+ */
+public class SaleJournalReader implements AutoCloseable {
+
+    private static final String SEGMENT_PREFIX = "sales-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final SaleChangedEvent.Type[] TYPES = SaleChangedEvent.Type.values();
+    private static final Sale.SaleStatus[] STATUSES = Sale.SaleStatus.values();
+
+    private final List<Path> segments;
+    private final long fromSequence;
+    private final long endSequence;
+    private final CRC32C crc = new CRC32C();
+
+    private int segmentIndex;
+    private MappedByteBuffer segment;
+    private Path segmentFile;
+    private long expectedSequence;
+    private int record = -1;
+
+    private SaleJournalReader(List<Path> segments, long fromSequence, long endSequence) {
+        this.segments = segments;
+        this.fromSequence = fromSequence;
+        this.endSequence = endSequence;
+    }
+
+    /**
+     * A reader over every complete event of the journal in {@code directory}, starting at {@code fromSequence}.
+     */
+    public static SaleJournalReader open(Path directory, long fromSequence) {
+        return open(directory, fromSequence, Long.MAX_VALUE);
+    }
+
+    static SaleJournalReader open(Path directory, long fromSequence, long endSequence) {
+        List<Path> segments = listSegments(directory);
+        // Start in the last segment beginning at or before the requested sequence
+        int first = 0;
+        for (int i = 1; i < segments.size() && baseSequence(segments.get(i)) <= fromSequence; i++) {
+            first = i;
+        }
+        SaleJournalReader reader = new SaleJournalReader(segments, fromSequence, endSequence);
+        reader.segmentIndex = first;
+        return reader;
+    }
+
+    /**
+     * Moves to the next event, returning false once the end of the journal is reached.
+     */
+    public boolean next() {
+        while (true) {
+            if (expectedSequence >= endSequence) {
+                return false;
+            }
+            if (segment == null && !mapNextSegment()) {
+                return false;
+            }
+            int position = record < 0 ? SEGMENT_HEADER_SIZE : record + RECORD_SIZE;
+            if (position + RECORD_SIZE > segment.limit() || segment.getInt(position) == 0) {
+                // End of this segment; the writer leaves the remainder of a rolled segment zeroed
+                segment = null;
+                record = -1;
+                continue;
+            }
+            if (!isValidRecord(segment, position, expectedSequence, crc)) {
+                if (segmentIndex == segments.size()) {
+                    // A record torn by a crash can only be the last one written
+                    return false;
+                }
+                throw new IllegalStateException("Corrupt sale journal record at offset " + position + " of " +
+                        segmentFile + ", expected sequence " + expectedSequence);
+            }
+            record = position;
+            expectedSequence++;
+            if (sequence() >= fromSequence) {
+                return true;
+            }
+        }
+    }
+
+    public long sequence() {
+        return segment.getLong(record + RECORD_HEADER_SIZE);
+    }
+
+    public long timestampMillis() {
+        return segment.getLong(record + RECORD_HEADER_SIZE + 8);
+    }
+
+    public SaleChangedEvent.Type type() {
+        return TYPES[segment.get(record + RECORD_HEADER_SIZE + 16)];
+    }
+
+    public Sale.SaleStatus status() {
+        byte status = segment.get(record + RECORD_HEADER_SIZE + 17);
+        return status == NONE ? null : STATUSES[status];
+    }
+
+    public long saleId() {
+        return segment.getLong(record + RECORD_HEADER_SIZE + 18);
+    }
+
+    public long vehicleId() {
+        return segment.getLong(record + RECORD_HEADER_SIZE + 26);
+    }
+
+    public long customerId() {
+        return segment.getLong(record + RECORD_HEADER_SIZE + 34);
+    }
+
+    /**
+     * The sale price in cents, or {@link Cents#NONE} when the sale had none.
+     */
+    public long salePriceCents() {
+        return segment.getLong(record + RECORD_HEADER_SIZE + 42);
+    }
+
+    /**
+     * The sale date as an epoch day, or {@code Integer.MIN_VALUE} when the sale had none.
+     */
+    public int saleEpochDay() {
+        return segment.getInt(record + RECORD_HEADER_SIZE + 50);
+    }
+
+    /**
+     * The current record as an event, for callers that keep it beyond the next call to {@link #next()}. Records
+     * do not carry the salesperson, so the event has none.
+     */
+    public SaleChangedEvent toEvent() {
+        int epochDay = saleEpochDay();
+        return new SaleChangedEvent(type(), saleId(), vehicleId(), customerId(), status(),
+                Cents.toBigDecimalOrNull(salePriceCents()),
+                epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay), null,
+                Instant.ofEpochMilli(timestampMillis()));
+    }
+
+    @Override
+    public void close() {
+        // Mappings are released with the buffers; dropping the reference is all there is to do
+        segment = null;
+        segmentIndex = segments.size();
+    }
+
+    private boolean mapNextSegment() {
+        if (segmentIndex >= segments.size()) {
+            return false;
+        }
+        segmentFile = segments.get(segmentIndex++);
+        try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.READ)) {
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map sale journal segment " + segmentFile, e);
+        }
+        checkHeader(segment, segmentFile);
+        long base = segment.getLong(8);
+        if (expectedSequence == 0) {
+            expectedSequence = base;
+        } else if (base != expectedSequence) {
+            throw new IllegalStateException("Sale journal segment " + segmentFile + " starts at sequence " + base +
+                    ", expected " + expectedSequence);
+        }
+        record = -1;
+        return true;
+    }
+
+    static boolean isValidRecord(MappedByteBuffer segment, int position, long expectedSequence, CRC32C crc) {
+        if (segment.getInt(position) != PAYLOAD_SIZE) {
+            return false;
+        }
+        crc.reset();
+        crc.update(segment.slice(position + RECORD_HEADER_SIZE, PAYLOAD_SIZE));
+        return segment.getInt(position + 4) == (int) crc.getValue()
+                && segment.getLong(position + RECORD_HEADER_SIZE) == expectedSequence;
+    }
+
+    static void checkHeader(MappedByteBuffer segment, Path file) {
+        if (segment.limit() < SEGMENT_HEADER_SIZE || segment.getInt(0) != SEGMENT_MAGIC) {
+            throw new IllegalStateException("Not a sale journal segment: " + file);
+        }
+        if (segment.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported sale journal format " + segment.getInt(4) + " in " + file);
+        }
+    }
+
+    static List<Path> listSegments(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            // Zero-padded sequence numbers make name order sequence order
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list sale journal segments in " + directory, e);
+        }
+    }
+
+    static String segmentName(long baseSequence) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, baseSequence, SEGMENT_SUFFIX);
+    }
+
+    static long baseSequence(Path segmentFile) {
+        String name = segmentFile.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
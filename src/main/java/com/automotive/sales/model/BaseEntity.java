@@ -15,8 +15,9 @@ import java.time.LocalDateTime;
 @Setter
 public abstract class BaseEntity {
 
+    // Pooled per-table sequences (e.g. vehicles_seq, allocation size 50) so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     @CreatedDate
@@ -9,7 +9,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "sales")
+@Table(name = "sales", indexes = @Index(name = "idx_sales_updated_at_id", columnList = "updated_at, id"))
+@NamedEntityGraph(name = "Sale.details", attributeNodes = {@NamedAttributeNode("vehicle"), @NamedAttributeNode("customer")})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,39 @@
+package com.automotive.sales.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a historical sales backfill: the last input line whose chunk committed, written in the same
+ * transaction as that chunk's sales so a restarted job resumes right after it.
+ */
+@Entity
+@Table(name = "sale_backfill_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleBackfillCheckpoint {
+
+    @Id
+    @Column(name = "job_id", length = 100)
+    private String jobId;
+
+    @Column(name = "last_line", nullable = false)
+    private long lastLine;
+
+    @Column(name = "imported_count", nullable = false)
+    private long importedCount;
+
+    @Column(name = "rejected_count", nullable = false)
+    private long rejectedCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public static SaleBackfillCheckpoint start(String jobId) {
+        return new SaleBackfillCheckpoint(jobId, 0, 0, 0, LocalDateTime.now());
+    }
+}
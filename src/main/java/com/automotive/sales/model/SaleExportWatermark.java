@@ -0,0 +1,45 @@
+package com.automotive.sales.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position of an incremental sales export: the {@code updated_at} and id of the last sale written to a file that
+ * was moved into place. The next run exports the sales modified after it, in the same order.
+ */
+@Entity
+@Table(name = "sale_export_watermarks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleExportWatermark {
+
+    // Starting point of a new export, before any sale
+    public static final LocalDateTime ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Id
+    @Column(name = "export_name", length = 100)
+    private String exportName;
+
+    @Column(name = "last_updated_at", nullable = false)
+    private LocalDateTime lastUpdatedAt;
+
+    @Column(name = "last_sale_id", nullable = false)
+    private long lastSaleId;
+
+    @Column(name = "exported_count", nullable = false)
+    private long exportedCount;
+
+    @Column(name = "last_file")
+    private String lastFile;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public static SaleExportWatermark start(String exportName) {
+        return new SaleExportWatermark(exportName, ORIGIN, 0, 0, null, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,76 @@
+package com.automotive.sales.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totals of the sales that reached a final status (completed or cancelled) on one day, per payment method and
+ * salesperson. Revenue and profit reports read this table instead of scanning {@code sales} joined to
+ * {@code vehicles}. {@code profit} only covers sales of vehicles with a known purchase price, like the
+ * profit queries on {@link Sale}.
+ */
+@Entity
+@Table(name = "sales_daily_rollup")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesDailyRollup {
+
+    /**
+     * Stands in for a sale without salesperson, the column being part of the key.
+     */
+    public static final String NO_SALESPERSON = "";
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "sale_count", nullable = false)
+    private long saleCount;
+
+    @Column(name = "revenue", precision = 15, scale = 2, nullable = false)
+    private BigDecimal revenue;
+
+    @Column(name = "cost", precision = 15, scale = 2, nullable = false)
+    private BigDecimal cost;
+
+    @Column(name = "profit", precision = 15, scale = 2, nullable = false)
+    private BigDecimal profit;
+
+    @Column(name = "commission", precision = 15, scale = 2, nullable = false)
+    private BigDecimal commission;
+
+    public static SalesDailyRollup empty(Key id) {
+        return new SalesDailyRollup(id, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        @Column(name = "sale_date", nullable = false)
+        private LocalDate saleDate;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "sale_status", nullable = false)
+        private Sale.SaleStatus status;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "payment_method", nullable = false)
+        private Sale.PaymentMethod paymentMethod;
+
+        @Column(name = "salesperson_email", nullable = false)
+        private String salespersonEmail;
+
+        public static Key of(Sale sale) {
+            return new Key(sale.getSaleDate(), sale.getStatus(), sale.getPaymentMethod(),
+                    sale.getSalespersonEmail() != null ? sale.getSalespersonEmail() : NO_SALESPERSON);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.automotive.sales.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Slim read-only view of a {@link Vehicle} for list pages. Selected column by column by the repository, so neither
+ * the {@code description} text nor the {@code sales} collection is ever loaded.
+ */
+public record VehicleSummary(Long id,
+                             String vin,
+                             String make,
+                             String model,
+                             Integer year,
+                             BigDecimal sellingPrice,
+                             Vehicle.VehicleStatus status,
+                             String location,
+                             LocalDateTime createdAt) {
+
+    public static VehicleSummary of(Vehicle vehicle) {
+        return new VehicleSummary(vehicle.getId(), vehicle.getVin(), vehicle.getMake(), vehicle.getModel(),
+                vehicle.getYear(), vehicle.getSellingPrice(), vehicle.getStatus(), vehicle.getLocation(),
+                vehicle.getCreatedAt());
+    }
+}
@@ -0,0 +1,10 @@
+package com.automotive.sales.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optimistic-lock version and last modification time of a {@link Vehicle}, read without loading the entity so
+ * that conditional requests can be validated with a single narrow query.
+ */
+public record VehicleVersion(Long id, Long version, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,109 @@
+package com.automotive.sales.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money arithmetic on {@code long} amounts in cents, for aggregations that would otherwise allocate a
+ * {@link BigDecimal} per row. All prices in the schema have two decimals, so they convert exactly.
+ * <p>
+ * Rounding is always {@link RoundingMode#HALF_UP} to the cent (half a cent rounds away from zero, also for
+ * negative amounts), the rule the {@code BigDecimal} code used. Sums and products never wrap silently: sums
+ * fail with an {@link ArithmeticException} on overflow, products too large for a {@code long} are computed
+ * exactly through {@code BigDecimal} before rounding. Percentages and ratios are in basis points, hundredths of
+ * a percent, so a 2.5% commission rate is {@code 250}.
+ */
+public final class Cents {
+
+    /**
+     * Marks a missing amount where a nullable {@code BigDecimal} was used before.
+     */
+    public static final long NONE = Long.MIN_VALUE;
+
+    private static final long BASIS_POINTS = 10_000;
+
+    private Cents() {
+    }
+
+    public static long of(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static long ofNullable(BigDecimal amount) {
+        return amount != null ? of(amount) : NONE;
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public static BigDecimal toBigDecimalOrNull(long cents) {
+        return cents != NONE ? toBigDecimal(cents) : null;
+    }
+
+    /**
+     * A percentage such as {@code 2.50} as basis points, rounded to the nearest one.
+     */
+    public static long basisPoints(BigDecimal percent) {
+        return of(percent);
+    }
+
+    public static BigDecimal percentOf(long basisPoints) {
+        return BigDecimal.valueOf(basisPoints, 2);
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    /**
+     * {@code cents / divisor} rounded to the cent, e.g. an average over {@code divisor} rows.
+     */
+    public static long divide(long cents, long divisor) {
+        return divideHalfUp(cents, divisor);
+    }
+
+    /**
+     * {@code cents * numerator / denominator} rounded to the cent, without intermediate rounding.
+     */
+    public static long multiply(long cents, long numerator, long denominator) {
+        long product;
+        try {
+            product = Math.multiplyExact(cents, numerator);
+        } catch (ArithmeticException e) {
+            return BigDecimal.valueOf(cents).multiply(BigDecimal.valueOf(numerator))
+                    .divide(BigDecimal.valueOf(denominator), 0, RoundingMode.HALF_UP).longValueExact();
+        }
+        return divideHalfUp(product, denominator);
+    }
+
+    /**
+     * The given percentage of an amount, rounded to the cent; commission is {@code percent(price, rate)}.
+     */
+    public static long percent(long cents, long basisPoints) {
+        return multiply(cents, basisPoints, BASIS_POINTS);
+    }
+
+    /**
+     * {@code part / whole} in basis points, rounded to the nearest one; a profit margin of 12.34% is
+     * {@code 1234}. Callers handle a zero {@code whole}.
+     */
+    public static long ratio(long part, long whole) {
+        return multiply(part, BASIS_POINTS, whole);
+    }
+
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        // Compare |remainder| with |divisor| - |remainder| so doubling the remainder cannot overflow
+        long absRemainder = Math.abs(remainder);
+        if (absRemainder != 0 && absRemainder >= Math.abs(divisor) - absRemainder) {
+            quotient += (dividend ^ divisor) < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+}
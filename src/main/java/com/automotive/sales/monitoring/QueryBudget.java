@@ -0,0 +1,27 @@
+package com.automotive.sales.monitoring;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Upper bound on the Hibernate work a service method may do, including the commit of its transaction.
+ * Checked by {@link QueryStatsAspect}: exceeding it is logged, or fails the call when
+ * {@code app.query-stats.fail-on-budget-exceeded} is set (as it is for the tests).
+ * <p>
+ * Budgets should not depend on the size of the data: a method whose statement count grows with the number of
+ * rows it touches is exactly the N+1 pattern the budget is there to catch.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface QueryBudget {
+
+    /** Maximum number of SQL statements. */
+    int statements();
+
+    /** Maximum number of lazy collections initialized, unlimited by default. */
+    int collectionFetches() default Integer.MAX_VALUE;
+}
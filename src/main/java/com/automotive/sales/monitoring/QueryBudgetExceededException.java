@@ -0,0 +1,14 @@
+package com.automotive.sales.monitoring;
+
+/**
+ * Thrown when a method exceeds its {@link QueryBudget} and budgets are enforced.
+ * <p>
+ * Deliberately not an {@link IllegalStateException}: controllers map those to 409 Conflict, while a blown
+ * budget is a defect in the code, not in the request.
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
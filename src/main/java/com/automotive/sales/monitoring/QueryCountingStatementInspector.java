@@ -0,0 +1,16 @@
+package com.automotive.sales.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every SQL statement Hibernate prepares on the current thread. Registered through
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}; the SQL is passed on unchanged.
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryStats.statementPrepared();
+        return sql;
+    }
+}
@@ -0,0 +1,103 @@
+package com.automotive.sales.monitoring;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals of the Hibernate work done per endpoint (HTTP method plus route pattern) and per service
+ * method, as recorded by {@link QueryStatsFilter} and {@link QueryStatsAspect}.
+ * <p>
+ * Keys are route patterns and method names, so the maps stay as small as the API. Recording is a handful of
+ * {@link LongAdder} increments and never blocks the request being measured.
+ */
+@Component
+public class QueryMetrics {
+
+    private final Map<String, Totals> requests = new ConcurrentHashMap<>();
+    private final Map<String, Totals> methods = new ConcurrentHashMap<>();
+
+    public void recordRequest(String endpoint, QueryStats.Snapshot used, boolean overBudget) {
+        requests.computeIfAbsent(endpoint, key -> new Totals()).record(used, overBudget);
+    }
+
+    public void recordMethod(String method, QueryStats.Snapshot used, boolean overBudget) {
+        methods.computeIfAbsent(method, key -> new Totals()).record(used, overBudget);
+    }
+
+    // Heaviest first, by statements executed in total
+    public List<QueryMetric> getRequestMetrics() {
+        return report(requests);
+    }
+
+    public List<QueryMetric> getMethodMetrics() {
+        return report(methods);
+    }
+
+    public void reset() {
+        requests.clear();
+        methods.clear();
+    }
+
+    private static List<QueryMetric> report(Map<String, Totals> totals) {
+        return totals.entrySet().stream()
+                .map(entry -> entry.getValue().toMetric(entry.getKey()))
+                .sorted(Comparator.comparingLong(QueryMetric::getStatements).reversed()
+                        .thenComparing(QueryMetric::getName))
+                .toList();
+    }
+
+    private static final class Totals {
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder entityLoads = new LongAdder();
+        private final LongAdder collectionFetches = new LongAdder();
+        private final LongAdder overBudget = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+
+        private void record(QueryStats.Snapshot used, boolean exceeded) {
+            calls.increment();
+            statements.add(used.statements());
+            entityLoads.add(used.entityLoads());
+            collectionFetches.add(used.collectionFetches());
+            maxStatements.accumulate(used.statements());
+            if (exceeded) {
+                overBudget.increment();
+            }
+        }
+
+        private QueryMetric toMetric(String name) {
+            long callCount = calls.sum();
+            long statementCount = statements.sum();
+            return QueryMetric.builder()
+                    .name(name)
+                    .calls(callCount)
+                    .statements(statementCount)
+                    .entityLoads(entityLoads.sum())
+                    .collectionFetches(collectionFetches.sum())
+                    .averageStatements(callCount == 0 ? 0 : (double) statementCount / callCount)
+                    .maxStatements(maxStatements.get())
+                    .overBudget(overBudget.sum())
+                    .build();
+        }
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    public static class QueryMetric {
+        private String name;
+        private long calls;
+        private long statements;
+        private long entityLoads;
+        private long collectionFetches;
+        private double averageStatements;
+        private long maxStatements;
+        private long overBudget;
+    }
+}
@@ -0,0 +1,56 @@
+package com.automotive.sales.monitoring;
+
+/**
+ * Per-thread counters of the JDBC statements, entity loads and collection fetches Hibernate performs.
+ * <p>
+ * Hibernate's own {@code Statistics} are global to the session factory, so concurrent requests would blur into
+ * each other. These counters only ever grow for the current thread; a scope (an HTTP request, a service call,
+ * a test) takes a {@link #snapshot()} when it starts and subtracts it when it ends, which also makes nested
+ * scopes work without any bookkeeping. The counters are fed by {@link QueryCountingStatementInspector} and
+ * {@link QueryCountingIntegrator}.
+ */
+public final class QueryStats {
+
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[3]);
+
+    private static final int STATEMENTS = 0;
+    private static final int ENTITY_LOADS = 1;
+    private static final int COLLECTION_FETCHES = 2;
+
+    private QueryStats() {
+    }
+
+    public static Snapshot snapshot() {
+        long[] counts = COUNTS.get();
+        return new Snapshot(counts[STATEMENTS], counts[ENTITY_LOADS], counts[COLLECTION_FETCHES]);
+    }
+
+    static void statementPrepared() {
+        COUNTS.get()[STATEMENTS]++;
+    }
+
+    static void entityLoaded() {
+        COUNTS.get()[ENTITY_LOADS]++;
+    }
+
+    static void collectionFetched() {
+        COUNTS.get()[COLLECTION_FETCHES]++;
+    }
+
+    public record Snapshot(long statements, long entityLoads, long collectionFetches) {
+
+        public static final Snapshot EMPTY = new Snapshot(0, 0, 0);
+
+        // What happened on this thread between the given earlier snapshot and this one
+        public Snapshot since(Snapshot start) {
+            return new Snapshot(statements - start.statements, entityLoads - start.entityLoads,
+                    collectionFetches - start.collectionFetches);
+        }
+
+        @Override
+        public String toString() {
+            return statements + " statements, " + entityLoads + " entity loads, "
+                    + collectionFetches + " collection fetches";
+        }
+    }
+}
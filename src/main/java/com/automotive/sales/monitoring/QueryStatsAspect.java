@@ -0,0 +1,64 @@
+package com.automotive.sales.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Measures every public method of the application's {@code @Service} beans and enforces {@link QueryBudget}s.
+ * <p>
+ * Ordered ahead of the transaction interceptor so that the statements flushed on commit are charged to the
+ * method that caused them. Nested service calls are measured on their own and also count towards the caller.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class QueryStatsAspect {
+
+    private final QueryMetrics queryMetrics;
+    private final boolean failOnBudgetExceeded;
+
+    public QueryStatsAspect(QueryMetrics queryMetrics,
+                            @Value("${app.query-stats.fail-on-budget-exceeded:false}") boolean failOnBudgetExceeded) {
+        this.queryMetrics = queryMetrics;
+        this.failOnBudgetExceeded = failOnBudgetExceeded;
+    }
+
+    @Around("within(com.automotive.sales..*) && @within(org.springframework.stereotype.Service)")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        String name = signature.getDeclaringType().getSimpleName() + "." + signature.getName();
+        QueryStats.Snapshot start = QueryStats.snapshot();
+        boolean completed = false;
+        QueryBudget budget = signature.getMethod().getAnnotation(QueryBudget.class);
+        try {
+            Object result = joinPoint.proceed();
+            completed = true;
+            return result;
+        } finally {
+            QueryStats.Snapshot used = QueryStats.snapshot().since(start);
+            boolean exceeded = budget != null && exceeds(used, budget);
+            queryMetrics.recordMethod(name, used, exceeded);
+            // A method that failed anyway keeps its own exception
+            if (exceeded && completed) {
+                String message = name + " exceeded its query budget of " + budget.statements()
+                        + " statements: " + used;
+                if (failOnBudgetExceeded) {
+                    throw new QueryBudgetExceededException(message);
+                }
+                log.warn(message);
+            }
+        }
+    }
+
+    private static boolean exceeds(QueryStats.Snapshot used, QueryBudget budget) {
+        return used.statements() > budget.statements() || used.collectionFetches() > budget.collectionFetches();
+    }
+}
@@ -0,0 +1,89 @@
+package com.automotive.sales.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Measures the Hibernate work done by each HTTP request, including lazy loading while the response is written.
+ * <p>
+ * Totals are recorded in {@link QueryMetrics} per route pattern. With {@code app.query-stats.response-headers}
+ * the counts are also returned as {@code X-Query-Count}, {@code X-Entity-Loads} and
+ * {@code X-Collection-Fetches}; headers have to be set before the response commits, so those reflect the work
+ * done up to the first flush of the body. Requests running more than {@code app.query-stats.request-budget}
+ * statements (0 disables the check) are logged.
+ */
+@Component
+@Slf4j
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    static final String ENTITY_LOADS_HEADER = "X-Entity-Loads";
+    static final String COLLECTION_FETCHES_HEADER = "X-Collection-Fetches";
+
+    private final QueryMetrics queryMetrics;
+    private final boolean responseHeaders;
+    private final int requestBudget;
+
+    public QueryStatsFilter(QueryMetrics queryMetrics,
+                            @Value("${app.query-stats.response-headers:false}") boolean responseHeaders,
+                            @Value("${app.query-stats.request-budget:0}") int requestBudget) {
+        this.queryMetrics = queryMetrics;
+        this.responseHeaders = responseHeaders;
+        this.requestBudget = requestBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryStats.Snapshot start = QueryStats.snapshot();
+        StatsHeaderResponse measured = responseHeaders ? new StatsHeaderResponse(response, start) : null;
+        try {
+            chain.doFilter(request, measured != null ? measured : response);
+        } finally {
+            QueryStats.Snapshot used = QueryStats.snapshot().since(start);
+            if (measured != null && !response.isCommitted()) {
+                // Responses without a body are only committed by the container, after this filter
+                measured.onResponseCommitted();
+            }
+            String endpoint = request.getMethod() + " " + routeOf(request);
+            boolean exceeded = requestBudget > 0 && used.statements() > requestBudget;
+            queryMetrics.recordRequest(endpoint, used, exceeded);
+            if (exceeded) {
+                log.warn("{} exceeded the request query budget of {} statements: {}", endpoint, requestBudget, used);
+            }
+        }
+    }
+
+    private static String routeOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "unmapped";
+    }
+
+    private static final class StatsHeaderResponse extends OnCommittedResponseWrapper {
+
+        private final QueryStats.Snapshot start;
+
+        private StatsHeaderResponse(HttpServletResponse response, QueryStats.Snapshot start) {
+            super(response);
+            this.start = start;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            QueryStats.Snapshot used = QueryStats.snapshot().since(start);
+            setHeader(QUERY_COUNT_HEADER, Long.toString(used.statements()));
+            setHeader(ENTITY_LOADS_HEADER, Long.toString(used.entityLoads()));
+            setHeader(COLLECTION_FETCHES_HEADER, Long.toString(used.collectionFetches()));
+        }
+    }
+}
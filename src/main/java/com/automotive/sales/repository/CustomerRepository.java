@@ -3,12 +3,14 @@ package com.automotive.sales.repository;
 import com.automotive.sales.model.Customer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +19,9 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     Optional<Customer> findByEmail(String email);
 
+    @Query("SELECT c.email, c.id FROM Customer c WHERE c.email IN :emails")
+    List<Object[]> findIdsByEmailIn(@Param("emails") Collection<String> emails);
+
     List<Customer> findByFirstNameAndLastName(String firstName, String lastName);
 
     List<Customer> findByCustomerType(Customer.CustomerType customerType);
@@ -68,10 +73,38 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
                                            @Param("isActive") Boolean isActive,
                                            Pageable pageable);
 
+    @Query("SELECT c FROM Customer c WHERE " +
+           "(:firstName IS NULL OR LOWER(c.firstName) LIKE LOWER(CONCAT('%', :firstName, '%'))) AND " +
+           "(:lastName IS NULL OR LOWER(c.lastName) LIKE LOWER(CONCAT('%', :lastName, '%'))) AND " +
+           "(:email IS NULL OR LOWER(c.email) LIKE LOWER(CONCAT('%', :email, '%'))) AND " +
+           "(:customerType IS NULL OR c.customerType = :customerType) AND " +
+           "(:city IS NULL OR LOWER(c.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
+           "(:state IS NULL OR LOWER(c.state) LIKE LOWER(CONCAT('%', :state, '%'))) AND " +
+           "(:isActive IS NULL OR c.isActive = :isActive) AND " +
+           "(:afterLastName IS NULL OR c.lastName > :afterLastName OR " +
+           "(c.lastName = :afterLastName AND c.id > :afterId)) " +
+           "ORDER BY c.lastName, c.id")
+    Slice<Customer> findCustomersWithFiltersAfter(@Param("firstName") String firstName,
+                                                 @Param("lastName") String lastName,
+                                                 @Param("email") String email,
+                                                 @Param("customerType") Customer.CustomerType customerType,
+                                                 @Param("city") String city,
+                                                 @Param("state") String state,
+                                                 @Param("isActive") Boolean isActive,
+                                                 @Param("afterLastName") String afterLastName,
+                                                 @Param("afterId") Long afterId,
+                                                 Pageable pageable);
+
     @Query("SELECT c.state, COUNT(c) FROM Customer c WHERE c.state IS NOT NULL GROUP BY c.state ORDER BY COUNT(c) DESC")
     List<Object[]> getCustomerCountByState();
 
-    @Query("SELECT c FROM Customer c WHERE SIZE(c.sales) > :minSales")
+    // Active flag only, so callers can validate a customer without loading it
+    @Query("SELECT c.isActive FROM Customer c WHERE c.id = :id")
+    Optional<Boolean> findActiveById(@Param("id") Long id);
+
+    // One grouped scan of sales instead of a correlated count per customer
+    @Query("SELECT c FROM Customer c WHERE c.id IN " +
+           "(SELECT s.customer.id FROM Sale s GROUP BY s.customer.id HAVING COUNT(s) > :minSales)")
     List<Customer> findCustomersWithMinimumSales(@Param("minSales") int minSales);
 
     @Query("SELECT c FROM Customer c WHERE c.companyName IS NOT NULL AND c.customerType = 'BUSINESS'")
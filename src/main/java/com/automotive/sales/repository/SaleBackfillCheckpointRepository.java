@@ -0,0 +1,9 @@
+package com.automotive.sales.repository;
+
+import com.automotive.sales.model.SaleBackfillCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SaleBackfillCheckpointRepository extends JpaRepository<SaleBackfillCheckpoint, String> {
+}
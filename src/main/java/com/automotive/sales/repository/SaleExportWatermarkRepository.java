@@ -0,0 +1,9 @@
+package com.automotive.sales.repository;
+
+import com.automotive.sales.model.SaleExportWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SaleExportWatermarkRepository extends JpaRepository<SaleExportWatermark, String> {
+}
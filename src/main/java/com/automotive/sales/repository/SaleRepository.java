@@ -1,26 +1,55 @@
 package com.automotive.sales.repository;
 
 import com.automotive.sales.model.Sale;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SaleRepository extends JpaRepository<Sale, Long> {
 
+    // The finders below serve the sales API: the graph fetches vehicle and customer in the same SELECT,
+    // so mapping a list to responses does not load them row by row
+    String SALE_DETAILS = "Sale.details";
+
+    @EntityGraph(SALE_DETAILS)
+    @Query("SELECT s FROM Sale s WHERE s.id = :id")
+    Optional<Sale> findWithDetailsById(@Param("id") Long id);
+
+    @EntityGraph(SALE_DETAILS)
     List<Sale> findByStatus(Sale.SaleStatus status);
 
+    @EntityGraph(SALE_DETAILS)
     List<Sale> findByCustomerId(Long customerId);
 
+    @EntityGraph(SALE_DETAILS)
     List<Sale> findByVehicleId(Long vehicleId);
 
+    @EntityGraph(SALE_DETAILS)
+    List<Sale> findByVehicleIdInAndStatusIn(Collection<Long> vehicleIds, Collection<Sale.SaleStatus> statuses);
+
+    boolean existsByVehicleId(Long vehicleId);
+
+    boolean existsByCustomerId(Long customerId);
+
+    boolean existsByVehicleIdAndStatusIn(Long vehicleId, Collection<Sale.SaleStatus> statuses);
+
     List<Sale> findByPaymentMethod(Sale.PaymentMethod paymentMethod);
 
     List<Sale> findBySalespersonEmail(String salespersonEmail);
@@ -57,6 +86,7 @@ public interface SaleRepository extends JpaRepository<Sale, Long> {
     BigDecimal getProfitByDateRange(@Param("startDate") LocalDate startDate,
                                    @Param("endDate") LocalDate endDate);
 
+    @EntityGraph(SALE_DETAILS)
     @Query("SELECT s FROM Sale s WHERE " +
            "(:status IS NULL OR s.status = :status) AND " +
            "(:paymentMethod IS NULL OR s.paymentMethod = :paymentMethod) AND " +
@@ -74,6 +104,43 @@ public interface SaleRepository extends JpaRepository<Sale, Long> {
                                    @Param("maxPrice") BigDecimal maxPrice,
                                    Pageable pageable);
 
+    @EntityGraph(SALE_DETAILS)
+    @Query("SELECT s FROM Sale s WHERE " +
+           "(:status IS NULL OR s.status = :status) AND " +
+           "(:paymentMethod IS NULL OR s.paymentMethod = :paymentMethod) AND " +
+           "(:salespersonEmail IS NULL OR s.salespersonEmail = :salespersonEmail) AND " +
+           "(:startDate IS NULL OR s.saleDate >= :startDate) AND " +
+           "(:endDate IS NULL OR s.saleDate <= :endDate) AND " +
+           "(:minPrice IS NULL OR s.salePrice >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR s.salePrice <= :maxPrice) AND " +
+           "(:afterSaleDate IS NULL OR s.saleDate < :afterSaleDate OR " +
+           "(s.saleDate = :afterSaleDate AND s.id < :afterId)) " +
+           "ORDER BY s.saleDate DESC, s.id DESC")
+    Slice<Sale> findSalesWithFiltersAfter(@Param("status") Sale.SaleStatus status,
+                                         @Param("paymentMethod") Sale.PaymentMethod paymentMethod,
+                                         @Param("salespersonEmail") String salespersonEmail,
+                                         @Param("startDate") LocalDate startDate,
+                                         @Param("endDate") LocalDate endDate,
+                                         @Param("minPrice") BigDecimal minPrice,
+                                         @Param("maxPrice") BigDecimal maxPrice,
+                                         @Param("afterSaleDate") LocalDate afterSaleDate,
+                                         @Param("afterId") Long afterId,
+                                         Pageable pageable);
+
+    // Rows of SaleExportColumn, in its order, for the sales modified after the (since, afterId) watermark and up
+    // to until; walks the (updated_at, id) index
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = VehicleRepository.STREAM_FETCH_SIZE),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT s.id, v.id, v.vin, c.id, c.email, s.saleDate, s.status, s.paymentMethod, s.salePrice, " +
+           "s.downPayment, s.tradeInValue, s.financingAmount, s.commissionAmount, s.salespersonEmail, " +
+           "s.isFinalized, s.createdAt, s.updatedAt " +
+           "FROM Sale s JOIN s.vehicle v JOIN s.customer c " +
+           "WHERE (s.updatedAt > :since OR (s.updatedAt = :since AND s.id > :afterId)) AND s.updatedAt <= :until " +
+           "ORDER BY s.updatedAt, s.id")
+    Stream<Object[]> streamExportRows(@Param("since") LocalDateTime since,
+                                      @Param("afterId") long afterId,
+                                      @Param("until") LocalDateTime until);
+
     @Query("SELECT s.salespersonEmail, COUNT(s), SUM(s.salePrice) FROM Sale s WHERE s.status = 'COMPLETED' GROUP BY s.salespersonEmail ORDER BY SUM(s.salePrice) DESC")
     List<Object[]> getSalespersonPerformance();
 
@@ -83,6 +150,7 @@ public interface SaleRepository extends JpaRepository<Sale, Long> {
     @Query("SELECT s.paymentMethod, COUNT(s) FROM Sale s GROUP BY s.paymentMethod ORDER BY COUNT(s) DESC")
     List<Object[]> getPaymentMethodDistribution();
 
+    @EntityGraph(SALE_DETAILS)
     @Query("SELECT s FROM Sale s WHERE s.isFinalized = false AND s.status = 'PENDING'")
     List<Sale> findPendingUnfinalizedSales();
 
@@ -0,0 +1,83 @@
+package com.automotive.sales.repository;
+
+import com.automotive.sales.model.Sale;
+import com.automotive.sales.model.SalesDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SalesDailyRollupRepository extends JpaRepository<SalesDailyRollup, SalesDailyRollup.Key> {
+
+    // Relative update, so concurrent completions on the same day add up instead of overwriting each other
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE SalesDailyRollup r SET r.saleCount = r.saleCount + :count, r.revenue = r.revenue + :revenue, " +
+           "r.cost = r.cost + :cost, r.profit = r.profit + :profit, r.commission = r.commission + :commission " +
+           "WHERE r.id = :id")
+    int increment(@Param("id") SalesDailyRollup.Key id,
+                  @Param("count") long count,
+                  @Param("revenue") BigDecimal revenue,
+                  @Param("cost") BigDecimal cost,
+                  @Param("profit") BigDecimal profit,
+                  @Param("commission") BigDecimal commission);
+
+    @Modifying
+    @Query("DELETE FROM SalesDailyRollup r")
+    int deleteAllRows();
+
+    // Backfill: one grouped pass over the final sales
+    @Modifying
+    @Query(value = "INSERT INTO sales_daily_rollup (sale_date, sale_status, payment_method, salesperson_email, " +
+                   "sale_count, revenue, cost, profit, commission) " +
+                   "SELECT s.sale_date, s.sale_status, s.payment_method, COALESCE(s.salesperson_email, ''), " +
+                   "COUNT(*), SUM(s.sale_price), COALESCE(SUM(v.purchase_price), 0), " +
+                   "COALESCE(SUM(s.sale_price - v.purchase_price), 0), COALESCE(SUM(s.commission_amount), 0) " +
+                   "FROM sales s JOIN vehicles v ON v.id = s.vehicle_id " +
+                   "WHERE s.sale_status IN ('COMPLETED', 'CANCELLED') " +
+                   "GROUP BY s.sale_date, s.sale_status, s.payment_method, COALESCE(s.salesperson_email, '')",
+           nativeQuery = true)
+    int insertFromSales();
+
+    @Query("SELECT SUM(r.revenue) FROM SalesDailyRollup r WHERE r.id.status = :status")
+    BigDecimal getTotalRevenue(@Param("status") Sale.SaleStatus status);
+
+    @Query("SELECT SUM(r.revenue) FROM SalesDailyRollup r " +
+           "WHERE r.id.status = :status AND r.id.saleDate BETWEEN :startDate AND :endDate")
+    BigDecimal getRevenueByDateRange(@Param("status") Sale.SaleStatus status,
+                                     @Param("startDate") LocalDate startDate,
+                                     @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT SUM(r.profit) FROM SalesDailyRollup r WHERE r.id.status = :status")
+    BigDecimal getTotalProfit(@Param("status") Sale.SaleStatus status);
+
+    @Query("SELECT SUM(r.profit) FROM SalesDailyRollup r " +
+           "WHERE r.id.status = :status AND r.id.saleDate BETWEEN :startDate AND :endDate")
+    BigDecimal getProfitByDateRange(@Param("status") Sale.SaleStatus status,
+                                    @Param("startDate") LocalDate startDate,
+                                    @Param("endDate") LocalDate endDate);
+
+    // Year and month, sale count and revenue; the grouping runs over at most a few rows per day
+    @Query("SELECT YEAR(r.id.saleDate), MONTH(r.id.saleDate), SUM(r.saleCount), SUM(r.revenue) " +
+           "FROM SalesDailyRollup r WHERE r.id.status = :status " +
+           "GROUP BY YEAR(r.id.saleDate), MONTH(r.id.saleDate) " +
+           "ORDER BY YEAR(r.id.saleDate), MONTH(r.id.saleDate)")
+    List<Object[]> getMonthlySalesReport(@Param("status") Sale.SaleStatus status);
+
+    // Sale count and revenue per salesperson and day from :from to :to, for the leaderboard's day, week and month
+    @Query("SELECT r.id.salespersonEmail, r.id.saleDate, SUM(r.saleCount), SUM(r.revenue) " +
+           "FROM SalesDailyRollup r WHERE r.id.status = :status AND r.id.saleDate BETWEEN :from AND :to " +
+           "GROUP BY r.id.salespersonEmail, r.id.saleDate")
+    List<Object[]> getSalespersonDailyTotals(@Param("status") Sale.SaleStatus status,
+                                             @Param("from") LocalDate from,
+                                             @Param("to") LocalDate to);
+
+    @Query("SELECT r.id.salespersonEmail, SUM(r.saleCount), SUM(r.revenue) " +
+           "FROM SalesDailyRollup r WHERE r.id.status = :status GROUP BY r.id.salespersonEmail")
+    List<Object[]> getSalespersonTotals(@Param("status") Sale.SaleStatus status);
+}
@@ -1,25 +1,123 @@
 package com.automotive.sales.repository;
 
+import com.automotive.sales.model.Sale;
 import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.model.VehicleSummary;
+import com.automotive.sales.model.VehicleVersion;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
+public interface VehicleRepository extends JpaRepository<Vehicle, Long>, VehicleRepositoryCustom {
+
+    // Rows fetched per round trip by the streaming queries; must be consumed inside a transaction
+    String STREAM_FETCH_SIZE = "500";
+
+    // Width of the price ranges counted by findFacetRows
+    int FACET_PRICE_BUCKET_WIDTH = 10000;
+
+    String SUMMARY_SELECT = "SELECT new com.automotive.sales.model.VehicleSummary(" +
+            "v.id, v.vin, v.make, v.model, v.year, v.sellingPrice, v.status, v.location, v.createdAt) FROM Vehicle v";
 
     Optional<Vehicle> findByVin(String vin);
 
+    @Query("SELECT new com.automotive.sales.model.VehicleVersion(v.id, v.version, v.updatedAt) " +
+           "FROM Vehicle v WHERE v.id = :id")
+    Optional<VehicleVersion> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT new com.automotive.sales.model.VehicleVersion(v.id, v.version, v.updatedAt) " +
+           "FROM Vehicle v WHERE v.vin = :vin")
+    Optional<VehicleVersion> findVersionByVin(@Param("vin") String vin);
+
     List<Vehicle> findByStatus(Vehicle.VehicleStatus status);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM Vehicle v WHERE v.id = :id")
+    Optional<Vehicle> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Moves a vehicle to {@code to} only if it is currently in one of the {@code from} statuses.
+     * Returns the number of rows changed, so 1 means the caller won the transition. Pending changes are flushed
+     * first, but the persistence context is not cleared: callers {@link #refreshLoaded refresh} the vehicle.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Vehicle v SET v.status = :to, v.version = v.version + 1, v.updatedAt = :now " +
+           "WHERE v.id = :id AND v.status IN :from")
+    int transitionStatus(@Param("id") Long id,
+                         @Param("from") Collection<Vehicle.VehicleStatus> from,
+                         @Param("to") Vehicle.VehicleStatus to,
+                         @Param("now") LocalDateTime now);
+
+    // Locks the rows so a bulk update can report exactly which vehicles it changed. Rows are locked in the order
+    // they are read, not the order of the IN list, so the ORDER BY is what keeps concurrent lockers deadlock free
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v.id, v.status FROM Vehicle v WHERE v.id IN :ids ORDER BY v.id")
+    List<Object[]> findStatusesForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Status and last change of the vehicles whose reservations are due, locked so a sale cannot claim them meanwhile;
+    // in id order like findStatusesForUpdate, so expiry and bulk updates lock rows in the same order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v.id, v.status, v.updatedAt FROM Vehicle v WHERE v.id IN :ids ORDER BY v.id")
+    List<Object[]> findReservationsForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Every reserved vehicle with the status and last change of each of its open sales, if any
+    @Query("SELECT v.id, v.updatedAt, s.status, s.updatedAt FROM Vehicle v " +
+           "LEFT JOIN Sale s ON s.vehicle.id = v.id AND s.status IN :openStatuses " +
+           "WHERE v.status = 'RESERVED'")
+    List<Object[]> findReservationHolds(@Param("openStatuses") Collection<Sale.SaleStatus> openStatuses);
+
+    // Like transitionStatus, callers refresh the vehicles they changed
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Vehicle v SET v.status = :to, v.version = v.version + 1, v.updatedAt = :now " +
+           "WHERE v.id IN :ids")
+    int updateStatuses(@Param("ids") Collection<Long> ids,
+                       @Param("to") Vehicle.VehicleStatus to,
+                       @Param("now") LocalDateTime now);
+
+    @Query("SELECT v.id FROM Vehicle v WHERE " +
+           "(:make IS NULL OR LOWER(v.make) LIKE LOWER(CONCAT('%', :make, '%'))) AND " +
+           "(:model IS NULL OR LOWER(v.model) LIKE LOWER(CONCAT('%', :model, '%'))) AND " +
+           "(:year IS NULL OR v.year = :year) AND " +
+           "(:status IS NULL OR v.status = :status) AND " +
+           "(:location IS NULL OR v.location = :location) AND " +
+           "(:minPrice IS NULL OR v.sellingPrice >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR v.sellingPrice <= :maxPrice) " +
+           "ORDER BY v.id")
+    List<Long> findIdsWithFilters(@Param("make") String make,
+                                  @Param("model") String model,
+                                  @Param("year") Integer year,
+                                  @Param("status") Vehicle.VehicleStatus status,
+                                  @Param("location") String location,
+                                  @Param("minPrice") BigDecimal minPrice,
+                                  @Param("maxPrice") BigDecimal maxPrice,
+                                  Pageable pageable);
+
+    @Query("SELECT v.vin FROM Vehicle v WHERE v.vin IN :vins")
+    List<String> findExistingVins(@Param("vins") Collection<String> vins);
+
+    // VIN, id, status and purchase price: what the sales backfill needs to resolve and roll up its rows
+    @Query("SELECT v.vin, v.id, v.status, v.purchasePrice FROM Vehicle v WHERE v.vin IN :vins")
+    List<Object[]> findBackfillRowsByVinIn(@Param("vins") Collection<String> vins);
+
     List<Vehicle> findByMakeAndModel(String make, String model);
 
     List<Vehicle> findByYear(Integer year);
@@ -34,6 +132,17 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     List<Vehicle> findByPriceRange(@Param("minPrice") BigDecimal minPrice, 
                                    @Param("maxPrice") BigDecimal maxPrice);
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT v FROM Vehicle v WHERE v.status = :status")
+    Stream<Vehicle> streamByStatus(@Param("status") Vehicle.VehicleStatus status);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT v FROM Vehicle v WHERE v.sellingPrice BETWEEN :minPrice AND :maxPrice")
+    Stream<Vehicle> streamByPriceRange(@Param("minPrice") BigDecimal minPrice,
+                                       @Param("maxPrice") BigDecimal maxPrice);
+
     @Query("SELECT v FROM Vehicle v WHERE v.status = :status AND v.sellingPrice <= :maxPrice")
     List<Vehicle> findAvailableVehiclesUnderPrice(@Param("status") Vehicle.VehicleStatus status,
                                                   @Param("maxPrice") BigDecimal maxPrice);
@@ -66,9 +175,122 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
                                          @Param("maxPrice") BigDecimal maxPrice,
                                          Pageable pageable);
 
+    @Query("SELECT v FROM Vehicle v WHERE " +
+           "(:make IS NULL OR LOWER(v.make) LIKE LOWER(CONCAT('%', :make, '%'))) AND " +
+           "(:model IS NULL OR LOWER(v.model) LIKE LOWER(CONCAT('%', :model, '%'))) AND " +
+           "(:year IS NULL OR v.year = :year) AND " +
+           "(:status IS NULL OR v.status = :status) AND " +
+           "(:minPrice IS NULL OR v.sellingPrice >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR v.sellingPrice <= :maxPrice) AND " +
+           "(:afterCreatedAt IS NULL OR v.createdAt < :afterCreatedAt OR " +
+           "(v.createdAt = :afterCreatedAt AND v.id < :afterId)) " +
+           "ORDER BY v.createdAt DESC, v.id DESC")
+    Slice<Vehicle> findVehiclesWithFiltersAfter(@Param("make") String make,
+                                                @Param("model") String model,
+                                                @Param("year") Integer year,
+                                                @Param("status") Vehicle.VehicleStatus status,
+                                                @Param("minPrice") BigDecimal minPrice,
+                                                @Param("maxPrice") BigDecimal maxPrice,
+                                                @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                @Param("afterId") Long afterId,
+                                                Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " WHERE " +
+           "(:make IS NULL OR LOWER(v.make) LIKE LOWER(CONCAT('%', :make, '%'))) AND " +
+           "(:model IS NULL OR LOWER(v.model) LIKE LOWER(CONCAT('%', :model, '%'))) AND " +
+           "(:year IS NULL OR v.year = :year) AND " +
+           "(:status IS NULL OR v.status = :status) AND " +
+           "(:minPrice IS NULL OR v.sellingPrice >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR v.sellingPrice <= :maxPrice)",
+           countQuery = "SELECT COUNT(v) FROM Vehicle v WHERE " +
+           "(:make IS NULL OR LOWER(v.make) LIKE LOWER(CONCAT('%', :make, '%'))) AND " +
+           "(:model IS NULL OR LOWER(v.model) LIKE LOWER(CONCAT('%', :model, '%'))) AND " +
+           "(:year IS NULL OR v.year = :year) AND " +
+           "(:status IS NULL OR v.status = :status) AND " +
+           "(:minPrice IS NULL OR v.sellingPrice >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR v.sellingPrice <= :maxPrice)")
+    Page<VehicleSummary> findVehicleSummariesWithFilters(@Param("make") String make,
+                                                         @Param("model") String model,
+                                                         @Param("year") Integer year,
+                                                         @Param("status") Vehicle.VehicleStatus status,
+                                                         @Param("minPrice") BigDecimal minPrice,
+                                                         @Param("maxPrice") BigDecimal maxPrice,
+                                                         Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE " +
+           "(:make IS NULL OR LOWER(v.make) LIKE LOWER(CONCAT('%', :make, '%'))) AND " +
+           "(:model IS NULL OR LOWER(v.model) LIKE LOWER(CONCAT('%', :model, '%'))) AND " +
+           "(:year IS NULL OR v.year = :year) AND " +
+           "(:status IS NULL OR v.status = :status) AND " +
+           "(:minPrice IS NULL OR v.sellingPrice >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR v.sellingPrice <= :maxPrice) AND " +
+           "(:afterCreatedAt IS NULL OR v.createdAt < :afterCreatedAt OR " +
+           "(v.createdAt = :afterCreatedAt AND v.id < :afterId)) " +
+           "ORDER BY v.createdAt DESC, v.id DESC")
+    Slice<VehicleSummary> findVehicleSummariesWithFiltersAfter(@Param("make") String make,
+                                                               @Param("model") String model,
+                                                               @Param("year") Integer year,
+                                                               @Param("status") Vehicle.VehicleStatus status,
+                                                               @Param("minPrice") BigDecimal minPrice,
+                                                               @Param("maxPrice") BigDecimal maxPrice,
+                                                               @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                               @Param("afterId") Long afterId,
+                                                               Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE v.id IN :ids")
+    List<VehicleSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SUMMARY_SELECT + " WHERE v.status = :status")
+    List<VehicleSummary> findSummariesByStatus(@Param("status") Vehicle.VehicleStatus status);
+
+    @Query(SUMMARY_SELECT + " WHERE v.sellingPrice BETWEEN :minPrice AND :maxPrice")
+    List<VehicleSummary> findSummariesByPriceRange(@Param("minPrice") BigDecimal minPrice,
+                                                   @Param("maxPrice") BigDecimal maxPrice);
+
+    @Query(SUMMARY_SELECT + " WHERE v.mileage < :maxMileage AND v.status = 'AVAILABLE'")
+    List<VehicleSummary> findLowMileageSummaries(@Param("maxMileage") Integer maxMileage);
+
+    @Query("SELECT v.id, v.make, v.model, v.year, v.status, v.condition, v.sellingPrice FROM Vehicle v")
+    List<Object[]> findInventoryIndexRows();
+
+    // One row per (make, year, condition, status, price bucket) combination with its count; facets are summed from these
+    @Query("SELECT v.make, v.year, v.condition, v.status, FLOOR(v.sellingPrice / " + FACET_PRICE_BUCKET_WIDTH + "), " +
+           "COUNT(v) FROM Vehicle v WHERE " +
+           "(:make IS NULL OR LOWER(v.make) LIKE LOWER(CONCAT('%', :make, '%'))) AND " +
+           "(:model IS NULL OR LOWER(v.model) LIKE LOWER(CONCAT('%', :model, '%'))) AND " +
+           "(:year IS NULL OR v.year = :year) AND " +
+           "(:status IS NULL OR v.status = :status) AND " +
+           "(:minPrice IS NULL OR v.sellingPrice >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR v.sellingPrice <= :maxPrice) " +
+           "GROUP BY v.make, v.year, v.condition, v.status, FLOOR(v.sellingPrice / " + FACET_PRICE_BUCKET_WIDTH + ")")
+    List<Object[]> findFacetRows(@Param("make") String make,
+                                 @Param("model") String model,
+                                 @Param("year") Integer year,
+                                 @Param("status") Vehicle.VehicleStatus status,
+                                 @Param("minPrice") BigDecimal minPrice,
+                                 @Param("maxPrice") BigDecimal maxPrice);
+
+    @Query("SELECT v.id, v.make, v.model, v.color, v.description FROM Vehicle v")
+    List<Object[]> findSearchIndexRows();
+
+    @Query("SELECT v FROM Vehicle v WHERE " +
+           "LOWER(v.make) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
+           "LOWER(v.model) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
+           "LOWER(v.color) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
+           "LOWER(v.description) LIKE LOWER(CONCAT('%', :text, '%'))")
+    List<Vehicle> searchByText(@Param("text") String text, Pageable pageable);
+
+    @Query("SELECT v.id, v.status, v.make, v.sellingPrice, v.purchasePrice FROM Vehicle v")
+    List<Object[]> findStatisticsRows();
+
     @Query("SELECT v.make, COUNT(v) FROM Vehicle v GROUP BY v.make ORDER BY COUNT(v) DESC")
     List<Object[]> getVehicleCountByMake();
 
     @Query("SELECT v FROM Vehicle v WHERE v.mileage < :maxMileage AND v.status = 'AVAILABLE'")
     List<Vehicle> findLowMileageVehicles(@Param("maxMileage") Integer maxMileage);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT v FROM Vehicle v WHERE v.mileage < :maxMileage AND v.status = 'AVAILABLE'")
+    Stream<Vehicle> streamLowMileageVehicles(@Param("maxMileage") Integer maxMileage);
 }
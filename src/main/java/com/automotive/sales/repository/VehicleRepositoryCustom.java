@@ -0,0 +1,13 @@
+package com.automotive.sales.repository;
+
+import java.util.Collection;
+
+public interface VehicleRepositoryCustom {
+
+    /**
+     * Re-reads the vehicles among {@code ids} that the current persistence context has already loaded, after a
+     * bulk UPDATE changed their rows behind its back. Vehicles not loaded yet, including uninitialized proxies,
+     * are left alone: they will read the new state when first accessed.
+     */
+    void refreshLoaded(Collection<Long> ids);
+}
@@ -0,0 +1,30 @@
+package com.automotive.sales.repository;
+
+import com.automotive.sales.model.Vehicle;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.Collection;
+
+@RequiredArgsConstructor
+class VehicleRepositoryCustomImpl implements VehicleRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public void refreshLoaded(Collection<Long> ids) {
+        // Looks the vehicles up by key instead of through find or getReference, which would load or add them
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Vehicle.class);
+        PersistenceContext loaded = session.getPersistenceContextInternal();
+        for (Long id : ids) {
+            Object vehicle = loaded.getEntity(session.generateEntityKey(id, persister));
+            if (vehicle != null) {
+                entityManager.refresh(vehicle);
+            }
+        }
+    }
+}
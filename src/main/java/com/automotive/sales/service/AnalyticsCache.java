@@ -0,0 +1,274 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Sale;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Results of the {@link AnalyticsService} reports, keyed by report and arguments, dropped as soon as a committed
+ * change touches the data a report reads.
+ * <p>
+ * Each domain event invalidates only the reports it can change:
+ * <ul>
+ *   <li>any vehicle change: inventory;</li>
+ *   <li>any customer change: customers;</li>
+ *   <li>a sale created or updated: sales performance, whose payment method distribution counts every sale;</li>
+ *   <li>a sale completed, or imported as completed: also revenue and growth projections, which read completed
+ *       sales only. Approvals and cancellations change neither.</li>
+ * </ul>
+ * Concurrent misses on one key share a single load. A load that started before an invalidation still answers
+ * its callers but is not kept. Entries also expire after {@code app.analytics.cache.ttl-ms}, and the least
+ * recently used entry goes once {@code app.analytics.cache.max-entries} is reached. Hits, misses, load times,
+ * evictions and invalidations are counted per report.
+ */
+@Component
+@Slf4j
+public class AnalyticsCache {
+
+    public enum Report {
+        REVENUE, SALES_PERFORMANCE, INVENTORY, CUSTOMERS, GROWTH_PROJECTIONS
+    }
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<Report, Totals> totals = new EnumMap<>(Report.class);
+
+    // Access order, so the eldest entry is the least recently used; guarded by this
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() <= maxEntries) {
+                return false;
+            }
+            totals.get(eldest.getKey().report()).evictions.increment();
+            return true;
+        }
+    };
+
+    public AnalyticsCache(@Value("${app.analytics.cache.enabled:true}") boolean enabled,
+                          @Value("${app.analytics.cache.max-entries:256}") int maxEntries,
+                          @Value("${app.analytics.cache.ttl-ms:600000}") long ttlMillis) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        for (Report report : Report.values()) {
+            totals.put(report, new Totals());
+        }
+    }
+
+    public <T> T get(Report report, List<?> arguments, Supplier<T> loader) {
+        return get(report, arguments, loader, value -> true);
+    }
+
+    /**
+     * The cached result of {@code report} for {@code arguments}, loading it on a miss. A loaded value that fails
+     * {@code cacheable}, such as a partial report, is returned without being kept.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Report report, List<?> arguments, Supplier<T> loader, Predicate<T> cacheable) {
+        if (!enabled) {
+            return loader.get();
+        }
+        // Arguments may be null, which List.copyOf rejects
+        Key key = new Key(report, Collections.unmodifiableList(new ArrayList<>(arguments)));
+        Totals stats = totals.get(report);
+        Entry entry;
+        boolean load = false;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && entry.expired(System.nanoTime(), ttlNanos)) {
+                entries.remove(key);
+                entry = null;
+            }
+            if (entry == null) {
+                entry = new Entry(System.nanoTime());
+                entries.put(key, entry);
+                load = true;
+            }
+        }
+        if (!load) {
+            stats.hits.increment();
+            return (T) join(entry);
+        }
+
+        stats.misses.increment();
+        long started = System.nanoTime();
+        T value;
+        try {
+            value = loader.get();
+        } catch (Throwable e) {
+            // Errors too, or the entry would stay unfinished and its waiters would block forever
+            discard(key, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+        stats.loaded(System.nanoTime() - started);
+        if (!cacheable.test(value)) {
+            discard(key, entry);
+        }
+        entry.result.complete(value);
+        return value;
+    }
+
+    /**
+     * Drops every entry of the given reports, including loads still running.
+     */
+    public void invalidate(Report... reports) {
+        Set<Report> invalidated = EnumSet.noneOf(Report.class);
+        invalidated.addAll(Arrays.asList(reports));
+        int removed = 0;
+        synchronized (this) {
+            Iterator<Key> keys = entries.keySet().iterator();
+            while (keys.hasNext()) {
+                Key key = keys.next();
+                if (invalidated.contains(key.report())) {
+                    keys.remove();
+                    totals.get(key.report()).invalidations.increment();
+                    removed++;
+                }
+            }
+        }
+        log.debug("Invalidated {} analytics cache entries of {}", removed, invalidated);
+    }
+
+    @EventListener
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        invalidate(Report.INVENTORY);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        invalidate(Report.CUSTOMERS);
+    }
+
+    // After SalespersonLeaderboard has counted the sale, so a reload sees its new totals
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onSaleChanged(SaleChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> invalidate(Report.SALES_PERFORMANCE);
+            case COMPLETED -> invalidate(Report.SALES_PERFORMANCE, Report.REVENUE, Report.GROWTH_PROJECTIONS);
+            case IMPORTED -> {
+                if (event.status() == Sale.SaleStatus.COMPLETED) {
+                    invalidate(Report.SALES_PERFORMANCE, Report.REVENUE, Report.GROWTH_PROJECTIONS);
+                } else {
+                    invalidate(Report.SALES_PERFORMANCE);
+                }
+            }
+            case APPROVED, CANCELLED -> {
+                // Neither the completed sales nor the payment method of any sale changed
+            }
+        }
+    }
+
+    public List<CacheStatistics> statistics() {
+        Map<Report, Integer> sizes = new EnumMap<>(Report.class);
+        synchronized (this) {
+            entries.keySet().forEach(key -> sizes.merge(key.report(), 1, Integer::sum));
+        }
+        List<CacheStatistics> statistics = new ArrayList<>();
+        for (Report report : Report.values()) {
+            statistics.add(totals.get(report).toStatistics(report, sizes.getOrDefault(report, 0)));
+        }
+        return statistics;
+    }
+
+    private synchronized void discard(Key key, Entry entry) {
+        entries.remove(key, entry);
+    }
+
+    private static Object join(Entry entry) {
+        try {
+            return entry.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(Report report, List<?> arguments) {
+    }
+
+    private static final class Entry {
+
+        private final long createdNanos;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Entry(long createdNanos) {
+            this.createdNanos = createdNanos;
+        }
+
+        // A load still running never expires, so its waiters keep sharing it
+        private boolean expired(long nowNanos, long ttlNanos) {
+            return result.isDone() && nowNanos - createdNanos > ttlNanos;
+        }
+    }
+
+    private static final class Totals {
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder loads = new LongAdder();
+        private final LongAdder loadNanos = new LongAdder();
+        private final LongAccumulator maxLoadNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder evictions = new LongAdder();
+        private final LongAdder invalidations = new LongAdder();
+
+        private void loaded(long nanos) {
+            loads.increment();
+            loadNanos.add(nanos);
+            maxLoadNanos.accumulate(nanos);
+        }
+
+        private CacheStatistics toStatistics(Report report, int size) {
+            long hitCount = hits.sum();
+            long missCount = misses.sum();
+            long loadCount = loads.sum();
+            return CacheStatistics.builder()
+                    .report(report)
+                    .entries(size)
+                    .hits(hitCount)
+                    .misses(missCount)
+                    .hitRate(hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount))
+                    .averageLoadMillis(loadCount == 0 ? 0 : loadNanos.sum() / 1e6 / loadCount)
+                    .maxLoadMillis(maxLoadNanos.get() / 1e6)
+                    .evictions(evictions.sum())
+                    .invalidations(invalidations.sum())
+                    .build();
+        }
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    public static class CacheStatistics {
+        private Report report;
+        private int entries;
+        private long hits;
+        private long misses;
+        private double hitRate;
+        private double averageLoadMillis;
+        private double maxLoadMillis;
+        private long evictions;
+        private long invalidations;
+    }
+}
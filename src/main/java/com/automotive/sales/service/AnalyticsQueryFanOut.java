@@ -0,0 +1,162 @@
+package com.automotive.sales.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent read-only queries behind one analytics report side by side, so the report takes as long
+ * as its slowest query instead of the sum of all of them.
+ * <p>
+ * Each query runs on a bounded pool in its own read-only transaction, whose timeout also applies to the JDBC
+ * statements. When the pool's queue is full the caller runs the query itself, which keeps a burst of reports
+ * from queueing without limit. Queries not finished by the report's deadline are cancelled.
+ * <p>
+ * A query that fails or times out leaves its metric out of the report: with {@code app.analytics.partial-results}
+ * the report is returned with the metric null and named in its unavailable metrics, otherwise the report fails
+ * with an {@link IllegalStateException}. With {@code app.analytics.fan-out} off, the queries run one after
+ * another on the calling thread under the same rules.
+ * <pre>{@code
+ * AnalyticsQueryFanOut.Batch batch = analyticsQueryFanOut.batch();
+ * AnalyticsQueryFanOut.Pending<Long> available = batch.submit("availableVehicles", () -> countAvailable());
+ * batch.await();
+ * Long count = available.value(); // null when unavailable
+ * }</pre>
+ */
+@Component
+@Slf4j
+public class AnalyticsQueryFanOut {
+
+    private final boolean enabled;
+    private final long timeoutMillis;
+    private final boolean partialResults;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor executor;
+
+    public AnalyticsQueryFanOut(PlatformTransactionManager transactionManager,
+                                @Value("${app.analytics.fan-out:true}") boolean enabled,
+                                @Value("${app.analytics.query-threads:8}") int threads,
+                                @Value("${app.analytics.queue-capacity:64}") int queueCapacity,
+                                @Value("${app.analytics.query-timeout-ms:5000}") long timeoutMillis,
+                                @Value("${app.analytics.partial-results:true}") boolean partialResults) {
+        this.enabled = enabled;
+        this.timeoutMillis = timeoutMillis;
+        this.partialResults = partialResults;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, (timeoutMillis + 999) / 1000));
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), daemon("analytics-query"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts the queries of one report; the deadline runs from this call.
+     */
+    public Batch batch() {
+        return new Batch(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+    }
+
+    public final class Batch {
+
+        private final long deadlineNanos;
+        private final List<Pending<?>> pending = new ArrayList<>();
+        private final List<String> unavailable = new ArrayList<>();
+
+        private Batch(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public <T> Pending<T> submit(String metric, Supplier<T> query) {
+            Callable<T> task = () -> readOnlyTransaction.execute(status -> query.get());
+            Future<T> future;
+            if (enabled) {
+                future = executor.submit(task);
+            } else {
+                FutureTask<T> inline = new FutureTask<>(task);
+                inline.run();
+                future = inline;
+            }
+            Pending<T> result = new Pending<>(metric, future);
+            pending.add(result);
+            return result;
+        }
+
+        /**
+         * Waits for every submitted query until the deadline, then applies the partial-result policy.
+         *
+         * @return the metrics whose query failed or timed out, in submission order
+         */
+        public List<String> await() {
+            for (Pending<?> query : pending) {
+                long remaining = deadlineNanos - System.nanoTime();
+                try {
+                    query.complete(query.future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS));
+                } catch (TimeoutException e) {
+                    query.future.cancel(true);
+                    log.warn("Analytics query {} did not finish within {} ms", query.metric, timeoutMillis);
+                    unavailable.add(query.metric);
+                } catch (ExecutionException e) {
+                    log.warn("Analytics query {} failed", query.metric, e.getCause());
+                    unavailable.add(query.metric);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    pending.forEach(p -> p.future.cancel(true));
+                    throw new IllegalStateException("Interrupted while waiting for analytics queries", e);
+                }
+            }
+            if (!unavailable.isEmpty() && !partialResults) {
+                throw new IllegalStateException("Analytics metrics unavailable: " + String.join(", ", unavailable));
+            }
+            return List.copyOf(unavailable);
+        }
+    }
+
+    /**
+     * The result of one submitted query, readable once its batch has been awaited.
+     */
+    public static final class Pending<T> {
+
+        private final String metric;
+        private final Future<T> future;
+        private T value;
+
+        private Pending(String metric, Future<T> future) {
+            this.metric = metric;
+            this.future = future;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void complete(Object result) {
+            this.value = (T) result;
+        }
+
+        public T value() {
+            return value;
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,12 +1,15 @@
 package com.automotive.sales.service;
 
+import com.automotive.sales.model.Customer;
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.money.Cents;
 import com.automotive.sales.repository.SaleRepository;
 import com.automotive.sales.repository.VehicleRepository;
 import com.automotive.sales.repository.CustomerRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -15,31 +18,83 @@ import java.time.YearMonth;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Dashboard reports. Results are served from {@link AnalyticsCache} until a change to their data commits; a
+ * miss computes the report in a read-only transaction, or through {@link AnalyticsQueryFanOut} for the inventory
+ * and customer reports. Partial reports are never cached.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
-@Transactional(readOnly = true)
 public class AnalyticsService {
 
     private final SaleRepository saleRepository;
     private final VehicleRepository vehicleRepository;
     private final CustomerRepository customerRepository;
+    private final SalesRollupService salesRollupService;
+    private final SalespersonLeaderboard salespersonLeaderboard;
+    private final AnalyticsQueryFanOut analyticsQueryFanOut;
+    private final AnalyticsCache analyticsCache;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public AnalyticsService(SaleRepository saleRepository,
+                            VehicleRepository vehicleRepository,
+                            CustomerRepository customerRepository,
+                            SalesRollupService salesRollupService,
+                            SalespersonLeaderboard salespersonLeaderboard,
+                            AnalyticsQueryFanOut analyticsQueryFanOut,
+                            AnalyticsCache analyticsCache,
+                            PlatformTransactionManager transactionManager) {
+        this.saleRepository = saleRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.customerRepository = customerRepository;
+        this.salesRollupService = salesRollupService;
+        this.salespersonLeaderboard = salespersonLeaderboard;
+        this.analyticsQueryFanOut = analyticsQueryFanOut;
+        this.analyticsCache = analyticsCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
 
     public RevenueAnalytics getRevenueAnalytics(LocalDate startDate, LocalDate endDate) {
+        return analyticsCache.get(AnalyticsCache.Report.REVENUE, Arrays.asList(startDate, endDate),
+                () -> readOnlyTransaction.execute(status -> loadRevenueAnalytics(startDate, endDate)));
+    }
+
+    public SalesPerformanceAnalytics getSalesPerformanceAnalytics() {
+        return analyticsCache.get(AnalyticsCache.Report.SALES_PERFORMANCE, List.of(),
+                () -> readOnlyTransaction.execute(status -> loadSalesPerformanceAnalytics()));
+    }
+
+    public InventoryAnalytics getInventoryAnalytics() {
+        return analyticsCache.get(AnalyticsCache.Report.INVENTORY, List.of(), this::loadInventoryAnalytics,
+                report -> report.getUnavailableMetrics().isEmpty());
+    }
+
+    public CustomerAnalytics getCustomerAnalytics() {
+        return analyticsCache.get(AnalyticsCache.Report.CUSTOMERS, List.of(), this::loadCustomerAnalytics,
+                report -> report.getUnavailableMetrics().isEmpty());
+    }
+
+    // Projections start next month, so the month is part of the key
+    public GrowthProjections getGrowthProjections(int monthsAhead) {
+        return analyticsCache.get(AnalyticsCache.Report.GROWTH_PROJECTIONS, List.of(monthsAhead, YearMonth.now()),
+                () -> readOnlyTransaction.execute(status -> loadGrowthProjections(monthsAhead)));
+    }
+
+    private RevenueAnalytics loadRevenueAnalytics(LocalDate startDate, LocalDate endDate) {
         log.info("Generating revenue analytics for period: {} to {}", startDate, endDate);
         
-        BigDecimal totalRevenue = saleRepository.getRevenueByDateRange(startDate, endDate);
-        BigDecimal totalProfit = saleRepository.getProfitByDateRange(startDate, endDate);
+        BigDecimal totalRevenue = salesRollupService.getRevenueByDateRange(startDate, endDate);
+        BigDecimal totalProfit = salesRollupService.getProfitByDateRange(startDate, endDate);
         BigDecimal averageSalePrice = saleRepository.getAverageSalePrice();
         
-        // Calculate profit margin
+        // Calculate profit margin, in percent to two decimals
         BigDecimal profitMargin = BigDecimal.ZERO;
         if (totalRevenue != null && totalRevenue.compareTo(BigDecimal.ZERO) > 0 && totalProfit != null) {
-            profitMargin = totalProfit.divide(totalRevenue, 4, RoundingMode.HALF_UP)
-                    .multiply(BigDecimal.valueOf(100));
+            profitMargin = Cents.percentOf(Cents.ratio(Cents.of(totalProfit), Cents.of(totalRevenue)));
         }
         
-        List<Object[]> monthlySales = saleRepository.getMonthlySalesReport();
+        List<Object[]> monthlySales = salesRollupService.getMonthlySalesReport();
         List<MonthlySalesData> monthlyData = monthlySales.stream()
                 .map(row -> MonthlySalesData.builder()
                         .year((Integer) row[0])
@@ -58,16 +113,16 @@ public class AnalyticsService {
                 .build();
     }
 
-    public SalesPerformanceAnalytics getSalesPerformanceAnalytics() {
+    private SalesPerformanceAnalytics loadSalesPerformanceAnalytics() {
         log.info("Generating sales performance analytics");
         
-        List<Object[]> salespersonPerformance = saleRepository.getSalespersonPerformance();
-        List<SalespersonPerformance> performanceData = salespersonPerformance.stream()
-                .map(row -> SalespersonPerformance.builder()
-                        .salespersonEmail((String) row[0])
-                        .salesCount((Long) row[1])
-                        .totalRevenue((BigDecimal) row[2])
-                        .averageSaleValue(((BigDecimal) row[2]).divide(BigDecimal.valueOf((Long) row[1]), 2, RoundingMode.HALF_UP))
+        // Running totals rather than a GROUP BY over every completed sale
+        List<SalespersonPerformance> performanceData = salespersonLeaderboard.allTime().stream()
+                .map(standing -> SalespersonPerformance.builder()
+                        .salespersonEmail(standing.getSalespersonEmail())
+                        .salesCount(standing.getSalesCount())
+                        .totalRevenue(standing.getTotalRevenue())
+                        .averageSaleValue(standing.getAverageSaleValue())
                         .build())
                 .collect(Collectors.toList());
         
@@ -84,118 +139,144 @@ public class AnalyticsService {
                 .build();
     }
 
-    public InventoryAnalytics getInventoryAnalytics() {
+    // The queries of the inventory and customer reports run concurrently, each in its own read-only transaction;
+    // the caller holds no connection while it waits for them
+    private InventoryAnalytics loadInventoryAnalytics() {
         log.info("Generating inventory analytics");
         
-        Long availableCount = vehicleRepository.countByStatus(com.automotive.sales.model.Vehicle.VehicleStatus.AVAILABLE);
-        Long soldCount = vehicleRepository.countByStatus(com.automotive.sales.model.Vehicle.VehicleStatus.SOLD);
-        Long reservedCount = vehicleRepository.countByStatus(com.automotive.sales.model.Vehicle.VehicleStatus.RESERVED);
-        Long maintenanceCount = vehicleRepository.countByStatus(com.automotive.sales.model.Vehicle.VehicleStatus.MAINTENANCE);
-        
-        BigDecimal averageSellingPrice = vehicleRepository.getAverageSellingPrice();
-        BigDecimal totalPotentialProfit = vehicleRepository.getTotalPotentialProfit();
-        
-        List<Object[]> vehicleCountByMake = vehicleRepository.getVehicleCountByMake();
-        Map<String, Long> makeDistribution = vehicleCountByMake.stream()
-                .collect(Collectors.toMap(
-                        row -> (String) row[0],
-                        row -> (Long) row[1]
-                ));
+        AnalyticsQueryFanOut.Batch queries = analyticsQueryFanOut.batch();
+        AnalyticsQueryFanOut.Pending<Long> availableCount = queries.submit("availableVehicles",
+                () -> vehicleRepository.countByStatus(Vehicle.VehicleStatus.AVAILABLE));
+        AnalyticsQueryFanOut.Pending<Long> soldCount = queries.submit("soldVehicles",
+                () -> vehicleRepository.countByStatus(Vehicle.VehicleStatus.SOLD));
+        AnalyticsQueryFanOut.Pending<Long> reservedCount = queries.submit("reservedVehicles",
+                () -> vehicleRepository.countByStatus(Vehicle.VehicleStatus.RESERVED));
+        AnalyticsQueryFanOut.Pending<Long> maintenanceCount = queries.submit("maintenanceVehicles",
+                () -> vehicleRepository.countByStatus(Vehicle.VehicleStatus.MAINTENANCE));
+        AnalyticsQueryFanOut.Pending<BigDecimal> averageSellingPrice = queries.submit("averageSellingPrice",
+                () -> Objects.requireNonNullElse(vehicleRepository.getAverageSellingPrice(), BigDecimal.ZERO));
+        AnalyticsQueryFanOut.Pending<BigDecimal> totalPotentialProfit = queries.submit("totalPotentialProfit",
+                () -> Objects.requireNonNullElse(vehicleRepository.getTotalPotentialProfit(), BigDecimal.ZERO));
+        AnalyticsQueryFanOut.Pending<Map<String, Long>> makeDistribution = queries.submit("vehiclesByMake",
+                () -> vehicleRepository.getVehicleCountByMake().stream()
+                        .collect(Collectors.toMap(
+                                row -> (String) row[0],
+                                row -> (Long) row[1]
+                        )));
+        List<String> unavailable = queries.await();
         
-        // Calculate inventory turnover rate (simplified)
-        BigDecimal inventoryTurnover = BigDecimal.ZERO;
-        Long totalVehicles = availableCount + soldCount + reservedCount + maintenanceCount;
-        if (totalVehicles > 0 && soldCount > 0) {
-            inventoryTurnover = BigDecimal.valueOf(soldCount)
-                    .divide(BigDecimal.valueOf(totalVehicles), 4, RoundingMode.HALF_UP)
-                    .multiply(BigDecimal.valueOf(100));
+        // Calculate inventory turnover rate (simplified), unless one of the counts is missing
+        BigDecimal inventoryTurnover = null;
+        Long sold = soldCount.value();
+        if (availableCount.value() != null && sold != null && reservedCount.value() != null
+                && maintenanceCount.value() != null) {
+            inventoryTurnover = BigDecimal.ZERO;
+            long totalVehicles = availableCount.value() + sold + reservedCount.value() + maintenanceCount.value();
+            if (totalVehicles > 0 && sold > 0) {
+                inventoryTurnover = BigDecimal.valueOf(sold)
+                        .divide(BigDecimal.valueOf(totalVehicles), 4, RoundingMode.HALF_UP)
+                        .multiply(BigDecimal.valueOf(100));
+            }
         }
         
         return InventoryAnalytics.builder()
-                .availableVehicles(availableCount)
-                .soldVehicles(soldCount)
-                .reservedVehicles(reservedCount)
-                .maintenanceVehicles(maintenanceCount)
-                .averageSellingPrice(averageSellingPrice != null ? averageSellingPrice : BigDecimal.ZERO)
-                .totalPotentialProfit(totalPotentialProfit != null ? totalPotentialProfit : BigDecimal.ZERO)
+                .availableVehicles(availableCount.value())
+                .soldVehicles(sold)
+                .reservedVehicles(reservedCount.value())
+                .maintenanceVehicles(maintenanceCount.value())
+                .averageSellingPrice(averageSellingPrice.value())
+                .totalPotentialProfit(totalPotentialProfit.value())
                 .inventoryTurnoverRate(inventoryTurnover)
-                .vehiclesByMake(makeDistribution)
+                .vehiclesByMake(makeDistribution.value())
+                .unavailableMetrics(unavailable)
                 .build();
     }
 
-    public CustomerAnalytics getCustomerAnalytics() {
+    private CustomerAnalytics loadCustomerAnalytics() {
         log.info("Generating customer analytics");
         
-        Long totalCustomers = customerRepository.count();
-        Long activeCustomers = (long) customerRepository.findByIsActiveTrue().size();
-        Long businessCustomers = customerRepository.countByCustomerType(com.automotive.sales.model.Customer.CustomerType.BUSINESS);
-        Long individualCustomers = customerRepository.countByCustomerType(com.automotive.sales.model.Customer.CustomerType.INDIVIDUAL);
+        AnalyticsQueryFanOut.Batch queries = analyticsQueryFanOut.batch();
+        AnalyticsQueryFanOut.Pending<Long> totalCustomers = queries.submit("totalCustomers",
+                customerRepository::count);
+        AnalyticsQueryFanOut.Pending<Long> activeCustomers = queries.submit("activeCustomers",
+                () -> (long) customerRepository.findByIsActiveTrue().size());
+        AnalyticsQueryFanOut.Pending<Long> businessCustomers = queries.submit("businessCustomers",
+                () -> customerRepository.countByCustomerType(Customer.CustomerType.BUSINESS));
+        AnalyticsQueryFanOut.Pending<Long> individualCustomers = queries.submit("individualCustomers",
+                () -> customerRepository.countByCustomerType(Customer.CustomerType.INDIVIDUAL));
+        AnalyticsQueryFanOut.Pending<Double> averageCreditScore = queries.submit("averageCreditScore",
+                () -> Objects.requireNonNullElse(customerRepository.getAverageCreditScore(), 0.0));
+        AnalyticsQueryFanOut.Pending<Map<String, Long>> stateDistribution = queries.submit("customersByState",
+                () -> customerRepository.getCustomerCountByState().stream()
+                        .collect(Collectors.toMap(
+                                row -> (String) row[0],
+                                row -> (Long) row[1]
+                        )));
+        List<String> unavailable = queries.await();
         
-        Double averageCreditScore = customerRepository.getAverageCreditScore();
-        
-        List<Object[]> customersByState = customerRepository.getCustomerCountByState();
-        Map<String, Long> stateDistribution = customersByState.stream()
-                .collect(Collectors.toMap(
-                        row -> (String) row[0],
-                        row -> (Long) row[1]
-                ));
-        
-        // Calculate customer retention rate (simplified - active vs total)
-        BigDecimal retentionRate = BigDecimal.ZERO;
-        if (totalCustomers > 0) {
-            retentionRate = BigDecimal.valueOf(activeCustomers)
-                    .divide(BigDecimal.valueOf(totalCustomers), 4, RoundingMode.HALF_UP)
-                    .multiply(BigDecimal.valueOf(100));
+        // Calculate customer retention rate (simplified - active vs total), unless either count is missing
+        BigDecimal retentionRate = null;
+        Long total = totalCustomers.value();
+        Long active = activeCustomers.value();
+        if (total != null && active != null) {
+            retentionRate = BigDecimal.ZERO;
+            if (total > 0) {
+                retentionRate = BigDecimal.valueOf(active)
+                        .divide(BigDecimal.valueOf(total), 4, RoundingMode.HALF_UP)
+                        .multiply(BigDecimal.valueOf(100));
+            }
         }
         
         return CustomerAnalytics.builder()
-                .totalCustomers(totalCustomers)
-                .activeCustomers(activeCustomers)
-                .businessCustomers(businessCustomers)
-                .individualCustomers(individualCustomers)
-                .averageCreditScore(averageCreditScore != null ? averageCreditScore : 0.0)
+                .totalCustomers(total)
+                .activeCustomers(active)
+                .businessCustomers(businessCustomers.value())
+                .individualCustomers(individualCustomers.value())
+                .averageCreditScore(averageCreditScore.value())
                 .customerRetentionRate(retentionRate)
-                .customersByState(stateDistribution)
+                .customersByState(stateDistribution.value())
+                .unavailableMetrics(unavailable)
                 .build();
     }
 
-    public GrowthProjections getGrowthProjections(int monthsAhead) {
+    private GrowthProjections loadGrowthProjections(int monthsAhead) {
         log.info("Generating growth projections for {} months ahead", monthsAhead);
         
         // Get historical data for trend analysis
-        List<Object[]> monthlySales = saleRepository.getMonthlySalesReport();
+        List<Object[]> monthlySales = salesRollupService.getMonthlySalesReport();
         
         // Simple linear projection based on recent trends
         List<ProjectedMonth> projections = new ArrayList<>();
         
         if (!monthlySales.isEmpty()) {
-            // Calculate average monthly growth
-            BigDecimal totalRevenue = BigDecimal.ZERO;
+            // Calculate average monthly growth, in cents
+            long totalRevenue = 0;
             int monthCount = 0;
             
             for (Object[] row : monthlySales) {
-                totalRevenue = totalRevenue.add((BigDecimal) row[3]);
+                totalRevenue = Cents.add(totalRevenue, Cents.of((BigDecimal) row[3]));
                 monthCount++;
             }
             
-            BigDecimal averageMonthlyRevenue = monthCount > 0 ? 
-                    totalRevenue.divide(BigDecimal.valueOf(monthCount), 2, RoundingMode.HALF_UP) : 
-                    BigDecimal.ZERO;
+            long averageMonthlyRevenue = Cents.divide(totalRevenue, monthCount);
+            
+            // Sales are projected at the average sale price, looked up once rather than per month
+            BigDecimal averageSalePrice = averageMonthlyRevenue > 0 ? saleRepository.getAverageSalePrice() : null;
+            long projectedSalePrice = Cents.of(averageSalePrice != null && averageSalePrice.signum() > 0
+                    ? averageSalePrice : new BigDecimal("25000"));
             
-            // Project future months with 5% growth assumption
-            BigDecimal growthRate = new BigDecimal("1.05");
-            BigDecimal projectedRevenue = averageMonthlyRevenue;
+            // Project future months with 5% growth assumption, rounded to the cent each month
+            long projectedRevenue = averageMonthlyRevenue;
             
             for (int i = 1; i <= monthsAhead; i++) {
                 YearMonth futureMonth = YearMonth.now().plusMonths(i);
-                projectedRevenue = projectedRevenue.multiply(growthRate);
+                projectedRevenue = Cents.multiply(projectedRevenue, 105, 100);
                 
                 projections.add(ProjectedMonth.builder()
                         .year(futureMonth.getYear())
                         .month(futureMonth.getMonthValue())
-                        .projectedRevenue(projectedRevenue)
-                        .projectedSales((long) (projectedRevenue.divide(averageMonthlyRevenue.compareTo(BigDecimal.ZERO) > 0 ? 
-                                saleRepository.getAverageSalePrice() : new BigDecimal("25000"), 0, RoundingMode.HALF_UP).longValue()))
+                        .projectedRevenue(Cents.toBigDecimal(projectedRevenue))
+                        .projectedSales(Cents.divide(projectedRevenue, projectedSalePrice))
                         .build());
             }
         }
@@ -254,6 +335,8 @@ public class AnalyticsService {
         private BigDecimal totalPotentialProfit;
         private BigDecimal inventoryTurnoverRate;
         private Map<String, Long> vehiclesByMake;
+        // Metrics left null because their query failed or timed out
+        private List<String> unavailableMetrics;
     }
 
     @lombok.Data
@@ -266,6 +349,8 @@ public class AnalyticsService {
         private Double averageCreditScore;
         private BigDecimal customerRetentionRate;
         private Map<String, Long> customersByState;
+        // Metrics left null because their query failed or timed out
+        private List<String> unavailableMetrics;
     }
 
     @lombok.Data
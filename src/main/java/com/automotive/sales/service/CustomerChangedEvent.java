@@ -0,0 +1,12 @@
+package com.automotive.sales.service;
+
+/**
+ * Published by {@link CustomerService} for every customer write. Listeners that keep derived customer data should
+ * handle it after commit, like {@link SaleChangedEvent}.
+ */
+public record CustomerChangedEvent(Type type, Long customerId) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
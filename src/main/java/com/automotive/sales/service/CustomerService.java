@@ -1,11 +1,15 @@
 package com.automotive.sales.service;
 
 import com.automotive.sales.model.Customer;
+import com.automotive.sales.monitoring.QueryBudget;
 import com.automotive.sales.repository.CustomerRepository;
+import com.automotive.sales.repository.SaleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +23,8 @@ import java.util.Optional;
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final SaleRepository saleRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public Customer createCustomer(Customer customer) {
         log.info("Creating new customer with email: {}", customer.getEmail());
@@ -42,6 +48,7 @@ public class CustomerService {
         }
         
         Customer savedCustomer = customerRepository.save(customer);
+        publish(CustomerChangedEvent.Type.CREATED, savedCustomer.getId());
         log.info("Customer created successfully with ID: {}", savedCustomer.getId());
         return savedCustomer;
     }
@@ -80,6 +87,20 @@ public class CustomerService {
                                                           city, state, isActive, pageable);
     }
 
+    @Transactional(readOnly = true)
+    public Slice<Customer> getCustomersWithFiltersAfter(String firstName, String lastName, String email,
+                                                       Customer.CustomerType customerType, String city,
+                                                       String state, Boolean isActive, String after, int size) {
+        log.debug("Fetching customers after cursor {} with filters - firstName: {}, lastName: {}, email: {}, type: {}", 
+                 after, firstName, lastName, email, customerType);
+        KeysetCursor cursor = after != null ? KeysetCursor.decode(after) : null;
+        return customerRepository.findCustomersWithFiltersAfter(firstName, lastName, email, customerType,
+                city, state, isActive,
+                cursor != null ? cursor.getKeyAs(String::valueOf) : null,
+                cursor != null ? cursor.getId() : null,
+                KeysetCursor.slice(size));
+    }
+
     @Transactional(readOnly = true)
     public List<Customer> getCustomersByType(Customer.CustomerType customerType) {
         log.debug("Fetching customers by type: {}", customerType);
@@ -138,6 +159,7 @@ public class CustomerService {
         existingCustomer.setIsActive(customerDetails.getIsActive());
 
         Customer updatedCustomer = customerRepository.save(existingCustomer);
+        publish(CustomerChangedEvent.Type.UPDATED, updatedCustomer.getId());
         log.info("Customer updated successfully with ID: {}", updatedCustomer.getId());
         return updatedCustomer;
     }
@@ -150,6 +172,7 @@ public class CustomerService {
         
         customer.setIsActive(false);
         Customer updatedCustomer = customerRepository.save(customer);
+        publish(CustomerChangedEvent.Type.UPDATED, updatedCustomer.getId());
         log.info("Customer deactivated successfully");
         return updatedCustomer;
     }
@@ -162,22 +185,26 @@ public class CustomerService {
         
         customer.setIsActive(true);
         Customer updatedCustomer = customerRepository.save(customer);
+        publish(CustomerChangedEvent.Type.UPDATED, updatedCustomer.getId());
         log.info("Customer activated successfully");
         return updatedCustomer;
     }
 
+    // Load, sales check, (empty) sales cascade, delete
+    @QueryBudget(statements = 4)
     public void deleteCustomer(Long id) {
         log.info("Deleting customer with ID: {}", id);
         
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Customer not found with ID: " + id));
         
-        // Check if customer has any sales
-        if (customer.getSales() != null && !customer.getSales().isEmpty()) {
+        // Check if customer has any sales, without loading them
+        if (saleRepository.existsByCustomerId(id)) {
             throw new IllegalStateException("Cannot delete customer with existing sales records");
         }
         
         customerRepository.delete(customer);
+        publish(CustomerChangedEvent.Type.DELETED, id);
         log.info("Customer deleted successfully");
     }
 
@@ -224,7 +251,12 @@ public class CustomerService {
         
         customer.setCreditScore(creditScore);
         Customer updatedCustomer = customerRepository.save(customer);
+        publish(CustomerChangedEvent.Type.UPDATED, updatedCustomer.getId());
         log.info("Credit score updated successfully");
         return updatedCustomer;
     }
+
+    private void publish(CustomerChangedEvent.Type type, Long customerId) {
+        eventPublisher.publishEvent(new CustomerChangedEvent(type, customerId));
+    }
 }
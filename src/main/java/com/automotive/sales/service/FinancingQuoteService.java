@@ -0,0 +1,174 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.financing.AmortizationSchedule;
+import com.automotive.sales.financing.FinancingEngine;
+import com.automotive.sales.financing.QuoteGrid;
+import com.automotive.sales.model.Sale;
+import com.automotive.sales.money.Cents;
+import com.automotive.sales.repository.SaleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Payment grids for a deal: every combination of the requested down payments, interest rates and terms, priced
+ * by {@link FinancingEngine} from the sale's price and trade-in. An axis left empty falls back to the sale's own
+ * down payment, interest rate or loan term. Amounts are converted to {@code BigDecimal} only for the response.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class FinancingQuoteService {
+
+    static final int MAX_GRID_CELLS = 10_000;
+    static final int MAX_SCHEDULE_CELLS = 500;
+
+    private final SaleRepository saleRepository;
+    private final FinancingEngine financingEngine;
+
+    /**
+     * Returns empty when the sale does not exist; rejects empty or out of range axes and oversized grids with an
+     * {@link IllegalArgumentException}.
+     */
+    public Optional<QuoteGridResult> quoteSale(Long saleId, QuoteGridRequest request) {
+        log.debug("Quoting financing grid for sale ID: {}", saleId);
+        return saleRepository.findById(saleId).map(sale -> quote(sale, request));
+    }
+
+    private QuoteGridResult quote(Sale sale, QuoteGridRequest request) {
+        long[] downPayments = downPayments(sale, request.getDownPayments());
+        int[] rates = rates(sale, request.getInterestRates());
+        int[] terms = terms(sale, request.getTermsMonths());
+        long cells = (long) downPayments.length * rates.length * terms.length;
+        if (cells > MAX_GRID_CELLS) {
+            throw new IllegalArgumentException("Financing grids are limited to " + MAX_GRID_CELLS + " quotes");
+        }
+        if (request.isIncludeSchedules() && cells > MAX_SCHEDULE_CELLS) {
+            throw new IllegalArgumentException("Schedules are limited to grids of " + MAX_SCHEDULE_CELLS + " quotes");
+        }
+
+        long price = Cents.of(sale.getSalePrice());
+        long tradeIn = sale.getTradeInValue() != null ? Cents.of(sale.getTradeInValue()) : 0;
+        QuoteGrid grid = financingEngine.quote(price, tradeIn, downPayments, rates, terms);
+
+        List<FinancingQuote> quotes = new ArrayList<>((int) cells);
+        for (int d = 0; d < grid.downPaymentCount(); d++) {
+            for (int r = 0; r < grid.rateCount(); r++) {
+                for (int t = 0; t < grid.termCount(); t++) {
+                    long payment = grid.monthlyPayment(d, r, t);
+                    long interest = grid.totalInterest(d, r, t);
+                    quotes.add(FinancingQuote.builder()
+                            .downPayment(Cents.toBigDecimal(grid.downPayment(d)))
+                            .interestRate(Cents.percentOf(grid.rate(r)))
+                            .termMonths(grid.term(t))
+                            .amountFinanced(Cents.toBigDecimal(grid.financed(d)))
+                            .monthlyPayment(Cents.toBigDecimal(payment))
+                            .totalInterest(Cents.toBigDecimal(interest))
+                            .totalOfPayments(Cents.toBigDecimal(grid.financed(d) + interest))
+                            .schedule(request.isIncludeSchedules()
+                                    ? installments(financingEngine.schedule(grid.financed(d), grid.rate(r), grid.term(t)))
+                                    : null)
+                            .build());
+                }
+            }
+        }
+        return QuoteGridResult.builder()
+                .saleId(sale.getId())
+                .salePrice(sale.getSalePrice())
+                .tradeInValue(Cents.toBigDecimal(tradeIn))
+                .quotes(quotes)
+                .build();
+    }
+
+    private static long[] downPayments(Sale sale, List<BigDecimal> requested) {
+        if (requested == null || requested.isEmpty()) {
+            return new long[]{sale.getDownPayment() != null ? Cents.of(sale.getDownPayment()) : 0};
+        }
+        return requested.stream().mapToLong(Cents::of).toArray();
+    }
+
+    private static int[] rates(Sale sale, List<BigDecimal> requested) {
+        List<BigDecimal> rates = requested == null || requested.isEmpty()
+                ? (sale.getInterestRate() != null ? List.of(sale.getInterestRate()) : List.of())
+                : requested;
+        if (rates.isEmpty()) {
+            throw new IllegalArgumentException("At least one interest rate is required");
+        }
+        int[] basisPoints = new int[rates.size()];
+        for (int i = 0; i < basisPoints.length; i++) {
+            long rate = Cents.basisPoints(rates.get(i));
+            if (rate < 0 || rate > FinancingEngine.MAX_RATE_BASIS_POINTS) {
+                throw new IllegalArgumentException("Interest rate must be between 0% and 100%");
+            }
+            basisPoints[i] = (int) rate;
+        }
+        return basisPoints;
+    }
+
+    private static int[] terms(Sale sale, List<Integer> requested) {
+        List<Integer> terms = requested == null || requested.isEmpty()
+                ? (sale.getLoanTermMonths() != null ? List.of(sale.getLoanTermMonths()) : List.of())
+                : requested;
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("At least one loan term is required");
+        }
+        return terms.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static List<Installment> installments(AmortizationSchedule schedule) {
+        List<Installment> installments = new ArrayList<>(schedule.months());
+        for (int month = 0; month < schedule.months(); month++) {
+            installments.add(new Installment(month + 1,
+                    Cents.toBigDecimal(schedule.payments()[month]),
+                    Cents.toBigDecimal(schedule.principal()[month]),
+                    Cents.toBigDecimal(schedule.interest()[month]),
+                    Cents.toBigDecimal(schedule.balances()[month])));
+        }
+        return installments;
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class QuoteGridRequest {
+        private List<BigDecimal> downPayments;
+        // Annual percentage rates, e.g. 5.49
+        private List<BigDecimal> interestRates;
+        private List<Integer> termsMonths;
+        private boolean includeSchedules;
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    public static class QuoteGridResult {
+        private Long saleId;
+        private BigDecimal salePrice;
+        private BigDecimal tradeInValue;
+        private List<FinancingQuote> quotes;
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    public static class FinancingQuote {
+        private BigDecimal downPayment;
+        private BigDecimal interestRate;
+        private int termMonths;
+        private BigDecimal amountFinanced;
+        private BigDecimal monthlyPayment;
+        private BigDecimal totalInterest;
+        private BigDecimal totalOfPayments;
+        private List<Installment> schedule;
+    }
+
+    public record Installment(int month, BigDecimal payment, BigDecimal principal, BigDecimal interest,
+                              BigDecimal balance) {
+    }
+}
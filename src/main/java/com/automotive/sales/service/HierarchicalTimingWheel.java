@@ -0,0 +1,189 @@
+package com.automotive.sales.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed hierarchical timing wheel: four levels of 64 slots, each level counting in units of 64 ticks of the level
+ * below, for a horizon of 2<sup>24</sup> ticks (about 194 days at one-second ticks).
+ * <p>
+ * Each slot is a circular doubly linked list of timers, and timers are indexed by key, so scheduling, rescheduling
+ * and cancelling a key are O(1) whatever the number of live timers. {@link #advance(long)} visits one level-0 slot
+ * per elapsed tick; every 64 ticks the next level-1 slot is cascaded down, every 4096 the next level-2 slot, and so
+ * on, which moves each timer at most once per level over its lifetime.
+ * <p>
+ * A timer never fires early: its deadline is rounded up to the next tick, so it fires on the first
+ * {@code advance} at or after the deadline, up to one tick late. Not thread-safe; the owner serialises access.
+ */
+public final class HierarchicalTimingWheel<K> {
+
+    static final int LEVELS = 4;
+    static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    static final long HORIZON_TICKS = 1L << (SLOT_BITS * LEVELS);
+
+    private final long tickMillis;
+    // Sentinels of the slot lists, [level][slot]
+    private final Timer<K>[][] slots;
+    private final Map<K, Timer<K>> timers = new HashMap<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        this.slots = new Timer[LEVELS][SLOTS];
+        for (Timer<K>[] level : slots) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                level[slot] = Timer.sentinel();
+            }
+        }
+    }
+
+    /**
+     * Schedules {@code key} to expire at {@code deadlineMillis}, replacing any timer it already has. A deadline
+     * that has passed expires on the next tick.
+     */
+    public void schedule(K key, long deadlineMillis) {
+        long tick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        if (tick - currentTick >= HORIZON_TICKS) {
+            throw new IllegalArgumentException("Deadline is beyond the wheel's horizon of " + horizonMillis() + " ms");
+        }
+        Timer<K> timer = timers.get(key);
+        if (timer != null) {
+            timer.unlink();
+        } else {
+            timer = new Timer<>(key);
+            timers.put(key, timer);
+        }
+        timer.tick = tick;
+        place(timer);
+    }
+
+    public boolean cancel(K key) {
+        Timer<K> timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        timer.unlink();
+        return true;
+    }
+
+    /**
+     * Drops every timer and restarts the wheel at {@code startMillis}, which may be earlier than its current time.
+     */
+    public void reset(long startMillis) {
+        currentTick = startMillis / tickMillis;
+        for (Timer<K>[] level : slots) {
+            for (Timer<K> sentinel : level) {
+                sentinel.clear();
+            }
+        }
+        timers.clear();
+    }
+
+    public boolean contains(K key) {
+        return timers.containsKey(key);
+    }
+
+    public int size() {
+        return timers.size();
+    }
+
+    public long horizonMillis() {
+        return (HORIZON_TICKS - 1) * tickMillis;
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis} and returns the keys whose deadlines have passed, in deadline
+     * order (to the tick). Their timers are removed; a wheel already at or past {@code nowMillis} returns nothing.
+     */
+    public List<K> advance(long nowMillis) {
+        long target = nowMillis / tickMillis;
+        List<K> expired = new ArrayList<>();
+        while (currentTick < target) {
+            currentTick++;
+            // Cascade from the top so a timer can drop through several levels on the same tick
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+                }
+            }
+            Timer<K> sentinel = slots[0][(int) currentTick & SLOT_MASK];
+            for (Timer<K> timer = sentinel.next; timer != sentinel; timer = timer.next) {
+                timers.remove(timer.key);
+                expired.add(timer.key);
+            }
+            sentinel.clear();
+        }
+        return expired;
+    }
+
+    private void cascade(int level, int slot) {
+        Timer<K> sentinel = slots[level][slot];
+        Timer<K> timer = sentinel.next;
+        sentinel.clear();
+        while (timer != sentinel) {
+            Timer<K> next = timer.next;
+            place(timer);
+            timer = next;
+        }
+    }
+
+    /*
+     * A timer goes on the lowest level whose next level up has the same slot for its tick and the current one,
+     * i.e. the level whose current rotation contains it, so the slot is cascaded exactly when that rotation
+     * reaches the timer's tick. The top level has no level above and takes anything within one rotation.
+     */
+    private void place(Timer<K> timer) {
+        int level = 0;
+        while (level < LEVELS - 1
+                && (timer.tick >>> (SLOT_BITS * (level + 1))) != (currentTick >>> (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        timer.linkBefore(slots[level][(int) (timer.tick >>> (SLOT_BITS * level)) & SLOT_MASK]);
+    }
+
+    private static final class Timer<K> {
+
+        private final K key;
+        private long tick;
+        private Timer<K> prev;
+        private Timer<K> next;
+
+        private Timer(K key) {
+            this.key = key;
+        }
+
+        private static <K> Timer<K> sentinel() {
+            Timer<K> sentinel = new Timer<>(null);
+            sentinel.clear();
+            return sentinel;
+        }
+
+        private void linkBefore(Timer<K> sentinel) {
+            prev = sentinel.prev;
+            next = sentinel;
+            sentinel.prev.next = this;
+            sentinel.prev = this;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+
+        private void clear() {
+            prev = this;
+            next = this;
+        }
+    }
+}
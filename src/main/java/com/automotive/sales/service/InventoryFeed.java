@@ -0,0 +1,227 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Vehicle;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Server-sent events feed of committed inventory changes (creations, updates, status changes, removals).
+ * <p>
+ * Updates are not written as they happen: each subscriber keeps at most one pending update per vehicle, later
+ * changes being merged into it, and a single scheduler flushes the pending updates as one {@code inventory}
+ * event per interval. A subscriber has at most one batch in flight, so a slow client just accumulates (merged)
+ * updates instead of holding a thread or an unbounded queue; if it falls behind on more than
+ * {@code maxPending} vehicles its backlog is dropped and it gets a {@code resync} event to reload over REST.
+ * Idle subscribers cost one map entry plus a heartbeat comment now and then.
+ */
+@Component
+@Slf4j
+public class InventoryFeed {
+
+    static final String UPDATE_EVENT = "inventory";
+    static final String RESYNC_EVENT = "resync";
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService senders;
+    private final long timeoutMillis;
+    private final int maxPending;
+    private final long heartbeatMillis;
+
+    public InventoryFeed(@Value("${app.feed.flush-interval-ms:250}") long flushIntervalMillis,
+                         @Value("${app.feed.heartbeat-ms:25000}") long heartbeatMillis,
+                         @Value("${app.feed.timeout-ms:1800000}") long timeoutMillis,
+                         @Value("${app.feed.max-pending:1000}") int maxPending,
+                         @Value("${app.feed.sender-threads:4}") int senderThreads) {
+        this.timeoutMillis = timeoutMillis;
+        this.maxPending = maxPending;
+        this.heartbeatMillis = heartbeatMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemon("inventory-feed-flush"));
+        this.senders = Executors.newFixedThreadPool(senderThreads, daemon("inventory-feed-send"));
+        this.scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        log.debug("Inventory feed subscriber added, {} connected", subscribers.size());
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @EventListener
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        if (subscribers.isEmpty() || event.vehicleId() == null) {
+            return;
+        }
+        InventoryUpdate update = InventoryUpdate.of(event);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(update);
+        }
+    }
+
+    void flush() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.claimSend(now)) {
+                senders.execute(() -> send(subscriber));
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        Batch batch = subscriber.drain();
+        try {
+            if (batch.resync()) {
+                subscriber.emitter.send(SseEmitter.event().name(RESYNC_EVENT).data(""));
+            } else if (!batch.updates().isEmpty()) {
+                subscriber.emitter.send(SseEmitter.event().name(UPDATE_EVENT)
+                        .data(batch.updates(), MediaType.APPLICATION_JSON));
+            } else {
+                subscriber.emitter.send(SseEmitter.event().comment("keepalive"));
+            }
+            subscriber.sent(System.currentTimeMillis());
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; stop offering it updates without waiting for the container's error callback
+            log.debug("Dropping inventory feed subscriber: {}", e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscriber.releaseSend();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Map<Long, InventoryUpdate> pending = new LinkedHashMap<>();
+        private boolean overflowed;
+        private boolean sending;
+        private long lastSent = System.currentTimeMillis();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private synchronized void offer(InventoryUpdate update) {
+            if (overflowed) {
+                return;
+            }
+            pending.merge(update.vehicleId(), update, InventoryUpdate::then);
+            if (pending.size() > maxPending) {
+                pending.clear();
+                overflowed = true;
+            }
+        }
+
+        // True when there is something to send (or a heartbeat is due) and no batch is in flight
+        private synchronized boolean claimSend(long now) {
+            if (sending || (pending.isEmpty() && !overflowed && now - lastSent < heartbeatMillis)) {
+                return false;
+            }
+            sending = true;
+            return true;
+        }
+
+        private synchronized Batch drain() {
+            Batch batch = new Batch(overflowed, new ArrayList<>(pending.values()));
+            pending.clear();
+            overflowed = false;
+            return batch;
+        }
+
+        private synchronized void sent(long now) {
+            lastSent = now;
+        }
+
+        private synchronized void releaseSend() {
+            sending = false;
+        }
+    }
+
+    private record Batch(boolean resync, List<InventoryUpdate> updates) {
+    }
+
+    public enum UpdateType {
+        CREATED, UPDATED, STATUS_CHANGED, REMOVED
+    }
+
+    /**
+     * One vehicle's change as sent to subscribers; {@code vin} and {@code sellingPrice} are only known for
+     * saves, bulk status changes carry just the id and the new status.
+     */
+    public record InventoryUpdate(UpdateType type, Long vehicleId, String vin, Vehicle.VehicleStatus status,
+                                  BigDecimal sellingPrice) {
+
+        static InventoryUpdate of(VehicleChangedEvent event) {
+            return switch (event.type()) {
+                case SAVED -> {
+                    Vehicle vehicle = event.vehicle();
+                    // A freshly inserted entity still has its initial version
+                    UpdateType type = vehicle.getVersion() == null || vehicle.getVersion() == 0
+                            ? UpdateType.CREATED : UpdateType.UPDATED;
+                    yield new InventoryUpdate(type, event.vehicleId(), vehicle.getVin(), vehicle.getStatus(),
+                            vehicle.getSellingPrice());
+                }
+                case STATUS_CHANGED -> new InventoryUpdate(UpdateType.STATUS_CHANGED, event.vehicleId(), null,
+                        event.status(), null);
+                case REMOVED -> new InventoryUpdate(UpdateType.REMOVED, event.vehicleId(), null, null, null);
+            };
+        }
+
+        // Merges a later change of the same vehicle into this pending one; null drops it altogether
+        InventoryUpdate then(InventoryUpdate next) {
+            if (next.type() == UpdateType.REMOVED) {
+                // Subscribers never heard of a vehicle created and removed within one interval
+                return type == UpdateType.CREATED ? null : next;
+            }
+            if (type == UpdateType.REMOVED) {
+                return next;
+            }
+            UpdateType merged = type == UpdateType.CREATED ? UpdateType.CREATED
+                    : type == UpdateType.UPDATED || next.type() == UpdateType.UPDATED ? UpdateType.UPDATED
+                    : UpdateType.STATUS_CHANGED;
+            return new InventoryUpdate(merged, vehicleId,
+                    next.vin() != null ? next.vin() : vin,
+                    next.status() != null ? next.status() : status,
+                    next.sellingPrice() != null ? next.sellingPrice() : sellingPrice);
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.repository.VehicleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory bitmap index over the vehicle inventory.
+ * <p>
+ * Keeps one compressed bitmap of vehicle ids per make, model, year, status and condition plus a
+ * price-sorted column, so the browse filters of {@link VehicleRepository#findVehiclesWithFilters}
+ * resolve to bitmap intersections instead of a table scan and facet counts to intersection
+ * cardinalities. The index is loaded once the application is ready and kept current from
+ * {@link VehicleChangedEvent}s; until it is loaded {@link #search} and {@link #facets} return
+ * empty and callers go to the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryIndex {
+
+    private static final String ID = "id";
+    private static final String SELLING_PRICE = "sellingPrice";
+
+    private final VehicleRepository vehicleRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, IndexedVehicle> entries = new HashMap<>();
+    private final Map<String, RoaringBitmap> byMake = new HashMap<>();
+    private final Map<String, String> makeLabels = new HashMap<>();
+    private final Map<String, RoaringBitmap> byModel = new HashMap<>();
+    private final Map<Integer, RoaringBitmap> byYear = new HashMap<>();
+    private final Map<Vehicle.VehicleStatus, RoaringBitmap> byStatus = new EnumMap<>(Vehicle.VehicleStatus.class);
+    private final Map<Vehicle.VehicleCondition, RoaringBitmap> byCondition = new EnumMap<>(Vehicle.VehicleCondition.class);
+    private final NavigableMap<BigDecimal, RoaringBitmap> byPrice = new TreeMap<>();
+    private final RoaringBitmap withoutPrice = new RoaringBitmap();
+    private final RoaringBitmap all = new RoaringBitmap();
+
+    // Ids written while the initial load is running; their live state wins over the loaded rows
+    private final Set<Integer> touchedWhileLoading = new HashSet<>();
+    private final Map<Integer, Vehicle.VehicleStatus> statusChangedWhileLoading = new HashMap<>();
+    private boolean loading;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        log.info("Building inventory index");
+        ready = false;
+        writeLocked(() -> {
+            clear();
+            touchedWhileLoading.clear();
+            statusChangedWhileLoading.clear();
+            loading = true;
+            return null;
+        });
+
+        List<Object[]> rows;
+        try {
+            rows = vehicleRepository.findInventoryIndexRows();
+        } catch (RuntimeException e) {
+            writeLocked(() -> {
+                loading = false;
+                return null;
+            });
+            log.warn("Inventory index load failed, vehicle searches will use the database", e);
+            return;
+        }
+
+        boolean complete = writeLocked(() -> {
+            loading = false;
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                if (!fitsInIndex(id)) {
+                    clear();
+                    return false;
+                }
+                if (!touchedWhileLoading.contains(id.intValue())) {
+                    Vehicle.VehicleStatus status = statusChangedWhileLoading.getOrDefault(id.intValue(),
+                            (Vehicle.VehicleStatus) row[4]);
+                    index(id.intValue(), new IndexedVehicle((String) row[1], (String) row[2], (Integer) row[3],
+                            status, (Vehicle.VehicleCondition) row[5], (BigDecimal) row[6]));
+                }
+            }
+            touchedWhileLoading.clear();
+            statusChangedWhileLoading.clear();
+            return true;
+        });
+
+        if (complete) {
+            ready = true;
+            log.info("Inventory index ready with {} vehicles", size());
+        } else {
+            log.warn("Vehicle ids exceed the index range, vehicle searches will use the database");
+        }
+    }
+
+    @EventListener
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        switch (event.type()) {
+            case SAVED -> upsert(event.vehicle());
+            case STATUS_CHANGED -> updateStatus(event.vehicleId(), event.status());
+            case REMOVED -> remove(event.vehicleId());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return readLocked(all::getCardinality);
+    }
+
+    public void upsert(Vehicle vehicle) {
+        if (vehicle.getId() == null) {
+            return;
+        }
+        if (!fitsInIndex(vehicle.getId())) {
+            log.warn("Vehicle id {} exceeds the index range, vehicle searches will use the database", vehicle.getId());
+            ready = false;
+            return;
+        }
+        int id = vehicle.getId().intValue();
+        IndexedVehicle indexed = new IndexedVehicle(vehicle.getMake(), vehicle.getModel(), vehicle.getYear(),
+                vehicle.getStatus(), vehicle.getCondition(), vehicle.getSellingPrice());
+        writeLocked(() -> {
+            unindex(id);
+            index(id, indexed);
+            if (loading) {
+                touchedWhileLoading.add(id);
+            }
+            return null;
+        });
+    }
+
+    public void updateStatus(Long vehicleId, Vehicle.VehicleStatus status) {
+        if (vehicleId == null || !fitsInIndex(vehicleId)) {
+            return;
+        }
+        int id = vehicleId.intValue();
+        writeLocked(() -> {
+            IndexedVehicle current = entries.get(id);
+            if (current != null) {
+                unindex(id);
+                index(id, new IndexedVehicle(current.make(), current.model(), current.year(),
+                        status, current.condition(), current.price()));
+            } else if (loading) {
+                // The row may still arrive from the running load with its old status
+                statusChangedWhileLoading.put(id, status);
+            }
+            return null;
+        });
+    }
+
+    public void remove(Long vehicleId) {
+        if (vehicleId == null || !fitsInIndex(vehicleId)) {
+            return;
+        }
+        int id = vehicleId.intValue();
+        writeLocked(() -> {
+            unindex(id);
+            if (loading) {
+                touchedWhileLoading.add(id);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Resolves the same filters as {@link VehicleRepository#findVehiclesWithFilters} to a page of vehicle ids.
+     * Returns empty when the index is not loaded yet or the requested sort is not one the index can serve
+     * (unsorted, {@code id} or {@code sellingPrice}).
+     */
+    public Optional<Page<Long>> search(String make, String model, Integer year, Vehicle.VehicleStatus status,
+                                       BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Sort.Order order = singleOrder(pageable.getSort());
+        if (order == null && pageable.getSort().isSorted()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(readLocked(() -> {
+            RoaringBitmap matches = filter(make, model, year, status, minPrice, maxPrice);
+            long total = matches.getLongCardinality();
+            long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+            long end = pageable.isPaged() ? Math.min(total, offset + pageable.getPageSize()) : total;
+
+            List<Long> ids;
+            if (order != null && SELLING_PRICE.equals(order.getProperty())) {
+                ids = pageByPrice(matches, offset, end, order.isAscending());
+            } else {
+                ids = pageById(matches, offset, end, order == null || order.isAscending());
+            }
+            return new PageImpl<>(ids, pageable, total);
+        }));
+    }
+
+    /**
+     * Counts the vehicles matching the same filters as {@link #search} per make, year, condition, status and
+     * price range, one bitmap intersection count per facet value. Returns empty when the index is not loaded.
+     */
+    public Optional<VehicleFacets> facets(String make, String model, Integer year, Vehicle.VehicleStatus status,
+                                          BigDecimal minPrice, BigDecimal maxPrice) {
+        if (!ready) {
+            return Optional.empty();
+        }
+
+        return Optional.of(readLocked(() -> {
+            RoaringBitmap matches = filter(make, model, year, status, minPrice, maxPrice);
+            VehicleFacets.Counter counter = VehicleFacets.counter();
+            byMake.forEach((key, ids) -> counter.make(makeLabels.get(key), RoaringBitmap.andCardinality(matches, ids)));
+            byYear.forEach((value, ids) -> counter.year(value, RoaringBitmap.andCardinality(matches, ids)));
+            byCondition.forEach((value, ids) -> counter.condition(value, RoaringBitmap.andCardinality(matches, ids)));
+            byStatus.forEach((value, ids) -> counter.status(value, RoaringBitmap.andCardinality(matches, ids)));
+            for (int bucket = 0; bucket < VehicleFacets.PRICE_BUCKETS; bucket++) {
+                NavigableMap<BigDecimal, RoaringBitmap> range = byPrice;
+                if (bucket > 0) {
+                    range = range.tailMap(VehicleFacets.priceBucketLowerBound(bucket), true);
+                }
+                if (bucket < VehicleFacets.PRICE_BUCKETS - 1) {
+                    range = range.headMap(VehicleFacets.priceBucketLowerBound(bucket + 1), false);
+                }
+                if (!range.isEmpty()) {
+                    counter.priceBucket(bucket,
+                            RoaringBitmap.andCardinality(RoaringBitmap.or(range.values().iterator()), matches));
+                }
+            }
+            return counter.build();
+        }));
+    }
+
+    private RoaringBitmap filter(String make, String model, Integer year, Vehicle.VehicleStatus status,
+                                 BigDecimal minPrice, BigDecimal maxPrice) {
+        RoaringBitmap result = all.clone();
+        if (make != null) {
+            result.and(containing(byMake, make));
+        }
+        if (model != null) {
+            result.and(containing(byModel, model));
+        }
+        if (year != null) {
+            result.and(byYear.getOrDefault(year, new RoaringBitmap()));
+        }
+        if (status != null) {
+            result.and(byStatus.getOrDefault(status, new RoaringBitmap()));
+        }
+        if (minPrice != null || maxPrice != null) {
+            NavigableMap<BigDecimal, RoaringBitmap> range = byPrice;
+            if (minPrice != null) {
+                range = range.tailMap(minPrice, true);
+            }
+            if (maxPrice != null) {
+                range = range.headMap(maxPrice, true);
+            }
+            result.and(RoaringBitmap.or(range.values().iterator()));
+        }
+        return result;
+    }
+
+    // Mirrors LOWER(column) LIKE LOWER('%term%') by OR-ing every distinct value containing the term
+    private RoaringBitmap containing(Map<String, RoaringBitmap> column, String term) {
+        String needle = term.toLowerCase(Locale.ROOT);
+        RoaringBitmap result = new RoaringBitmap();
+        column.forEach((value, ids) -> {
+            if (value.contains(needle)) {
+                result.or(ids);
+            }
+        });
+        return result;
+    }
+
+    private List<Long> pageById(RoaringBitmap matches, long offset, long end, boolean ascending) {
+        List<Long> ids = new ArrayList<>();
+        int cardinality = matches.getCardinality();
+        for (long i = offset; i < end; i++) {
+            int rank = ascending ? (int) i : cardinality - 1 - (int) i;
+            ids.add((long) matches.select(rank));
+        }
+        return ids;
+    }
+
+    // Vehicles without a price sort last ascending and first descending, as in PostgreSQL
+    private List<Long> pageByPrice(RoaringBitmap matches, long offset, long end, boolean ascending) {
+        List<RoaringBitmap> buckets = new ArrayList<>();
+        if (!ascending) {
+            buckets.add(withoutPrice);
+        }
+        buckets.addAll(ascending ? byPrice.values() : byPrice.descendingMap().values());
+        if (ascending) {
+            buckets.add(withoutPrice);
+        }
+
+        List<Long> ids = new ArrayList<>();
+        long position = 0;
+        for (RoaringBitmap bucket : buckets) {
+            if (position >= end) {
+                break;
+            }
+            RoaringBitmap hits = RoaringBitmap.and(bucket, matches);
+            long count = hits.getLongCardinality();
+            if (position + count > offset) {
+                for (int id : hits) {
+                    if (position >= offset && position < end) {
+                        ids.add((long) id);
+                    }
+                    position++;
+                }
+            } else {
+                position += count;
+            }
+        }
+        return ids;
+    }
+
+    private Sort.Order singleOrder(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() != 1) {
+            return null;
+        }
+        Sort.Order order = orders.get(0);
+        return ID.equals(order.getProperty()) || SELLING_PRICE.equals(order.getProperty()) ? order : null;
+    }
+
+    private void index(int id, IndexedVehicle vehicle) {
+        entries.put(id, vehicle);
+        all.add(id);
+        if (vehicle.make() != null) {
+            String key = vehicle.make().toLowerCase(Locale.ROOT);
+            bitmap(byMake, key).add(id);
+            makeLabels.merge(key, vehicle.make(), VehicleFacets::preferredLabel);
+        }
+        if (vehicle.model() != null) {
+            bitmap(byModel, vehicle.model().toLowerCase(Locale.ROOT)).add(id);
+        }
+        if (vehicle.year() != null) {
+            bitmap(byYear, vehicle.year()).add(id);
+        }
+        if (vehicle.status() != null) {
+            bitmap(byStatus, vehicle.status()).add(id);
+        }
+        if (vehicle.condition() != null) {
+            bitmap(byCondition, vehicle.condition()).add(id);
+        }
+        if (vehicle.price() != null) {
+            bitmap(byPrice, vehicle.price()).add(id);
+        } else {
+            withoutPrice.add(id);
+        }
+    }
+
+    private void unindex(int id) {
+        IndexedVehicle vehicle = entries.remove(id);
+        if (vehicle == null) {
+            return;
+        }
+        all.remove(id);
+        if (vehicle.make() != null) {
+            String key = vehicle.make().toLowerCase(Locale.ROOT);
+            unset(byMake, key, id);
+            if (!byMake.containsKey(key)) {
+                makeLabels.remove(key);
+            }
+        }
+        if (vehicle.model() != null) {
+            unset(byModel, vehicle.model().toLowerCase(Locale.ROOT), id);
+        }
+        unset(byYear, vehicle.year(), id);
+        unset(byStatus, vehicle.status(), id);
+        unset(byCondition, vehicle.condition(), id);
+        if (vehicle.price() != null) {
+            unset(byPrice, vehicle.price(), id);
+        } else {
+            withoutPrice.remove(id);
+        }
+    }
+
+    private void clear() {
+        entries.clear();
+        byMake.clear();
+        makeLabels.clear();
+        byModel.clear();
+        byYear.clear();
+        byStatus.clear();
+        byCondition.clear();
+        byPrice.clear();
+        withoutPrice.clear();
+        all.clear();
+    }
+
+    private static <K> RoaringBitmap bitmap(Map<K, RoaringBitmap> column, K key) {
+        return column.computeIfAbsent(key, k -> new RoaringBitmap());
+    }
+
+    private static <K> void unset(Map<K, RoaringBitmap> column, K key, int id) {
+        if (key == null) {
+            return;
+        }
+        RoaringBitmap ids = column.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                column.remove(key);
+            }
+        }
+    }
+
+    private static boolean fitsInIndex(Long id) {
+        return id > 0 && id <= Integer.MAX_VALUE;
+    }
+
+    private <T> T readLocked(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <T> T writeLocked(Supplier<T> action) {
+        lock.writeLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private record IndexedVehicle(String make, String model, Integer year, Vehicle.VehicleStatus status,
+                                  Vehicle.VehicleCondition condition, BigDecimal price) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.automotive.sales.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opaque position token for keyset (seek) pagination over a (sort key, id) pair.
+ * Clients pass the token they received back as {@code after} to continue after the last row of the previous slice.
+ */
+public final class KeysetCursor {
+
+    public static final int MAX_SLICE_SIZE = 100;
+
+    private static final char SEPARATOR = '|';
+
+    private final String key;
+    private final Long id;
+
+    private KeysetCursor(String key, Long id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    public static String encode(Object key, Long id) {
+        String raw = key + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(raw.substring(0, separator), Long.valueOf(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor: " + token, e);
+        }
+    }
+
+    /**
+     * Page request for a slice of {@code size} rows; the cursor condition in the query, not an offset, skips the
+     * rows already seen.
+     */
+    public static Pageable slice(int size) {
+        if (size < 1 || size > MAX_SLICE_SIZE) {
+            throw new IllegalArgumentException("Slice size must be between 1 and " + MAX_SLICE_SIZE);
+        }
+        return PageRequest.of(0, size);
+    }
+
+    /**
+     * Token for the slice following {@code slice}, or {@code null} when it is the last one.
+     * {@code sortKey} must be the leading column of the ORDER BY the slice was read with.
+     */
+    public static <T> String next(Slice<T> slice, Function<T, ?> sortKey, Function<T, Long> id) {
+        if (!slice.hasNext() || slice.isEmpty()) {
+            return null;
+        }
+        List<T> content = slice.getContent();
+        T last = content.get(content.size() - 1);
+        return encode(sortKey.apply(last), id.apply(last));
+    }
+
+    public <T> T getKeyAs(Function<String, T> parser) {
+        try {
+            return parser.apply(key);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor key: " + key, e);
+        }
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,288 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Sale;
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.repository.SaleRepository;
+import com.automotive.sales.repository.VehicleRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires stalled reservations: a reserved vehicle whose hold has seen no activity for the configured TTL is
+ * returned to the available pool, and its pending sale, if any, is cancelled. A vehicle whose sale has been
+ * approved is held until the deal completes or is cancelled.
+ * <p>
+ * Holds live in a {@link HierarchicalTimingWheel} keyed by vehicle id, loaded from the reserved vehicles and their
+ * open sales on startup and then kept current from committed vehicle and sale changes: reserving a vehicle,
+ * opening or updating a pending sale, or editing a reserved vehicle (re)starts its hold; approving the sale or
+ * moving the vehicle out of RESERVED drops it. Scheduling and cancelling are O(1), so the database is never swept.
+ * <p>
+ * Due holds are released in batches, each in one transaction that locks the vehicles and re-checks them against
+ * the database: the hold's last activity is the later of the vehicle's and its open sales' {@code updated_at},
+ * the same rule the startup load uses, so a hold renewed between the wheel firing and the lock is rescheduled
+ * rather than released.
+ */
+@Service
+@Slf4j
+public class ReservationExpiryService {
+
+    static final String EXPIRY_REASON = "Reservation expired";
+    private static final long RETRY_DELAY_MILLIS = 60_000;
+
+    private final VehicleRepository vehicleRepository;
+    private final SaleRepository saleRepository;
+    private final SalesRollupService salesRollupService;
+    private final VehicleChangePublisher vehicleChangePublisher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlMillis;
+    private final int batchSize;
+    private final HierarchicalTimingWheel<Long> wheel;
+    private final ScheduledExecutorService ticker;
+
+    public ReservationExpiryService(VehicleRepository vehicleRepository,
+                                    SaleRepository saleRepository,
+                                    SalesRollupService salesRollupService,
+                                    VehicleChangePublisher vehicleChangePublisher,
+                                    ApplicationEventPublisher eventPublisher,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.reservation.ttl-minutes:2880}") long ttlMinutes,
+                                    @Value("${app.reservation.tick-ms:1000}") long tickMillis,
+                                    @Value("${app.reservation.batch-size:500}") int batchSize) {
+        this.vehicleRepository = vehicleRepository;
+        this.saleRepository = saleRepository;
+        this.salesRollupService = salesRollupService;
+        this.vehicleChangePublisher = vehicleChangePublisher;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        this.batchSize = batchSize;
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, System.currentTimeMillis());
+        if (ttlMillis <= 0 || ttlMillis > wheel.horizonMillis()) {
+            throw new IllegalArgumentException("Reservation TTL must be positive and at most "
+                    + TimeUnit.MILLISECONDS.toMinutes(wheel.horizonMillis()) + " minutes at this tick");
+        }
+        this.ticker = Executors.newSingleThreadScheduledExecutor(daemon("reservation-expiry"));
+        this.ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    /**
+     * Reloads every hold from the database. Holds the wheel's monitor across the query, so changes committed
+     * meanwhile are applied on top of the loaded rows.
+     */
+    public int rebuild() {
+        synchronized (wheel) {
+            log.info("Loading reservation holds");
+            Map<Long, Long> lastActivity = new HashMap<>();
+            Set<Long> approved = new HashSet<>();
+            for (Object[] row : vehicleRepository.findReservationHolds(SaleService.OPEN_SALE_STATUSES)) {
+                Long vehicleId = (Long) row[0];
+                lastActivity.merge(vehicleId, Math.max(millis((LocalDateTime) row[1]), millis((LocalDateTime) row[3])),
+                        Math::max);
+                if (row[2] == Sale.SaleStatus.APPROVED) {
+                    approved.add(vehicleId);
+                }
+            }
+            lastActivity.keySet().removeAll(approved);
+
+            wheel.reset(System.currentTimeMillis());
+            lastActivity.forEach((vehicleId, activity) -> wheel.schedule(vehicleId, activity + ttlMillis));
+            log.info("Reservation holds ready: {} tracked, {} held by approved sales", wheel.size(), approved.size());
+            return wheel.size();
+        }
+    }
+
+    public int activeHolds() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    boolean isHeld(Long vehicleId) {
+        synchronized (wheel) {
+            return wheel.contains(vehicleId);
+        }
+    }
+
+    @EventListener
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        if (event.vehicleId() == null) {
+            return;
+        }
+        synchronized (wheel) {
+            if (event.status() == Vehicle.VehicleStatus.RESERVED) {
+                wheel.schedule(event.vehicleId(), System.currentTimeMillis() + ttlMillis);
+            } else {
+                wheel.cancel(event.vehicleId());
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleChanged(SaleChangedEvent event) {
+        synchronized (wheel) {
+            switch (event.type()) {
+                // A new or edited pending deal is activity on the hold; completion and cancellation move the vehicle
+                case CREATED, UPDATED -> {
+                    if (event.status() == Sale.SaleStatus.PENDING) {
+                        wheel.schedule(event.vehicleId(), System.currentTimeMillis() + ttlMillis);
+                    }
+                }
+                case APPROVED -> wheel.cancel(event.vehicleId());
+                default -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * Releases every hold due at {@code nowMillis} and returns the number of vehicles released.
+     */
+    int expire(long nowMillis) {
+        List<Long> due;
+        synchronized (wheel) {
+            due = wheel.advance(nowMillis);
+        }
+        if (due.isEmpty()) {
+            return 0;
+        }
+        log.info("{} reservation holds are due", due.size());
+        int released = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                released += expireBatch(batch, nowMillis);
+            } catch (RuntimeException e) {
+                // Typically a sale approved while we were cancelling it; the batch is re-checked from scratch later
+                log.warn("Could not release {} expired reservations, retrying in {} ms: {}",
+                        batch.size(), RETRY_DELAY_MILLIS, e.getMessage());
+                synchronized (wheel) {
+                    batch.forEach(vehicleId -> wheel.schedule(vehicleId, nowMillis + RETRY_DELAY_MILLIS));
+                }
+            }
+        }
+        log.info("Released {} expired reservations", released);
+        return released;
+    }
+
+    private int expireBatch(List<Long> vehicleIds, long nowMillis) {
+        Map<Long, Long> renewed = new HashMap<>();
+        Integer released = transactionTemplate.execute(status -> {
+            // The locking query reads in ascending id order, like bulk status updates, so the two cannot deadlock
+            Map<Long, Long> lastActivity = new TreeMap<>();
+            for (Object[] row : vehicleRepository.findReservationsForUpdate(vehicleIds)) {
+                if (row[1] == Vehicle.VehicleStatus.RESERVED) {
+                    lastActivity.put((Long) row[0], millis((LocalDateTime) row[2]));
+                }
+            }
+            if (lastActivity.isEmpty()) {
+                return 0;
+            }
+
+            Map<Long, List<Sale>> pendingByVehicle = new HashMap<>();
+            Set<Long> approved = new HashSet<>();
+            for (Sale sale : saleRepository.findByVehicleIdInAndStatusIn(lastActivity.keySet(),
+                    SaleService.OPEN_SALE_STATUSES)) {
+                Long vehicleId = sale.getVehicle().getId();
+                lastActivity.merge(vehicleId, millis(sale.getUpdatedAt()), Math::max);
+                if (sale.getStatus() == Sale.SaleStatus.APPROVED) {
+                    approved.add(vehicleId);
+                } else {
+                    pendingByVehicle.computeIfAbsent(vehicleId, id -> new ArrayList<>()).add(sale);
+                }
+            }
+
+            List<Long> expired = new ArrayList<>();
+            List<Sale> cancelled = new ArrayList<>();
+            Map<Long, BigDecimal> purchasePrices = new HashMap<>();
+            lastActivity.forEach((vehicleId, activity) -> {
+                if (approved.contains(vehicleId)) {
+                    return;
+                }
+                if (activity + ttlMillis > nowMillis) {
+                    renewed.put(vehicleId, activity + ttlMillis);
+                    return;
+                }
+                expired.add(vehicleId);
+                for (Sale sale : pendingByVehicle.getOrDefault(vehicleId, List.of())) {
+                    SaleService.markCancelled(sale, EXPIRY_REASON);
+                    cancelled.add(sale);
+                    purchasePrices.put(vehicleId, sale.getVehicle().getPurchasePrice());
+                }
+            });
+
+            if (!cancelled.isEmpty()) {
+                salesRollupService.addAll(cancelled, purchasePrices);
+                cancelled.forEach(sale -> eventPublisher.publishEvent(
+                        SaleChangedEvent.of(SaleChangedEvent.Type.CANCELLED, sale)));
+            }
+            if (!expired.isEmpty()) {
+                // Flushes the cancelled sales first, then moves the vehicles with one UPDATE
+                vehicleRepository.updateStatuses(expired, Vehicle.VehicleStatus.AVAILABLE, LocalDateTime.now());
+                vehicleRepository.refreshLoaded(expired);
+                vehicleChangePublisher.publishStatusChanges(expired, Vehicle.VehicleStatus.AVAILABLE);
+            }
+            log.debug("Expired {} reservations, cancelling {} pending sales", expired.size(), cancelled.size());
+            return expired.size();
+        });
+
+        if (!renewed.isEmpty()) {
+            synchronized (wheel) {
+                // A hold renewed since it fired may already be back on the wheel; keep the later deadline
+                renewed.forEach((vehicleId, deadline) -> {
+                    if (!wheel.contains(vehicleId)) {
+                        wheel.schedule(vehicleId, deadline);
+                    }
+                });
+            }
+        }
+        return released;
+    }
+
+    private void tick() {
+        try {
+            expire(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.error("Reservation expiry tick failed", e);
+        }
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time == null ? Long.MIN_VALUE : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,410 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Customer;
+import com.automotive.sales.model.Sale;
+import com.automotive.sales.model.SaleBackfillCheckpoint;
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.repository.CustomerRepository;
+import com.automotive.sales.repository.SaleBackfillCheckpointRepository;
+import com.automotive.sales.repository.VehicleRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+
+/**
+ * Loads the historical deals of a newly onboarded dealership from an NDJSON stream.
+ * <p>
+ * Rows are sales already in a final status that name their vehicle by {@code vin} and their customer by
+ * {@code customerEmail}; none of the live workflow of {@link SaleService#createSaleByReference(Sale)} applies.
+ * The stream is read in chunks of lines: a chunk is parsed and validated on a pool of worker threads while the
+ * previous one is written. VINs and emails resolve to ids through hash maps, filled with one IN query per chunk
+ * for the keys not seen earlier in the run.
+ * <p>
+ * Each chunk is written in one transaction: the sales are inserted in JDBC batches, the available vehicles of its
+ * completed sales are marked sold with a single UPDATE, the daily rollup is incremented once per rollup row and
+ * the job's checkpoint moves to the chunk's last line. Running a job id again resumes after that line, so an
+ * interrupted backfill is restarted by sending the same stream.
+ */
+@Service
+@Slf4j
+public class SaleBackfillService {
+
+    static final Set<Sale.SaleStatus> BACKFILL_STATUSES =
+            EnumSet.of(Sale.SaleStatus.COMPLETED, Sale.SaleStatus.CANCELLED, Sale.SaleStatus.REFUNDED);
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final Set<String> RESOLVED_PROPERTIES = Set.of("vehicle", "customer");
+
+    private final VehicleRepository vehicleRepository;
+    private final CustomerRepository customerRepository;
+    private final SaleBackfillCheckpointRepository checkpointRepository;
+    private final SalesRollupService salesRollupService;
+    private final VehicleChangePublisher vehicleChangePublisher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final ForkJoinPool validators;
+    private final Set<String> runningJobs = ConcurrentHashMap.newKeySet();
+
+    public SaleBackfillService(VehicleRepository vehicleRepository,
+                               CustomerRepository customerRepository,
+                               SaleBackfillCheckpointRepository checkpointRepository,
+                               SalesRollupService salesRollupService,
+                               VehicleChangePublisher vehicleChangePublisher,
+                               ApplicationEventPublisher eventPublisher,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               Validator validator,
+                               ObjectMapper objectMapper,
+                               @Value("${app.backfill.chunk-size:1000}") int chunkSize,
+                               @Value("${app.backfill.parallelism:0}") int parallelism) {
+        this.vehicleRepository = vehicleRepository;
+        this.customerRepository = customerRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.salesRollupService = salesRollupService;
+        this.vehicleChangePublisher = vehicleChangePublisher;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.validators = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        validators.shutdownNow();
+    }
+
+    public BackfillResult backfillNdjson(String jobId, InputStream input) {
+        if (jobId == null || jobId.isBlank()) {
+            throw new IllegalArgumentException("Backfill job id is required");
+        }
+        if (!runningJobs.add(jobId)) {
+            throw new IllegalStateException("Backfill job " + jobId + " is already running");
+        }
+        try {
+            return run(jobId, input);
+        } finally {
+            runningJobs.remove(jobId);
+        }
+    }
+
+    private BackfillResult run(String jobId, InputStream input) {
+        long started = System.nanoTime();
+        SaleBackfillCheckpoint checkpoint = checkpointRepository.findById(jobId)
+                .orElseGet(() -> SaleBackfillCheckpoint.start(jobId));
+        long resumeAfter = checkpoint.getLastLine();
+        log.info("Backfilling sales for job {} after line {}", jobId, resumeAfter);
+
+        BackfillProgress progress = new BackfillProgress(checkpoint);
+        KeyLookup keys = new KeyLookup();
+        ForkJoinTask<ValidatedChunk> pending = null;
+        List<Line> lines = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= resumeAfter || line.isBlank()) {
+                    continue;
+                }
+                lines.add(new Line(lineNumber, line));
+                if (lines.size() >= chunkSize) {
+                    pending = validateThenWrite(lines, pending, keys, progress);
+                    lines = new ArrayList<>(chunkSize);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read sales backfill stream", e);
+        }
+        if (!lines.isEmpty()) {
+            pending = validateThenWrite(lines, pending, keys, progress);
+        }
+        if (pending != null) {
+            writeChunk(pending.join(), keys, progress);
+        }
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info("Sales backfill {} finished: {} rows, {} imported, {} rejected in {} ms",
+                jobId, progress.totalRows, progress.imported, progress.rejected, elapsedMillis);
+        return BackfillResult.builder()
+                .jobId(jobId)
+                .resumedAfterLine(resumeAfter)
+                .lastLine(progress.checkpoint.getLastLine())
+                .totalRows(progress.totalRows)
+                .importedCount(progress.imported)
+                .rejectedCount(progress.rejected)
+                .errors(progress.errors)
+                .elapsedMillis(elapsedMillis)
+                .build();
+    }
+
+    // Starts validating this chunk, then writes the previous one while the workers are busy
+    private ForkJoinTask<ValidatedChunk> validateThenWrite(List<Line> lines, ForkJoinTask<ValidatedChunk> previous,
+                                                           KeyLookup keys, BackfillProgress progress) {
+        ForkJoinTask<ValidatedChunk> validating = validators.submit(() -> new ValidatedChunk(
+                lines.get(lines.size() - 1).number(),
+                lines.parallelStream().map(this::parse).collect(Collectors.toList())));
+        if (previous != null) {
+            writeChunk(previous.join(), keys, progress);
+        }
+        return validating;
+    }
+
+    private ParsedRow parse(Line line) {
+        String vin = null;
+        try {
+            JsonNode tree = objectMapper.readTree(line.text());
+            if (!(tree instanceof ObjectNode node)) {
+                return new ParsedRow(line.number(), null, null, null, "Unparseable row: not a JSON object");
+            }
+            vin = text(node.remove("vin"));
+            String customerEmail = text(node.remove("customerEmail"));
+            boolean statusGiven = node.hasNonNull("status");
+            node.remove(List.of("id", "version", "vehicle", "customer"));
+            Sale sale = objectMapper.treeToValue(node, Sale.class);
+            if (!statusGiven) {
+                sale.setStatus(Sale.SaleStatus.COMPLETED);
+            }
+            return new ParsedRow(line.number(), vin, customerEmail, sale, validate(vin, customerEmail, sale));
+        } catch (Exception e) {
+            return new ParsedRow(line.number(), vin, null, null, "Unparseable row: " + e.getMessage());
+        }
+    }
+
+    private String validate(String vin, String customerEmail, Sale sale) {
+        if (vin == null || vin.isBlank()) {
+            return "VIN is required";
+        }
+        if (customerEmail == null || customerEmail.isBlank()) {
+            return "Customer email is required";
+        }
+        // The live default of today would misdate a historical deal
+        if (sale.getSaleDate() == null) {
+            return "Sale date is required";
+        }
+        if (!BACKFILL_STATUSES.contains(sale.getStatus())) {
+            return "Only completed, cancelled or refunded sales can be backfilled";
+        }
+        SaleService.applyDefaults(sale);
+        if (sale.getStatus() == Sale.SaleStatus.COMPLETED) {
+            sale.setIsFinalized(true);
+        }
+        Set<ConstraintViolation<Sale>> violations = validator.validate(sale);
+        String problems = violations.stream()
+                .filter(v -> !RESOLVED_PROPERTIES.contains(v.getPropertyPath().toString()))
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+        return problems.isEmpty() ? null : problems;
+    }
+
+    private static String text(JsonNode node) {
+        return node != null && !node.isNull() ? node.asText().trim() : null;
+    }
+
+    private void writeChunk(ValidatedChunk chunk, KeyLookup keys, BackfillProgress progress) {
+        keys.load(chunk.rows());
+
+        List<ParsedRow> accepted = new ArrayList<>(chunk.rows().size());
+        List<RowError> rejected = new ArrayList<>();
+        for (ParsedRow row : chunk.rows()) {
+            String problem = row.problem();
+            if (problem == null && keys.vehicles.get(row.vin()) == null) {
+                problem = "Unknown VIN";
+            }
+            if (problem == null && keys.customers.get(row.customerEmail()) == null) {
+                problem = "Unknown customer email";
+            }
+            if (problem != null) {
+                rejected.add(RowError.builder().lineNumber(row.lineNumber()).vin(row.vin()).message(problem).build());
+            } else {
+                accepted.add(row);
+            }
+        }
+
+        Set<Long> sold = new LinkedHashSet<>();
+        Map<Long, BigDecimal> purchasePrices = new HashMap<>();
+        for (ParsedRow row : accepted) {
+            VehicleKey vehicle = keys.vehicles.get(row.vin());
+            purchasePrices.put(vehicle.id(), vehicle.purchasePrice());
+            if (row.sale().getStatus() == Sale.SaleStatus.COMPLETED && vehicle.status() == Vehicle.VehicleStatus.AVAILABLE) {
+                sold.add(vehicle.id());
+            }
+        }
+
+        SaleBackfillCheckpoint checkpoint = progress.checkpoint;
+        checkpoint.setLastLine(chunk.lastLine());
+        checkpoint.setImportedCount(checkpoint.getImportedCount() + accepted.size());
+        checkpoint.setRejectedCount(checkpoint.getRejectedCount() + rejected.size());
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+
+        try {
+            progress.checkpoint = transactionTemplate.execute(status -> {
+                List<Sale> sales = new ArrayList<>(accepted.size());
+                for (ParsedRow row : accepted) {
+                    Sale sale = row.sale();
+                    sale.setVehicle(entityManager.getReference(Vehicle.class, keys.vehicles.get(row.vin()).id()));
+                    sale.setCustomer(entityManager.getReference(Customer.class, keys.customers.get(row.customerEmail())));
+                    entityManager.persist(sale);
+                    sales.add(sale);
+                }
+                entityManager.flush();
+
+                if (!sold.isEmpty()) {
+                    vehicleRepository.updateStatuses(sold, Vehicle.VehicleStatus.SOLD, LocalDateTime.now());
+                    vehicleRepository.refreshLoaded(sold);
+                    vehicleChangePublisher.publishStatusChanges(sold, Vehicle.VehicleStatus.SOLD);
+                }
+                salesRollupService.addAll(sales, purchasePrices);
+                sales.forEach(sale -> eventPublisher.publishEvent(SaleChangedEvent.of(SaleChangedEvent.Type.IMPORTED, sale)));
+
+                SaleBackfillCheckpoint saved = checkpointRepository.save(checkpoint);
+                entityManager.flush();
+                entityManager.clear();
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Sales backfill " + checkpoint.getJobId() + " failed on the chunk ending at line "
+                    + chunk.lastLine() + "; running the job again resumes after line " + progress.committedLine, e);
+        }
+
+        keys.markSold(accepted, sold);
+        progress.committed(chunk, accepted.size(), rejected);
+    }
+
+    /**
+     * VIN and email to id maps for one run. Keys looked up without a match are remembered as null so they are
+     * queried only once.
+     */
+    private final class KeyLookup {
+        private final Map<String, VehicleKey> vehicles = new HashMap<>();
+        private final Map<String, Long> customers = new HashMap<>();
+
+        private void load(List<ParsedRow> rows) {
+            Set<String> vins = new HashSet<>();
+            Set<String> emails = new HashSet<>();
+            for (ParsedRow row : rows) {
+                if (row.problem() == null) {
+                    if (!vehicles.containsKey(row.vin())) {
+                        vins.add(row.vin());
+                    }
+                    if (!customers.containsKey(row.customerEmail())) {
+                        emails.add(row.customerEmail());
+                    }
+                }
+            }
+            if (!vins.isEmpty()) {
+                for (Object[] vehicle : vehicleRepository.findBackfillRowsByVinIn(vins)) {
+                    vehicles.put((String) vehicle[0], new VehicleKey((Long) vehicle[1],
+                            (Vehicle.VehicleStatus) vehicle[2], (BigDecimal) vehicle[3]));
+                }
+                vins.forEach(vin -> vehicles.putIfAbsent(vin, null));
+            }
+            if (!emails.isEmpty()) {
+                for (Object[] customer : customerRepository.findIdsByEmailIn(emails)) {
+                    customers.put((String) customer[0], (Long) customer[1]);
+                }
+                emails.forEach(email -> customers.putIfAbsent(email, null));
+            }
+        }
+
+        private void markSold(List<ParsedRow> rows, Set<Long> sold) {
+            for (ParsedRow row : rows) {
+                VehicleKey vehicle = vehicles.get(row.vin());
+                if (sold.contains(vehicle.id())) {
+                    vehicles.put(row.vin(), new VehicleKey(vehicle.id(), Vehicle.VehicleStatus.SOLD, vehicle.purchasePrice()));
+                }
+            }
+        }
+    }
+
+    private record Line(long number, String text) {
+    }
+
+    private record ParsedRow(long lineNumber, String vin, String customerEmail, Sale sale, String problem) {
+    }
+
+    private record ValidatedChunk(long lastLine, List<ParsedRow> rows) {
+    }
+
+    private record VehicleKey(Long id, Vehicle.VehicleStatus status, BigDecimal purchasePrice) {
+    }
+
+    private static class BackfillProgress {
+        private SaleBackfillCheckpoint checkpoint;
+        private long committedLine;
+        private int totalRows;
+        private int imported;
+        private int rejected;
+        private final List<RowError> errors = new ArrayList<>();
+
+        private BackfillProgress(SaleBackfillCheckpoint checkpoint) {
+            this.checkpoint = checkpoint;
+            this.committedLine = checkpoint.getLastLine();
+        }
+
+        private void committed(ValidatedChunk chunk, int importedRows, List<RowError> rejectedRows) {
+            committedLine = chunk.lastLine();
+            totalRows += chunk.rows().size();
+            imported += importedRows;
+            rejected += rejectedRows.size();
+            for (RowError error : rejectedRows) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(error);
+                }
+            }
+        }
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    public static class BackfillResult {
+        private String jobId;
+        private long resumedAfterLine;
+        private long lastLine;
+        private int totalRows;
+        private int importedCount;
+        private int rejectedCount;
+        private List<RowError> errors;
+        private long elapsedMillis;
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    public static class RowError {
+        private long lineNumber;
+        private String vin;
+        private String message;
+    }
+}
@@ -0,0 +1,29 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Sale;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Published by {@link SaleService} for every sale lifecycle change, and by {@link SaleBackfillService} for every
+ * historical sale it loads. Carries the ids and values rather than the entity, so listeners running after commit
+ * never touch a detached sale or its lazy associations.
+ */
+public record SaleChangedEvent(Type type, Long saleId, Long vehicleId, Long customerId, Sale.SaleStatus status,
+                               BigDecimal salePrice, LocalDate saleDate, String salespersonEmail,
+                               Instant occurredAt) {
+
+    public enum Type {
+        CREATED, UPDATED, APPROVED, COMPLETED, CANCELLED,
+        // A historical sale loaded by the backfill, already in its final status
+        IMPORTED
+    }
+
+    public static SaleChangedEvent of(Type type, Sale sale) {
+        // Reading the id of an uninitialized association does not load it
+        return new SaleChangedEvent(type, sale.getId(), sale.getVehicle().getId(), sale.getCustomer().getId(),
+                sale.getStatus(), sale.getSalePrice(), sale.getSaleDate(), sale.getSalespersonEmail(), Instant.now());
+    }
+}
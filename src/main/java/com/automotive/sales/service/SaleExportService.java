@@ -0,0 +1,173 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.export.SaleColumnarWriter;
+import com.automotive.sales.export.SaleExportColumn;
+import com.automotive.sales.model.SaleExportWatermark;
+import com.automotive.sales.repository.SaleExportWatermarkRepository;
+import com.automotive.sales.repository.SaleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Exports sales with their vehicle and customer keys to columnar files for BI tools.
+ * <p>
+ * Each run reads the sales modified since the export's watermark through a read-only cursor, ordered by
+ * {@code (updated_at, id)}, and appends them to a {@link SaleColumnarWriter}, so memory is bounded by one row
+ * group. The file is written under a temporary name and moved into place once complete; only then does the
+ * watermark advance to the last exported row. A failed run leaves no file and the watermark where it was, and
+ * the next run exports the same rows again.
+ * <p>
+ * {@code updated_at} is set before the modifying transaction commits, so a sale may become visible with a
+ * timestamp older than rows already exported. Runs therefore stop {@code app.export.watermark-lag-ms} before the
+ * current time, which must exceed the longest sales transaction.
+ */
+@Service
+@Slf4j
+public class SaleExportService {
+
+    static final String FILE_SUFFIX = ".scol";
+
+    private static final Pattern EXPORT_NAME = Pattern.compile("[A-Za-z0-9_-]{1,100}");
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssSSS");
+    private static final int UPDATED_AT = SaleExportColumn.UPDATED_AT.ordinal();
+    private static final int SALE_ID = SaleExportColumn.SALE_ID.ordinal();
+
+    private final SaleRepository saleRepository;
+    private final SaleExportWatermarkRepository watermarkRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Path directory;
+    private final int rowGroupSize;
+    private final long watermarkLagMillis;
+    private final Set<String> runningExports = ConcurrentHashMap.newKeySet();
+
+    public SaleExportService(SaleRepository saleRepository,
+                             SaleExportWatermarkRepository watermarkRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.export.directory:data/exports}") String directory,
+                             @Value("${app.export.row-group-size:65536}") int rowGroupSize,
+                             @Value("${app.export.watermark-lag-ms:60000}") long watermarkLagMillis) {
+        this.saleRepository = saleRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.directory = Path.of(directory);
+        this.rowGroupSize = rowGroupSize;
+        this.watermarkLagMillis = watermarkLagMillis;
+    }
+
+    /**
+     * Writes the sales modified since the last run of {@code exportName} to a new file. Nothing is written when
+     * there are none.
+     */
+    public ExportResult export(String exportName) {
+        if (exportName == null || !EXPORT_NAME.matcher(exportName).matches()) {
+            throw new IllegalArgumentException("Export name must be 1 to 100 letters, digits, '-' or '_'");
+        }
+        if (!runningExports.add(exportName)) {
+            throw new IllegalStateException("Sales export " + exportName + " is already running");
+        }
+        try {
+            return run(exportName);
+        } finally {
+            runningExports.remove(exportName);
+        }
+    }
+
+    private ExportResult run(String exportName) {
+        long started = System.nanoTime();
+        SaleExportWatermark watermark = watermarkRepository.findById(exportName)
+                .orElseGet(() -> SaleExportWatermark.start(exportName));
+        LocalDateTime since = watermark.getLastUpdatedAt();
+        long afterId = watermark.getLastSaleId();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.minusNanos(watermarkLagMillis * 1_000_000);
+        log.info("Exporting sales for {} modified after {} (sale {}) up to {}", exportName, since, afterId, until);
+
+        String fileName = exportName + "-" + FILE_TIMESTAMP.format(now) + FILE_SUFFIX;
+        Path file = directory.resolve(fileName);
+        Path temporary = directory.resolve(fileName + ".tmp");
+        Object[][] last = new Object[1][];
+        long rows;
+        try {
+            Files.createDirectories(directory);
+            try (SaleColumnarWriter writer = new SaleColumnarWriter(temporary, rowGroupSize)) {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Stream<Object[]> sales = saleRepository.streamExportRows(since, afterId, until)) {
+                        sales.forEach(row -> {
+                            writer.append(row);
+                            last[0] = row;
+                        });
+                    }
+                });
+                rows = writer.rowCount();
+            }
+            if (rows == 0) {
+                Files.delete(temporary);
+            } else {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            deleteQuietly(temporary);
+            throw new UncheckedIOException("Failed to write sales export " + file, e);
+        } catch (RuntimeException e) {
+            deleteQuietly(temporary);
+            throw e;
+        }
+
+        if (rows > 0) {
+            watermark.setLastUpdatedAt((LocalDateTime) last[0][UPDATED_AT]);
+            watermark.setLastSaleId((Long) last[0][SALE_ID]);
+            watermark.setExportedCount(watermark.getExportedCount() + rows);
+            watermark.setLastFile(fileName);
+            watermark.setUpdatedAt(LocalDateTime.now());
+            watermark = watermarkRepository.save(watermark);
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info("Sales export {} finished: {} rows to {} in {} ms", exportName, rows, rows > 0 ? file : "no file",
+                elapsedMillis);
+        return ExportResult.builder()
+                .exportName(exportName)
+                .file(rows > 0 ? file.toString() : null)
+                .rowCount(rows)
+                .exportedSince(since)
+                .watermark(watermark.getLastUpdatedAt())
+                .totalExported(watermark.getExportedCount())
+                .elapsedMillis(elapsedMillis)
+                .build();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete incomplete sales export {}", file, e);
+        }
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    public static class ExportResult {
+        private String exportName;
+        private String file;
+        private long rowCount;
+        private LocalDateTime exportedSince;
+        private LocalDateTime watermark;
+        private long totalExported;
+        private long elapsedMillis;
+    }
+}
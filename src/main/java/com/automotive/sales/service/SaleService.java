@@ -1,23 +1,28 @@
 package com.automotive.sales.service;
 
-import com.automotive.sales.model.Customer;
 import com.automotive.sales.model.Sale;
 import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.money.Cents;
+import com.automotive.sales.monitoring.QueryBudget;
 import com.automotive.sales.repository.CustomerRepository;
 import com.automotive.sales.repository.SaleRepository;
 import com.automotive.sales.repository.VehicleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -29,28 +34,65 @@ public class SaleService {
     private final VehicleRepository vehicleRepository;
     private final CustomerRepository customerRepository;
     private final VehicleService vehicleService;
+    private final SalesRollupService salesRollupService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public Sale createSale(Sale sale) {
-        log.info("Creating new sale for vehicle ID: {} and customer ID: {}", 
-                sale.getVehicle().getId(), sale.getCustomer().getId());
-        
-        // Validate vehicle exists and is available
-        Vehicle vehicle = vehicleRepository.findById(sale.getVehicle().getId())
-                .orElseThrow(() -> new IllegalArgumentException("Vehicle not found with ID: " + sale.getVehicle().getId()));
-        
-        if (vehicle.getStatus() != Vehicle.VehicleStatus.AVAILABLE && 
-            vehicle.getStatus() != Vehicle.VehicleStatus.RESERVED) {
-            throw new IllegalStateException("Vehicle is not available for sale. Current status: " + vehicle.getStatus());
+    static final Set<Sale.SaleStatus> OPEN_SALE_STATUSES = EnumSet.of(Sale.SaleStatus.PENDING, Sale.SaleStatus.APPROVED);
+
+    /**
+     * Opens a pending sale for the vehicle and customer given by id, in three statements: an active check that
+     * reads one column of the customer, the conditional UPDATE claiming the vehicle and the sale INSERT, which
+     * references vehicle and customer by id instead of loading them. The customer is checked before the vehicle
+     * row is touched, so the row lock is held for the insert only.
+     * <p>
+     * The sale always starts as a new, pending and unfinalized deal: an id, version, status, contract signature or
+     * commission amount set on {@code sale} is discarded, so only the terms are taken from the caller.
+     * <p>
+     * The returned sale's vehicle and customer are uninitialized references: use it when the caller only
+     * needs the sale itself or the ids. The budget leaves room for the lock and open-sale check of a held
+     * vehicle ({@link #claimHeldVehicle(Long)}) and for the occasional id sequence fetch.
+     */
+    @QueryBudget(statements = 6)
+    public Sale createSaleByReference(Sale sale) {
+        Long vehicleId = sale.getVehicle() != null ? sale.getVehicle().getId() : null;
+        Long customerId = sale.getCustomer() != null ? sale.getCustomer().getId() : null;
+        if (vehicleId == null || customerId == null) {
+            throw new IllegalArgumentException("Vehicle and customer id are required");
         }
+        log.info("Creating new sale by reference for vehicle ID: {} and customer ID: {}", vehicleId, customerId);
         
-        // Validate customer exists and is active
-        Customer customer = customerRepository.findById(sale.getCustomer().getId())
-                .orElseThrow(() -> new IllegalArgumentException("Customer not found with ID: " + sale.getCustomer().getId()));
-        
-        if (!customer.getIsActive()) {
+        Boolean active = customerRepository.findActiveById(customerId)
+                .orElseThrow(() -> new IllegalArgumentException("Customer not found with ID: " + customerId));
+        if (!Boolean.TRUE.equals(active)) {
             throw new IllegalStateException("Customer is not active");
         }
         
+        if (!vehicleService.tryReserveVehicle(vehicleId)) {
+            claimHeldVehicle(vehicleId);
+        }
+        
+        sale.setVehicle(vehicleRepository.getReferenceById(vehicleId));
+        sale.setCustomer(customerRepository.getReferenceById(customerId));
+        openAsNew(sale);
+        applyDefaults(sale);
+        
+        Sale savedSale = saleRepository.save(sale);
+        publish(SaleChangedEvent.Type.CREATED, savedSale);
+        log.info("Sale created successfully with ID: {}", savedSale.getId());
+        return savedSale;
+    }
+
+    // Clears the workflow state, which only the lifecycle transitions may set
+    private static void openAsNew(Sale sale) {
+        sale.setId(null);
+        sale.setVersion(null);
+        sale.setStatus(Sale.SaleStatus.PENDING);
+        sale.setIsFinalized(false);
+        sale.setContractSignedAt(null);
+        sale.setCommissionAmount(null);
+    }
+
+    static void applyDefaults(Sale sale) {
         // Set default values if not provided
         if (sale.getSaleDate() == null) {
             sale.setSaleDate(LocalDate.now());
@@ -70,24 +112,43 @@ public class SaleService {
         
         // Calculate commission if rate is provided
         if (sale.getCommissionRate() != null && sale.getSalePrice() != null) {
-            BigDecimal commission = sale.getSalePrice()
-                    .multiply(sale.getCommissionRate())
-                    .divide(BigDecimal.valueOf(100));
-            sale.setCommissionAmount(commission);
+            sale.setCommissionAmount(commission(sale.getSalePrice(), sale.getCommissionRate()));
         }
+    }
+
+    // Rounded half up to the cent, the precision of the commission_amount column
+    private static BigDecimal commission(BigDecimal salePrice, BigDecimal commissionRate) {
+        return Cents.toBigDecimal(Cents.percent(Cents.of(salePrice), Cents.basisPoints(commissionRate)));
+    }
+
+    // Listeners such as the sale journal only see the change once the transaction commits
+    static void markCancelled(Sale sale, String reason) {
+        sale.setStatus(Sale.SaleStatus.CANCELLED);
+        sale.setNotes(sale.getNotes() != null ? sale.getNotes() + "\nCancellation reason: " + reason : "Cancellation reason: " + reason);
+    }
+
+    private void publish(SaleChangedEvent.Type type, Sale sale) {
+        eventPublisher.publishEvent(SaleChangedEvent.of(type, sale));
+    }
+
+    /**
+     * A vehicle already on hold at the desk may still be sold, but only to the first sale opened against it.
+     * The row lock serialises concurrent attempts so the open-sale check sees any sale committed before it.
+     */
+    private void claimHeldVehicle(Long vehicleId) {
+        Vehicle vehicle = vehicleRepository.findByIdForUpdate(vehicleId)
+                .orElseThrow(() -> new IllegalArgumentException("Vehicle not found with ID: " + vehicleId));
         
-        // Reserve the vehicle
-        vehicleService.reserveVehicle(vehicle.getId());
-        
-        Sale savedSale = saleRepository.save(sale);
-        log.info("Sale created successfully with ID: {}", savedSale.getId());
-        return savedSale;
+        if (vehicle.getStatus() != Vehicle.VehicleStatus.RESERVED ||
+            saleRepository.existsByVehicleIdAndStatusIn(vehicleId, OPEN_SALE_STATUSES)) {
+            throw new IllegalStateException("Vehicle is not available for sale. Current status: " + vehicle.getStatus());
+        }
     }
 
     @Transactional(readOnly = true)
     public Optional<Sale> getSaleById(Long id) {
         log.debug("Fetching sale with ID: {}", id);
-        return saleRepository.findById(id);
+        return saleRepository.findWithDetailsById(id);
     }
 
     @Transactional(readOnly = true)
@@ -124,6 +185,20 @@ public class SaleService {
                                                   startDate, endDate, minPrice, maxPrice, pageable);
     }
 
+    @Transactional(readOnly = true)
+    public Slice<Sale> getSalesWithFiltersAfter(Sale.SaleStatus status, Sale.PaymentMethod paymentMethod,
+                                               String salespersonEmail, LocalDate startDate, LocalDate endDate,
+                                               BigDecimal minPrice, BigDecimal maxPrice, String after, int size) {
+        log.debug("Fetching sales after cursor {} with filters - status: {}, paymentMethod: {}, salesperson: {}", 
+                 after, status, paymentMethod, salespersonEmail);
+        KeysetCursor cursor = after != null ? KeysetCursor.decode(after) : null;
+        return saleRepository.findSalesWithFiltersAfter(status, paymentMethod, salespersonEmail,
+                startDate, endDate, minPrice, maxPrice,
+                cursor != null ? cursor.getKeyAs(LocalDate::parse) : null,
+                cursor != null ? cursor.getId() : null,
+                KeysetCursor.slice(size));
+    }
+
     public Sale updateSale(Long id, Sale saleDetails) {
         log.info("Updating sale with ID: {}", id);
         
@@ -134,6 +209,9 @@ public class SaleService {
             throw new IllegalStateException("Cannot update finalized sale");
         }
         
+        // A cancelled sale is already in the daily rollup; take it out and add it back with its new values
+        salesRollupService.remove(existingSale);
+        
         // Update fields
         existingSale.setSaleDate(saleDetails.getSaleDate());
         existingSale.setSalePrice(saleDetails.getSalePrice());
@@ -156,13 +234,12 @@ public class SaleService {
         
         // Recalculate commission if rate changed
         if (saleDetails.getCommissionRate() != null && saleDetails.getSalePrice() != null) {
-            BigDecimal commission = saleDetails.getSalePrice()
-                    .multiply(saleDetails.getCommissionRate())
-                    .divide(BigDecimal.valueOf(100));
-            existingSale.setCommissionAmount(commission);
+            existingSale.setCommissionAmount(commission(saleDetails.getSalePrice(), saleDetails.getCommissionRate()));
         }
         
+        salesRollupService.add(existingSale);
         Sale updatedSale = saleRepository.save(existingSale);
+        publish(SaleChangedEvent.Type.UPDATED, updatedSale);
         log.info("Sale updated successfully with ID: {}", updatedSale.getId());
         return updatedSale;
     }
@@ -179,6 +256,7 @@ public class SaleService {
         
         sale.setStatus(Sale.SaleStatus.APPROVED);
         Sale updatedSale = saleRepository.save(sale);
+        publish(SaleChangedEvent.Type.APPROVED, updatedSale);
         log.info("Sale approved successfully");
         return updatedSale;
     }
@@ -193,14 +271,16 @@ public class SaleService {
             throw new IllegalStateException("Only approved sales can be completed");
         }
         
+        // Mark vehicle as sold; fails if it was meanwhile sold elsewhere or pulled from the lot
+        vehicleService.markVehicleAsSold(sale.getVehicle().getId());
+        
         sale.setStatus(Sale.SaleStatus.COMPLETED);
         sale.setIsFinalized(true);
         sale.setContractSignedAt(LocalDateTime.now());
-        
-        // Mark vehicle as sold
-        vehicleService.markVehicleAsSold(sale.getVehicle().getId());
+        salesRollupService.add(sale);
         
         Sale updatedSale = saleRepository.save(sale);
+        publish(SaleChangedEvent.Type.COMPLETED, updatedSale);
         log.info("Sale completed successfully");
         return updatedSale;
     }
@@ -215,13 +295,21 @@ public class SaleService {
             throw new IllegalStateException("Cannot cancel completed sale");
         }
         
-        sale.setStatus(Sale.SaleStatus.CANCELLED);
-        sale.setNotes(sale.getNotes() != null ? sale.getNotes() + "\nCancellation reason: " + reason : "Cancellation reason: " + reason);
+        // A cancelled sale is already counted in the daily rollup
+        if (sale.getStatus() == Sale.SaleStatus.CANCELLED) {
+            throw new IllegalStateException("Sale is already cancelled");
+        }
         
-        // Make vehicle available again
-        vehicleService.makeVehicleAvailable(sale.getVehicle().getId());
+        markCancelled(sale, reason);
+        
+        // Release the vehicle if this sale was still holding it
+        if (!vehicleService.tryReleaseVehicle(sale.getVehicle().getId())) {
+            log.info("Vehicle {} was not reserved, leaving its status unchanged", sale.getVehicle().getId());
+        }
+        salesRollupService.add(sale);
         
         Sale updatedSale = saleRepository.save(sale);
+        publish(SaleChangedEvent.Type.CANCELLED, updatedSale);
         log.info("Sale cancelled successfully");
         return updatedSale;
     }
@@ -229,25 +317,25 @@ public class SaleService {
     @Transactional(readOnly = true)
     public BigDecimal getTotalRevenue() {
         log.debug("Calculating total revenue");
-        return saleRepository.getTotalRevenue();
+        return salesRollupService.getTotalRevenue();
     }
 
     @Transactional(readOnly = true)
     public BigDecimal getRevenueByDateRange(LocalDate startDate, LocalDate endDate) {
         log.debug("Calculating revenue for date range: {} to {}", startDate, endDate);
-        return saleRepository.getRevenueByDateRange(startDate, endDate);
+        return salesRollupService.getRevenueByDateRange(startDate, endDate);
     }
 
     @Transactional(readOnly = true)
     public BigDecimal getTotalProfit() {
         log.debug("Calculating total profit");
-        return saleRepository.getTotalProfit();
+        return salesRollupService.getTotalProfit();
     }
 
     @Transactional(readOnly = true)
     public BigDecimal getProfitByDateRange(LocalDate startDate, LocalDate endDate) {
         log.debug("Calculating profit for date range: {} to {}", startDate, endDate);
-        return saleRepository.getProfitByDateRange(startDate, endDate);
+        return salesRollupService.getProfitByDateRange(startDate, endDate);
     }
 
     @Transactional(readOnly = true)
@@ -265,7 +353,7 @@ public class SaleService {
     @Transactional(readOnly = true)
     public List<Object[]> getMonthlySalesReport() {
         log.debug("Getting monthly sales report");
-        return saleRepository.getMonthlySalesReport();
+        return salesRollupService.getMonthlySalesReport();
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,186 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Sale;
+import com.automotive.sales.model.SalesDailyRollup;
+import com.automotive.sales.money.Cents;
+import com.automotive.sales.repository.SalesDailyRollupRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains {@code sales_daily_rollup} and serves the revenue, profit and monthly reports from it.
+ * <p>
+ * A sale is counted once it reaches a final status: {@link SaleService} calls {@link #add(Sale)} in the
+ * transaction that completes or cancels it, so the rollup commits or rolls back together with the sale.
+ * {@link #rebuild()} recomputes the table from the sales in one grouped statement, and runs at startup
+ * when the table is empty.
+ */
+@Service
+@Slf4j
+@Transactional
+public class SalesRollupService {
+
+    static final Set<Sale.SaleStatus> ROLLED_UP_STATUSES = EnumSet.of(Sale.SaleStatus.COMPLETED, Sale.SaleStatus.CANCELLED);
+
+    private final SalesDailyRollupRepository rollupRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate newTransaction;
+
+    public SalesRollupService(SalesDailyRollupRepository rollupRepository,
+                              EntityManager entityManager,
+                              PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.entityManager = entityManager;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (rollupRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recomputes the rollup from the sales table. Meant for backfills and repairs while sales are quiet: a sale
+     * completed while it runs may be counted twice or not at all.
+     */
+    public int rebuild() {
+        log.info("Rebuilding sales daily rollup");
+        rollupRepository.deleteAllRows();
+        int rows = rollupRepository.insertFromSales();
+        log.info("Sales daily rollup rebuilt with {} rows", rows);
+        return rows;
+    }
+
+    public void add(Sale sale) {
+        apply(sale, 1);
+    }
+
+    public void remove(Sale sale) {
+        apply(sale, -1);
+    }
+
+    private void apply(Sale sale, int sign) {
+        if (!ROLLED_UP_STATUSES.contains(sale.getStatus())) {
+            return;
+        }
+        SalesDailyRollup.Key key = SalesDailyRollup.Key.of(sale);
+        BigDecimal factor = BigDecimal.valueOf(sign);
+        BigDecimal purchasePrice = sale.getVehicle().getPurchasePrice();
+        BigDecimal revenue = sale.getSalePrice().multiply(factor);
+        BigDecimal cost = purchasePrice != null ? purchasePrice.multiply(factor) : BigDecimal.ZERO;
+        BigDecimal profit = purchasePrice != null ? revenue.subtract(cost) : BigDecimal.ZERO;
+        BigDecimal commission = sale.getCommissionAmount() != null
+                ? sale.getCommissionAmount().multiply(factor) : BigDecimal.ZERO;
+
+        increment(key, sign, revenue, cost, profit, commission);
+    }
+
+    /**
+     * Adds a batch of sales with one increment per rollup row instead of one per sale. The sales' vehicles may be
+     * unloaded references: purchase prices come from {@code purchasePrices}, keyed by vehicle id, where a
+     * missing or null entry means the price is unknown.
+     */
+    public void addAll(Collection<Sale> sales, Map<Long, BigDecimal> purchasePrices) {
+        Map<SalesDailyRollup.Key, Totals> totals = new HashMap<>();
+        for (Sale sale : sales) {
+            if (ROLLED_UP_STATUSES.contains(sale.getStatus())) {
+                totals.computeIfAbsent(SalesDailyRollup.Key.of(sale), key -> new Totals())
+                        .add(sale, purchasePrices.get(sale.getVehicle().getId()));
+            }
+        }
+        totals.forEach((key, total) -> increment(key, total.count, Cents.toBigDecimal(total.revenue),
+                Cents.toBigDecimal(total.cost), Cents.toBigDecimal(total.profit), Cents.toBigDecimal(total.commission)));
+    }
+
+    private void increment(SalesDailyRollup.Key key, long count, BigDecimal revenue, BigDecimal cost,
+                           BigDecimal profit, BigDecimal commission) {
+        if (rollupRepository.increment(key, count, revenue, cost, profit, commission) == 0) {
+            createRow(key);
+            if (rollupRepository.increment(key, count, revenue, cost, profit, commission) == 0) {
+                throw new IllegalStateException("Sales daily rollup row missing for " + key);
+            }
+        }
+    }
+
+    // Committed on its own so a concurrent first sale of the day only loses the insert race, not its transaction
+    private void createRow(SalesDailyRollup.Key key) {
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                // persist rather than save: a merge would overwrite a row inserted concurrently with zeroes
+                entityManager.persist(SalesDailyRollup.empty(key));
+                entityManager.flush();
+            });
+        } catch (DataIntegrityViolationException | PersistenceException e) {
+            log.debug("Sales daily rollup row {} created concurrently", key);
+        }
+    }
+
+    // Running sums in cents for one rollup row of a batch
+    private static final class Totals {
+        private long count;
+        private long revenue;
+        private long cost;
+        private long profit;
+        private long commission;
+
+        private void add(Sale sale, BigDecimal purchasePrice) {
+            long price = Cents.of(sale.getSalePrice());
+            count++;
+            revenue = Cents.add(revenue, price);
+            if (purchasePrice != null) {
+                long purchase = Cents.of(purchasePrice);
+                cost = Cents.add(cost, purchase);
+                profit = Cents.add(profit, Cents.subtract(price, purchase));
+            }
+            if (sale.getCommissionAmount() != null) {
+                commission = Cents.add(commission, Cents.of(sale.getCommissionAmount()));
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal getTotalRevenue() {
+        return rollupRepository.getTotalRevenue(Sale.SaleStatus.COMPLETED);
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal getRevenueByDateRange(LocalDate startDate, LocalDate endDate) {
+        return rollupRepository.getRevenueByDateRange(Sale.SaleStatus.COMPLETED, startDate, endDate);
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal getTotalProfit() {
+        return rollupRepository.getTotalProfit(Sale.SaleStatus.COMPLETED);
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal getProfitByDateRange(LocalDate startDate, LocalDate endDate) {
+        return rollupRepository.getProfitByDateRange(Sale.SaleStatus.COMPLETED, startDate, endDate);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Object[]> getMonthlySalesReport() {
+        return rollupRepository.getMonthlySalesReport(Sale.SaleStatus.COMPLETED);
+    }
+}
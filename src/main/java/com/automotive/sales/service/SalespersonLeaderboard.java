@@ -0,0 +1,352 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Sale;
+import com.automotive.sales.model.SalesDailyRollup;
+import com.automotive.sales.money.Cents;
+import com.automotive.sales.repository.SalesDailyRollupRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Completed-sale totals per salesperson for the showroom leaderboard and the sales performance report.
+ * <p>
+ * Each salesperson has a pair of {@link LongAdder}s (sale count and revenue in cents) for all time and one per
+ * sale day back to the start of the current week or month, whichever is earlier. Completions are added as they
+ * commit, so concurrent desks never contend on a shared counter. A ranking is built on demand from the days in
+ * the window with a bounded min-heap, O(n log k) for n salespeople, and reused until the next completion.
+ * <p>
+ * The counters are reloaded from the daily sales rollup on startup and every {@code app.leaderboard.reconcile-ms},
+ * which also drops days that have left every window and corrects any drift, such as a completion whose event was
+ * lost; corrected totals drop the cached sales performance report. A completion whose event is delivered after a
+ * reload although it occurred before the reload read the rollup is already in the reloaded totals and is skipped.
+ * Sales without a salesperson count towards the
+ * report but are not ranked, and sales dated after the end of a window count towards all time only.
+ */
+@Component
+@Slf4j
+public class SalespersonLeaderboard {
+
+    static final int MAX_LIMIT = 100;
+
+    private final SalesDailyRollupRepository rollupRepository;
+    private final AnalyticsCache analyticsCache;
+    // Readers of the counters never lock; adders share the read lock so a reload can swap the maps atomically
+    private final ReadWriteLock reloadLock = new ReentrantReadWriteLock();
+    private final AtomicLong changes = new AtomicLong();
+    private final Map<Window, Ranking> rankings = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService reconciler;
+
+    private volatile Map<String, Tally> allTime = new ConcurrentHashMap<>();
+    private volatile NavigableMap<LocalDate, Map<String, Tally>> days = new ConcurrentSkipListMap<>();
+    private volatile LocalDate retainedFrom = LocalDate.MIN;
+    private volatile Instant reloadedAt = Instant.MIN;
+    private volatile boolean loaded;
+
+    public SalespersonLeaderboard(SalesDailyRollupRepository rollupRepository,
+                                  AnalyticsCache analyticsCache,
+                                  @Value("${app.leaderboard.reconcile-ms:300000}") long reconcileMillis) {
+        this.rollupRepository = rollupRepository;
+        this.analyticsCache = analyticsCache;
+        this.reconciler = Executors.newSingleThreadScheduledExecutor(daemon("leaderboard-reconcile"));
+        this.reconciler.scheduleWithFixedDelay(this::reconcileQuietly, reconcileMillis, reconcileMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reconcile();
+    }
+
+    /**
+     * Reloads every counter from the daily rollup and returns the number of salespeople whose all-time totals
+     * had drifted from it.
+     */
+    public int reconcile() {
+        LocalDate today = LocalDate.now();
+        LocalDate weekStart = windowStart(Window.WEEK, today);
+        LocalDate monthStart = windowStart(Window.MONTH, today);
+        LocalDate from = weekStart.isBefore(monthStart) ? weekStart : monthStart;
+        LocalDate weekEnd = windowEnd(Window.WEEK, today);
+        LocalDate monthEnd = windowEnd(Window.MONTH, today);
+        LocalDate to = weekEnd.isAfter(monthEnd) ? weekEnd : monthEnd;
+        int drifted;
+        reloadLock.writeLock().lock();
+        try {
+            // Taken before the reads, so every completion committed by then is in the reloaded totals
+            Instant snapshotAt = Instant.now();
+            Map<String, Tally> reloadedAllTime = new ConcurrentHashMap<>();
+            for (Object[] row : rollupRepository.getSalespersonTotals(Sale.SaleStatus.COMPLETED)) {
+                reloadedAllTime.put((String) row[0], Tally.of((Long) row[1], (BigDecimal) row[2]));
+            }
+            NavigableMap<LocalDate, Map<String, Tally>> reloadedDays = new ConcurrentSkipListMap<>();
+            for (Object[] row : rollupRepository.getSalespersonDailyTotals(Sale.SaleStatus.COMPLETED, from, to)) {
+                reloadedDays.computeIfAbsent((LocalDate) row[1], day -> new ConcurrentHashMap<>())
+                        .put((String) row[0], Tally.of((Long) row[2], (BigDecimal) row[3]));
+            }
+
+            drifted = loaded ? drift(allTime, reloadedAllTime) : 0;
+            allTime = reloadedAllTime;
+            days = reloadedDays;
+            retainedFrom = from;
+            reloadedAt = snapshotAt;
+            loaded = true;
+            changes.incrementAndGet();
+            log.debug("Leaderboard reloaded: {} salespeople, {} days from {} to {}", reloadedAllTime.size(),
+                    reloadedDays.size(), from, to);
+        } finally {
+            reloadLock.writeLock().unlock();
+        }
+        if (drifted > 0) {
+            log.warn("Leaderboard totals of {} salespeople had drifted from the sales rollup", drifted);
+            analyticsCache.invalidate(AnalyticsCache.Report.SALES_PERFORMANCE);
+        }
+        return drifted;
+    }
+
+    /**
+     * Completions, including historical ones loaded by the backfill, count towards the totals. A cancellation
+     * needs no update: only open sales can be cancelled, and those were never counted. Runs before
+     * {@link AnalyticsCache} drops the reports built from these totals.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onSaleChanged(SaleChangedEvent event) {
+        boolean completed = event.type() == SaleChangedEvent.Type.COMPLETED
+                || (event.type() == SaleChangedEvent.Type.IMPORTED && event.status() == Sale.SaleStatus.COMPLETED);
+        if (completed && event.salePrice() != null) {
+            record(event.salespersonEmail(), event.saleDate(), Cents.of(event.salePrice()), event.occurredAt());
+        }
+    }
+
+    // Days after the retained range are kept too: the windows move on before the next reload. A completion that
+    // occurred before the last reload, e.g. whose listener waited for the reload to finish, is counted by it already
+    void record(String salespersonEmail, LocalDate saleDate, long revenueCents, Instant occurredAt) {
+        String key = salespersonEmail != null ? salespersonEmail : SalesDailyRollup.NO_SALESPERSON;
+        reloadLock.readLock().lock();
+        try {
+            if (occurredAt != null && occurredAt.isBefore(reloadedAt)) {
+                log.debug("Skipping completion of {} that occurred before the last leaderboard reload", occurredAt);
+                return;
+            }
+            allTime.computeIfAbsent(key, email -> new Tally()).add(revenueCents);
+            if (saleDate != null && !saleDate.isBefore(retainedFrom)) {
+                days.computeIfAbsent(saleDate, day -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(key, email -> new Tally()).add(revenueCents);
+            }
+            changes.incrementAndGet();
+        } finally {
+            reloadLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The {@code limit} salespeople with the highest revenue in the window, ties going to the higher sale count
+     * and then the email. Days and weeks are calendar ones, weeks starting on Monday.
+     */
+    public List<Standing> top(Window window, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Leaderboard limit must be between 1 and " + MAX_LIMIT);
+        }
+        ensureLoaded();
+        LocalDate today = LocalDate.now();
+        long version = changes.get();
+        Ranking ranking = rankings.get(window);
+        if (ranking == null || ranking.version != version || !ranking.day.equals(today)) {
+            ranking = new Ranking(version, today, rank(totals(window, today), MAX_LIMIT, false));
+            rankings.put(window, ranking);
+        }
+        return ranking.standings.subList(0, Math.min(limit, ranking.standings.size()));
+    }
+
+    /**
+     * Every salesperson's all-time totals by revenue, with sales that have no salesperson under a {@code null}
+     * email.
+     */
+    public List<Standing> allTime() {
+        ensureLoaded();
+        Map<String, long[]> totals = new HashMap<>();
+        allTime.forEach((email, tally) -> totals.put(email, tally.snapshot()));
+        return rank(totals, totals.size(), true);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reconcile();
+                }
+            }
+        }
+    }
+
+    private Map<String, long[]> totals(Window window, LocalDate today) {
+        Map<String, long[]> totals = new HashMap<>();
+        if (window == Window.ALL_TIME) {
+            allTime.forEach((email, tally) -> totals.put(email, tally.snapshot()));
+            return totals;
+        }
+        NavigableMap<LocalDate, Map<String, Tally>> inWindow = days.subMap(windowStart(window, today), true,
+                windowEnd(window, today), true);
+        for (Map<String, Tally> day : inWindow.values()) {
+            day.forEach((email, tally) -> {
+                long[] snapshot = tally.snapshot();
+                long[] total = totals.computeIfAbsent(email, key -> new long[2]);
+                total[0] += snapshot[0];
+                total[1] += snapshot[1];
+            });
+        }
+        return totals;
+    }
+
+    // Bounded min-heap on the ranking order: the weakest of the current top k is evicted first
+    private static List<Standing> rank(Map<String, long[]> totals, int limit, boolean includeUnassigned) {
+        Comparator<Map.Entry<String, long[]>> order = Comparator
+                .<Map.Entry<String, long[]>>comparingLong(entry -> entry.getValue()[1])
+                .thenComparingLong(entry -> entry.getValue()[0])
+                .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+        PriorityQueue<Map.Entry<String, long[]>> heap = new PriorityQueue<>(Math.max(1, limit), order);
+        for (Map.Entry<String, long[]> entry : totals.entrySet()) {
+            if (entry.getValue()[0] == 0
+                    || (!includeUnassigned && SalesDailyRollup.NO_SALESPERSON.equals(entry.getKey()))) {
+                continue;
+            }
+            if (heap.size() < limit) {
+                heap.add(entry);
+            } else if (order.compare(entry, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+
+        Standing[] standings = new Standing[heap.size()];
+        for (int i = standings.length - 1; i >= 0; i--) {
+            Map.Entry<String, long[]> entry = heap.poll();
+            long count = entry.getValue()[0];
+            long revenue = entry.getValue()[1];
+            standings[i] = Standing.builder()
+                    .rank(i + 1)
+                    .salespersonEmail(SalesDailyRollup.NO_SALESPERSON.equals(entry.getKey()) ? null : entry.getKey())
+                    .salesCount(count)
+                    .totalRevenue(Cents.toBigDecimal(revenue))
+                    .averageSaleValue(Cents.toBigDecimal(Cents.divide(revenue, count)))
+                    .build();
+        }
+        return List.of(standings);
+    }
+
+    static LocalDate windowStart(Window window, LocalDate today) {
+        return switch (window) {
+            case DAY -> today;
+            case WEEK -> today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> today.withDayOfMonth(1);
+            case ALL_TIME -> LocalDate.MIN;
+        };
+    }
+
+    static LocalDate windowEnd(Window window, LocalDate today) {
+        return switch (window) {
+            case DAY -> today;
+            case WEEK -> today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+            case MONTH -> today.with(TemporalAdjusters.lastDayOfMonth());
+            case ALL_TIME -> LocalDate.MAX;
+        };
+    }
+
+    private static int drift(Map<String, Tally> current, Map<String, Tally> reloaded) {
+        Set<String> emails = new HashSet<>(current.keySet());
+        emails.addAll(reloaded.keySet());
+        int drifted = 0;
+        for (String email : emails) {
+            long[] before = current.containsKey(email) ? current.get(email).snapshot() : new long[2];
+            long[] after = reloaded.containsKey(email) ? reloaded.get(email).snapshot() : new long[2];
+            if (!Arrays.equals(before, after)) {
+                drifted++;
+            }
+        }
+        return drifted;
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.error("Leaderboard reconciliation failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reconciler.shutdownNow();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public enum Window {
+        DAY, WEEK, MONTH, ALL_TIME
+    }
+
+    private static final class Tally {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder revenueCents = new LongAdder();
+
+        private static Tally of(long count, BigDecimal revenue) {
+            Tally tally = new Tally();
+            tally.count.add(count);
+            tally.revenueCents.add(Cents.of(revenue));
+            return tally;
+        }
+
+        private void add(long cents) {
+            count.increment();
+            revenueCents.add(cents);
+        }
+
+        private long[] snapshot() {
+            return new long[]{count.sum(), revenueCents.sum()};
+        }
+    }
+
+    private record Ranking(long version, LocalDate day, List<Standing> standings) {
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    public static class Standing {
+        private int rank;
+        private String salespersonEmail;
+        private long salesCount;
+        private BigDecimal totalRevenue;
+        private BigDecimal averageSaleValue;
+    }
+}
@@ -0,0 +1,188 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.repository.VehicleRepository;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Status changes for many vehicles at once, such as moving a transport truck to maintenance or releasing a
+ * batch of expired reservations.
+ * <p>
+ * The selection (explicit ids or the list filters) is resolved to ids up front and processed in chunks inside
+ * one transaction. Each chunk locks its rows in id order with a single {@code SELECT ... FOR UPDATE}, decides
+ * which vehicles have to move and changes them with one {@code UPDATE} that also bumps {@code version} and
+ * {@code updated_at}. Because the rows are locked, the per-id outcomes reported back are exact.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VehicleBulkStatusService {
+
+    static final int MAX_VEHICLES = 10_000;
+    static final int CHUNK_SIZE = 500;
+
+    private final VehicleRepository vehicleRepository;
+    private final VehicleChangePublisher vehicleChangePublisher;
+
+    @Transactional
+    public BulkStatusResult updateStatuses(BulkStatusUpdate request) {
+        long started = System.nanoTime();
+        Vehicle.VehicleStatus target = request.getStatus();
+        if (target == null) {
+            throw new IllegalArgumentException("Target status is required");
+        }
+        List<Long> ids = resolveIds(request);
+        Set<Vehicle.VehicleStatus> expected = request.getExpectedStatuses() == null
+                || request.getExpectedStatuses().isEmpty() ? null : EnumSet.copyOf(request.getExpectedStatuses());
+        log.info("Bulk updating status of {} vehicles to {}", ids.size(), target);
+
+        // Lock in ascending id order, chunk after chunk and row by row within the locking query, so concurrent
+        // bulk updates cannot deadlock each other
+        List<Long> sortedIds = new ArrayList<>(new TreeSet<>(ids));
+        Map<Long, StatusOutcome> outcomes = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < sortedIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = sortedIds.subList(from, Math.min(from + CHUNK_SIZE, sortedIds.size()));
+            Map<Long, Vehicle.VehicleStatus> current = new HashMap<>();
+            for (Object[] row : vehicleRepository.findStatusesForUpdate(chunk)) {
+                current.put((Long) row[0], (Vehicle.VehicleStatus) row[1]);
+            }
+
+            List<Long> changed = new ArrayList<>();
+            for (Long id : chunk) {
+                Vehicle.VehicleStatus status = current.get(id);
+                Outcome outcome;
+                if (status == null) {
+                    outcome = Outcome.NOT_FOUND;
+                } else if (status == target) {
+                    outcome = Outcome.UNCHANGED;
+                } else if (expected != null && !expected.contains(status)) {
+                    outcome = Outcome.SKIPPED;
+                } else {
+                    outcome = Outcome.UPDATED;
+                    changed.add(id);
+                }
+                outcomes.put(id, StatusOutcome.builder().id(id).previousStatus(status).outcome(outcome).build());
+            }
+
+            if (!changed.isEmpty()) {
+                vehicleRepository.updateStatuses(changed, target, now);
+                vehicleRepository.refreshLoaded(changed);
+                vehicleChangePublisher.publishStatusChanges(changed, target);
+            }
+        }
+
+        List<StatusOutcome> results = ids.stream().map(outcomes::get).toList();
+        BulkStatusResult result = BulkStatusResult.builder()
+                .status(target)
+                .updatedCount(count(results, Outcome.UPDATED))
+                .unchangedCount(count(results, Outcome.UNCHANGED))
+                .skippedCount(count(results, Outcome.SKIPPED))
+                .notFoundCount(count(results, Outcome.NOT_FOUND))
+                .results(results)
+                .elapsedMillis((System.nanoTime() - started) / 1_000_000)
+                .build();
+        log.info("Bulk status update to {} finished: {} updated, {} unchanged, {} skipped, {} not found",
+                target, result.getUpdatedCount(), result.getUnchangedCount(), result.getSkippedCount(),
+                result.getNotFoundCount());
+        return result;
+    }
+
+    // Distinct ids in request order (or id order for a filter)
+    private List<Long> resolveIds(BulkStatusUpdate request) {
+        boolean byIds = request.getIds() != null;
+        boolean byFilter = request.getFilter() != null;
+        if (byIds == byFilter) {
+            throw new IllegalArgumentException("Exactly one of ids or filter is required");
+        }
+
+        List<Long> ids;
+        if (byIds) {
+            ids = new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+            if (ids.contains(null)) {
+                throw new IllegalArgumentException("Vehicle ids must not be null");
+            }
+        } else {
+            VehicleFilter filter = request.getFilter();
+            if (filter.isEmpty()) {
+                throw new IllegalArgumentException("Filter needs at least one criterion");
+            }
+            ids = vehicleRepository.findIdsWithFilters(filter.getMake(), filter.getModel(), filter.getYear(),
+                    filter.getStatus(), filter.getLocation(), filter.getMinPrice(), filter.getMaxPrice(),
+                    PageRequest.of(0, MAX_VEHICLES + 1));
+        }
+        if (ids.size() > MAX_VEHICLES) {
+            throw new IllegalArgumentException("Bulk status updates are limited to " + MAX_VEHICLES + " vehicles");
+        }
+        return ids;
+    }
+
+    private static int count(List<StatusOutcome> results, Outcome outcome) {
+        return (int) results.stream().filter(result -> result.getOutcome() == outcome).count();
+    }
+
+    public enum Outcome {
+        UPDATED, UNCHANGED, SKIPPED, NOT_FOUND
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class BulkStatusUpdate {
+        private Vehicle.VehicleStatus status;
+        private List<Long> ids;
+        private VehicleFilter filter;
+        // Only vehicles currently in one of these statuses are moved; the others are reported as SKIPPED
+        private Set<Vehicle.VehicleStatus> expectedStatuses;
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class VehicleFilter {
+        private String make;
+        private String model;
+        private Integer year;
+        private Vehicle.VehicleStatus status;
+        private String location;
+        private BigDecimal minPrice;
+        private BigDecimal maxPrice;
+
+        @JsonIgnore
+        public boolean isEmpty() {
+            return make == null && model == null && year == null && status == null && location == null
+                    && minPrice == null && maxPrice == null;
+        }
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    public static class BulkStatusResult {
+        private Vehicle.VehicleStatus status;
+        private int updatedCount;
+        private int unchangedCount;
+        private int skippedCount;
+        private int notFoundCount;
+        private List<StatusOutcome> results;
+        private long elapsedMillis;
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    public static class StatusOutcome {
+        private Long id;
+        private Outcome outcome;
+        private Vehicle.VehicleStatus previousStatus;
+    }
+}
@@ -0,0 +1,32 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Vehicle;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * JPA entity listener that turns vehicle writes into {@link VehicleChangedEvent}s, published after commit.
+ * Registered on {@link Vehicle} in {@code META-INF/orm.xml} so the entity does not depend on this package.
+ */
+public class VehicleChangeListener {
+
+    // Resolved lazily: listeners are created while the EntityManagerFactory is still being built
+    private final ObjectProvider<VehicleChangePublisher> changePublisher;
+
+    public VehicleChangeListener(ObjectProvider<VehicleChangePublisher> changePublisher) {
+        this.changePublisher = changePublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Vehicle vehicle) {
+        changePublisher.ifAvailable(publisher -> publisher.publishAfterCommit(VehicleChangedEvent.saved(vehicle)));
+    }
+
+    @PostRemove
+    public void onRemove(Vehicle vehicle) {
+        changePublisher.ifAvailable(publisher -> publisher.publishAfterCommit(VehicleChangedEvent.removed(vehicle.getId())));
+    }
+}
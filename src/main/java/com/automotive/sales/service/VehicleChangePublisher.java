@@ -0,0 +1,42 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Vehicle;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+
+/**
+ * Publishes {@link VehicleChangedEvent}s after the surrounding transaction commits, so rolled back writes
+ * never reach listeners. Outside a transaction the event is published immediately.
+ */
+@Component
+@RequiredArgsConstructor
+public class VehicleChangePublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public void publishAfterCommit(VehicleChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eventPublisher.publishEvent(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventPublisher.publishEvent(event);
+            }
+        });
+    }
+
+    /**
+     * Announces vehicles moved to {@code status} by a bulk UPDATE. Such statements never load the entities, so
+     * the entity listener does not see them; callers report the ids they changed here instead.
+     */
+    public void publishStatusChanges(Collection<Long> vehicleIds, Vehicle.VehicleStatus status) {
+        vehicleIds.forEach(id -> publishAfterCommit(VehicleChangedEvent.statusChanged(id, status)));
+    }
+}
@@ -0,0 +1,27 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Vehicle;
+
+/**
+ * Published once a vehicle write has committed, for in-memory views of the inventory to catch up.
+ * {@code vehicle} carries the saved state for {@link Type#SAVED}; {@code status} the new status for
+ * {@link Type#STATUS_CHANGED}, which comes from bulk updates that never load the entity.
+ */
+public record VehicleChangedEvent(Type type, Long vehicleId, Vehicle vehicle, Vehicle.VehicleStatus status) {
+
+    public enum Type {
+        SAVED, STATUS_CHANGED, REMOVED
+    }
+
+    public static VehicleChangedEvent saved(Vehicle vehicle) {
+        return new VehicleChangedEvent(Type.SAVED, vehicle.getId(), vehicle, vehicle.getStatus());
+    }
+
+    public static VehicleChangedEvent statusChanged(Long vehicleId, Vehicle.VehicleStatus status) {
+        return new VehicleChangedEvent(Type.STATUS_CHANGED, vehicleId, null, status);
+    }
+
+    public static VehicleChangedEvent removed(Long vehicleId) {
+        return new VehicleChangedEvent(Type.REMOVED, vehicleId, null, null);
+    }
+}
@@ -0,0 +1,125 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.repository.VehicleRepository;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Vehicle counts per make, year, condition, status and price range for one set of browse filters.
+ * <p>
+ * Makes are merged case-insensitively (like the make filter) and listed by count, years newest first.
+ * Price ranges are {@value #PRICE_BUCKET_WIDTH} wide with the last one open-ended; vehicles without a
+ * selling price are not counted in any range. Values with no matching vehicle are left out.
+ */
+@Getter
+public class VehicleFacets {
+
+    static final int PRICE_BUCKET_WIDTH = VehicleRepository.FACET_PRICE_BUCKET_WIDTH;
+    static final int PRICE_BUCKETS = 6;
+
+    private final Map<String, Long> makes;
+    private final Map<Integer, Long> years;
+    private final Map<Vehicle.VehicleCondition, Long> conditions;
+    private final Map<Vehicle.VehicleStatus, Long> statuses;
+    private final Map<String, Long> priceRanges;
+
+    private VehicleFacets(Map<String, Long> makes, Map<Integer, Long> years,
+                          Map<Vehicle.VehicleCondition, Long> conditions, Map<Vehicle.VehicleStatus, Long> statuses,
+                          Map<String, Long> priceRanges) {
+        this.makes = makes;
+        this.years = years;
+        this.conditions = conditions;
+        this.statuses = statuses;
+        this.priceRanges = priceRanges;
+    }
+
+    static Counter counter() {
+        return new Counter();
+    }
+
+    static BigDecimal priceBucketLowerBound(int bucket) {
+        return BigDecimal.valueOf((long) bucket * PRICE_BUCKET_WIDTH);
+    }
+
+    // Picks the same spelling whichever order the variants of a make arrive in
+    static String preferredLabel(String current, String candidate) {
+        return current.compareTo(candidate) <= 0 ? current : candidate;
+    }
+
+    private static String priceRangeLabel(int bucket) {
+        long lower = (long) bucket * PRICE_BUCKET_WIDTH;
+        return bucket < PRICE_BUCKETS - 1 ? lower + "-" + (lower + PRICE_BUCKET_WIDTH) : lower + "+";
+    }
+
+    /**
+     * Accumulates counts from either the inventory index or grouped database rows.
+     */
+    static final class Counter {
+
+        private final Map<String, String> makeLabels = new HashMap<>();
+        private final Map<String, Long> makes = new HashMap<>();
+        private final Map<Integer, Long> years = new TreeMap<>(Comparator.reverseOrder());
+        private final Map<Vehicle.VehicleCondition, Long> conditions = new EnumMap<>(Vehicle.VehicleCondition.class);
+        private final Map<Vehicle.VehicleStatus, Long> statuses = new EnumMap<>(Vehicle.VehicleStatus.class);
+        private final long[] priceBuckets = new long[PRICE_BUCKETS];
+
+        private Counter() {
+        }
+
+        Counter make(String make, long count) {
+            if (make != null && count > 0) {
+                String key = make.toLowerCase(Locale.ROOT);
+                makeLabels.merge(key, make, VehicleFacets::preferredLabel);
+                makes.merge(key, count, Long::sum);
+            }
+            return this;
+        }
+
+        Counter year(Integer year, long count) {
+            if (year != null && count > 0) {
+                years.merge(year, count, Long::sum);
+            }
+            return this;
+        }
+
+        Counter condition(Vehicle.VehicleCondition condition, long count) {
+            if (condition != null && count > 0) {
+                conditions.merge(condition, count, Long::sum);
+            }
+            return this;
+        }
+
+        Counter status(Vehicle.VehicleStatus status, long count) {
+            if (status != null && count > 0) {
+                statuses.merge(status, count, Long::sum);
+            }
+            return this;
+        }
+
+        // Buckets past the last one fold into the open-ended range
+        Counter priceBucket(int bucket, long count) {
+            priceBuckets[Math.max(0, Math.min(bucket, PRICE_BUCKETS - 1))] += count;
+            return this;
+        }
+
+        VehicleFacets build() {
+            Map<String, Long> makesByCount = new LinkedHashMap<>();
+            makes.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .forEach(entry -> makesByCount.put(makeLabels.get(entry.getKey()), entry.getValue()));
+
+            Map<String, Long> priceRanges = new LinkedHashMap<>();
+            for (int bucket = 0; bucket < PRICE_BUCKETS; bucket++) {
+                if (priceBuckets[bucket] > 0) {
+                    priceRanges.put(priceRangeLabel(bucket), priceBuckets[bucket]);
+                }
+            }
+            return new VehicleFacets(makesByCount, new LinkedHashMap<>(years), new LinkedHashMap<>(conditions),
+                    new LinkedHashMap<>(statuses), priceRanges);
+        }
+    }
+}
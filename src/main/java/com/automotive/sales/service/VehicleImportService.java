@@ -0,0 +1,292 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.repository.VehicleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk vehicle import from NDJSON or CSV streams.
+ * <p>
+ * Rows are parsed one line at a time and written in chunks: each chunk checks its VINs against the database
+ * with a single IN query and is persisted in its own transaction so Hibernate can batch the inserts. Invalid
+ * rows are reported with their line number and skipped; if a chunk fails to insert, its rows are retried one
+ * by one so only the offending rows are rejected.
+ */
+@Service
+@Slf4j
+public class VehicleImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final VehicleRepository vehicleRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public VehicleImportService(VehicleRepository vehicleRepository,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                @Value("${app.import.chunk-size:500}") int chunkSize) {
+        this.vehicleRepository = vehicleRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public ImportResult importNdjson(InputStream input) {
+        log.info("Importing vehicles from NDJSON stream");
+        return importRows(input, line -> objectMapper.readValue(line, Vehicle.class));
+    }
+
+    public ImportResult importCsv(InputStream input) {
+        log.info("Importing vehicles from CSV stream");
+        CsvRowMapper csv = new CsvRowMapper();
+        return importRows(input, csv::toVehicle);
+    }
+
+    private ImportResult importRows(InputStream input, RowParser parser) {
+        long started = System.nanoTime();
+        ImportProgress progress = new ImportProgress();
+        Set<String> seenVins = new HashSet<>();
+        List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                Vehicle vehicle;
+                try {
+                    vehicle = parser.parse(line);
+                } catch (Exception e) {
+                    progress.totalRows++;
+                    progress.reject(lineNumber, null, "Unparseable row: " + e.getMessage());
+                    continue;
+                }
+                if (vehicle == null) {
+                    continue;
+                }
+                progress.totalRows++;
+
+                String problem = validate(vehicle);
+                if (problem == null && !seenVins.add(vehicle.getVin())) {
+                    problem = "Duplicate VIN in import";
+                }
+                if (problem != null) {
+                    progress.reject(lineNumber, vehicle.getVin(), problem);
+                    continue;
+                }
+
+                chunk.add(new ParsedRow(lineNumber, vehicle));
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, progress);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read vehicle import stream", e);
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, progress);
+        }
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info("Vehicle import finished: {} rows, {} imported, {} rejected in {} ms",
+                progress.totalRows, progress.imported, progress.rejected, elapsedMillis);
+        return ImportResult.builder()
+                .totalRows(progress.totalRows)
+                .importedCount(progress.imported)
+                .rejectedCount(progress.rejected)
+                .errors(progress.errors)
+                .elapsedMillis(elapsedMillis)
+                .build();
+    }
+
+    private String validate(Vehicle vehicle) {
+        vehicle.setId(null);
+        vehicle.setVersion(null);
+        VehicleService.applyCreationDefaults(vehicle);
+        Set<ConstraintViolation<Vehicle>> violations = validator.validate(vehicle);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void writeChunk(List<ParsedRow> chunk, ImportProgress progress) {
+        Set<String> existing = new HashSet<>(vehicleRepository.findExistingVins(
+                chunk.stream().map(row -> row.vehicle().getVin()).collect(Collectors.toList())));
+
+        List<ParsedRow> fresh = new ArrayList<>(chunk.size());
+        for (ParsedRow row : chunk) {
+            if (existing.contains(row.vehicle().getVin())) {
+                progress.reject(row.lineNumber(), row.vehicle().getVin(), "Vehicle with VIN already exists");
+            } else {
+                fresh.add(row);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        try {
+            persist(fresh);
+            progress.imported += fresh.size();
+        } catch (RuntimeException e) {
+            log.warn("Batch insert of {} vehicles failed, retrying rows individually: {}", fresh.size(), e.getMessage());
+            for (ParsedRow row : fresh) {
+                try {
+                    persist(List.of(row));
+                    progress.imported++;
+                } catch (RuntimeException rowFailure) {
+                    progress.reject(row.lineNumber(), row.vehicle().getVin(), rootMessage(rowFailure));
+                }
+            }
+        }
+    }
+
+    private void persist(List<ParsedRow> rows) {
+        // Ids handed out by a rolled back attempt must not be reused
+        rows.forEach(row -> {
+            row.vehicle().setId(null);
+            row.vehicle().setVersion(null);
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            rows.forEach(row -> entityManager.persist(row.vehicle()));
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    // Returns null for lines that carry no vehicle, such as a CSV header
+    @FunctionalInterface
+    private interface RowParser {
+        Vehicle parse(String line) throws IOException;
+    }
+
+    private record ParsedRow(int lineNumber, Vehicle vehicle) {
+    }
+
+    private static class ImportProgress {
+        private int totalRows;
+        private int imported;
+        private int rejected;
+        private final List<RowError> errors = new ArrayList<>();
+
+        private void reject(int lineNumber, String vin, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(RowError.builder().lineNumber(lineNumber).vin(vin).message(message).build());
+            }
+        }
+    }
+
+    /**
+     * Maps CSV rows onto {@link Vehicle} properties named by the header row (e.g. {@code vin,make,model,year,sellingPrice}).
+     * Fields may be double-quoted to contain commas; quoted fields cannot span lines.
+     */
+    private class CsvRowMapper {
+        private List<String> header;
+
+        private Vehicle toVehicle(String line) {
+            List<String> fields = splitCsv(line);
+            if (header == null) {
+                header = fields.stream().map(String::trim).collect(Collectors.toList());
+                return null;
+            }
+            if (fields.size() != header.size()) {
+                throw new IllegalArgumentException("expected " + header.size() + " fields but found " + fields.size());
+            }
+            Map<String, String> values = new LinkedHashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                String value = fields.get(i).trim();
+                values.put(header.get(i), value.isEmpty() ? null : value);
+            }
+            return objectMapper.convertValue(values, Vehicle.class);
+        }
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    public static class ImportResult {
+        private int totalRows;
+        private int importedCount;
+        private int rejectedCount;
+        private List<RowError> errors;
+        private long elapsedMillis;
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    public static class RowError {
+        private int lineNumber;
+        private String vin;
+        private String message;
+    }
+}
@@ -0,0 +1,264 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.repository.VehicleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Trigram inverted index over vehicle make, model, color and description for free-text search.
+ * <p>
+ * Text is lower-cased and split into alphanumeric words; each word is padded ({@code "  f150 "} becomes
+ * {@code "  f", " f1", "f15", "150", "50 "}) and every trigram maps to a bitmap of vehicle ids. A query
+ * is broken up the same way and a vehicle matches when it shares at least half of the query's trigrams, which
+ * tolerates partial words ("cx", "f-15") and single typos ("camery"). Hits on make, model and color rank above
+ * hits in the description. Only the posting lists of the query's own trigrams are read, so the cost of a
+ * search follows the number of candidate vehicles rather than the inventory size.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VehicleSearchIndex {
+
+    static final double MIN_SIMILARITY = 0.5;
+    private static final double DESCRIPTION_WEIGHT = 0.5;
+
+    private final VehicleRepository vehicleRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, RoaringBitmap> primaryPostings = new HashMap<>();
+    private final Map<String, RoaringBitmap> descriptionPostings = new HashMap<>();
+    private final Map<Integer, IndexedText> documents = new HashMap<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    // Holds the write lock across the query so changes committed meanwhile are applied on top of the loaded rows
+    public void rebuild() {
+        log.info("Building vehicle search index");
+        ready = false;
+        boolean complete = writeLocked(() -> {
+            primaryPostings.clear();
+            descriptionPostings.clear();
+            documents.clear();
+            for (Object[] row : vehicleRepository.findSearchIndexRows()) {
+                Long id = (Long) row[0];
+                if (!fitsInIndex(id)) {
+                    primaryPostings.clear();
+                    descriptionPostings.clear();
+                    documents.clear();
+                    return false;
+                }
+                index(id.intValue(), IndexedText.of((String) row[1], (String) row[2], (String) row[3], (String) row[4]));
+            }
+            return true;
+        });
+        if (complete) {
+            ready = true;
+            log.info("Vehicle search index ready with {} vehicles and {} trigrams",
+                    documents.size(), primaryPostings.size() + descriptionPostings.size());
+        } else {
+            log.warn("Vehicle ids exceed the index range, vehicle search will use the database");
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        // Status changes do not touch the indexed text
+        switch (event.type()) {
+            case SAVED -> upsert(event.vehicle());
+            case REMOVED -> remove(event.vehicleId());
+            default -> { }
+        }
+    }
+
+    public void upsert(Vehicle vehicle) {
+        if (vehicle.getId() == null) {
+            return;
+        }
+        if (!fitsInIndex(vehicle.getId())) {
+            log.warn("Vehicle id {} exceeds the index range, vehicle search will use the database", vehicle.getId());
+            ready = false;
+            return;
+        }
+        int id = vehicle.getId().intValue();
+        IndexedText text = IndexedText.of(vehicle.getMake(), vehicle.getModel(), vehicle.getColor(),
+                vehicle.getDescription());
+        writeLocked(() -> {
+            unindex(id);
+            index(id, text);
+            return null;
+        });
+    }
+
+    public void remove(Long vehicleId) {
+        if (vehicleId == null || !fitsInIndex(vehicleId)) {
+            return;
+        }
+        writeLocked(() -> {
+            unindex(vehicleId.intValue());
+            return null;
+        });
+    }
+
+    /**
+     * Ids of the vehicles best matching {@code query}, best first and at most {@code limit} of them.
+     * Returns empty when the index is not loaded, in which case callers go to the database.
+     */
+    public Optional<List<Long>> search(String query, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Set<String> queryTrigrams = trigrams(query);
+        if (queryTrigrams.isEmpty()) {
+            return Optional.of(List.of());
+        }
+
+        return Optional.of(readLocked(() -> {
+            Map<Integer, int[]> hits = new HashMap<>();
+            count(queryTrigrams, primaryPostings, hits, 0);
+            count(queryTrigrams, descriptionPostings, hits, 1);
+
+            double size = queryTrigrams.size();
+            PriorityQueue<ScoredId> best = new PriorityQueue<>(ScoredId.WORST_FIRST);
+            hits.forEach((id, counts) -> {
+                double primary = counts[0] / size;
+                double description = counts[1] / size;
+                if (Math.max(primary, description) < MIN_SIMILARITY) {
+                    return;
+                }
+                best.offer(new ScoredId(id, primary + DESCRIPTION_WEIGHT * description));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            });
+
+            List<ScoredId> ranked = new ArrayList<>(best);
+            ranked.sort(ScoredId.WORST_FIRST.reversed());
+            List<Long> ids = new ArrayList<>(ranked.size());
+            ranked.forEach(scored -> ids.add((long) scored.id()));
+            return ids;
+        }));
+    }
+
+    private static void count(Set<String> queryTrigrams, Map<String, RoaringBitmap> postings,
+                              Map<Integer, int[]> hits, int slot) {
+        for (String trigram : queryTrigrams) {
+            RoaringBitmap ids = postings.get(trigram);
+            if (ids == null) {
+                continue;
+            }
+            PeekableIntIterator iterator = ids.getIntIterator();
+            while (iterator.hasNext()) {
+                hits.computeIfAbsent(iterator.next(), id -> new int[2])[slot]++;
+            }
+        }
+    }
+
+    private void index(int id, IndexedText text) {
+        documents.put(id, text);
+        text.primary().forEach(trigram -> posting(primaryPostings, trigram).add(id));
+        text.description().forEach(trigram -> posting(descriptionPostings, trigram).add(id));
+    }
+
+    private void unindex(int id) {
+        IndexedText text = documents.remove(id);
+        if (text == null) {
+            return;
+        }
+        text.primary().forEach(trigram -> unset(primaryPostings, trigram, id));
+        text.description().forEach(trigram -> unset(descriptionPostings, trigram, id));
+    }
+
+    private static RoaringBitmap posting(Map<String, RoaringBitmap> postings, String trigram) {
+        return postings.computeIfAbsent(trigram, t -> new RoaringBitmap());
+    }
+
+    private static void unset(Map<String, RoaringBitmap> postings, String trigram, int id) {
+        RoaringBitmap ids = postings.get(trigram);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        if (text == null) {
+            return trigrams;
+        }
+        StringBuilder word = new StringBuilder();
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i <= lower.length(); i++) {
+            char c = i < lower.length() ? lower.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (word.length() > 0) {
+                String padded = "  " + word + " ";
+                for (int j = 0; j + 3 <= padded.length(); j++) {
+                    trigrams.add(padded.substring(j, j + 3));
+                }
+                word.setLength(0);
+            }
+        }
+        return trigrams;
+    }
+
+    private static boolean fitsInIndex(Long id) {
+        return id > 0 && id <= Integer.MAX_VALUE;
+    }
+
+    private <T> T readLocked(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <T> T writeLocked(Supplier<T> action) {
+        lock.writeLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private record IndexedText(Set<String> primary, Set<String> description) {
+
+        static IndexedText of(String make, String model, String color, String description) {
+            Set<String> primary = trigrams(make);
+            primary.addAll(trigrams(model));
+            primary.addAll(trigrams(color));
+            return new IndexedText(primary, trigrams(description));
+        }
+    }
+
+    private record ScoredId(int id, double score) {
+
+        // Lowest score first, ties broken towards the higher id so the lowest ids survive
+        static final Comparator<ScoredId> WORST_FIRST = Comparator.comparingDouble(ScoredId::score)
+                .thenComparing(Comparator.comparingInt(ScoredId::id).reversed());
+    }
+}
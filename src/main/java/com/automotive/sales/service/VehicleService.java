@@ -1,18 +1,32 @@
 package com.automotive.sales.service;
 
 import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.model.VehicleSummary;
+import com.automotive.sales.model.VehicleVersion;
+import com.automotive.sales.monitoring.QueryBudget;
+import com.automotive.sales.repository.SaleRepository;
 import com.automotive.sales.repository.VehicleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -20,7 +34,14 @@ import java.util.Optional;
 @Transactional
 public class VehicleService {
 
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     private final VehicleRepository vehicleRepository;
+    private final SaleRepository saleRepository;
+    private final InventoryIndex inventoryIndex;
+    private final VehicleChangePublisher vehicleChangePublisher;
+    private final VehicleStatisticsSnapshot vehicleStatisticsSnapshot;
+    private final VehicleSearchIndex vehicleSearchIndex;
 
     public Vehicle createVehicle(Vehicle vehicle) {
         log.info("Creating new vehicle with VIN: {}", vehicle.getVin());
@@ -30,6 +51,14 @@ public class VehicleService {
             throw new IllegalArgumentException("Vehicle with VIN " + vehicle.getVin() + " already exists");
         }
         
+        applyCreationDefaults(vehicle);
+        
+        Vehicle savedVehicle = vehicleRepository.save(vehicle);
+        log.info("Vehicle created successfully with ID: {}", savedVehicle.getId());
+        return savedVehicle;
+    }
+
+    static void applyCreationDefaults(Vehicle vehicle) {
         // Set default values if not provided
         if (vehicle.getStatus() == null) {
             vehicle.setStatus(Vehicle.VehicleStatus.AVAILABLE);
@@ -42,10 +71,6 @@ public class VehicleService {
         if (vehicle.getPurchaseDate() == null) {
             vehicle.setPurchaseDate(LocalDate.now());
         }
-        
-        Vehicle savedVehicle = vehicleRepository.save(vehicle);
-        log.info("Vehicle created successfully with ID: {}", savedVehicle.getId());
-        return savedVehicle;
     }
 
     @Transactional(readOnly = true)
@@ -60,6 +85,16 @@ public class VehicleService {
         return vehicleRepository.findByVin(vin);
     }
 
+    @Transactional(readOnly = true)
+    public Optional<VehicleVersion> getVehicleVersion(Long id) {
+        return vehicleRepository.findVersionById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<VehicleVersion> getVehicleVersionByVin(String vin) {
+        return vehicleRepository.findVersionByVin(vin);
+    }
+
     @Transactional(readOnly = true)
     public List<Vehicle> getAllVehicles() {
         log.debug("Fetching all vehicles");
@@ -72,21 +107,184 @@ public class VehicleService {
                                                BigDecimal maxPrice, Pageable pageable) {
         log.debug("Fetching vehicles with filters - make: {}, model: {}, year: {}, status: {}", 
                  make, model, year, status);
+        
+        // Answer from the inventory index when it is warm, otherwise fall back to the database
+        Optional<Page<Long>> indexed = inventoryIndex.search(make, model, year, status, minPrice, maxPrice, pageable);
+        if (indexed.isPresent()) {
+            return loadInIndexOrder(indexed.get());
+        }
         return vehicleRepository.findVehiclesWithFilters(make, model, year, status, minPrice, maxPrice, pageable);
     }
 
+    @Transactional(readOnly = true)
+    public FacetedVehicles<Vehicle> getFacetedVehicles(String make, String model, Integer year,
+                                                       Vehicle.VehicleStatus status, BigDecimal minPrice,
+                                                       BigDecimal maxPrice, Pageable pageable) {
+        return FacetedVehicles.<Vehicle>builder()
+                .results(getVehiclesWithFilters(make, model, year, status, minPrice, maxPrice, pageable))
+                .facets(getVehicleFacets(make, model, year, status, minPrice, maxPrice))
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public FacetedVehicles<VehicleSummary> getFacetedVehicleSummaries(String make, String model, Integer year,
+                                                                      Vehicle.VehicleStatus status, BigDecimal minPrice,
+                                                                      BigDecimal maxPrice, Pageable pageable) {
+        return FacetedVehicles.<VehicleSummary>builder()
+                .results(getVehicleSummariesWithFilters(make, model, year, status, minPrice, maxPrice, pageable))
+                .facets(getVehicleFacets(make, model, year, status, minPrice, maxPrice))
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public VehicleFacets getVehicleFacets(String make, String model, Integer year, Vehicle.VehicleStatus status,
+                                          BigDecimal minPrice, BigDecimal maxPrice) {
+        log.debug("Counting vehicle facets with filters - make: {}, model: {}, year: {}, status: {}", 
+                 make, model, year, status);
+        
+        Optional<VehicleFacets> indexed = inventoryIndex.facets(make, model, year, status, minPrice, maxPrice);
+        if (indexed.isPresent()) {
+            return indexed.get();
+        }
+        VehicleFacets.Counter counter = VehicleFacets.counter();
+        for (Object[] row : vehicleRepository.findFacetRows(make, model, year, status, minPrice, maxPrice)) {
+            long count = (Long) row[5];
+            counter.make((String) row[0], count)
+                    .year((Integer) row[1], count)
+                    .condition((Vehicle.VehicleCondition) row[2], count)
+                    .status((Vehicle.VehicleStatus) row[3], count);
+            if (row[4] != null) {
+                counter.priceBucket(((Number) row[4]).intValue(), count);
+            }
+        }
+        return counter.build();
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<Vehicle> getVehiclesWithFiltersAfter(String make, String model, Integer year,
+                                                      Vehicle.VehicleStatus status, BigDecimal minPrice,
+                                                      BigDecimal maxPrice, String after, int size) {
+        log.debug("Fetching vehicles after cursor {} with filters - make: {}, model: {}, year: {}, status: {}", 
+                 after, make, model, year, status);
+        KeysetCursor cursor = after != null ? KeysetCursor.decode(after) : null;
+        return vehicleRepository.findVehiclesWithFiltersAfter(make, model, year, status, minPrice, maxPrice,
+                cursor != null ? cursor.getKeyAs(LocalDateTime::parse) : null,
+                cursor != null ? cursor.getId() : null,
+                KeysetCursor.slice(size));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<VehicleSummary> getVehicleSummariesWithFilters(String make, String model, Integer year,
+                                                              Vehicle.VehicleStatus status, BigDecimal minPrice,
+                                                              BigDecimal maxPrice, Pageable pageable) {
+        log.debug("Fetching vehicle summaries with filters - make: {}, model: {}, year: {}, status: {}", 
+                 make, model, year, status);
+        
+        Optional<Page<Long>> indexed = inventoryIndex.search(make, model, year, status, minPrice, maxPrice, pageable);
+        if (indexed.isPresent()) {
+            Page<Long> ids = indexed.get();
+            return new PageImpl<>(loadSummariesInIndexOrder(ids.getContent()), ids.getPageable(), ids.getTotalElements());
+        }
+        return vehicleRepository.findVehicleSummariesWithFilters(make, model, year, status, minPrice, maxPrice, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<VehicleSummary> getVehicleSummariesWithFiltersAfter(String make, String model, Integer year,
+                                                                    Vehicle.VehicleStatus status, BigDecimal minPrice,
+                                                                    BigDecimal maxPrice, String after, int size) {
+        log.debug("Fetching vehicle summaries after cursor {} with filters - make: {}, model: {}, year: {}, status: {}", 
+                 after, make, model, year, status);
+        KeysetCursor cursor = after != null ? KeysetCursor.decode(after) : null;
+        return vehicleRepository.findVehicleSummariesWithFiltersAfter(make, model, year, status, minPrice, maxPrice,
+                cursor != null ? cursor.getKeyAs(LocalDateTime::parse) : null,
+                cursor != null ? cursor.getId() : null,
+                KeysetCursor.slice(size));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Vehicle> searchVehicles(String query, int limit) {
+        log.debug("Searching vehicles for: {}", query);
+        
+        // Ranked, typo-tolerant search from the trigram index; plain substring match until it is loaded
+        Optional<List<Long>> ranked = rankedSearch(query, limit);
+        if (ranked.isPresent()) {
+            return loadInIndexOrder(ranked.get());
+        }
+        return vehicleRepository.searchByText(query.trim(), PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<VehicleSummary> searchVehicleSummaries(String query, int limit) {
+        log.debug("Searching vehicle summaries for: {}", query);
+        
+        Optional<List<Long>> ranked = rankedSearch(query, limit);
+        if (ranked.isPresent()) {
+            return loadSummariesInIndexOrder(ranked.get());
+        }
+        return vehicleRepository.searchByText(query.trim(), PageRequest.of(0, limit)).stream()
+                .map(VehicleSummary::of)
+                .collect(Collectors.toList());
+    }
+
+    private Optional<List<Long>> rankedSearch(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("Search limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+        return vehicleSearchIndex.search(query, limit);
+    }
+
+    private Page<Vehicle> loadInIndexOrder(Page<Long> ids) {
+        return new PageImpl<>(loadInIndexOrder(ids.getContent()), ids.getPageable(), ids.getTotalElements());
+    }
+
+    private List<Vehicle> loadInIndexOrder(List<Long> ids) {
+        Map<Long, Vehicle> vehiclesById = vehicleRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Vehicle::getId, Function.identity()));
+        return ids.stream()
+                .map(vehiclesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private List<VehicleSummary> loadSummariesInIndexOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, VehicleSummary> summariesById = vehicleRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(VehicleSummary::id, Function.identity()));
+        return ids.stream()
+                .map(summariesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
     public List<Vehicle> getAvailableVehicles() {
         log.debug("Fetching available vehicles");
         return vehicleRepository.findByStatus(Vehicle.VehicleStatus.AVAILABLE);
     }
 
+    @Transactional(readOnly = true)
+    public List<VehicleSummary> getAvailableVehicleSummaries() {
+        log.debug("Fetching available vehicle summaries");
+        return vehicleRepository.findSummariesByStatus(Vehicle.VehicleStatus.AVAILABLE);
+    }
+
     @Transactional(readOnly = true)
     public List<Vehicle> getVehiclesByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
         log.debug("Fetching vehicles in price range: {} - {}", minPrice, maxPrice);
         return vehicleRepository.findByPriceRange(minPrice, maxPrice);
     }
 
+    @Transactional(readOnly = true)
+    public List<VehicleSummary> getVehicleSummariesByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        log.debug("Fetching vehicle summaries in price range: {} - {}", minPrice, maxPrice);
+        return vehicleRepository.findSummariesByPriceRange(minPrice, maxPrice);
+    }
+
     public Vehicle updateVehicle(Long id, Vehicle vehicleDetails) {
         log.info("Updating vehicle with ID: {}", id);
         
@@ -127,14 +325,16 @@ public class VehicleService {
         return updatedVehicle;
     }
 
+    // Load, sales check, (empty) sales cascade, delete
+    @QueryBudget(statements = 4)
     public void deleteVehicle(Long id) {
         log.info("Deleting vehicle with ID: {}", id);
         
         Vehicle vehicle = vehicleRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Vehicle not found with ID: " + id));
         
-        // Check if vehicle has any sales
-        if (vehicle.getSales() != null && !vehicle.getSales().isEmpty()) {
+        // Check if vehicle has any sales, without loading them
+        if (saleRepository.existsByVehicleId(id)) {
             throw new IllegalStateException("Cannot delete vehicle with existing sales records");
         }
         
@@ -148,6 +348,17 @@ public class VehicleService {
         return vehicleRepository.findLowMileageVehicles(maxMileage);
     }
 
+    @Transactional(readOnly = true)
+    public List<VehicleSummary> getLowMileageVehicleSummaries(Integer maxMileage) {
+        log.debug("Fetching low mileage vehicle summaries with max mileage: {}", maxMileage);
+        return vehicleRepository.findLowMileageSummaries(maxMileage);
+    }
+
+    public VehicleStatisticsSnapshot.VehicleStatistics getVehicleStatistics() {
+        log.debug("Fetching vehicle statistics snapshot");
+        return vehicleStatisticsSnapshot.current();
+    }
+
     @Transactional(readOnly = true)
     public BigDecimal getAverageSellingPrice() {
         log.debug("Calculating average selling price");
@@ -174,12 +385,60 @@ public class VehicleService {
 
     public Vehicle reserveVehicle(Long id) {
         log.info("Reserving vehicle with ID: {}", id);
-        return updateVehicleStatus(id, Vehicle.VehicleStatus.RESERVED);
+        if (!tryReserveVehicle(id)) {
+            throw transitionRejected(id, "reserved");
+        }
+        return vehicleRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Vehicle not found with ID: " + id));
     }
 
     public Vehicle markVehicleAsSold(Long id) {
         log.info("Marking vehicle as sold with ID: {}", id);
-        return updateVehicleStatus(id, Vehicle.VehicleStatus.SOLD);
+        if (!tryMarkVehicleAsSold(id)) {
+            throw transitionRejected(id, "sold");
+        }
+        return vehicleRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Vehicle not found with ID: " + id));
+    }
+
+    /**
+     * Reserves an available vehicle with a single conditional UPDATE.
+     * Returns false when the vehicle does not exist or is no longer available, e.g. because another desk won it.
+     */
+    public boolean tryReserveVehicle(Long id) {
+        return transitionStatus(id, EnumSet.of(Vehicle.VehicleStatus.AVAILABLE), Vehicle.VehicleStatus.RESERVED);
+    }
+
+    /**
+     * Marks an available or reserved vehicle as sold with a single conditional UPDATE.
+     */
+    public boolean tryMarkVehicleAsSold(Long id) {
+        return transitionStatus(id, EnumSet.of(Vehicle.VehicleStatus.AVAILABLE, Vehicle.VehicleStatus.RESERVED),
+                Vehicle.VehicleStatus.SOLD);
+    }
+
+    /**
+     * Returns a reserved vehicle to the available pool with a single conditional UPDATE.
+     */
+    public boolean tryReleaseVehicle(Long id) {
+        return transitionStatus(id, EnumSet.of(Vehicle.VehicleStatus.RESERVED), Vehicle.VehicleStatus.AVAILABLE);
+    }
+
+    private boolean transitionStatus(Long id, Set<Vehicle.VehicleStatus> from, Vehicle.VehicleStatus to) {
+        boolean won = vehicleRepository.transitionStatus(id, from, to, LocalDateTime.now()) == 1;
+        if (won) {
+            vehicleRepository.refreshLoaded(List.of(id));
+            vehicleChangePublisher.publishStatusChanges(List.of(id), to);
+        }
+        log.debug("Vehicle {} transition {} -> {}: {}", id, from, to, won ? "applied" : "rejected");
+        return won;
+    }
+
+    private RuntimeException transitionRejected(Long id, String target) {
+        return vehicleRepository.findById(id)
+                .<RuntimeException>map(vehicle -> new IllegalStateException(
+                        "Vehicle cannot be " + target + ". Current status: " + vehicle.getStatus()))
+                .orElseGet(() -> new IllegalArgumentException("Vehicle not found with ID: " + id));
     }
 
     public Vehicle markVehicleForMaintenance(Long id) {
@@ -191,4 +450,11 @@ public class VehicleService {
         log.info("Making vehicle available with ID: {}", id);
         return updateVehicleStatus(id, Vehicle.VehicleStatus.AVAILABLE);
     }
+
+    @lombok.Data
+    @lombok.Builder
+    public static class FacetedVehicles<T> {
+        private Page<T> results;
+        private VehicleFacets facets;
+    }
 }
@@ -0,0 +1,192 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.money.Cents;
+import com.automotive.sales.repository.VehicleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Incrementally maintained inventory statistics for the dashboard.
+ * <p>
+ * Loaded with a single query over the vehicle table and then kept current from {@link VehicleChangedEvent}s.
+ * Each vehicle's contribution (status, make, price, profit) is remembered so that a change, including a bare
+ * status change from a bulk update, is applied as a delta. Readers get a prebuilt {@link VehicleStatistics}
+ * and never touch the database once the snapshot is loaded.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VehicleStatisticsSnapshot {
+
+    private final VehicleRepository vehicleRepository;
+
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+    private final Map<Vehicle.VehicleStatus, Long> countByStatus = new EnumMap<>(Vehicle.VehicleStatus.class);
+    private final Map<String, Long> countByMake = new HashMap<>();
+    // Sums in cents: applying a change is plain long arithmetic rather than a BigDecimal per step
+    private long availablePriceSum;
+    private long availablePriceCount;
+    private long soldProfitSum;
+    private long soldProfitCount;
+    private List<Object[]> makeCounts = List.of();
+    private boolean makesChanged;
+
+    private volatile VehicleStatistics current;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    // Holds the monitor across the query so changes committed meanwhile are applied on top of the loaded rows
+    public synchronized void rebuild() {
+        log.info("Loading vehicle statistics snapshot");
+        List<Object[]> rows = vehicleRepository.findStatisticsRows();
+        contributions.clear();
+        countByStatus.clear();
+        countByMake.clear();
+        availablePriceSum = 0;
+        availablePriceCount = 0;
+        soldProfitSum = 0;
+        soldProfitCount = 0;
+        for (Object[] row : rows) {
+            put((Long) row[0], Contribution.of((Vehicle.VehicleStatus) row[1], (String) row[2],
+                    (BigDecimal) row[3], (BigDecimal) row[4]));
+        }
+        makesChanged = true;
+        publish();
+        log.info("Vehicle statistics snapshot ready with {} vehicles", contributions.size());
+    }
+
+    /**
+     * Current statistics; loads the snapshot on first use if the application-ready load has not run yet.
+     */
+    public VehicleStatistics current() {
+        VehicleStatistics statistics = current;
+        if (statistics != null) {
+            return statistics;
+        }
+        synchronized (this) {
+            if (current == null) {
+                rebuild();
+            }
+            return current;
+        }
+    }
+
+    @EventListener
+    public synchronized void onVehicleChanged(VehicleChangedEvent event) {
+        if (current == null) {
+            // Not loaded yet; the load will read the committed change
+            return;
+        }
+        switch (event.type()) {
+            case SAVED -> {
+                Vehicle vehicle = event.vehicle();
+                put(event.vehicleId(), Contribution.of(vehicle.getStatus(), vehicle.getMake(),
+                        vehicle.getSellingPrice(), vehicle.getPurchasePrice()));
+            }
+            case STATUS_CHANGED -> {
+                Contribution previous = contributions.get(event.vehicleId());
+                if (previous != null) {
+                    put(event.vehicleId(), previous.withStatus(event.status()));
+                }
+            }
+            case REMOVED -> put(event.vehicleId(), null);
+        }
+        publish();
+    }
+
+    private void put(Long vehicleId, Contribution next) {
+        Contribution previous = next != null ? contributions.put(vehicleId, next) : contributions.remove(vehicleId);
+        if (previous == null || next == null || !Objects.equals(previous.make(), next.make())) {
+            makesChanged = true;
+        }
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        if (next != null) {
+            apply(next, 1);
+        }
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        adjust(countByStatus, contribution.status(), sign);
+        adjust(countByMake, contribution.make(), sign);
+        if (contribution.status() == Vehicle.VehicleStatus.AVAILABLE && contribution.sellingPrice() != Cents.NONE) {
+            availablePriceSum = Cents.add(availablePriceSum, sign * contribution.sellingPrice());
+            availablePriceCount += sign;
+        }
+        if (contribution.status() == Vehicle.VehicleStatus.SOLD && contribution.profit() != Cents.NONE) {
+            soldProfitSum = Cents.add(soldProfitSum, sign * contribution.profit());
+            soldProfitCount += sign;
+        }
+    }
+
+    private static <K> void adjust(Map<K, Long> counts, K key, int delta) {
+        counts.compute(key, (k, count) -> {
+            long next = (count != null ? count : 0L) + delta;
+            return next > 0 ? next : null;
+        });
+    }
+
+    private void publish() {
+        if (makesChanged) {
+            List<Object[]> byMake = new ArrayList<>(countByMake.size());
+            countByMake.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey(Comparator.nullsLast(Comparator.naturalOrder()))))
+                    .forEach(entry -> byMake.add(new Object[]{entry.getKey(), entry.getValue()}));
+            makeCounts = Collections.unmodifiableList(byMake);
+            makesChanged = false;
+        }
+        // Same semantics as the repository aggregates: null when no vehicle contributes
+        current = VehicleStatistics.builder()
+                .averageSellingPrice(availablePriceCount > 0
+                        ? Cents.toBigDecimal(Cents.divide(availablePriceSum, availablePriceCount))
+                        : null)
+                .totalPotentialProfit(soldProfitCount > 0 ? Cents.toBigDecimal(soldProfitSum) : null)
+                .vehicleCountByMake(makeCounts)
+                .availableCount(countByStatus.getOrDefault(Vehicle.VehicleStatus.AVAILABLE, 0L))
+                .soldCount(countByStatus.getOrDefault(Vehicle.VehicleStatus.SOLD, 0L))
+                .reservedCount(countByStatus.getOrDefault(Vehicle.VehicleStatus.RESERVED, 0L))
+                .maintenanceCount(countByStatus.getOrDefault(Vehicle.VehicleStatus.MAINTENANCE, 0L))
+                .build();
+    }
+
+    // Amounts in cents, Cents.NONE when unknown
+    private record Contribution(Vehicle.VehicleStatus status, String make, long sellingPrice, long profit) {
+
+        static Contribution of(Vehicle.VehicleStatus status, String make, BigDecimal sellingPrice,
+                               BigDecimal purchasePrice) {
+            long price = Cents.ofNullable(sellingPrice);
+            long profit = sellingPrice != null && purchasePrice != null
+                    ? Cents.subtract(price, Cents.of(purchasePrice))
+                    : Cents.NONE;
+            return new Contribution(status, make, price, profit);
+        }
+
+        Contribution withStatus(Vehicle.VehicleStatus newStatus) {
+            return new Contribution(newStatus, make, sellingPrice, profit);
+        }
+    }
+
+    @lombok.Data
+    @lombok.Builder
+    public static class VehicleStatistics {
+        private BigDecimal averageSellingPrice;
+        private BigDecimal totalPotentialProfit;
+        private List<Object[]> vehicleCountByMake;
+        private Long availableCount;
+        private Long soldCount;
+        private Long reservedCount;
+        private Long maintenanceCount;
+    }
+}
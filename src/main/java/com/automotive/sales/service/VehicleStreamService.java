@@ -0,0 +1,87 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.repository.VehicleRepository;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes large vehicle result sets as NDJSON (one JSON object per line) straight from a database cursor.
+ * <p>
+ * Rows are read with a JDBC fetch size and each entity is detached as soon as it has been written, so memory
+ * stays flat whatever the result size and the first bytes leave before the query has finished.
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class VehicleStreamService {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final VehicleRepository vehicleRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter vehicleWriter;
+
+    public VehicleStreamService(VehicleRepository vehicleRepository,
+                                EntityManager entityManager,
+                                ObjectMapper objectMapper) {
+        this.vehicleRepository = vehicleRepository;
+        this.entityManager = entityManager;
+        this.vehicleWriter = objectMapper.copy()
+                .addMixIn(Vehicle.class, StreamedVehicle.class)
+                .writerFor(Vehicle.class);
+    }
+
+    public long streamAvailableVehicles(OutputStream out) {
+        log.debug("Streaming available vehicles");
+        return writeNdjson(vehicleRepository.streamByStatus(Vehicle.VehicleStatus.AVAILABLE), out);
+    }
+
+    public long streamVehiclesByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, OutputStream out) {
+        log.debug("Streaming vehicles in price range: {} - {}", minPrice, maxPrice);
+        return writeNdjson(vehicleRepository.streamByPriceRange(minPrice, maxPrice), out);
+    }
+
+    public long streamLowMileageVehicles(Integer maxMileage, OutputStream out) {
+        log.debug("Streaming low mileage vehicles with max mileage: {}", maxMileage);
+        return writeNdjson(vehicleRepository.streamLowMileageVehicles(maxMileage), out);
+    }
+
+    private long writeNdjson(Stream<Vehicle> vehicles, OutputStream out) {
+        long written = 0;
+        try (vehicles) {
+            OutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+            Iterator<Vehicle> iterator = vehicles.iterator();
+            while (iterator.hasNext()) {
+                Vehicle vehicle = iterator.next();
+                buffered.write(vehicleWriter.writeValueAsBytes(vehicle));
+                buffered.write('\n');
+                entityManager.detach(vehicle);
+                written++;
+            }
+            buffered.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write vehicle stream", e);
+        }
+        log.debug("Streamed {} vehicles", written);
+        return written;
+    }
+
+    // The sales collection is lazy and would cost a query per row (and cannot load once detached)
+    @JsonIgnoreProperties({"sales", "hibernateLazyInitializer", "handler"})
+    private interface StreamedVehicle {
+    }
+}
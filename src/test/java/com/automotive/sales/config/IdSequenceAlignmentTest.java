@@ -0,0 +1,54 @@
+package com.automotive.sales.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Id Sequence Alignment Tests")
+class IdSequenceAlignmentTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private IdSequenceAlignment alignment;
+
+    @Test
+    @DisplayName("Should move a fresh sequence past the ids kept from IDENTITY columns")
+    void align_SequenceBehindTable_ShouldMoveItPastHighestId() {
+        // Given: a new sequence whose first block would be 1-50 next to rows up to id 120
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COALESCE(MAX(id), 0) FROM vehicles"), eq(Long.class)))
+                .thenReturn(120L);
+        when(jdbcTemplate.queryForObject(endsWith("FROM vehicles_seq"), eq(Long.class))).thenReturn(1L);
+
+        // When
+        alignment.align("vehicles");
+
+        // Then: the next block is 121-170
+        verify(jdbcTemplate).queryForObject("SELECT setval(?, ?, false)", Long.class, "vehicles_seq", 170L);
+    }
+
+    @Test
+    @DisplayName("Should leave a sequence alone once its next block starts above the highest id")
+    void align_SequenceAhead_ShouldNotMoveIt() {
+        // Given
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COALESCE(MAX(id), 0) FROM sales"), eq(Long.class)))
+                .thenReturn(120L);
+        when(jdbcTemplate.queryForObject(endsWith("FROM sales_seq"), eq(Long.class))).thenReturn(171L);
+
+        // When
+        alignment.align("sales");
+
+        // Then: only the two reads ran
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), eq(Long.class));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,401 @@
+package com.automotive.sales.controller;
+
+import com.automotive.sales.dto.SaleMapperImpl;
+import com.automotive.sales.financing.FinancingEngine;
+import com.automotive.sales.model.Customer;
+import com.automotive.sales.model.Sale;
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.monitoring.QueryAssertions;
+import com.automotive.sales.monitoring.QueryStats;
+import com.automotive.sales.repository.CustomerRepository;
+import com.automotive.sales.repository.SaleRepository;
+import com.automotive.sales.repository.SalesDailyRollupRepository;
+import com.automotive.sales.repository.VehicleRepository;
+import com.automotive.sales.service.*;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs the sales API against the database without open-session-in-view, so a response that needed a lazy load
+ * fails instead of quietly issuing one query per sale.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SaleController.class, SaleMapperImpl.class, SaleService.class, SaleBackfillService.class,
+        SaleExportService.class, FinancingQuoteService.class, FinancingEngine.class, SalespersonLeaderboard.class,
+        AnalyticsCache.class, SalesRollupService.class, VehicleService.class, InventoryIndex.class,
+        VehicleChangePublisher.class, VehicleStatisticsSnapshot.class, VehicleSearchIndex.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@DisplayName("Sale Controller Tests")
+class SaleControllerTest {
+
+    @Autowired
+    private SaleController saleController;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private SalesDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private SalespersonLeaderboard salespersonLeaderboard;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MockMvc mockMvc;
+
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        saleRepository.deleteAllInBatch();
+        rollupRepository.deleteAllInBatch();
+        vehicleRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+        customerId = customerRepository.save(Customer.builder()
+                .firstName("Jane").lastName("Doe").email("jane@example.com").build()).getId();
+        mockMvc = MockMvcBuilders.standaloneSetup(saleController)
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should list a page of sales with vehicle and customer in a constant number of statements")
+    void getSales_ShouldNotLoadAssociationsPerSale() throws Exception {
+        // Given
+        sell(0, 3);
+        QueryStats.Snapshot few = QueryAssertions.assertMaxQueries(2, () -> perform("/api/sales?size=2",
+                jsonPath("$.content.length()").value(2)));
+        sell(3, 20);
+
+        // When
+        QueryStats.Snapshot many = QueryAssertions.assertMaxQueries(2, () -> perform("/api/sales?size=15",
+                jsonPath("$.content.length()").value(15),
+                jsonPath("$.content[0].vehicleVin").isNotEmpty(),
+                jsonPath("$.content[0].customerEmail").value("jane@example.com"),
+                jsonPath("$.totalElements").value(20)));
+
+        // Then: the page query plus its count, however many sales are on the page
+        assertThat(many.statements()).isEqualTo(few.statements());
+    }
+
+    @Test
+    @DisplayName("Should list and scroll sales by customer, status and cursor in one statement each")
+    void listEndpoints_ShouldUseOneStatement() throws Exception {
+        // Given
+        sell(0, 12);
+
+        // When & Then
+        QueryAssertions.assertMaxQueries(1, () -> perform("/api/sales/customer/" + customerId,
+                jsonPath("$.length()").value(12),
+                jsonPath("$[11].vehicleMake").value("Toyota")));
+        QueryAssertions.assertMaxQueries(1, () -> perform("/api/sales/status/PENDING",
+                jsonPath("$.length()").value(12)));
+        QueryAssertions.assertMaxQueries(1, () -> perform("/api/sales/pending",
+                jsonPath("$.length()").value(12)));
+        AtomicReference<String> cursor = new AtomicReference<>();
+        QueryAssertions.assertMaxQueries(1, () -> cursor.set(perform("/api/sales/scroll?size=5",
+                jsonPath("$.content.length()").value(5)).getResponse().getHeader("X-Next-Cursor")));
+        QueryAssertions.assertMaxQueries(1, () -> perform("/api/sales/scroll?size=10&after=" + cursor.get(),
+                jsonPath("$.content.length()").value(7)));
+    }
+
+    @Test
+    @DisplayName("Should scroll filtered sales across ties on sale date and reject a bad cursor or slice size")
+    void scrollSales_ShouldVisitEachSaleOnce() throws Exception {
+        // Given: sales on two days, split so slices end in the middle of a day, one of them cancelled
+        sell(0, 7);
+        List<Sale> sales = saleRepository.findAll();
+        for (int i = 0; i < sales.size(); i++) {
+            jdbcTemplate.update("UPDATE sales SET sale_date = ? WHERE id = ?",
+                    i % 2 == 0 ? LocalDate.of(2024, 3, 10) : LocalDate.of(2024, 3, 5), sales.get(i).getId());
+        }
+        saleService.cancelSale(sales.get(3).getId(), "Customer walked");
+        List<Long> expected = saleRepository.findAll().stream()
+                .filter(sale -> sale.getStatus() == Sale.SaleStatus.PENDING)
+                .sorted(Comparator.comparing(Sale::getSaleDate).thenComparing(Sale::getId).reversed())
+                .map(Sale::getId)
+                .toList();
+
+        // When
+        List<Long> visited = new ArrayList<>();
+        String cursor = null;
+        do {
+            MvcResult result = perform("/api/sales/scroll?status=PENDING&size=2" +
+                    (cursor != null ? "&after=" + cursor : ""));
+            List<Number> ids = JsonPath.read(result.getResponse().getContentAsString(), "$.content[*].id");
+            ids.forEach(id -> visited.add(id.longValue()));
+            cursor = result.getResponse().getHeader("X-Next-Cursor");
+        } while (cursor != null);
+
+        // Then
+        assertThat(visited).hasSize(6).containsExactlyElementsOf(expected);
+        mockMvc.perform(get("/api/sales/scroll?after=not-a-cursor")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/sales/scroll?size=0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/sales/scroll?size=" + (KeysetCursor.MAX_SLICE_SIZE + 1)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should return the completed sale with its vehicle and customer re-read after the transition")
+    void completeSale_ShouldReturnFlatResponse() throws Exception {
+        // Given
+        Long saleId = sell(0, 1);
+        saleService.approveSale(saleId);
+
+        // When & Then
+        mockMvc.perform(patch("/api/sales/" + saleId + "/complete"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.isFinalized").value(true))
+                .andExpect(jsonPath("$.vehicleVin").value(vin(0)))
+                .andExpect(jsonPath("$.customerLastName").value("Doe"));
+        mockMvc.perform(patch("/api/sales/" + saleId + "/approve"))
+                .andExpect(status().isConflict());
+        QueryAssertions.assertMaxQueries(1, () -> perform("/api/sales/" + saleId,
+                jsonPath("$.vehicleYear").value(2023)));
+        mockMvc.perform(get("/api/sales/" + (saleId + 1000)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should open a sale by reference and return it with its vehicle and customer")
+    void createSale_ShouldCreateByReference() throws Exception {
+        // Given
+        Long vehicleId = vehicleRepository.save(Vehicle.builder()
+                .vin(vin(0)).make("Toyota").model("Camry").year(2023)
+                .sellingPrice(new BigDecimal("28000.00")).build()).getId();
+        String body = "{\"vehicleId\":" + vehicleId + ",\"customerId\":" + customerId + "," +
+                "\"saleDate\":\"2024-03-01\",\"salePrice\":27500.00}";
+
+        // When & Then: the active check, the claim, the insert and one fetch-planned read, plus the id sequence
+        QueryAssertions.assertMaxQueries(5, () -> {
+            try {
+                mockMvc.perform(post("/api/sales").contentType(MediaType.APPLICATION_JSON).content(body))
+                        .andExpect(status().isCreated())
+                        .andExpect(jsonPath("$.status").value("PENDING"))
+                        .andExpect(jsonPath("$.vehicleVin").value(vin(0)))
+                        .andExpect(jsonPath("$.customerEmail").value("jane@example.com"));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        mockMvc.perform(post("/api/sales").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/api/sales").contentType(MediaType.APPLICATION_JSON)
+                        .content(body.replace("\"customerId\":" + customerId, "\"customerId\":" + (customerId + 1000))))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/sales").contentType(MediaType.APPLICATION_JSON)
+                        .content(body.replace("\"vehicleId\":" + vehicleId + ",", "")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should open a new pending sale whatever workflow state or id the request claims")
+    void createSale_WithForgedState_ShouldOpenNewPendingSale() throws Exception {
+        // Given: an existing sale and a second vehicle
+        Long existingId = sell(0, 1);
+        Sale existing = saleRepository.findById(existingId).orElseThrow();
+        Long vehicleId = vehicleRepository.save(Vehicle.builder()
+                .vin(vin(1)).make("Honda").model("Civic").year(2022)
+                .sellingPrice(new BigDecimal("21000.00")).build()).getId();
+        String body = "{\"id\":" + existingId + ",\"version\":" + existing.getVersion() + "," +
+                "\"vehicleId\":" + vehicleId + ",\"customerId\":" + customerId + "," +
+                "\"salePrice\":20500.00,\"commissionRate\":2.00,\"status\":\"COMPLETED\"," +
+                "\"isFinalized\":true,\"contractSignedAt\":\"2024-03-01T10:00:00\",\"commissionAmount\":9999.00}";
+
+        // When
+        MvcResult result = mockMvc.perform(post("/api/sales").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andExpect(jsonPath("$.isFinalized").value(false))
+                .andExpect(jsonPath("$.contractSignedAt").isEmpty())
+                .andExpect(jsonPath("$.commissionAmount").value(410.00))
+                .andExpect(jsonPath("$.vehicleVin").value(vin(1)))
+                .andReturn();
+
+        // Then: a new sale was opened and the existing one is untouched
+        Number createdId = JsonPath.read(result.getResponse().getContentAsString(), "$.id");
+        assertThat(createdId.longValue()).isNotEqualTo(existingId);
+        assertThat(saleRepository.count()).isEqualTo(2);
+        assertThat(saleRepository.findById(existingId)).hasValueSatisfying(sale -> {
+            assertThat(sale.getVersion()).isEqualTo(existing.getVersion());
+            assertThat(sale.getSalePrice()).isEqualByComparingTo("27500.00");
+            assertThat(sale.getStatus()).isEqualTo(Sale.SaleStatus.PENDING);
+        });
+        mockMvc.perform(post("/api/sales").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"vehicle\":{},\"customerId\":" + customerId + ",\"salePrice\":1.00}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should update the terms of a sale and reject a body without its required fields")
+    void updateSale_ShouldValidateBody() throws Exception {
+        // Given
+        Long saleId = sell(0, 1);
+        String saleDate = "\"saleDate\":\"2024-03-02\"";
+        String salePrice = "\"salePrice\":26900.00";
+        String paymentMethod = "\"paymentMethod\":\"FINANCING\"";
+        String terms = "{" + saleDate + "," + salePrice + "," + paymentMethod +
+                ",\"salespersonEmail\":\"alex@example.com\"}";
+
+        // When & Then
+        mockMvc.perform(put("/api/sales/" + saleId).contentType(MediaType.APPLICATION_JSON).content(terms))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.salePrice").value(26900.00))
+                .andExpect(jsonPath("$.paymentMethod").value("FINANCING"))
+                .andExpect(jsonPath("$.vehicleVin").value(vin(0)));
+        for (String required : new String[]{saleDate, salePrice, paymentMethod}) {
+            mockMvc.perform(put("/api/sales/" + saleId).contentType(MediaType.APPLICATION_JSON)
+                            .content(terms.replace(required + ",", "")))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(put("/api/sales/" + saleId).contentType(MediaType.APPLICATION_JSON)
+                        .content(terms.replace("alex@example.com", "not-an-email")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/sales/" + (saleId + 1000)).contentType(MediaType.APPLICATION_JSON).content(terms))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should quote a financing grid from the sale's price and trade-in")
+    void quoteFinancing_ShouldReturnEveryCombination() throws Exception {
+        // Given
+        Long saleId = sell(0, 1);
+        String grid = "{\"downPayments\":[0,2500.00],\"interestRates\":[0,6.49],\"termsMonths\":[36,60]," +
+                "\"includeSchedules\":true}";
+
+        // When & Then: 27,500.00 financed at 0% over 36 months
+        mockMvc.perform(post("/api/sales/" + saleId + "/financing-quotes")
+                        .contentType(MediaType.APPLICATION_JSON).content(grid))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quotes.length()").value(8))
+                .andExpect(jsonPath("$.quotes[0].amountFinanced").value(27500.00))
+                .andExpect(jsonPath("$.quotes[0].monthlyPayment").value(763.89))
+                .andExpect(jsonPath("$.quotes[0].totalInterest").value(0.00))
+                .andExpect(jsonPath("$.quotes[0].schedule.length()").value(36))
+                .andExpect(jsonPath("$.quotes[7].amountFinanced").value(25000.00))
+                .andExpect(jsonPath("$.quotes[7].schedule[59].balance").value(0.00));
+        mockMvc.perform(post("/api/sales/" + saleId + "/financing-quotes")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"termsMonths\":[60]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/sales/" + (saleId + 1000) + "/financing-quotes")
+                        .contentType(MediaType.APPLICATION_JSON).content(grid))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should rank salespeople by completed revenue without querying the sales table")
+    void getLeaderboard_ShouldServeRunningTotals() throws Exception {
+        // Given: two completions today for one salesperson, one for another and a sale left pending
+        salespersonLeaderboard.reconcile();
+        complete(sell(0, 1), "alex@example.com", "27500.00");
+        complete(sell(1, 2), "alex@example.com", "26000.00");
+        complete(sell(2, 3), "sam@example.com", "31000.00");
+        sell(3, 4);
+
+        // When & Then
+        QueryAssertions.assertMaxQueries(0, () -> perform("/api/sales/leaderboard?window=DAY&limit=5",
+                jsonPath("$.length()").value(2),
+                jsonPath("$[0].salespersonEmail").value("alex@example.com"),
+                jsonPath("$[0].salesCount").value(2),
+                jsonPath("$[0].totalRevenue").value(53500.00),
+                jsonPath("$[1].rank").value(2)));
+        mockMvc.perform(get("/api/sales/leaderboard?limit=500"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // Sells vehicles from..to-1, returning the id of the last sale
+    private Long sell(int from, int to) {
+        Long saleId = null;
+        for (int i = from; i < to; i++) {
+            Vehicle vehicle = vehicleRepository.save(Vehicle.builder()
+                    .vin(vin(i))
+                    .make("Toyota")
+                    .model("Camry")
+                    .year(2023)
+                    .sellingPrice(new BigDecimal("28000.00"))
+                    .build());
+            Vehicle vehicleRef = new Vehicle();
+            vehicleRef.setId(vehicle.getId());
+            Customer customerRef = new Customer();
+            customerRef.setId(customerId);
+            saleId = saleService.createSaleByReference(Sale.builder()
+                    .vehicle(vehicleRef)
+                    .customer(customerRef)
+                    .saleDate(LocalDate.of(2024, 3, 1).plusDays(i))
+                    .salePrice(new BigDecimal("27500.00"))
+                    .build()).getId();
+        }
+        return saleId;
+    }
+
+    private void complete(Long saleId, String salespersonEmail, String salePrice) {
+        saleService.updateSale(saleId, Sale.builder()
+                .saleDate(LocalDate.now())
+                .salePrice(new BigDecimal(salePrice))
+                .paymentMethod(Sale.PaymentMethod.CASH)
+                .salespersonEmail(salespersonEmail)
+                .build());
+        saleService.approveSale(saleId);
+        saleService.completeSale(saleId);
+    }
+
+    private MvcResult perform(String uri, ResultMatcher... matchers) {
+        try {
+            return mockMvc.perform(get(uri)).andExpect(status().isOk()).andExpectAll(matchers).andReturn();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String vin(int i) {
+        return String.format("SALEAPI%010d", i);
+    }
+}
@@ -0,0 +1,106 @@
+package com.automotive.sales.controller;
+
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.model.VehicleVersion;
+import com.automotive.sales.service.InventoryFeed;
+import com.automotive.sales.service.VehicleBulkStatusService;
+import com.automotive.sales.service.VehicleImportService;
+import com.automotive.sales.service.VehicleService;
+import com.automotive.sales.service.VehicleStreamService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Vehicle Controller Tests")
+class VehicleControllerTest {
+
+    @Mock
+    private VehicleService vehicleService;
+
+    @Mock
+    private VehicleImportService vehicleImportService;
+
+    @Mock
+    private VehicleStreamService vehicleStreamService;
+
+    @Mock
+    private VehicleBulkStatusService vehicleBulkStatusService;
+
+    @Mock
+    private InventoryFeed inventoryFeed;
+
+    @InjectMocks
+    private VehicleController vehicleController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(vehicleController).build();
+    }
+
+    @Test
+    @DisplayName("Should return the vehicle with an ETag built from id and version")
+    void getVehicleById_WithoutValidator_ShouldReturnBodyAndETag() throws Exception {
+        // Given
+        Vehicle vehicle = Vehicle.builder().vin("1HGBH41JXMN109186").make("Toyota").model("Camry").year(2023).build();
+        vehicle.setId(1L);
+        vehicle.setVersion(3L);
+        when(vehicleService.getVehicleVersion(1L))
+                .thenReturn(Optional.of(new VehicleVersion(1L, 3L, LocalDateTime.of(2024, 5, 1, 10, 0))));
+        when(vehicleService.getVehicleById(1L)).thenReturn(Optional.of(vehicle));
+
+        // When & Then
+        mockMvc.perform(get("/api/vehicles/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.ETAG, "\"1-3\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(jsonPath("$.vin").value("1HGBH41JXMN109186"));
+    }
+
+    @Test
+    @DisplayName("Should answer a matching If-None-Match with 304 without loading the vehicle")
+    void getVehicleById_WithCurrentETag_ShouldReturnNotModified() throws Exception {
+        // Given
+        when(vehicleService.getVehicleVersion(1L))
+                .thenReturn(Optional.of(new VehicleVersion(1L, 3L, LocalDateTime.of(2024, 5, 1, 10, 0))));
+
+        // When & Then
+        mockMvc.perform(get("/api/vehicles/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3\""))
+                .andExpect(content().string(""));
+        verify(vehicleService, never()).getVehicleById(any());
+    }
+
+    @Test
+    @DisplayName("Should return the full vehicle once the version has moved on")
+    void getVehicleByVin_WithStaleETag_ShouldReturnBody() throws Exception {
+        // Given
+        Vehicle vehicle = Vehicle.builder().vin("1HGBH41JXMN109186").make("Toyota").model("Camry").year(2023).build();
+        vehicle.setId(1L);
+        when(vehicleService.getVehicleVersionByVin("1HGBH41JXMN109186"))
+                .thenReturn(Optional.of(new VehicleVersion(1L, 4L, LocalDateTime.of(2024, 5, 2, 10, 0))));
+        when(vehicleService.getVehicleByVin("1HGBH41JXMN109186")).thenReturn(Optional.of(vehicle));
+
+        // When & Then
+        mockMvc.perform(get("/api/vehicles/vin/1HGBH41JXMN109186").header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-4\""));
+    }
+}
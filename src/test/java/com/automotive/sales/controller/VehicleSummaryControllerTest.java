@@ -0,0 +1,83 @@
+package com.automotive.sales.controller;
+
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.model.VehicleSummary;
+import com.automotive.sales.service.KeysetCursor;
+import com.automotive.sales.service.VehicleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Vehicle Summary Controller Tests")
+class VehicleSummaryControllerTest {
+
+    @Mock
+    private VehicleService vehicleService;
+
+    @InjectMocks
+    private VehicleSummaryController vehicleSummaryController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(vehicleSummaryController).build();
+    }
+
+    @Test
+    @DisplayName("Should list summaries by price range under the summaries path")
+    void getVehicleSummariesByPriceRange_ShouldReturnSummaries() throws Exception {
+        // Given
+        when(vehicleService.getVehicleSummariesByPriceRange(new BigDecimal("20000"), new BigDecimal("30000")))
+                .thenReturn(List.of(summary(9L, LocalDateTime.of(2024, 5, 1, 10, 0))));
+
+        // When & Then
+        mockMvc.perform(get("/api/vehicles/summaries/price-range?minPrice=20000&maxPrice=30000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].vin").value("1HGBH41JXMN109189"))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+        verify(vehicleService, never()).getVehiclesByPriceRange(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should return the cursor of the last summary and 400 for an invalid cursor")
+    void scrollVehicleSummaries_ShouldReturnNextCursor() throws Exception {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 10, 0);
+        when(vehicleService.getVehicleSummariesWithFiltersAfter("toyota", null, null, null, null, null, null, 2))
+                .thenReturn(new SliceImpl<>(List.of(summary(9L, createdAt), summary(8L, createdAt)),
+                        PageRequest.of(0, 2), true));
+        when(vehicleService.getVehicleSummariesWithFiltersAfter(null, null, null, null, null, null, "bad", 20))
+                .thenThrow(new IllegalArgumentException("Invalid pagination cursor: bad"));
+
+        // When & Then
+        mockMvc.perform(get("/api/vehicles/summaries/scroll?make=toyota&size=2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", KeysetCursor.encode(createdAt, 8L)))
+                .andExpect(jsonPath("$.content[1].id").value(8));
+        mockMvc.perform(get("/api/vehicles/summaries/scroll?after=bad"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static VehicleSummary summary(Long id, LocalDateTime createdAt) {
+        return new VehicleSummary(id, "1HGBH41JXMN10918" + (id % 10), "Toyota", "Camry", 2023,
+                new BigDecimal("28000.00"), Vehicle.VehicleStatus.AVAILABLE, "Lot A", createdAt);
+    }
+}
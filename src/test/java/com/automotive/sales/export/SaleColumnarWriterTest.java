@@ -0,0 +1,123 @@
+package com.automotive.sales.export;
+
+import com.automotive.sales.model.Sale;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Sale Columnar File Tests")
+class SaleColumnarWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should read back every value, nulls included, across row groups")
+    void reader_AcrossRowGroups_ShouldReturnWrittenRows() {
+        // Given
+        Path file = directory.resolve("sales.scol");
+        List<Object[]> written = new ArrayList<>();
+        try (SaleColumnarWriter writer = new SaleColumnarWriter(file, 4)) {
+            for (int i = 1; i <= 10; i++) {
+                Object[] row = row(i);
+                writer.append(row);
+                written.add(row);
+            }
+        }
+
+        // When
+        List<Object[]> read = new ArrayList<>();
+        try (SaleColumnarReader reader = SaleColumnarReader.open(file)) {
+            assertThat(reader.rowCount()).isEqualTo(10);
+            assertThat(reader.rowGroupCount()).isEqualTo(3);
+            for (int group = 0; group < reader.rowGroupCount(); group++) {
+                Object[][] columns = new Object[SaleExportColumn.values().length][];
+                for (SaleExportColumn column : SaleExportColumn.values()) {
+                    columns[column.ordinal()] = reader.column(group, column);
+                }
+                for (int i = 0; i < reader.rowGroupRows(group); i++) {
+                    Object[] row = new Object[columns.length];
+                    for (int c = 0; c < columns.length; c++) {
+                        row[c] = columns[c][i];
+                    }
+                    read.add(row);
+                }
+            }
+        }
+
+        // Then
+        assertThat(read).hasSize(written.size());
+        for (int i = 0; i < written.size(); i++) {
+            assertThat(read.get(i)).usingRecursiveComparison()
+                    .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                    .isEqualTo(written.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject null values in required columns")
+    void append_NullInRequiredColumn_ShouldThrow() {
+        try (SaleColumnarWriter writer = new SaleColumnarWriter(directory.resolve("sales.scol"), 4)) {
+            Object[] row = row(1);
+            row[SaleExportColumn.VIN.ordinal()] = null;
+
+            assertThatThrownBy(() -> writer.append(row))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("VIN");
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse a file that was cut before its trailer")
+    void open_TruncatedFile_ShouldThrow() throws IOException {
+        // Given
+        Path file = directory.resolve("sales.scol");
+        try (SaleColumnarWriter writer = new SaleColumnarWriter(file, 4)) {
+            writer.append(row(1));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 6);
+        }
+
+        // When / Then
+        assertThatThrownBy(() -> SaleColumnarReader.open(file))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("trailer");
+    }
+
+    private static Object[] row(int i) {
+        boolean sparse = i % 3 == 0;
+        return new Object[]{
+                (long) 1000 + i * 7,
+                (long) 50 + i,
+                String.format("EXPORT%011d", i),
+                (long) 3,
+                "buyer" + i + "@example.com",
+                LocalDate.of(2024, 3, 1).plusDays(i),
+                Sale.SaleStatus.values()[i % Sale.SaleStatus.values().length],
+                sparse ? null : Sale.PaymentMethod.values()[i % Sale.PaymentMethod.values().length],
+                new BigDecimal("27500.00").add(BigDecimal.valueOf(i, 2)),
+                sparse ? null : new BigDecimal("5000.00"),
+                null,
+                sparse ? null : new BigDecimal("-0.01"),
+                new BigDecimal("825.50"),
+                sparse ? null : (i % 2 == 0 ? "alex@example.com" : "sam@example.com"),
+                sparse ? null : i % 2 == 0,
+                LocalDateTime.of(2024, 3, 1, 9, 30).plusMinutes(i),
+                sparse ? null : LocalDateTime.of(2024, 3, 2, 17, 0, 0, 123_000_000).minusHours(i)
+        };
+    }
+}
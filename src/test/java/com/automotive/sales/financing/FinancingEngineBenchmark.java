@@ -0,0 +1,58 @@
+package com.automotive.sales.financing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH measurement of a 10 down payments × 10 rates × 5 terms grid, the size a desk builds for one deal.
+ * Run with {@code mvn test -Pbenchmark -Dtest=FinancingEngineBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FinancingEngineBenchmark {
+
+    private final FinancingEngine engine = new FinancingEngine();
+    private final long[] downPayments = new long[10];
+    private final int[] rates = new int[10];
+    private final int[] terms = {36, 48, 60, 72, 84};
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < 10; i++) {
+            downPayments[i] = i * 250_000L;
+            rates[i] = 299 + i * 100;
+        }
+    }
+
+    @Benchmark
+    public QuoteGrid grid() {
+        return engine.quote(3_450_000, 400_000, downPayments, rates, terms);
+    }
+
+    @Benchmark
+    public AmortizationSchedule schedule() {
+        return engine.schedule(2_800_000, 699, 72);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: 10x10x5 financing grid")
+    void benchmark_FinancingGrid() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FinancingEngineBenchmark.class.getName())
+                .addProfiler("gc")
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,114 @@
+package com.automotive.sales.financing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Financing Engine Tests")
+class FinancingEngineTest {
+
+    private final FinancingEngine engine = new FinancingEngine();
+    private final Random random = new Random(42);
+
+    @Test
+    @DisplayName("Should compute the same monthly payment as the exact annuity formula rounded to the cent")
+    void monthlyPayment_ShouldMatchBigDecimalAnnuity() {
+        for (int i = 0; i < 20_000; i++) {
+            long principal = random.nextInt(15_000_000);
+            int rate = 1 + random.nextInt(3_000);
+            int term = 1 + random.nextInt(FinancingEngine.MAX_TERM_MONTHS);
+
+            assertThat(engine.monthlyPayment(principal, rate, term))
+                    .as("principal %d, rate %d, term %d", principal, rate, term)
+                    .isEqualTo(exactPayment(principal, rate, term));
+        }
+    }
+
+    @Test
+    @DisplayName("Should split a zero-rate loan into equal payments")
+    void monthlyPayment_AtZeroRate_ShouldDivideEvenly() {
+        assertThat(engine.monthlyPayment(2_400_000, 0, 48)).isEqualTo(50_000);
+        assertThat(engine.schedule(2_400_000, 0, 48).totalInterest()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should amortize the whole principal and settle the rounding in the last payment")
+    void schedule_ShouldRepayPrincipalExactly() {
+        // Given
+        long principal = 2_345_678;
+        long payment = engine.monthlyPayment(principal, 649, 72);
+
+        // When
+        AmortizationSchedule schedule = engine.schedule(principal, 649, 72);
+
+        // Then
+        assertThat(schedule.months()).isEqualTo(72);
+        assertThat(Arrays.stream(schedule.principal()).sum()).isEqualTo(principal);
+        assertThat(schedule.balances()[71]).isZero();
+        assertThat(Arrays.copyOf(schedule.payments(), 71)).containsOnly(payment);
+        assertThat(schedule.payments()[71]).isCloseTo(payment, within(100L));
+        for (int month = 0; month < 72; month++) {
+            assertThat(schedule.payments()[month])
+                    .isEqualTo(schedule.principal()[month] + schedule.interest()[month]);
+        }
+    }
+
+    @Test
+    @DisplayName("Should price every combination of a grid with the interest of its schedules")
+    void quote_ShouldFillTheWholeGrid() {
+        // Given
+        long[] downs = {0, 300_000, 3_500_000};
+        int[] rates = {0, 499, 899};
+        int[] terms = {36, 60};
+
+        // When
+        QuoteGrid grid = engine.quote(3_000_000, 200_000, downs, rates, terms);
+
+        // Then
+        assertThat(grid.financed(0)).isEqualTo(2_800_000);
+        assertThat(grid.financed(1)).isEqualTo(2_500_000);
+        assertThat(grid.financed(2)).isZero();
+        for (int d = 0; d < downs.length; d++) {
+            for (int r = 0; r < rates.length; r++) {
+                for (int t = 0; t < terms.length; t++) {
+                    long payment = engine.monthlyPayment(grid.financed(d), rates[r], terms[t]);
+                    assertThat(grid.monthlyPayment(d, r, t)).isEqualTo(payment);
+                    AmortizationSchedule schedule = engine.schedule(grid.financed(d), rates[r], terms[t]);
+                    assertThat(grid.totalInterest(d, r, t)).isEqualTo(schedule.totalInterest());
+                    assertThat(grid.financed(d) + grid.totalInterest(d, r, t))
+                            .isEqualTo(Arrays.stream(schedule.payments()).sum());
+                }
+            }
+        }
+        assertThat(grid.totalInterest(1, 0, 1)).isZero();
+        assertThat(grid.monthlyPayment(2, 2, 1)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reject terms and rates outside the loan limits")
+    void quote_WithOutOfRangeAxis_ShouldThrow() {
+        assertThatThrownBy(() -> engine.quote(1_000_000, 0, new long[]{0}, new int[]{500}, new int[]{121}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> engine.quote(1_000_000, 0, new long[]{0}, new int[]{10_001}, new int[]{60}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> engine.quote(1_000_000, 0, new long[]{-1}, new int[]{500}, new int[]{60}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long exactPayment(long principalCents, int rateBasisPoints, int termMonths) {
+        MathContext context = MathContext.DECIMAL128;
+        BigDecimal monthlyRate = BigDecimal.valueOf(rateBasisPoints)
+                .divide(BigDecimal.valueOf(120_000), context);
+        BigDecimal discount = BigDecimal.ONE.divide(BigDecimal.ONE.add(monthlyRate).pow(termMonths, context), context);
+        BigDecimal factor = monthlyRate.divide(BigDecimal.ONE.subtract(discount), context);
+        return BigDecimal.valueOf(principalCents).multiply(factor, context)
+                .setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
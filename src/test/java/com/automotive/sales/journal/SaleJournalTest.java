@@ -0,0 +1,189 @@
+package com.automotive.sales.journal;
+
+import com.automotive.sales.model.Sale;
+import com.automotive.sales.service.SaleChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Sale Journal Tests")
+class SaleJournalTest {
+
+    // Room for exactly ten records per segment
+    private static final int SMALL_SEGMENT = SaleJournal.SEGMENT_HEADER_SIZE + 10 * SaleJournal.RECORD_SIZE;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should read back appended events in order across rolled segments")
+    void reader_AcrossSegments_ShouldReturnEventsInOrder() {
+        // Given
+        List<SaleChangedEvent> written = new ArrayList<>();
+        try (SaleJournal journal = new SaleJournal(directory, SMALL_SEGMENT, false)) {
+            for (int i = 1; i <= 25; i++) {
+                SaleChangedEvent event = event(i);
+                assertThat(journal.append(event)).isEqualTo(i);
+                written.add(event);
+            }
+
+            // When
+            List<SaleChangedEvent> read = readAll(journal.reader(1));
+
+            // Then
+            assertThat(read).containsExactlyElementsOf(written);
+            assertThat(SaleJournalReader.listSegments(directory)).hasSize(3);
+        }
+    }
+
+    @Test
+    @DisplayName("Should start reading at the requested sequence")
+    void reader_FromSequence_ShouldSkipEarlierEvents() {
+        try (SaleJournal journal = new SaleJournal(directory, SMALL_SEGMENT, false)) {
+            for (int i = 1; i <= 25; i++) {
+                journal.append(event(i));
+            }
+
+            try (SaleJournalReader reader = journal.reader(17)) {
+                assertThat(reader.next()).isTrue();
+                assertThat(reader.sequence()).isEqualTo(17);
+                assertThat(reader.saleId()).isEqualTo(17);
+                assertThat(reader.salePriceCents()).isEqualTo(2_500_017L);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should not show events appended after the reader was opened")
+    void reader_OnLiveJournal_ShouldStopAtSnapshot() {
+        try (SaleJournal journal = new SaleJournal(directory, SMALL_SEGMENT, false)) {
+            journal.append(event(1));
+            SaleJournalReader reader = journal.reader(1);
+            journal.append(event(2));
+
+            assertThat(readAll(reader)).extracting(SaleChangedEvent::saleId).containsExactly(1L);
+        }
+    }
+
+    @Test
+    @DisplayName("Should resume after the last valid record when reopened after a torn write")
+    void open_AfterTornRecord_ShouldDiscardItAndContinueSequence() throws IOException {
+        // Given
+        try (SaleJournal journal = new SaleJournal(directory, SMALL_SEGMENT, false)) {
+            for (int i = 1; i <= 13; i++) {
+                journal.append(event(i));
+            }
+        }
+        // Damage the payload of the last record, as a crash halfway through writing it would
+        Path last = directory.resolve(SaleJournalReader.segmentName(11));
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.WRITE)) {
+            long lastRecord = SaleJournal.SEGMENT_HEADER_SIZE + 2L * SaleJournal.RECORD_SIZE;
+            channel.write(ByteBuffer.wrap(new byte[]{42}), lastRecord + SaleJournal.RECORD_HEADER_SIZE + 20);
+        }
+        assertThat(readAll(SaleJournalReader.open(directory, 1))).hasSize(12);
+
+        // When
+        try (SaleJournal journal = new SaleJournal(directory, SMALL_SEGMENT, false)) {
+            assertThat(journal.getNextSequence()).isEqualTo(13);
+            journal.append(event(99));
+
+            // Then
+            List<SaleChangedEvent> read = readAll(journal.reader(1));
+            assertThat(read).hasSize(13);
+            assertThat(read.get(12).saleId()).isEqualTo(99L);
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail on a damaged record in the middle of the journal")
+    void reader_WithCorruptRecord_ShouldFail() throws IOException {
+        try (SaleJournal journal = new SaleJournal(directory, SMALL_SEGMENT, false)) {
+            for (int i = 1; i <= 15; i++) {
+                journal.append(event(i));
+            }
+        }
+        try (FileChannel channel = FileChannel.open(directory.resolve(SaleJournalReader.segmentName(1)),
+                StandardOpenOption.WRITE)) {
+            long thirdRecord = SaleJournal.SEGMENT_HEADER_SIZE + 2L * SaleJournal.RECORD_SIZE;
+            channel.write(ByteBuffer.wrap(new byte[]{42}), thirdRecord + SaleJournal.RECORD_HEADER_SIZE + 20);
+        }
+
+        assertThatThrownBy(() -> readAll(SaleJournalReader.open(directory, 1)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("expected sequence 3");
+    }
+
+    @Test
+    @DisplayName("Should refuse a second writer on the same directory")
+    void open_WhileAnotherWriterIsOpen_ShouldFail() {
+        try (SaleJournal journal = new SaleJournal(directory, SMALL_SEGMENT, false)) {
+            assertThatThrownBy(() -> new SaleJournal(directory, SMALL_SEGMENT, false))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("in use");
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: append and replay of millions of sale events")
+    void benchmark_AppendAndReplay() {
+        int events = 5_000_000;
+        SaleChangedEvent event = event(1);
+        try (SaleJournal journal = new SaleJournal(directory, 64 << 20, false)) {
+            long started = System.nanoTime();
+            for (int i = 0; i < events; i++) {
+                journal.append(event);
+            }
+            double appendSeconds = (System.nanoTime() - started) / 1e9;
+
+            started = System.nanoTime();
+            long cents = 0;
+            int count = 0;
+            try (SaleJournalReader reader = journal.reader(1)) {
+                while (reader.next()) {
+                    cents += reader.salePriceCents();
+                    count++;
+                }
+            }
+            double replaySeconds = (System.nanoTime() - started) / 1e9;
+
+            System.out.printf("%,d sale events: append %,.0f events/s, replay %,.0f events/s%n",
+                    events, events / appendSeconds, events / replaySeconds);
+            assertThat(count).isEqualTo(events);
+            assertThat(cents).isEqualTo(events * 2_500_001L);
+        }
+    }
+
+    private static List<SaleChangedEvent> readAll(SaleJournalReader reader) {
+        List<SaleChangedEvent> events = new ArrayList<>();
+        try (reader) {
+            while (reader.next()) {
+                events.add(reader.toEvent());
+            }
+        }
+        return events;
+    }
+
+    private static SaleChangedEvent event(long i) {
+        SaleChangedEvent.Type type = SaleChangedEvent.Type.values()[(int) (i % SaleChangedEvent.Type.values().length)];
+        Sale.SaleStatus status = i % 7 == 0 ? null : Sale.SaleStatus.values()[(int) (i % Sale.SaleStatus.values().length)];
+        return new SaleChangedEvent(type, i, 100 + i, 200 + i, status,
+                BigDecimal.valueOf(2_500_000 + i, 2),
+                i % 5 == 0 ? null : LocalDate.of(2024, 1, 1).plusDays(i), null,
+                Instant.ofEpochMilli(1_700_000_000_000L + i));
+    }
+}
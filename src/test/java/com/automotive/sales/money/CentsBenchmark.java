@@ -0,0 +1,94 @@
+package com.automotive.sales.money;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of an aggregation over sale rows (revenue, commission, average and margin) done with
+ * {@code BigDecimal} as before and with {@link Cents}. Run with {@code mvn test -Pbenchmark -Dtest=CentsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CentsBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private BigDecimal[] prices;
+    private BigDecimal[] costs;
+    private BigDecimal[] rates;
+    private long[] priceCents;
+    private long[] costCents;
+    private long[] rateBasisPoints;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        prices = new BigDecimal[ROWS];
+        costs = new BigDecimal[ROWS];
+        rates = new BigDecimal[ROWS];
+        priceCents = new long[ROWS];
+        costCents = new long[ROWS];
+        rateBasisPoints = new long[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            prices[i] = BigDecimal.valueOf(1_500_000 + random.nextInt(6_000_000), 2);
+            costs[i] = prices[i].multiply(new BigDecimal("0.85")).setScale(2, RoundingMode.HALF_UP);
+            rates[i] = BigDecimal.valueOf(100 + random.nextInt(400), 2);
+            priceCents[i] = Cents.of(prices[i]);
+            costCents[i] = Cents.of(costs[i]);
+            rateBasisPoints[i] = Cents.basisPoints(rates[i]);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal revenue = BigDecimal.ZERO;
+        BigDecimal profit = BigDecimal.ZERO;
+        for (int i = 0; i < ROWS; i++) {
+            BigDecimal commission = prices[i].multiply(rates[i]).divide(BigDecimal.valueOf(100));
+            revenue = revenue.add(prices[i]);
+            profit = profit.add(prices[i].subtract(costs[i]).subtract(commission));
+        }
+        BigDecimal average = revenue.divide(BigDecimal.valueOf(ROWS), 2, RoundingMode.HALF_UP);
+        BigDecimal margin = profit.divide(revenue, 4, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100));
+        return average.add(margin);
+    }
+
+    @Benchmark
+    public long cents() {
+        long revenue = 0;
+        long profit = 0;
+        for (int i = 0; i < ROWS; i++) {
+            long commission = Cents.percent(priceCents[i], rateBasisPoints[i]);
+            revenue = Cents.add(revenue, priceCents[i]);
+            profit = Cents.add(profit, priceCents[i] - costCents[i] - commission);
+        }
+        long average = Cents.divide(revenue, ROWS);
+        long margin = Cents.ratio(profit, revenue);
+        return average + margin;
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: BigDecimal versus long-cents aggregation")
+    void benchmark_BigDecimalVersusCents() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CentsBenchmark.class.getName())
+                .addProfiler("gc")
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,101 @@
+package com.automotive.sales.money;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Cents Tests")
+class CentsTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    @DisplayName("Should round amounts half up to the cent, away from zero for negatives")
+    void of_ShouldRoundHalfUp() {
+        assertThat(Cents.of(new BigDecimal("12.345"))).isEqualTo(1235L);
+        assertThat(Cents.of(new BigDecimal("12.344"))).isEqualTo(1234L);
+        assertThat(Cents.of(new BigDecimal("-12.345"))).isEqualTo(-1235L);
+        assertThat(Cents.of(new BigDecimal("28000"))).isEqualTo(2_800_000L);
+        assertThat(Cents.ofNullable(null)).isEqualTo(Cents.NONE);
+        assertThat(Cents.toBigDecimal(1235L)).isEqualTo(new BigDecimal("12.35"));
+        assertThat(Cents.toBigDecimalOrNull(Cents.NONE)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should round exact halves the way BigDecimal HALF_UP does")
+    void divide_OnExactHalves_ShouldMatchBigDecimal() {
+        assertThat(Cents.divide(5, 2)).isEqualTo(3L);
+        assertThat(Cents.divide(-5, 2)).isEqualTo(-3L);
+        assertThat(Cents.divide(5, -2)).isEqualTo(-3L);
+        assertThat(Cents.divide(7, 4)).isEqualTo(2L);
+        assertThat(Cents.divide(-7, 4)).isEqualTo(-2L);
+        assertThat(Cents.divide(Long.MAX_VALUE, Long.MAX_VALUE - 1)).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should compute averages identical to BigDecimal division to two decimals")
+    void divide_ShouldMatchBigDecimalHalfUp() {
+        for (int i = 0; i < 100_000; i++) {
+            long cents = random.nextLong() % 100_000_000_000L;
+            long divisor = 1 + random.nextInt(10_000);
+
+            BigDecimal expected = Cents.toBigDecimal(cents)
+                    .divide(BigDecimal.valueOf(divisor), 2, RoundingMode.HALF_UP);
+
+            assertThat(Cents.toBigDecimal(Cents.divide(cents, divisor))).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Should compute commissions identical to the BigDecimal formula rounded to the cent")
+    void percent_ShouldMatchBigDecimalCommission() {
+        for (int i = 0; i < 100_000; i++) {
+            BigDecimal price = BigDecimal.valueOf(random.nextInt(20_000_000), 2);
+            BigDecimal rate = BigDecimal.valueOf(random.nextInt(10_001), 2);
+
+            BigDecimal expected = price.multiply(rate).divide(BigDecimal.valueOf(100))
+                    .setScale(2, RoundingMode.HALF_UP);
+
+            assertThat(Cents.toBigDecimal(Cents.percent(Cents.of(price), Cents.basisPoints(rate))))
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Should compute margins identical to BigDecimal division to four decimals")
+    void ratio_ShouldMatchBigDecimalMargin() {
+        for (int i = 0; i < 100_000; i++) {
+            long profit = random.nextLong() % 10_000_000_000L;
+            long revenue = 1 + Math.abs(random.nextLong() % 100_000_000_000L);
+
+            BigDecimal expected = Cents.toBigDecimal(profit)
+                    .divide(Cents.toBigDecimal(revenue), 4, RoundingMode.HALF_UP)
+                    .multiply(BigDecimal.valueOf(100));
+
+            assertThat(Cents.percentOf(Cents.ratio(profit, revenue))).isEqualByComparingTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Should fall back to exact arithmetic when the product overflows a long")
+    void multiply_WhenProductOverflows_ShouldStayExact() {
+        long cents = Long.MAX_VALUE / 3;
+
+        BigDecimal expected = BigDecimal.valueOf(cents).multiply(BigDecimal.valueOf(105))
+                .divide(BigDecimal.valueOf(110), 0, RoundingMode.HALF_UP);
+
+        assertThat(Cents.multiply(cents, 105, 110)).isEqualTo(expected.longValueExact());
+    }
+
+    @Test
+    @DisplayName("Should fail rather than wrap when a sum overflows")
+    void add_OnOverflow_ShouldThrow() {
+        assertThatThrownBy(() -> Cents.add(Long.MAX_VALUE, 1))
+                .isInstanceOf(ArithmeticException.class);
+    }
+}
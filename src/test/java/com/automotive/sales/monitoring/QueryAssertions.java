@@ -0,0 +1,38 @@
+package com.automotive.sales.monitoring;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Assertions on the Hibernate work done by a piece of code, so that N+1 regressions fail the build:
+ * <pre>
+ *     QueryAssertions.assertMaxQueries(2, () -> customerService.deleteCustomer(id));
+ * </pre>
+ * Only work done on the calling thread is counted.
+ */
+public final class QueryAssertions {
+
+    private QueryAssertions() {
+    }
+
+    public static QueryStats.Snapshot measure(Runnable action) {
+        QueryStats.Snapshot start = QueryStats.snapshot();
+        action.run();
+        return QueryStats.snapshot().since(start);
+    }
+
+    public static QueryStats.Snapshot assertMaxQueries(long maxStatements, Runnable action) {
+        QueryStats.Snapshot used = measure(action);
+        assertThat(used.statements())
+                .as("SQL statements executed (%s)", used)
+                .isLessThanOrEqualTo(maxStatements);
+        return used;
+    }
+
+    public static QueryStats.Snapshot assertNoCollectionFetches(Runnable action) {
+        QueryStats.Snapshot used = measure(action);
+        assertThat(used.collectionFetches())
+                .as("Lazy collections initialized (%s)", used)
+                .isZero();
+        return used;
+    }
+}
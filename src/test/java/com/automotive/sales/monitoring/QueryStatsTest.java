@@ -0,0 +1,221 @@
+package com.automotive.sales.monitoring;
+
+import com.automotive.sales.model.Customer;
+import com.automotive.sales.model.Sale;
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.repository.CustomerRepository;
+import com.automotive.sales.repository.SaleRepository;
+import com.automotive.sales.repository.VehicleRepository;
+import com.automotive.sales.service.CustomerService;
+import com.automotive.sales.service.InventoryIndex;
+import com.automotive.sales.service.VehicleChangePublisher;
+import com.automotive.sales.service.VehicleSearchIndex;
+import com.automotive.sales.service.VehicleService;
+import com.automotive.sales.service.VehicleStatisticsSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.stereotype.Service;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Import({QueryStatsAspect.class, QueryMetrics.class, CustomerService.class, VehicleService.class,
+        VehicleChangePublisher.class, QueryStatsTest.CustomerLookup.class})
+@DisplayName("Query Stats Tests")
+class QueryStatsTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private CustomerLookup customerLookup;
+
+    @Autowired
+    private QueryMetrics queryMetrics;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private InventoryIndex inventoryIndex;
+
+    @MockBean
+    private VehicleStatisticsSnapshot vehicleStatisticsSnapshot;
+
+    @MockBean
+    private VehicleSearchIndex vehicleSearchIndex;
+
+    private Customer regular;
+    private Customer occasional;
+    private Vehicle unsold;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        queryMetrics.reset();
+        regular = customerRepository.save(customer("regular@example.com"));
+        occasional = customerRepository.save(customer("occasional@example.com"));
+        List<Vehicle> vehicles = vehicleRepository.saveAll(List.of(
+                vehicle("1HGBH41JXMN109186"), vehicle("1HGBH41JXMN109187"), vehicle("1HGBH41JXMN109188"),
+                vehicle("1FTFW1ET5DFC12345"), vehicle("1FTFW1ET5DFC12346")));
+        saleRepository.saveAll(List.of(sale(regular, vehicles.get(0)), sale(regular, vehicles.get(1)),
+                sale(regular, vehicles.get(2)), sale(occasional, vehicles.get(3))));
+        unsold = vehicles.get(4);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        saleRepository.deleteAllInBatch();
+        vehicleRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should refuse to delete a customer with sales without loading the sales")
+    void deleteCustomer_WithSales_ShouldNotLoadSales() {
+        // When
+        QueryStats.Snapshot used = QueryAssertions.assertNoCollectionFetches(() ->
+                assertThatThrownBy(() -> customerService.deleteCustomer(regular.getId()))
+                        .isInstanceOf(IllegalStateException.class));
+
+        // Then
+        assertThat(used.entityLoads()).isEqualTo(1);
+        assertThat(queryMetrics.getMethodMetrics())
+                .filteredOn(metric -> metric.getName().equals("CustomerService.deleteCustomer"))
+                .singleElement()
+                .satisfies(metric -> {
+                    assertThat(metric.getCalls()).isEqualTo(1);
+                    assertThat(metric.getStatements()).isEqualTo(used.statements());
+                });
+    }
+
+    @Test
+    @DisplayName("Should delete an unsold vehicle within its query budget")
+    void deleteVehicle_WithoutSales_ShouldStayWithinBudget() {
+        // When
+        QueryAssertions.assertMaxQueries(4, () -> vehicleService.deleteVehicle(unsold.getId()));
+
+        // Then
+        assertThat(vehicleRepository.existsById(unsold.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should find repeat customers with one statement")
+    void findCustomersWithMinimumSales_ShouldRunOneStatement() {
+        // When
+        List<Customer> customers = new ArrayList<>();
+        QueryAssertions.assertMaxQueries(1, () -> customers.addAll(customerRepository.findCustomersWithMinimumSales(2)));
+
+        // Then
+        assertThat(customers).extracting(Customer::getEmail).containsExactly("regular@example.com");
+    }
+
+    @Test
+    @DisplayName("Should expose lazy loading in a loop as one collection fetch per entity")
+    void measure_WithLazyCollectionsInLoop_ShouldCountEachFetch() {
+        // Given
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // When
+        QueryStats.Snapshot used = QueryAssertions.measure(() -> transaction.executeWithoutResult(status ->
+                customerRepository.findAll().forEach(customer -> customer.getSales().size())));
+
+        // Then
+        assertThat(used.collectionFetches()).isEqualTo(2);
+        assertThat(used.statements()).isEqualTo(3);
+        assertThatThrownBy(() -> QueryAssertions.assertMaxQueries(1, () -> transaction.executeWithoutResult(
+                status -> customerRepository.findAll().forEach(customer -> customer.getSales().size()))))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("2 collection fetches");
+    }
+
+    @Test
+    @DisplayName("Should fail a service method that exceeds its query budget")
+    void queryBudget_WhenExceeded_ShouldFailTheCall() {
+        assertThatThrownBy(() -> customerLookup.countTwice())
+                .isInstanceOf(QueryBudgetExceededException.class)
+                .hasMessageContaining("CustomerLookup.countTwice exceeded its query budget of 1 statements");
+        assertThat(queryMetrics.getMethodMetrics())
+                .filteredOn(metric -> metric.getName().equals("CustomerLookup.countTwice"))
+                .singleElement()
+                .satisfies(metric -> assertThat(metric.getOverBudget()).isEqualTo(1));
+    }
+
+    private Customer customer(String email) {
+        return Customer.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email(email)
+                .build();
+    }
+
+    private Vehicle vehicle(String vin) {
+        return Vehicle.builder()
+                .vin(vin)
+                .make("Toyota")
+                .model("Camry")
+                .year(2023)
+                .sellingPrice(new BigDecimal("28000.00"))
+                .build();
+    }
+
+    private Sale sale(Customer customer, Vehicle vehicle) {
+        return Sale.builder()
+                .customer(customer)
+                .vehicle(vehicle)
+                .saleDate(LocalDate.of(2024, 5, 1))
+                .salePrice(new BigDecimal("27500.00"))
+                .build();
+    }
+
+    @Service
+    static class CustomerLookup {
+
+        private final CustomerRepository customerRepository;
+
+        CustomerLookup(CustomerRepository customerRepository) {
+            this.customerRepository = customerRepository;
+        }
+
+        @QueryBudget(statements = 1)
+        public long countTwice() {
+            customerRepository.count();
+            return customerRepository.count();
+        }
+    }
+}
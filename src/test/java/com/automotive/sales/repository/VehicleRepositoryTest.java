@@ -0,0 +1,200 @@
+package com.automotive.sales.repository;
+
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.model.VehicleSummary;
+import com.automotive.sales.service.VehicleChangePublisher;
+import com.automotive.sales.service.VehicleChangedEvent;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(VehicleChangePublisher.class)
+@RecordApplicationEvents
+@DisplayName("Vehicle Repository Tests")
+class VehicleRepositoryTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private List<Vehicle> toyotas;
+
+    @BeforeEach
+    void setUp() {
+        vehicleRepository.deleteAllInBatch();
+        List<Vehicle> saved = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            saved.add(vehicleRepository.save(vehicle(i, i % 3 == 2 ? "Honda" : "Toyota")));
+        }
+        // Three creation times shared by several vehicles each, so slices end in the middle of a tie
+        for (int i = 0; i < saved.size(); i++) {
+            LocalDateTime createdAt = NOON.minusHours(i % 3 == 0 ? 0 : i < 5 ? 1 : 2);
+            jdbcTemplate.update("UPDATE vehicles SET created_at = ? WHERE id = ?", createdAt, saved.get(i).getId());
+        }
+        toyotas = vehicleRepository.findAll().stream()
+                .filter(vehicle -> vehicle.getMake().equals("Toyota"))
+                .sorted(Comparator.comparing(Vehicle::getCreatedAt).thenComparing(Vehicle::getId).reversed())
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Should scroll the filtered vehicles newest first across ties on creation time")
+    void findVehiclesWithFiltersAfter_Scroll_ShouldVisitEachVehicleOnce() {
+        // Given
+        List<Long> visited = new ArrayList<>();
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        int slices = 0;
+
+        // When
+        Slice<Vehicle> slice;
+        do {
+            slice = vehicleRepository.findVehiclesWithFiltersAfter("toyota", null, null, null, null, null,
+                    afterCreatedAt, afterId, PageRequest.of(0, 2));
+            slice.forEach(vehicle -> visited.add(vehicle.getId()));
+            Vehicle last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            afterCreatedAt = last.getCreatedAt();
+            afterId = last.getId();
+            slices++;
+        } while (slice.hasNext());
+
+        // Then
+        assertThat(visited).containsExactlyElementsOf(toyotas.stream().map(Vehicle::getId).toList());
+        assertThat(slices).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should scroll the filtered summaries in the same order as the entities")
+    void findVehicleSummariesWithFiltersAfter_Scroll_ShouldVisitEachVehicleOnce() {
+        // Given
+        List<Long> visited = new ArrayList<>();
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+
+        // When
+        Slice<VehicleSummary> slice;
+        do {
+            slice = vehicleRepository.findVehicleSummariesWithFiltersAfter("toyota", null, null,
+                    Vehicle.VehicleStatus.AVAILABLE, null, new BigDecimal("30000.00"), afterCreatedAt, afterId,
+                    PageRequest.of(0, 4));
+            slice.forEach(summary -> visited.add(summary.id()));
+            VehicleSummary last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            afterCreatedAt = last.createdAt();
+            afterId = last.id();
+        } while (slice.hasNext());
+
+        // Then
+        assertThat(visited).containsExactlyElementsOf(toyotas.stream().map(Vehicle::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Should return an empty last slice once the cursor is past the oldest match")
+    void findVehiclesWithFiltersAfter_PastOldest_ShouldBeEmpty() {
+        // Given
+        Vehicle oldest = toyotas.get(toyotas.size() - 1);
+
+        // When
+        Slice<Vehicle> slice = vehicleRepository.findVehiclesWithFiltersAfter("toyota", null, null, null, null, null,
+                oldest.getCreatedAt(), oldest.getId(), PageRequest.of(0, 2));
+
+        // Then
+        assertThat(slice.getContent()).isEmpty();
+        assertThat(slice.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should announce saved and removed vehicles through the listener mapped in orm.xml")
+    void saveAndDelete_ShouldPublishVehicleChanges() {
+        // Given
+        events.clear();
+
+        // When
+        Vehicle saved = vehicleRepository.save(vehicle(99, "Mazda"));
+        vehicleRepository.delete(saved);
+
+        // Then
+        assertThat(events.stream(VehicleChangedEvent.class))
+                .extracting(VehicleChangedEvent::type, VehicleChangedEvent::vehicleId)
+                .containsExactly(tuple(VehicleChangedEvent.Type.SAVED, saved.getId()),
+                        tuple(VehicleChangedEvent.Type.REMOVED, saved.getId()));
+    }
+
+    @Test
+    @DisplayName("Should keep the persistence context across a status transition and refresh only the moved vehicle")
+    void transitionStatus_WithLoadedVehicles_ShouldRefreshOnlyTheMovedVehicle() {
+        // Given
+        Long movedId = toyotas.get(0).getId();
+        Long otherId = toyotas.get(1).getId();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Vehicle moved = vehicleRepository.findById(movedId).orElseThrow();
+            Vehicle other = vehicleRepository.findById(otherId).orElseThrow();
+            other.setColor("Red");
+
+            // When
+            int updated = vehicleRepository.transitionStatus(movedId, EnumSet.of(Vehicle.VehicleStatus.AVAILABLE),
+                    Vehicle.VehicleStatus.RESERVED, NOON);
+            vehicleRepository.refreshLoaded(List.of(movedId, 12345L));
+
+            // Then
+            assertThat(updated).isEqualTo(1);
+            assertThat(entityManager.contains(moved)).isTrue();
+            assertThat(entityManager.contains(other)).isTrue();
+            assertThat(moved.getStatus()).isEqualTo(Vehicle.VehicleStatus.RESERVED);
+            assertThat(moved.getVersion()).isEqualTo(1L);
+        });
+        assertThat(vehicleRepository.findById(otherId))
+                .hasValueSatisfying(vehicle -> assertThat(vehicle.getColor()).isEqualTo("Red"));
+    }
+
+    private static Vehicle vehicle(int i, String make) {
+        return Vehicle.builder()
+                .vin(String.format("SCROLL%011d", i))
+                .make(make)
+                .model("Camry")
+                .year(2023)
+                .sellingPrice(new BigDecimal("28000.00"))
+                .build();
+    }
+}
@@ -0,0 +1,232 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Sale;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Analytics Cache Tests")
+class AnalyticsCacheTest {
+
+    private static final List<?> JANUARY = Arrays.asList(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+    private static final List<?> FEBRUARY = Arrays.asList(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29));
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    @DisplayName("Should load a report once per distinct arguments and count hits and misses")
+    void get_RepeatedArguments_ShouldServeFromCache() {
+        // Given
+        AnalyticsCache cache = new AnalyticsCache(true, 16, 60_000);
+
+        // When
+        cache.get(AnalyticsCache.Report.REVENUE, JANUARY, this::load);
+        cache.get(AnalyticsCache.Report.REVENUE, JANUARY, this::load);
+        cache.get(AnalyticsCache.Report.REVENUE, FEBRUARY, this::load);
+        cache.get(AnalyticsCache.Report.REVENUE, Arrays.asList(null, null), this::load);
+
+        // Then
+        assertThat(loads).hasValue(3);
+        AnalyticsCache.CacheStatistics revenue = statistics(cache, AnalyticsCache.Report.REVENUE);
+        assertThat(revenue.getEntries()).isEqualTo(3);
+        assertThat(revenue.getHits()).isEqualTo(1);
+        assertThat(revenue.getMisses()).isEqualTo(3);
+        assertThat(revenue.getHitRate()).isEqualTo(0.25);
+    }
+
+    @Test
+    @DisplayName("Should drop only the reports a committed change can affect")
+    void onChanged_DomainEvents_ShouldInvalidateAffectedReports() {
+        // Given
+        AnalyticsCache cache = new AnalyticsCache(true, 16, 60_000);
+        fillAllReports(cache);
+
+        // When / Then: an approval changes no report
+        cache.onSaleChanged(sale(SaleChangedEvent.Type.APPROVED, Sale.SaleStatus.APPROVED));
+        assertThat(cachedReports(cache)).containsExactlyInAnyOrder(AnalyticsCache.Report.values());
+
+        cache.onSaleChanged(sale(SaleChangedEvent.Type.CREATED, Sale.SaleStatus.PENDING));
+        assertThat(cachedReports(cache)).containsExactlyInAnyOrder(AnalyticsCache.Report.REVENUE,
+                AnalyticsCache.Report.INVENTORY, AnalyticsCache.Report.CUSTOMERS,
+                AnalyticsCache.Report.GROWTH_PROJECTIONS);
+
+        cache.onVehicleChanged(new VehicleChangedEvent(VehicleChangedEvent.Type.REMOVED, 1L, null, null));
+        cache.onCustomerChanged(new CustomerChangedEvent(CustomerChangedEvent.Type.UPDATED, 1L));
+        assertThat(cachedReports(cache)).containsExactlyInAnyOrder(AnalyticsCache.Report.REVENUE,
+                AnalyticsCache.Report.GROWTH_PROJECTIONS);
+
+        cache.onSaleChanged(sale(SaleChangedEvent.Type.IMPORTED, Sale.SaleStatus.COMPLETED));
+        assertThat(cachedReports(cache)).isEmpty();
+        assertThat(statistics(cache, AnalyticsCache.Report.REVENUE).getInvalidations()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used entry once the cache is full")
+    void get_Full_ShouldEvictLeastRecentlyUsed() {
+        // Given
+        AnalyticsCache cache = new AnalyticsCache(true, 2, 60_000);
+        cache.get(AnalyticsCache.Report.REVENUE, JANUARY, this::load);
+        cache.get(AnalyticsCache.Report.REVENUE, FEBRUARY, this::load);
+        cache.get(AnalyticsCache.Report.REVENUE, JANUARY, this::load);
+
+        // When
+        cache.get(AnalyticsCache.Report.SALES_PERFORMANCE, List.of(), this::load);
+
+        // Then: February was used least recently
+        assertThat(statistics(cache, AnalyticsCache.Report.REVENUE).getEvictions()).isEqualTo(1);
+        cache.get(AnalyticsCache.Report.REVENUE, JANUARY, this::load);
+        assertThat(loads).hasValue(3);
+        cache.get(AnalyticsCache.Report.REVENUE, FEBRUARY, this::load);
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("Should reload a report once its time to live has passed")
+    void get_Expired_ShouldReload() throws InterruptedException {
+        // Given
+        AnalyticsCache cache = new AnalyticsCache(true, 16, 50);
+        cache.get(AnalyticsCache.Report.INVENTORY, List.of(), this::load);
+
+        // When
+        Thread.sleep(100);
+        cache.get(AnalyticsCache.Report.INVENTORY, List.of(), this::load);
+
+        // Then
+        assertThat(loads).hasValue(2);
+        assertThat(statistics(cache, AnalyticsCache.Report.INVENTORY).getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not keep a partial report or a failed load")
+    void get_NotCacheableOrFailed_ShouldNotKeepEntry() {
+        // Given
+        AnalyticsCache cache = new AnalyticsCache(true, 16, 60_000);
+
+        // When
+        cache.get(AnalyticsCache.Report.CUSTOMERS, List.of(), this::load, value -> false);
+        assertThatThrownBy(() -> cache.get(AnalyticsCache.Report.INVENTORY, List.of(), () -> {
+            throw new IllegalStateException("Analytics metrics unavailable: totalVehicles");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // Then
+        assertThat(cachedReports(cache)).isEmpty();
+        cache.get(AnalyticsCache.Report.CUSTOMERS, List.of(), this::load);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should share one load between concurrent misses and not keep it when invalidated meanwhile")
+    void get_ConcurrentMisses_ShouldShareLoad() throws Exception {
+        // Given: a load held until released
+        AnalyticsCache cache = new AnalyticsCache(true, 16, 60_000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() ->
+                cache.get(AnalyticsCache.Report.SALES_PERFORMANCE, List.of(), () -> {
+                    started.countDown();
+                    await(release);
+                    return load();
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() ->
+                cache.get(AnalyticsCache.Report.SALES_PERFORMANCE, List.of(), this::load));
+
+        // When: the data changes while the load runs
+        Thread.sleep(50);
+        cache.onSaleChanged(sale(SaleChangedEvent.Type.UPDATED, Sale.SaleStatus.PENDING));
+        release.countDown();
+
+        // Then: both callers got the one load, which was not kept
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(cache.get(AnalyticsCache.Report.SALES_PERFORMANCE, List.of(), this::load)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should release waiters and drop the entry when a load throws an error")
+    void get_LoaderError_ShouldNotLeaveEntryBehind() throws Exception {
+        // Given: a load that fails with an error while another caller waits for it
+        AnalyticsCache cache = new AnalyticsCache(true, 16, 60_000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() ->
+                cache.get(AnalyticsCache.Report.INVENTORY, List.of(), () -> {
+                    started.countDown();
+                    await(release);
+                    throw new OutOfMemoryError("Java heap space");
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() ->
+                cache.get(AnalyticsCache.Report.INVENTORY, List.of(), this::load));
+
+        // When
+        Thread.sleep(50);
+        release.countDown();
+
+        // Then: both callers fail with the error and the next one loads afresh
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(OutOfMemoryError.class);
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(OutOfMemoryError.class);
+        assertThat(cache.get(AnalyticsCache.Report.INVENTORY, List.of(), this::load)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should load every time when disabled")
+    void get_Disabled_ShouldAlwaysLoad() {
+        // Given
+        AnalyticsCache cache = new AnalyticsCache(false, 16, 60_000);
+
+        // When
+        cache.get(AnalyticsCache.Report.GROWTH_PROJECTIONS, List.of(6), this::load);
+        cache.get(AnalyticsCache.Report.GROWTH_PROJECTIONS, List.of(6), this::load);
+
+        // Then
+        assertThat(loads).hasValue(2);
+        assertThat(statistics(cache, AnalyticsCache.Report.GROWTH_PROJECTIONS).getMisses()).isZero();
+    }
+
+    private Integer load() {
+        return loads.incrementAndGet();
+    }
+
+    private void fillAllReports(AnalyticsCache cache) {
+        for (AnalyticsCache.Report report : AnalyticsCache.Report.values()) {
+            cache.get(report, List.of(), this::load);
+        }
+    }
+
+    private static List<AnalyticsCache.Report> cachedReports(AnalyticsCache cache) {
+        return cache.statistics().stream()
+                .filter(statistics -> statistics.getEntries() > 0)
+                .map(AnalyticsCache.CacheStatistics::getReport)
+                .toList();
+    }
+
+    private static AnalyticsCache.CacheStatistics statistics(AnalyticsCache cache, AnalyticsCache.Report report) {
+        return cache.statistics().stream()
+                .filter(statistics -> statistics.getReport() == report)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static SaleChangedEvent sale(SaleChangedEvent.Type type, Sale.SaleStatus status) {
+        return new SaleChangedEvent(type, 1L, 1L, 1L, status, null, null, null, Instant.now());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.repository.CustomerRepository;
+import com.automotive.sales.repository.SaleRepository;
+import com.automotive.sales.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Latency of the inventory and customer reports with their queries run one after another and fanned out, against
+ * PostgreSQL in a container over a JDBC connection. Needs Docker; run with
+ * {@code mvn test -Pbenchmark -Dtest=AnalyticsQueryFanOutBenchmark}.
+ */
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "app.analytics.cache.enabled=false")
+@Import({AnalyticsService.class, AnalyticsQueryFanOut.class, AnalyticsCache.class, SalesRollupService.class,
+        SalespersonLeaderboard.class})
+@Tag("benchmark")
+@DisplayName("Analytics Query Fan-Out Benchmark")
+class AnalyticsQueryFanOutBenchmark {
+
+    private static final int VEHICLES = 500_000;
+    private static final int CUSTOMERS = 300_000;
+    private static final int WARMUP = 5;
+    private static final int RUNS = 25;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @Autowired
+    private AnalyticsService concurrent;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private SalespersonLeaderboard salespersonLeaderboard;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private AnalyticsService sequential;
+
+    @BeforeEach
+    void setUp() {
+        if (vehicleRepository.count() == 0) {
+            jdbcTemplate.update("INSERT INTO vehicles (id, vin, make, model, year, status, condition_type, " +
+                    "purchase_price, selling_price, created_at, version) " +
+                    "SELECT i, LPAD(i::text, 17, '0'), (ARRAY['Toyota','Honda','Ford','BMW','Kia'])[i % 5 + 1], " +
+                    "'Model', 2015 + i % 10, (ARRAY['AVAILABLE','SOLD','RESERVED','MAINTENANCE'])[i % 4 + 1], " +
+                    "'USED', 10000 + i % 20000, 14000 + i % 25000, now(), 0 FROM generate_series(1, ?) i", VEHICLES);
+            jdbcTemplate.update("INSERT INTO customers (id, first_name, last_name, email, customer_type, state, " +
+                    "credit_score, is_active, created_at, version) " +
+                    "SELECT i, 'First', 'Last', 'customer' || i || '@example.com', " +
+                    "CASE WHEN i % 7 = 0 THEN 'BUSINESS' ELSE 'INDIVIDUAL' END, 'S' || (i % 50), " +
+                    "500 + i % 350, i % 5 <> 0, now(), 0 FROM generate_series(1, ?) i", CUSTOMERS);
+            jdbcTemplate.execute("ANALYZE");
+        }
+        sequential = new AnalyticsService(saleRepository, vehicleRepository, customerRepository, salesRollupService,
+                salespersonLeaderboard, new AnalyticsQueryFanOut(transactionManager, false, 1, 1, 60_000, false),
+                new AnalyticsCache(false, 0, 0), transactionManager);
+    }
+
+    @Test
+    @DisplayName("Benchmark: sequential versus fanned-out inventory and customer reports")
+    void benchmark_SequentialVersusFanOut() {
+        assertThat(concurrent.getInventoryAnalytics()).isEqualTo(sequential.getInventoryAnalytics());
+        assertThat(concurrent.getCustomerAnalytics()).isEqualTo(sequential.getCustomerAnalytics());
+
+        report("inventory", sequential::getInventoryAnalytics, concurrent::getInventoryAnalytics);
+        report("customer", sequential::getCustomerAnalytics, concurrent::getCustomerAnalytics);
+    }
+
+    private static void report(String name, Supplier<?> sequential, Supplier<?> concurrent) {
+        double sequentialMillis = medianMillis(sequential);
+        double concurrentMillis = medianMillis(concurrent);
+        System.out.printf("%s report: sequential %.1f ms, fan-out %.1f ms (%.1fx)%n",
+                name, sequentialMillis, concurrentMillis, sequentialMillis / concurrentMillis);
+    }
+
+    private static double medianMillis(Supplier<?> report) {
+        for (int i = 0; i < WARMUP; i++) {
+            report.get();
+        }
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long started = System.nanoTime();
+            report.get();
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+        return nanos[RUNS / 2] / 1e6;
+    }
+}
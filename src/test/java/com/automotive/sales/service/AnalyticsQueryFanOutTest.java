@@ -0,0 +1,113 @@
+package com.automotive.sales.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Analytics Query Fan-Out Tests")
+class AnalyticsQueryFanOutTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+    }
+
+    @Test
+    @DisplayName("Should run the queries of a batch at the same time, each in its own read-only transaction")
+    void await_FanOut_ShouldRunQueriesConcurrently() {
+        // Given: two queries that can only finish together
+        AnalyticsQueryFanOut fanOut = new AnalyticsQueryFanOut(transactionManager, true, 4, 8, 5000, false);
+        CyclicBarrier together = new CyclicBarrier(2);
+        AnalyticsQueryFanOut.Batch batch = fanOut.batch();
+
+        // When
+        AnalyticsQueryFanOut.Pending<Long> first = batch.submit("first", () -> meet(together, 1L));
+        AnalyticsQueryFanOut.Pending<Long> second = batch.submit("second", () -> meet(together, 2L));
+
+        // Then
+        assertThat(batch.await()).isEmpty();
+        assertThat(first.value()).isEqualTo(1L);
+        assertThat(second.value()).isEqualTo(2L);
+        verify(transactionManager, times(2)).getTransaction(argThat(definition -> definition.isReadOnly()));
+        fanOut.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should leave out and cancel the queries that fail or miss the deadline when partial results are on")
+    void await_SlowAndFailingQueries_ShouldReturnPartialResult() throws InterruptedException {
+        // Given
+        AnalyticsQueryFanOut fanOut = new AnalyticsQueryFanOut(transactionManager, true, 4, 8, 200, true);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        AnalyticsQueryFanOut.Batch batch = fanOut.batch();
+
+        // When
+        AnalyticsQueryFanOut.Pending<Long> fast = batch.submit("fast", () -> 7L);
+        AnalyticsQueryFanOut.Pending<Long> slow = batch.submit("slow", () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                cancelled.countDown();
+            }
+            return 8L;
+        });
+        AnalyticsQueryFanOut.Pending<Long> failing = batch.submit("failing", () -> {
+            throw new IllegalStateException("Connection reset");
+        });
+
+        // Then
+        assertThat(batch.await()).containsExactly("slow", "failing");
+        assertThat(fast.value()).isEqualTo(7L);
+        assertThat(slow.value()).isNull();
+        assertThat(failing.value()).isNull();
+        assertThat(cancelled.await(5, TimeUnit.SECONDS)).isTrue();
+        fanOut.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should fail the report on a missing metric when partial results are off, also in sequential mode")
+    void await_Sequential_WithFailureAndNoPartialResults_ShouldThrow() {
+        // Given
+        AnalyticsQueryFanOut fanOut = new AnalyticsQueryFanOut(transactionManager, false, 4, 8, 5000, false);
+        Thread caller = Thread.currentThread();
+        AnalyticsQueryFanOut.Batch batch = fanOut.batch();
+
+        // When
+        AnalyticsQueryFanOut.Pending<Boolean> onCaller = batch.submit("onCaller", () -> Thread.currentThread() == caller);
+        batch.submit("averageCreditScore", () -> {
+            throw new IllegalStateException("Connection reset");
+        });
+
+        // Then
+        assertThatThrownBy(batch::await)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("averageCreditScore");
+        assertThat(onCaller.value()).isTrue();
+        fanOut.shutdown();
+    }
+
+    private static Long meet(CyclicBarrier barrier, Long value) {
+        try {
+            barrier.await(2, TimeUnit.SECONDS);
+            return value;
+        } catch (Exception e) {
+            throw new IllegalStateException("Queries did not run concurrently", e);
+        }
+    }
+}
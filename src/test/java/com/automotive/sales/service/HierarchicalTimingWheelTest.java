@@ -0,0 +1,112 @@
+package com.automotive.sales.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Hierarchical Timing Wheel Tests")
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 1000;
+    private static final long START = 1_700_000_000_123L;
+
+    @Test
+    @DisplayName("Should fire a timer on the first advance at or after its deadline, never before")
+    void advance_ShouldFireAtDeadlineRoundedUpToTick() {
+        // Given
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, START);
+        wheel.schedule("a", START + 2_500);
+        wheel.schedule("b", START - 60_000);
+
+        // When & Then: a deadline already past fires on the next tick
+        assertThat(wheel.advance(START + 999)).containsExactly("b");
+        assertThat(wheel.advance(START + 2_400)).isEmpty();
+        assertThat(wheel.advance(START + 2_900)).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should cascade timers scheduled days ahead down through every level")
+    void advance_WithDistantDeadlines_ShouldCascadeThroughLevels() {
+        // Given: deadlines on each level, including ones straddling level boundaries
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK, START);
+        long[] offsets = {1, 63, 64, 65, 4_095, 4_096, 4_097, 262_143, 262_144, 262_145, 3_000_000,
+                HierarchicalTimingWheel.HORIZON_TICKS - 2};
+        for (long offset : offsets) {
+            wheel.schedule(offset, START + offset * TICK);
+        }
+
+        // When & Then
+        for (long offset : offsets) {
+            assertThat(wheel.advance(START + offset * TICK - TICK)).as("before %d", offset).isEmpty();
+            assertThat(wheel.advance(START + offset * TICK + TICK)).as("at %d", offset).containsExactly(offset);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should drop cancelled timers and move rescheduled ones in constant time")
+    void cancelAndReschedule_ShouldReplaceExistingTimer() {
+        // Given
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, START);
+        wheel.schedule("kept", START + 10_000);
+        wheel.schedule("cancelled", START + 10_000);
+        wheel.schedule("moved", START + 10_000);
+
+        // When
+        boolean cancelled = wheel.cancel("cancelled");
+        wheel.schedule("moved", START + 500_000);
+
+        // Then
+        assertThat(cancelled).isTrue();
+        assertThat(wheel.cancel("cancelled")).isFalse();
+        assertThat(wheel.size()).isEqualTo(2);
+        assertThat(wheel.advance(START + 11_000)).containsExactly("kept");
+        assertThat(wheel.advance(START + 501_000)).containsExactly("moved");
+        assertThatThrownBy(() -> wheel.schedule("late", START + 501_000 + wheel.horizonMillis() + TICK))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should fire random timers exactly when a sorted reference says they are due")
+    void advance_WithRandomSchedule_ShouldMatchReference() {
+        // Given
+        Random random = new Random(42);
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(TICK, START);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        long now = START;
+
+        for (int step = 0; step < 2_000; step++) {
+            // When: a mix of new timers, reschedules and cancels, then a jump of up to about an hour
+            for (int i = 0; i < 20; i++) {
+                int key = random.nextInt(5_000);
+                if (random.nextInt(10) == 0) {
+                    assertThat(wheel.cancel(key)).isEqualTo(deadlines.remove(key) != null);
+                } else {
+                    long deadline = now + (long) (random.nextDouble() * random.nextDouble() * 20_000_000L);
+                    wheel.schedule(key, deadline);
+                    deadlines.put(key, Math.max(deadline, now + 1));
+                }
+            }
+            now += random.nextInt(4_000_000);
+
+            // Then
+            List<Integer> expected = new ArrayList<>();
+            for (Map.Entry<Integer, Long> entry : deadlines.entrySet()) {
+                if (entry.getValue() <= now - now % TICK) {
+                    expected.add(entry.getKey());
+                }
+            }
+            expected.forEach(deadlines::remove);
+            assertThat(wheel.advance(now)).containsExactlyInAnyOrderElementsOf(expected);
+            assertThat(wheel.size()).isEqualTo(deadlines.size());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Vehicle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Inventory Feed Tests")
+class InventoryFeedTest {
+
+    private InventoryFeed feed;
+    private RecordingEmitter emitter;
+
+    @BeforeEach
+    void setUp() {
+        // Flushes are triggered by the tests, the scheduler never fires
+        feed = new InventoryFeed(3_600_000, 3_600_000, 0, 3, 1);
+        emitter = new RecordingEmitter();
+        feed.subscribe(emitter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should merge rapid changes to the same vehicle into one update per flush")
+    void flush_WithRapidChanges_ShouldSendOneMergedUpdatePerVehicle() {
+        // Given
+        Vehicle created = Vehicle.builder().vin("1HGBH41JXMN109186").status(Vehicle.VehicleStatus.AVAILABLE)
+                .sellingPrice(new BigDecimal("28000.00")).build();
+        created.setId(1L);
+        created.setVersion(0L);
+        feed.onVehicleChanged(VehicleChangedEvent.saved(created));
+        feed.onVehicleChanged(VehicleChangedEvent.statusChanged(1L, Vehicle.VehicleStatus.RESERVED));
+        feed.onVehicleChanged(VehicleChangedEvent.statusChanged(2L, Vehicle.VehicleStatus.SOLD));
+        feed.onVehicleChanged(VehicleChangedEvent.statusChanged(2L, Vehicle.VehicleStatus.AVAILABLE));
+        feed.onVehicleChanged(VehicleChangedEvent.removed(3L));
+
+        // When
+        feed.flush();
+
+        // Then
+        List<InventoryFeed.InventoryUpdate> updates = awaitUpdates();
+        assertThat(updates).containsExactly(
+                new InventoryFeed.InventoryUpdate(InventoryFeed.UpdateType.CREATED, 1L, "1HGBH41JXMN109186",
+                        Vehicle.VehicleStatus.RESERVED, new BigDecimal("28000.00")),
+                new InventoryFeed.InventoryUpdate(InventoryFeed.UpdateType.STATUS_CHANGED, 2L, null,
+                        Vehicle.VehicleStatus.AVAILABLE, null),
+                new InventoryFeed.InventoryUpdate(InventoryFeed.UpdateType.REMOVED, 3L, null, null, null));
+    }
+
+    @Test
+    @DisplayName("Should drop the backlog of a subscriber that falls behind and ask it to resync")
+    void flush_WhenSubscriberFallsBehind_ShouldSendResync() {
+        // Given
+        for (long id = 1; id <= 4; id++) {
+            feed.onVehicleChanged(VehicleChangedEvent.statusChanged(id, Vehicle.VehicleStatus.SOLD));
+        }
+
+        // When
+        feed.flush();
+
+        // Then
+        await().atMost(Duration.ofSeconds(5)).until(() -> !emitter.events.isEmpty());
+        assertThat(emitter.events).hasSize(1);
+        assertThat(emitter.events.get(0)).extracting(ResponseBodyEmitter.DataWithMediaType::getData)
+                .anySatisfy(data -> assertThat(data.toString()).contains("event:" + InventoryFeed.RESYNC_EVENT));
+    }
+
+    @Test
+    @DisplayName("Should stay silent for idle subscribers and for vehicles created and removed in one interval")
+    void flush_WithNothingToReport_ShouldNotWrite() throws Exception {
+        // Given
+        Vehicle created = Vehicle.builder().vin("1HGBH41JXMN109186").build();
+        created.setId(1L);
+        created.setVersion(0L);
+        feed.onVehicleChanged(VehicleChangedEvent.saved(created));
+        feed.onVehicleChanged(VehicleChangedEvent.removed(1L));
+
+        // When
+        feed.flush();
+        Thread.sleep(100);
+
+        // Then
+        assertThat(emitter.events).isEmpty();
+        assertThat(feed.subscriberCount()).isEqualTo(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<InventoryFeed.InventoryUpdate> awaitUpdates() {
+        await().atMost(Duration.ofSeconds(5)).until(() -> !emitter.events.isEmpty());
+        assertThat(emitter.events).hasSize(1);
+        return emitter.events.get(0).stream()
+                .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                .filter(List.class::isInstance)
+                .map(data -> (List<InventoryFeed.InventoryUpdate>) data)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<Set<ResponseBodyEmitter.DataWithMediaType>> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            events.add(builder.build());
+        }
+    }
+}
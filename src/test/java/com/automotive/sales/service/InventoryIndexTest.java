@@ -0,0 +1,139 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Inventory Index Tests")
+class InventoryIndexTest {
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @InjectMocks
+    private InventoryIndex inventoryIndex;
+
+    private List<Object[]> rows;
+
+    @BeforeEach
+    void setUp() {
+        rows = new ArrayList<>();
+        rows.add(row(1L, "Toyota", "Camry", 2023, Vehicle.VehicleStatus.AVAILABLE, "28000.00"));
+        rows.add(row(2L, "Honda", "Civic", 2023, Vehicle.VehicleStatus.AVAILABLE, "23000.00"));
+        rows.add(row(3L, "Ford", "F-150", 2022, Vehicle.VehicleStatus.AVAILABLE, "38000.00"));
+        rows.add(row(4L, "Toyota", "Corolla", 2024, Vehicle.VehicleStatus.SOLD, "21000.00"));
+        rows.add(row(5L, "Toyota", "RAV4", 2023, Vehicle.VehicleStatus.AVAILABLE, null));
+    }
+
+    @Test
+    @DisplayName("Should not answer searches before the index is built")
+    void search_BeforeRebuild_ShouldReturnEmpty() {
+        assertThat(inventoryIndex.search(null, null, null, null, null, null, PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should match make case-insensitively by substring, like the JPQL filter")
+    void search_WithPartialMake_ShouldMatchContainingValues() {
+        loadIndex();
+
+        Page<Long> result = inventoryIndex.search("oYo", null, 2023, null, null, null, PageRequest.of(0, 10)).orElseThrow();
+
+        assertThat(result.getContent()).containsExactly(1L, 5L);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should combine status and price range and page in price order")
+    void search_WithPriceRangeSortedByPrice_ShouldPageInPriceOrder() {
+        loadIndex();
+
+        Page<Long> firstPage = inventoryIndex.search(null, null, null, Vehicle.VehicleStatus.AVAILABLE,
+                new BigDecimal("20000"), new BigDecimal("40000"),
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "sellingPrice"))).orElseThrow();
+        Page<Long> secondPage = inventoryIndex.search(null, null, null, Vehicle.VehicleStatus.AVAILABLE,
+                new BigDecimal("20000"), new BigDecimal("40000"),
+                PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "sellingPrice"))).orElseThrow();
+
+        assertThat(firstPage.getContent()).containsExactly(3L, 1L);
+        assertThat(secondPage.getContent()).containsExactly(2L);
+        assertThat(firstPage.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should reflect status changes and removals")
+    void upsertAndRemove_ShouldUpdateBitmaps() {
+        loadIndex();
+        Vehicle sold = Vehicle.builder()
+                .make("Honda").model("Civic").year(2023)
+                .sellingPrice(new BigDecimal("23000.00"))
+                .status(Vehicle.VehicleStatus.SOLD)
+                .condition(Vehicle.VehicleCondition.USED)
+                .build();
+        sold.setId(2L);
+
+        inventoryIndex.upsert(sold);
+        inventoryIndex.remove(3L);
+
+        Page<Long> available = inventoryIndex.search(null, null, null, Vehicle.VehicleStatus.AVAILABLE,
+                null, null, PageRequest.of(0, 10)).orElseThrow();
+        Page<Long> soldHondas = inventoryIndex.search("honda", null, null, Vehicle.VehicleStatus.SOLD,
+                null, null, PageRequest.of(0, 10)).orElseThrow();
+        assertThat(available.getContent()).containsExactly(1L, 5L);
+        assertThat(soldHondas.getContent()).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Should count facets over the vehicles matching the filters")
+    void facets_WithStatusFilter_ShouldCountMatchingVehicles() {
+        loadIndex();
+
+        VehicleFacets facets = inventoryIndex.facets(null, null, null, Vehicle.VehicleStatus.AVAILABLE,
+                null, null).orElseThrow();
+
+        assertThat(facets.getMakes()).containsExactly(Map.entry("Toyota", 2L), Map.entry("Ford", 1L),
+                Map.entry("Honda", 1L));
+        assertThat(facets.getYears()).containsExactly(Map.entry(2023, 3L), Map.entry(2022, 1L));
+        assertThat(facets.getStatuses()).containsExactly(Map.entry(Vehicle.VehicleStatus.AVAILABLE, 4L));
+        assertThat(facets.getPriceRanges()).containsExactly(Map.entry("20000-30000", 2L), Map.entry("30000-40000", 1L));
+    }
+
+    @Test
+    @DisplayName("Should fall back for sorts the index cannot serve")
+    void search_WithUnsupportedSort_ShouldReturnEmpty() {
+        loadIndex();
+
+        Optional<Page<Long>> result = inventoryIndex.search(null, null, null, null, null, null,
+                PageRequest.of(0, 10, Sort.by("mileage")));
+
+        assertThat(result).isEmpty();
+    }
+
+    private void loadIndex() {
+        when(vehicleRepository.findInventoryIndexRows()).thenReturn(rows);
+        inventoryIndex.rebuild();
+    }
+
+    private Object[] row(Long id, String make, String model, Integer year, Vehicle.VehicleStatus status, String price) {
+        return new Object[]{id, make, model, year, status, Vehicle.VehicleCondition.USED,
+                price != null ? new BigDecimal(price) : null};
+    }
+}
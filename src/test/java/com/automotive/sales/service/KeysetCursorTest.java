@@ -0,0 +1,91 @@
+package com.automotive.sales.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Keyset Cursor Tests")
+class KeysetCursorTest {
+
+    @Test
+    @DisplayName("Should decode the sort key and id a token was encoded with")
+    void decode_EncodedToken_ShouldRoundTrip() {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 9, 30, 15, 123_456_000);
+
+        // When
+        KeysetCursor cursor = KeysetCursor.decode(KeysetCursor.encode(createdAt, 42L));
+        KeysetCursor piped = KeysetCursor.decode(KeysetCursor.encode("a|b", 7L));
+
+        // Then
+        assertThat(cursor.<LocalDateTime>getKeyAs(LocalDateTime::parse)).isEqualTo(createdAt);
+        assertThat(cursor.getId()).isEqualTo(42L);
+        assertThat(piped.getKeyAs(Function.identity())).isEqualTo("a|b");
+        assertThat(piped.getId()).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("Should reject a token that is not a cursor or whose key does not parse")
+    void decode_InvalidToken_ShouldThrow() {
+        // Given
+        String dateToken = KeysetCursor.encode(LocalDate.of(2024, 3, 1), 1L);
+
+        // When / Then
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor!"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid pagination cursor");
+        assertThatThrownBy(() -> KeysetCursor.decode(encode("2024-03-01|x")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(encode("2024-03-01")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(dateToken).getKeyAs(LocalDateTime::parse))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid pagination cursor key");
+    }
+
+    @Test
+    @DisplayName("Should point after the last row and return no token on the last slice")
+    void next_Slice_ShouldPointAfterLastRow() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 2);
+        Slice<Long> middle = new SliceImpl<>(List.of(9L, 8L), pageable, true);
+        Slice<Long> last = new SliceImpl<>(List.of(7L), pageable, false);
+
+        // When
+        String next = KeysetCursor.next(middle, id -> "key" + id, Function.identity());
+
+        // Then
+        KeysetCursor cursor = KeysetCursor.decode(next);
+        assertThat(cursor.getKeyAs(Function.identity())).isEqualTo("key8");
+        assertThat(cursor.getId()).isEqualTo(8L);
+        assertThat(KeysetCursor.next(last, id -> "key" + id, Function.identity())).isNull();
+    }
+
+    @Test
+    @DisplayName("Should accept slice sizes from 1 up to the maximum only")
+    void slice_Size_ShouldBeBounded() {
+        // When / Then
+        assertThat(KeysetCursor.slice(1).getPageSize()).isEqualTo(1);
+        assertThat(KeysetCursor.slice(KeysetCursor.MAX_SLICE_SIZE).getPageSize()).isEqualTo(KeysetCursor.MAX_SLICE_SIZE);
+        assertThatThrownBy(() -> KeysetCursor.slice(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.slice(KeysetCursor.MAX_SLICE_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Slice size must be between 1 and 100");
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
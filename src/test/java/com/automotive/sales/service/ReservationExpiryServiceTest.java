@@ -0,0 +1,198 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Customer;
+import com.automotive.sales.model.Sale;
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.repository.CustomerRepository;
+import com.automotive.sales.repository.SaleRepository;
+import com.automotive.sales.repository.SalesDailyRollupRepository;
+import com.automotive.sales.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {"app.reservation.ttl-minutes=60", "app.reservation.batch-size=2"})
+@Import({ReservationExpiryService.class, SaleService.class, SalesRollupService.class, VehicleService.class,
+        InventoryIndex.class, VehicleChangePublisher.class, VehicleStatisticsSnapshot.class, VehicleSearchIndex.class})
+@DisplayName("Reservation Expiry Service Tests")
+class ReservationExpiryServiceTest {
+
+    private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(60);
+    private static final long TICK_MILLIS = 1000;
+
+    @Autowired
+    private ReservationExpiryService reservationExpiryService;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private SalesDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        saleRepository.deleteAllInBatch();
+        rollupRepository.deleteAllInBatch();
+        vehicleRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+        reservationExpiryService.rebuild();
+        customerId = customerRepository.save(Customer.builder()
+                .firstName("Jane").lastName("Doe").email("jane@example.com").build()).getId();
+    }
+
+    @Test
+    @DisplayName("Should release stalled holds and cancel their pending sales, keeping approved deals")
+    void expire_AfterTtl_ShouldReleaseVehiclesAndCancelPendingSales() {
+        // Given: a pending deal, an approved deal and a plain desk hold
+        Long pendingVehicle = vehicle(0);
+        Long pendingSale = sell(pendingVehicle);
+        Long approvedVehicle = vehicle(1);
+        saleService.approveSale(sell(approvedVehicle));
+        Long heldVehicle = vehicle(2);
+        vehicleService.reserveVehicle(heldVehicle);
+        Long availableVehicle = vehicle(3);
+        long now = System.currentTimeMillis();
+
+        // When
+        int early = reservationExpiryService.expire(now + TTL_MILLIS - 10 * TICK_MILLIS);
+        int released = reservationExpiryService.expire(now + TTL_MILLIS + 2 * TICK_MILLIS);
+
+        // Then
+        assertThat(early).isZero();
+        assertThat(released).isEqualTo(2);
+        assertThat(status(pendingVehicle)).isEqualTo(Vehicle.VehicleStatus.AVAILABLE);
+        assertThat(status(heldVehicle)).isEqualTo(Vehicle.VehicleStatus.AVAILABLE);
+        assertThat(status(approvedVehicle)).isEqualTo(Vehicle.VehicleStatus.RESERVED);
+        assertThat(status(availableVehicle)).isEqualTo(Vehicle.VehicleStatus.AVAILABLE);
+        assertThat(saleRepository.findById(pendingSale)).hasValueSatisfying(sale -> {
+            assertThat(sale.getStatus()).isEqualTo(Sale.SaleStatus.CANCELLED);
+            assertThat(sale.getNotes()).isEqualTo("Cancellation reason: " + ReservationExpiryService.EXPIRY_REASON);
+        });
+        assertThat(reservationExpiryService.activeHolds()).isZero();
+
+        // The cancelled sale is rolled up exactly like a manual cancellation
+        assertThat(rollupRepository.findAll()).singleElement().satisfies(row -> {
+            assertThat(row.getId().getStatus()).isEqualTo(Sale.SaleStatus.CANCELLED);
+            assertThat(row.getSaleCount()).isEqualTo(1);
+            assertThat(row.getProfit()).isEqualByComparingTo("3500.00");
+        });
+    }
+
+    @Test
+    @DisplayName("Should drop holds when the deal is approved or the vehicle leaves RESERVED")
+    void events_ShouldScheduleAndCancelHolds() {
+        // Given
+        Long approvedVehicle = vehicle(0);
+        Long cancelledVehicle = vehicle(1);
+        Long approvedSale = sell(approvedVehicle);
+        Long cancelledSale = sell(cancelledVehicle);
+        assertThat(reservationExpiryService.activeHolds()).isEqualTo(2);
+
+        // When
+        saleService.approveSale(approvedSale);
+        saleService.cancelSale(cancelledSale, "Customer walked");
+
+        // Then
+        assertThat(reservationExpiryService.isHeld(approvedVehicle)).isFalse();
+        assertThat(reservationExpiryService.isHeld(cancelledVehicle)).isFalse();
+        assertThat(reservationExpiryService.activeHolds()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should rebuild holds from the database and reschedule holds renewed since they fired")
+    void rebuild_ShouldLoadHoldsAndRecheckActivityBeforeReleasing() {
+        // Given: holds the wheel does not know about
+        Long stalled = vehicle(0);
+        Long touched = vehicle(1);
+        Long approved = vehicle(2);
+        saleService.approveSale(sell(approved));
+        LocalDateTime start = LocalDateTime.now();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status ->
+                vehicleRepository.updateStatuses(List.of(stalled, touched), Vehicle.VehicleStatus.RESERVED, start));
+        long now = System.currentTimeMillis();
+        int loaded = reservationExpiryService.rebuild();
+
+        // When: one hold sees activity the wheel is not told about before it fires
+        transactionTemplate.executeWithoutResult(status -> vehicleRepository.updateStatuses(List.of(touched),
+                Vehicle.VehicleStatus.RESERVED, start.plusMinutes(30)));
+        int released = reservationExpiryService.expire(now + TTL_MILLIS + 2 * TICK_MILLIS);
+
+        // Then
+        assertThat(loaded).isEqualTo(2);
+        assertThat(released).isEqualTo(1);
+        assertThat(status(stalled)).isEqualTo(Vehicle.VehicleStatus.AVAILABLE);
+        assertThat(status(touched)).isEqualTo(Vehicle.VehicleStatus.RESERVED);
+        assertThat(reservationExpiryService.isHeld(touched)).isTrue();
+        assertThat(reservationExpiryService.expire(now + TTL_MILLIS + TimeUnit.MINUTES.toMillis(31))).isEqualTo(1);
+        assertThat(status(touched)).isEqualTo(Vehicle.VehicleStatus.AVAILABLE);
+        assertThat(status(approved)).isEqualTo(Vehicle.VehicleStatus.RESERVED);
+    }
+
+    private Long vehicle(int i) {
+        return vehicleRepository.save(Vehicle.builder()
+                .vin(String.format("HOLD%013d", i))
+                .make("Toyota")
+                .model("Camry")
+                .year(2023)
+                .purchasePrice(new BigDecimal("24000.00"))
+                .sellingPrice(new BigDecimal("28000.00"))
+                .build()).getId();
+    }
+
+    private Long sell(Long vehicleId) {
+        Vehicle vehicleRef = new Vehicle();
+        vehicleRef.setId(vehicleId);
+        Customer customerRef = new Customer();
+        customerRef.setId(customerId);
+        return saleService.createSaleByReference(Sale.builder()
+                .vehicle(vehicleRef)
+                .customer(customerRef)
+                .saleDate(LocalDate.of(2024, 3, 1))
+                .salePrice(new BigDecimal("27500.00"))
+                .build()).getId();
+    }
+
+    private Vehicle.VehicleStatus status(Long vehicleId) {
+        return vehicleRepository.findById(vehicleId).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,206 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Customer;
+import com.automotive.sales.model.Sale;
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.repository.CustomerRepository;
+import com.automotive.sales.repository.SaleBackfillCheckpointRepository;
+import com.automotive.sales.repository.SaleRepository;
+import com.automotive.sales.repository.SalesDailyRollupRepository;
+import com.automotive.sales.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {"app.backfill.chunk-size=2", "app.backfill.parallelism=2"})
+@Import({SaleBackfillService.class, SalesRollupService.class, VehicleChangePublisher.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@DisplayName("Sale Backfill Service Tests")
+class SaleBackfillServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2021, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2023, 12, 31);
+
+    @Autowired
+    private SaleBackfillService saleBackfillService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private SalesDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private SaleBackfillCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @BeforeEach
+    void setUp() {
+        saleRepository.deleteAllInBatch();
+        rollupRepository.deleteAllInBatch();
+        checkpointRepository.deleteAllInBatch();
+        vehicleRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+        for (int i = 0; i < 4; i++) {
+            vehicleRepository.save(Vehicle.builder()
+                    .vin(vin(i))
+                    .make("Toyota")
+                    .model("Camry")
+                    .year(2020)
+                    .purchasePrice(new BigDecimal("20000.00"))
+                    .sellingPrice(new BigDecimal("25000.00"))
+                    .build());
+        }
+        customerRepository.save(Customer.builder()
+                .firstName("Jane").lastName("Doe").email("jane@example.com").build());
+        customerRepository.save(Customer.builder()
+                .firstName("John").lastName("Roe").email("john@example.com").isActive(false).build());
+    }
+
+    @Test
+    @DisplayName("Should load final sales by VIN and email and report rejected rows by line")
+    void backfillNdjson_WithMixedRows_ShouldResolveKeysAndReportPerRowErrors() {
+        // Given
+        String ndjson = String.join("\n",
+                row(0, "jane@example.com", "2021-03-04", "24000.00", "COMPLETED"),
+                row(1, "john@example.com", "2022-07-19", "26000.00", "CANCELLED"),
+                row(9, "jane@example.com", "2022-08-01", "26000.00", "COMPLETED"),
+                row(2, "nobody@example.com", "2022-08-02", "26000.00", "COMPLETED"),
+                "",
+                row(3, "jane@example.com", "2023-01-10", "26000.00", "PENDING"),
+                "{\"vin\":\"" + vin(3) + "\",\"customerEmail\":\"jane@example.com\",\"salePrice\":26000.00}",
+                "{not json",
+                "{\"vin\":\"" + vin(2) + "\",\"customerEmail\":\"john@example.com\",\"saleDate\":\"2023-02-14\"," +
+                        "\"salePrice\":27500.00,\"commissionRate\":2.00,\"salespersonEmail\":\"alex@example.com\"}");
+
+        // When
+        SaleBackfillService.BackfillResult result = saleBackfillService.backfillNdjson("dealer-1", stream(ndjson));
+
+        // Then
+        assertThat(result.getTotalRows()).isEqualTo(8);
+        assertThat(result.getImportedCount()).isEqualTo(3);
+        assertThat(result.getRejectedCount()).isEqualTo(5);
+        assertThat(result.getLastLine()).isEqualTo(9);
+        assertThat(result.getErrors()).extracting(SaleBackfillService.RowError::getLineNumber)
+                .containsExactly(3L, 4L, 6L, 7L, 8L);
+        assertThat(result.getErrors()).extracting(SaleBackfillService.RowError::getMessage)
+                .startsWith("Unknown VIN", "Unknown customer email",
+                        "Only completed, cancelled or refunded sales can be backfilled", "Sale date is required")
+                .last().asString().startsWith("Unparseable row");
+
+        assertThat(status(0)).isEqualTo(Vehicle.VehicleStatus.SOLD);
+        assertThat(status(1)).isEqualTo(Vehicle.VehicleStatus.AVAILABLE);
+        assertThat(status(2)).isEqualTo(Vehicle.VehicleStatus.SOLD);
+        assertThat(saleRepository.findByStatus(Sale.SaleStatus.COMPLETED))
+                .filteredOn(sale -> sale.getSaleDate().equals(LocalDate.of(2023, 2, 14)))
+                .singleElement().satisfies(sale -> {
+                    assertThat(sale.getIsFinalized()).isTrue();
+                    assertThat(sale.getCommissionAmount()).isEqualByComparingTo("550.00");
+                });
+    }
+
+    @Test
+    @DisplayName("Should roll up backfilled sales exactly like a rebuild from the sales table")
+    void backfillNdjson_ShouldIncrementDailyRollup() {
+        // Given
+        String ndjson = String.join("\n",
+                row(0, "jane@example.com", "2021-03-04", "24000.00", "COMPLETED"),
+                row(1, "jane@example.com", "2021-03-04", "26000.00", "COMPLETED"),
+                row(2, "john@example.com", "2021-03-04", "21000.00", "CANCELLED"),
+                row(3, "john@example.com", "2022-11-30", "23000.00", "COMPLETED"));
+
+        // When
+        saleBackfillService.backfillNdjson("dealer-1", stream(ndjson));
+        BigDecimal revenue = salesRollupService.getRevenueByDateRange(FROM, TO);
+        BigDecimal profit = salesRollupService.getProfitByDateRange(FROM, TO);
+        List<Object[]> monthly = salesRollupService.getMonthlySalesReport();
+        salesRollupService.rebuild();
+
+        // Then
+        assertThat(revenue).isEqualByComparingTo("73000.00");
+        assertThat(profit).isEqualByComparingTo("13000.00");
+        assertThat(salesRollupService.getRevenueByDateRange(FROM, TO)).isEqualByComparingTo(revenue);
+        assertThat(salesRollupService.getProfitByDateRange(FROM, TO)).isEqualByComparingTo(profit);
+        assertThat(monthly).extracting(row -> List.of(row[0], row[1], row[2]))
+                .containsExactly(List.of(2021, 3, 2L), List.of(2022, 11, 1L));
+    }
+
+    @Test
+    @DisplayName("Should resume after the last committed line when a job is run again")
+    void backfillNdjson_WhenRunAgain_ShouldResumeFromCheckpoint() {
+        // Given: the first run only received part of the file
+        List<String> rows = List.of(
+                row(0, "jane@example.com", "2021-03-04", "24000.00", "COMPLETED"),
+                row(1, "jane@example.com", "2021-05-11", "26000.00", "COMPLETED"),
+                row(2, "john@example.com", "2022-01-20", "21000.00", "COMPLETED"),
+                row(3, "john@example.com", "2022-11-30", "23000.00", "CANCELLED"));
+        saleBackfillService.backfillNdjson("dealer-1", stream(String.join("\n", rows.subList(0, 2))));
+
+        // When
+        SaleBackfillService.BackfillResult resumed =
+                saleBackfillService.backfillNdjson("dealer-1", stream(String.join("\n", rows)));
+        SaleBackfillService.BackfillResult finished =
+                saleBackfillService.backfillNdjson("dealer-1", stream(String.join("\n", rows)));
+
+        // Then
+        assertThat(resumed.getResumedAfterLine()).isEqualTo(2);
+        assertThat(resumed.getImportedCount()).isEqualTo(2);
+        assertThat(finished.getResumedAfterLine()).isEqualTo(4);
+        assertThat(finished.getTotalRows()).isZero();
+        assertThat(saleRepository.count()).isEqualTo(4);
+        assertThat(checkpointRepository.findById("dealer-1")).hasValueSatisfying(checkpoint -> {
+            assertThat(checkpoint.getLastLine()).isEqualTo(4);
+            assertThat(checkpoint.getImportedCount()).isEqualTo(4);
+        });
+        assertThat(salesRollupService.getRevenueByDateRange(FROM, TO)).isEqualByComparingTo("71000.00");
+    }
+
+    private Vehicle.VehicleStatus status(int i) {
+        return vehicleRepository.findByVin(vin(i)).orElseThrow().getStatus();
+    }
+
+    private static String row(int vehicle, String email, String saleDate, String salePrice, String status) {
+        return "{\"vin\":\"" + vin(vehicle) + "\",\"customerEmail\":\"" + email + "\",\"saleDate\":\"" + saleDate +
+                "\",\"salePrice\":" + salePrice + ",\"status\":\"" + status + "\",\"paymentMethod\":\"FINANCING\"}";
+    }
+
+    private static String vin(int i) {
+        return String.format("HIST%013d", i);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,168 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.export.SaleColumnarReader;
+import com.automotive.sales.export.SaleExportColumn;
+import com.automotive.sales.model.Customer;
+import com.automotive.sales.model.Sale;
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.repository.CustomerRepository;
+import com.automotive.sales.repository.SaleExportWatermarkRepository;
+import com.automotive.sales.repository.SaleRepository;
+import com.automotive.sales.repository.SalesDailyRollupRepository;
+import com.automotive.sales.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {"app.export.row-group-size=2", "app.export.watermark-lag-ms=0"})
+@Import(SaleExportService.class)
+@DisplayName("Sale Export Service Tests")
+class SaleExportServiceTest {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void exportDirectory(DynamicPropertyRegistry registry) {
+        registry.add("app.export.directory", directory::toString);
+    }
+
+    @Autowired
+    private SaleExportService saleExportService;
+
+    @Autowired
+    private SaleExportWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private SalesDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        saleRepository.deleteAllInBatch();
+        rollupRepository.deleteAllInBatch();
+        watermarkRepository.deleteAllInBatch();
+        vehicleRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+        customer = customerRepository.save(Customer.builder()
+                .firstName("Jane").lastName("Doe").email("jane@example.com").build());
+    }
+
+    @Test
+    @DisplayName("Should export new sales with their keys, then only the sales modified since the watermark")
+    void export_Incremental_ShouldWriteSalesModifiedSinceLastRun() {
+        // Given
+        List<Sale> sales = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            sales.add(sale(i));
+        }
+
+        // When
+        SaleExportService.ExportResult first = saleExportService.export("bi");
+        SaleExportService.ExportResult unchanged = saleExportService.export("bi");
+        Sale modified = sales.get(0);
+        modified.setStatus(Sale.SaleStatus.CANCELLED);
+        saleRepository.save(modified);
+        SaleExportService.ExportResult second = saleExportService.export("bi");
+
+        // Then
+        assertThat(first.getRowCount()).isEqualTo(3);
+        assertThat(column(first, SaleExportColumn.SALE_ID))
+                .containsExactlyElementsOf(sales.stream().map(Sale::getId).toList());
+        assertThat(column(first, SaleExportColumn.VIN)).containsExactly(vin(0), vin(1), vin(2));
+        assertThat(column(first, SaleExportColumn.CUSTOMER_ID)).containsOnly(customer.getId());
+        assertThat(column(first, SaleExportColumn.PAYMENT_METHOD))
+                .containsExactly(Sale.PaymentMethod.CASH, Sale.PaymentMethod.FINANCING, Sale.PaymentMethod.CASH);
+
+        assertThat(unchanged.getRowCount()).isZero();
+        assertThat(unchanged.getFile()).isNull();
+
+        assertThat(second.getRowCount()).isEqualTo(1);
+        assertThat(second.getExportedSince()).isEqualTo(first.getWatermark());
+        assertThat(second.getTotalExported()).isEqualTo(4);
+        assertThat(column(second, SaleExportColumn.SALE_ID)).containsExactly(modified.getId());
+        assertThat(column(second, SaleExportColumn.STATUS)).containsExactly(Sale.SaleStatus.CANCELLED);
+        assertThat(Path.of(second.getFile()).getFileName().toString()).startsWith("bi-");
+        assertThat(watermarkRepository.findById("bi")).hasValueSatisfying(watermark ->
+                assertThat(watermark.getLastSaleId()).isEqualTo(modified.getId()));
+    }
+
+    @Test
+    @DisplayName("Should reject export names that are not plain file name parts")
+    void export_InvalidName_ShouldThrow() throws Exception {
+        assertThatThrownBy(() -> saleExportService.export("../bi"))
+                .isInstanceOf(IllegalArgumentException.class);
+        try (var files = Files.list(directory)) {
+            assertThat(files.map(Path::toString)).noneMatch(name -> name.endsWith(".tmp"));
+        }
+    }
+
+    private List<Object> column(SaleExportService.ExportResult result, SaleExportColumn column) {
+        List<Object> values = new ArrayList<>();
+        try (SaleColumnarReader reader = SaleColumnarReader.open(Path.of(result.getFile()))) {
+            for (int group = 0; group < reader.rowGroupCount(); group++) {
+                values.addAll(Arrays.asList(reader.column(group, column)));
+            }
+        }
+        return values;
+    }
+
+    private Sale sale(int i) {
+        Vehicle vehicle = vehicleRepository.save(Vehicle.builder()
+                .vin(vin(i))
+                .make("Toyota")
+                .model("Camry")
+                .year(2023)
+                .purchasePrice(new BigDecimal("24000.00"))
+                .sellingPrice(new BigDecimal("28000.00"))
+                .status(Vehicle.VehicleStatus.SOLD)
+                .build());
+        return saleRepository.save(Sale.builder()
+                .vehicle(vehicle)
+                .customer(customer)
+                .saleDate(LocalDate.of(2024, 3, 1).plusDays(i))
+                .salePrice(new BigDecimal("27500.00"))
+                .paymentMethod(i == 1 ? Sale.PaymentMethod.FINANCING : Sale.PaymentMethod.CASH)
+                .status(Sale.SaleStatus.COMPLETED)
+                .build());
+    }
+
+    private static String vin(int i) {
+        return String.format("EXPORT%011d", i);
+    }
+}
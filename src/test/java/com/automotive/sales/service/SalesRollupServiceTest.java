@@ -0,0 +1,196 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Customer;
+import com.automotive.sales.model.Sale;
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.repository.CustomerRepository;
+import com.automotive.sales.repository.SaleRepository;
+import com.automotive.sales.repository.SalesDailyRollupRepository;
+import com.automotive.sales.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SaleService.class, SalesRollupService.class, VehicleService.class, InventoryIndex.class,
+        VehicleChangePublisher.class, VehicleStatisticsSnapshot.class, VehicleSearchIndex.class})
+@DisplayName("Sales Rollup Service Tests")
+class SalesRollupServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 12, 31);
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private SalesDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        saleRepository.deleteAllInBatch();
+        rollupRepository.deleteAllInBatch();
+        vehicleRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+        customerId = customerRepository.save(Customer.builder()
+                .firstName("Test").lastName("Buyer").email("buyer@example.com").build()).getId();
+    }
+
+    @Test
+    @DisplayName("Should serve the same revenue, profit and monthly figures as the sales table")
+    void reports_AfterCompletingAndCancelling_ShouldMatchSalesTable() {
+        // Given
+        complete(sell(0, "27000.00", "24000.00", LocalDate.of(2024, 3, 5), "alex@example.com"));
+        complete(sell(1, "31000.00", "26500.00", LocalDate.of(2024, 3, 5), "alex@example.com"));
+        complete(sell(2, "19000.00", null, LocalDate.of(2024, 4, 18), null));
+        saleService.cancelSale(sell(3, "45000.00", "40000.00", LocalDate.of(2024, 4, 20), "maria@example.com"),
+                "Financing declined");
+        sell(4, "22000.00", "20000.00", LocalDate.of(2024, 4, 21), "maria@example.com");
+
+        // Then
+        assertReportsMatchSalesTable();
+        assertThat(rollupRepository.count()).isEqualTo(3);
+        assertThat(salesRollupService.getMonthlySalesReport())
+                .extracting(row -> List.of(row[0], row[1], row[2]))
+                .containsExactly(List.of(2024, 3, 2L), List.of(2024, 4, 1L));
+    }
+
+    @Test
+    @DisplayName("Should rebuild the same rollup from the sales table")
+    void rebuild_ShouldMatchIncrementalRollup() {
+        // Given
+        complete(sell(0, "27000.00", "24000.00", LocalDate.of(2024, 3, 5), "alex@example.com"));
+        complete(sell(1, "31000.00", "26500.00", LocalDate.of(2024, 5, 9), "alex@example.com"));
+        saleService.cancelSale(sell(2, "45000.00", "40000.00", LocalDate.of(2024, 5, 9), null), "No show");
+        BigDecimal revenue = salesRollupService.getRevenueByDateRange(FROM, TO);
+        BigDecimal profit = salesRollupService.getProfitByDateRange(FROM, TO);
+
+        // When
+        int rows = salesRollupService.rebuild();
+
+        // Then
+        assertThat(rows).isEqualTo(3);
+        assertThat(salesRollupService.getRevenueByDateRange(FROM, TO)).isEqualByComparingTo(revenue);
+        assertThat(salesRollupService.getProfitByDateRange(FROM, TO)).isEqualByComparingTo(profit);
+        assertReportsMatchSalesTable();
+    }
+
+    @Test
+    @DisplayName("Should move a cancelled sale between rollup rows when it is edited")
+    void updateSale_OnCancelledSale_ShouldMoveItsContribution() {
+        // Given
+        Long saleId = sell(0, "27000.00", "24000.00", LocalDate.of(2024, 3, 5), "alex@example.com");
+        Sale cancelled = saleService.cancelSale(saleId, "Changed mind");
+        Sale details = Sale.builder()
+                .saleDate(LocalDate.of(2024, 3, 6))
+                .salePrice(new BigDecimal("26000.00"))
+                .paymentMethod(Sale.PaymentMethod.CASH)
+                .salespersonEmail(cancelled.getSalespersonEmail())
+                .build();
+
+        // When
+        saleService.updateSale(saleId, details);
+
+        // Then: the emptied row of the old date stays behind with zero totals
+        assertThat(rollupRepository.findAll()).filteredOn(row -> row.getSaleCount() > 0)
+                .singleElement().satisfies(row -> {
+                    assertThat(row.getId().getSaleDate()).isEqualTo(LocalDate.of(2024, 3, 6));
+                    assertThat(row.getSaleCount()).isEqualTo(1L);
+                    assertThat(row.getRevenue()).isEqualByComparingTo("26000.00");
+                });
+    }
+
+    @Test
+    @DisplayName("Should reject cancelling a cancelled sale and count it in the rollup once")
+    void cancelSale_AlreadyCancelled_ShouldNotCountTwice() {
+        // Given
+        Long saleId = sell(0, "27000.00", "24000.00", LocalDate.of(2024, 3, 5), "alex@example.com");
+        saleService.cancelSale(saleId, "Changed mind");
+
+        // When / Then
+        assertThatThrownBy(() -> saleService.cancelSale(saleId, "Changed mind again"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Sale is already cancelled");
+        assertThat(rollupRepository.findAll()).singleElement().satisfies(row -> {
+            assertThat(row.getId().getStatus()).isEqualTo(Sale.SaleStatus.CANCELLED);
+            assertThat(row.getSaleCount()).isEqualTo(1L);
+            assertThat(row.getRevenue()).isEqualByComparingTo("27000.00");
+        });
+    }
+
+    private void assertReportsMatchSalesTable() {
+        assertThat(salesRollupService.getRevenueByDateRange(FROM, TO))
+                .isEqualByComparingTo(saleRepository.getRevenueByDateRange(FROM, TO));
+        assertThat(salesRollupService.getProfitByDateRange(FROM, TO))
+                .isEqualByComparingTo(saleRepository.getProfitByDateRange(FROM, TO));
+        assertThat(salesRollupService.getTotalRevenue()).isEqualByComparingTo(saleRepository.getTotalRevenue());
+        assertThat(salesRollupService.getTotalProfit()).isEqualByComparingTo(saleRepository.getTotalProfit());
+        List<Object[]> expected = saleRepository.getMonthlySalesReport();
+        List<Object[]> actual = salesRollupService.getMonthlySalesReport();
+        assertThat(actual).hasSameSizeAs(expected);
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(actual.get(i)[0]).isEqualTo(expected.get(i)[0]);
+            assertThat(actual.get(i)[1]).isEqualTo(expected.get(i)[1]);
+            assertThat(actual.get(i)[2]).isEqualTo(expected.get(i)[2]);
+            assertThat((BigDecimal) actual.get(i)[3]).isEqualByComparingTo((BigDecimal) expected.get(i)[3]);
+        }
+    }
+
+    private Long sell(int i, String salePrice, String purchasePrice, LocalDate saleDate, String salesperson) {
+        Vehicle vehicle = vehicleRepository.save(Vehicle.builder()
+                .vin(String.format("ROLLUP%011d", i))
+                .make("Toyota")
+                .model("Camry")
+                .year(2023)
+                .purchasePrice(purchasePrice != null ? new BigDecimal(purchasePrice) : null)
+                .sellingPrice(new BigDecimal(salePrice))
+                .build());
+        Vehicle vehicleRef = new Vehicle();
+        vehicleRef.setId(vehicle.getId());
+        Customer customerRef = new Customer();
+        customerRef.setId(customerId);
+        return saleService.createSaleByReference(Sale.builder()
+                .vehicle(vehicleRef)
+                .customer(customerRef)
+                .saleDate(saleDate)
+                .salePrice(new BigDecimal(salePrice))
+                .salespersonEmail(salesperson)
+                .commissionRate(new BigDecimal("2.50"))
+                .build()).getId();
+    }
+
+    private void complete(Long saleId) {
+        saleService.approveSale(saleId);
+        saleService.completeSale(saleId);
+    }
+}
@@ -0,0 +1,180 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Sale;
+import com.automotive.sales.repository.SalesDailyRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Salesperson Leaderboard Tests")
+class SalespersonLeaderboardTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Mock
+    private SalesDailyRollupRepository rollupRepository;
+
+    @Mock
+    private AnalyticsCache analyticsCache;
+
+    private SalespersonLeaderboard leaderboard;
+
+    private List<Object[]> totals;
+
+    private List<Object[]> dailyTotals;
+
+    @BeforeEach
+    void setUp() {
+        totals = new ArrayList<>();
+        totals.add(new Object[]{"alex@example.com", 10L, new BigDecimal("300000.00")});
+        totals.add(new Object[]{"sam@example.com", 4L, new BigDecimal("120000.00")});
+        totals.add(new Object[]{"", 2L, new BigDecimal("50000.00")});
+        dailyTotals = new ArrayList<>();
+        dailyTotals.add(new Object[]{"sam@example.com", TODAY, 2L, new BigDecimal("60000.00")});
+        dailyTotals.add(new Object[]{"alex@example.com", TODAY, 1L, new BigDecimal("30000.00")});
+        when(rollupRepository.getSalespersonTotals(Sale.SaleStatus.COMPLETED)).thenReturn(totals);
+        when(rollupRepository.getSalespersonDailyTotals(eq(Sale.SaleStatus.COMPLETED), any(), any()))
+                .thenReturn(dailyTotals);
+        leaderboard = new SalespersonLeaderboard(rollupRepository, analyticsCache, 3_600_000);
+    }
+
+    @Test
+    @DisplayName("Should rank each window by revenue from the loaded rollup totals")
+    void top_ShouldRankWindowsByRevenue() {
+        // When
+        List<SalespersonLeaderboard.Standing> today = leaderboard.top(SalespersonLeaderboard.Window.DAY, 10);
+        List<SalespersonLeaderboard.Standing> allTime = leaderboard.top(SalespersonLeaderboard.Window.ALL_TIME, 10);
+
+        // Then: sales without a salesperson are not ranked
+        assertThat(today).extracting(SalespersonLeaderboard.Standing::getSalespersonEmail)
+                .containsExactly("sam@example.com", "alex@example.com");
+        assertThat(today.get(0).getAverageSaleValue()).isEqualByComparingTo("30000.00");
+        assertThat(allTime).extracting(SalespersonLeaderboard.Standing::getRank,
+                        SalespersonLeaderboard.Standing::getSalespersonEmail, SalespersonLeaderboard.Standing::getSalesCount)
+                .containsExactly(tuple(1, "alex@example.com", 10L), tuple(2, "sam@example.com", 4L));
+        assertThatThrownBy(() -> leaderboard.top(SalespersonLeaderboard.Window.DAY, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(rollupRepository, times(1)).getSalespersonTotals(Sale.SaleStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("Should add committed completions to their windows and keep only the top k")
+    void onSaleChanged_ShouldUpdateRunningTotals() {
+        // Given
+        leaderboard.reconcile();
+        List<SalespersonLeaderboard.Standing> before = leaderboard.top(SalespersonLeaderboard.Window.DAY, 1);
+
+        // When: a completion today, an old one imported by the backfill and a cancellation
+        leaderboard.onSaleChanged(event(SaleChangedEvent.Type.COMPLETED, Sale.SaleStatus.COMPLETED,
+                "alex@example.com", TODAY, "45000.00"));
+        leaderboard.onSaleChanged(event(SaleChangedEvent.Type.IMPORTED, Sale.SaleStatus.COMPLETED,
+                "kim@example.com", TODAY.minusYears(2), "500000.00"));
+        leaderboard.onSaleChanged(event(SaleChangedEvent.Type.CANCELLED, Sale.SaleStatus.CANCELLED,
+                "sam@example.com", TODAY, "90000.00"));
+
+        // Then
+        assertThat(before).extracting(SalespersonLeaderboard.Standing::getSalespersonEmail)
+                .containsExactly("sam@example.com");
+        assertThat(leaderboard.top(SalespersonLeaderboard.Window.DAY, 1)).singleElement().satisfies(standing -> {
+            assertThat(standing.getSalespersonEmail()).isEqualTo("alex@example.com");
+            assertThat(standing.getSalesCount()).isEqualTo(2);
+            assertThat(standing.getTotalRevenue()).isEqualByComparingTo("75000.00");
+        });
+        assertThat(leaderboard.top(SalespersonLeaderboard.Window.MONTH, 5))
+                .extracting(SalespersonLeaderboard.Standing::getSalespersonEmail)
+                .containsExactly("alex@example.com", "sam@example.com");
+        assertThat(leaderboard.allTime()).extracting(SalespersonLeaderboard.Standing::getSalespersonEmail)
+                .containsExactly("kim@example.com", "alex@example.com", "sam@example.com", null);
+    }
+
+    @Test
+    @DisplayName("Should replace drifted totals with the rollup's on reconciliation")
+    void reconcile_WithDrift_ShouldReloadAndReportIt() {
+        // Given: a completion the rollup does not know about
+        leaderboard.reconcile();
+        leaderboard.onSaleChanged(event(SaleChangedEvent.Type.COMPLETED, Sale.SaleStatus.COMPLETED,
+                "sam@example.com", TODAY, "1000000.00"));
+        assertThat(leaderboard.top(SalespersonLeaderboard.Window.WEEK, 1).get(0).getSalespersonEmail())
+                .isEqualTo("sam@example.com");
+        dailyTotals.add(new Object[]{"alex@example.com", TODAY, 1L, new BigDecimal("70000.00")});
+
+        // When
+        int drifted = leaderboard.reconcile();
+
+        // Then
+        assertThat(drifted).isEqualTo(1);
+        assertThat(leaderboard.top(SalespersonLeaderboard.Window.WEEK, 1).get(0).getSalespersonEmail())
+                .isEqualTo("alex@example.com");
+        verify(analyticsCache).invalidate(AnalyticsCache.Report.SALES_PERFORMANCE);
+        assertThat(leaderboard.reconcile()).isZero();
+        verifyNoMoreInteractions(analyticsCache);
+    }
+
+    @Test
+    @DisplayName("Should not count a completion again when its event arrives after a reload that included it")
+    void onSaleChanged_AfterReloadIncludingIt_ShouldBeSkipped() {
+        // Given: a completion whose listener waited while the reload read it from the rollup
+        SaleChangedEvent delayed = new SaleChangedEvent(SaleChangedEvent.Type.COMPLETED, 1L, 2L, 3L,
+                Sale.SaleStatus.COMPLETED, new BigDecimal("30000.00"), TODAY, "sam@example.com",
+                Instant.now().minusMillis(1));
+        totals.set(1, new Object[]{"sam@example.com", 5L, new BigDecimal("150000.00")});
+        dailyTotals.set(0, new Object[]{"sam@example.com", TODAY, 3L, new BigDecimal("90000.00")});
+        leaderboard.reconcile();
+
+        // When
+        leaderboard.onSaleChanged(delayed);
+        leaderboard.onSaleChanged(event(SaleChangedEvent.Type.COMPLETED, Sale.SaleStatus.COMPLETED,
+                "sam@example.com", TODAY, "20000.00"));
+
+        // Then: only the completion after the reload is added
+        assertThat(leaderboard.top(SalespersonLeaderboard.Window.DAY, 1)).singleElement().satisfies(standing -> {
+            assertThat(standing.getSalesCount()).isEqualTo(4);
+            assertThat(standing.getTotalRevenue()).isEqualByComparingTo("110000.00");
+        });
+        assertThat(leaderboard.top(SalespersonLeaderboard.Window.ALL_TIME, 2).get(1).getSalesCount()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Should count a sale dated after the end of a window towards all time only")
+    void top_FutureSale_ShouldStayOutOfWindows() {
+        // Given: completions dated after this week and month, one reloaded and one recorded
+        LocalDate weekEnd = SalespersonLeaderboard.windowEnd(SalespersonLeaderboard.Window.WEEK, TODAY);
+        LocalDate monthEnd = SalespersonLeaderboard.windowEnd(SalespersonLeaderboard.Window.MONTH, TODAY);
+        LocalDate future = (weekEnd.isAfter(monthEnd) ? weekEnd : monthEnd).plusDays(1);
+        dailyTotals.add(new Object[]{"kim@example.com", future, 1L, new BigDecimal("900000.00")});
+        leaderboard.reconcile();
+        leaderboard.onSaleChanged(event(SaleChangedEvent.Type.COMPLETED, Sale.SaleStatus.COMPLETED,
+                "lee@example.com", future, "800000.00"));
+
+        // When & Then
+        for (SalespersonLeaderboard.Window window : List.of(SalespersonLeaderboard.Window.DAY,
+                SalespersonLeaderboard.Window.WEEK, SalespersonLeaderboard.Window.MONTH)) {
+            assertThat(leaderboard.top(window, 5)).extracting(SalespersonLeaderboard.Standing::getSalespersonEmail)
+                    .containsExactly("sam@example.com", "alex@example.com");
+        }
+        assertThat(leaderboard.top(SalespersonLeaderboard.Window.ALL_TIME, 1).get(0).getSalespersonEmail())
+                .isEqualTo("lee@example.com");
+        verify(rollupRepository, atLeastOnce()).getSalespersonDailyTotals(eq(Sale.SaleStatus.COMPLETED), any(),
+                eq(future.minusDays(1)));
+    }
+
+    private static SaleChangedEvent event(SaleChangedEvent.Type type, Sale.SaleStatus status, String salesperson,
+                                          LocalDate saleDate, String salePrice) {
+        return new SaleChangedEvent(type, 1L, 2L, 3L, status, new BigDecimal(salePrice), saleDate, salesperson,
+                Instant.now());
+    }
+}
@@ -0,0 +1,148 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({VehicleBulkStatusService.class, VehicleChangePublisher.class})
+@DisplayName("Vehicle Bulk Status Service Tests")
+class VehicleBulkStatusServiceTest {
+
+    @Autowired
+    private VehicleBulkStatusService bulkStatusService;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    private List<Vehicle> vehicles;
+
+    @BeforeEach
+    void setUp() {
+        vehicleRepository.deleteAllInBatch();
+        vehicles = vehicleRepository.saveAll(List.of(
+                vehicle("1HGBH41JXMN109186", Vehicle.VehicleStatus.AVAILABLE, "Truck 7"),
+                vehicle("1HGBH41JXMN109187", Vehicle.VehicleStatus.RESERVED, "Truck 7"),
+                vehicle("1HGBH41JXMN109188", Vehicle.VehicleStatus.MAINTENANCE, "Truck 7"),
+                vehicle("1FTFW1ET5DFC12345", Vehicle.VehicleStatus.AVAILABLE, "Lot A")));
+    }
+
+    @Test
+    @DisplayName("Should report an outcome per id and bump version only for moved vehicles")
+    void updateStatuses_WithIds_ShouldReportOutcomePerId() {
+        // Given
+        Long missingId = vehicles.get(3).getId() + 1000;
+        VehicleBulkStatusService.BulkStatusUpdate request = VehicleBulkStatusService.BulkStatusUpdate.builder()
+                .status(Vehicle.VehicleStatus.MAINTENANCE)
+                .ids(List.of(vehicles.get(2).getId(), vehicles.get(0).getId(), missingId, vehicles.get(0).getId()))
+                .build();
+
+        // When
+        VehicleBulkStatusService.BulkStatusResult result = bulkStatusService.updateStatuses(request);
+
+        // Then
+        assertThat(result.getResults()).extracting(VehicleBulkStatusService.StatusOutcome::getOutcome)
+                .containsExactly(VehicleBulkStatusService.Outcome.UNCHANGED, VehicleBulkStatusService.Outcome.UPDATED,
+                        VehicleBulkStatusService.Outcome.NOT_FOUND);
+        assertThat(result.getUpdatedCount()).isEqualTo(1);
+        Map<Long, Vehicle> reloaded = reload();
+        Vehicle moved = reloaded.get(vehicles.get(0).getId());
+        assertThat(moved.getStatus()).isEqualTo(Vehicle.VehicleStatus.MAINTENANCE);
+        assertThat(moved.getVersion()).isEqualTo(vehicles.get(0).getVersion() + 1);
+        assertThat(moved.getUpdatedAt()).isAfterOrEqualTo(vehicles.get(0).getUpdatedAt());
+        assertThat(reloaded.get(vehicles.get(2).getId()).getVersion()).isEqualTo(vehicles.get(2).getVersion());
+    }
+
+    @Test
+    @DisplayName("Should move only the filtered vehicles that are in an expected status")
+    void updateStatuses_WithFilterAndExpectedStatuses_ShouldSkipOthers() {
+        // Given
+        VehicleBulkStatusService.BulkStatusUpdate request = VehicleBulkStatusService.BulkStatusUpdate.builder()
+                .status(Vehicle.VehicleStatus.AVAILABLE)
+                .filter(VehicleBulkStatusService.VehicleFilter.builder().location("Truck 7").build())
+                .expectedStatuses(Set.of(Vehicle.VehicleStatus.RESERVED, Vehicle.VehicleStatus.MAINTENANCE))
+                .build();
+
+        // When
+        VehicleBulkStatusService.BulkStatusResult result = bulkStatusService.updateStatuses(request);
+
+        // Then
+        assertThat(result.getUpdatedCount()).isEqualTo(2);
+        assertThat(result.getUnchangedCount()).isEqualTo(1);
+        assertThat(reload().values()).extracting(Vehicle::getStatus).containsOnly(Vehicle.VehicleStatus.AVAILABLE);
+    }
+
+    @Test
+    @DisplayName("Should process selections larger than one chunk")
+    void updateStatuses_AcrossChunks_ShouldUpdateEveryVehicle() {
+        // Given
+        List<Vehicle> batch = new ArrayList<>();
+        for (int i = 0; i < VehicleBulkStatusService.CHUNK_SIZE + 100; i++) {
+            batch.add(vehicle(String.format("BULK%013d", i), Vehicle.VehicleStatus.AVAILABLE, "Truck 9"));
+        }
+        vehicleRepository.saveAll(batch);
+        VehicleBulkStatusService.BulkStatusUpdate request = VehicleBulkStatusService.BulkStatusUpdate.builder()
+                .status(Vehicle.VehicleStatus.MAINTENANCE)
+                .filter(VehicleBulkStatusService.VehicleFilter.builder().location("Truck 9").build())
+                .build();
+
+        // When
+        VehicleBulkStatusService.BulkStatusResult result = bulkStatusService.updateStatuses(request);
+
+        // Then
+        assertThat(result.getUpdatedCount()).isEqualTo(batch.size());
+        assertThat(reload().values()).filteredOn(v -> "Truck 9".equals(v.getLocation()))
+                .extracting(Vehicle::getStatus).containsOnly(Vehicle.VehicleStatus.MAINTENANCE);
+    }
+
+    @Test
+    @DisplayName("Should reject requests without a selection or with an empty filter")
+    void updateStatuses_WithoutSelection_ShouldThrowException() {
+        assertThatThrownBy(() -> bulkStatusService.updateStatuses(VehicleBulkStatusService.BulkStatusUpdate.builder()
+                .status(Vehicle.VehicleStatus.AVAILABLE).build()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bulkStatusService.updateStatuses(VehicleBulkStatusService.BulkStatusUpdate.builder()
+                .status(Vehicle.VehicleStatus.AVAILABLE)
+                .filter(new VehicleBulkStatusService.VehicleFilter()).build()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("at least one criterion");
+    }
+
+    private Map<Long, Vehicle> reload() {
+        return vehicleRepository.findAll().stream().collect(Collectors.toMap(Vehicle::getId, Function.identity()));
+    }
+
+    private Vehicle vehicle(String vin, Vehicle.VehicleStatus status, String location) {
+        return Vehicle.builder()
+                .vin(vin)
+                .make("Toyota")
+                .model("Camry")
+                .year(2023)
+                .sellingPrice(new BigDecimal("28000.00"))
+                .status(status)
+                .location(location)
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.model.VehicleSummary;
+import com.automotive.sales.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({VehicleService.class, VehicleChangePublisher.class, VehicleStatisticsSnapshot.class,
+        VehicleSearchIndex.class})
+@DisplayName("Vehicle Facets Tests")
+class VehicleFacetsTest {
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    // Answers empty like an index that is not loaded, so facets come from the grouped query
+    @MockBean
+    private InventoryIndex inventoryIndex;
+
+    @BeforeEach
+    void setUp() {
+        vehicleRepository.deleteAllInBatch();
+        vehicleRepository.saveAll(List.of(
+                vehicle("1HGBH41JXMN109186", "Toyota", 2023, Vehicle.VehicleStatus.AVAILABLE, "28000.00"),
+                vehicle("1HGBH41JXMN109187", "toyota", 2024, Vehicle.VehicleStatus.AVAILABLE, "29500.00"),
+                vehicle("1HGBH41JXMN109188", "Honda", 2023, Vehicle.VehicleStatus.SOLD, "23000.00"),
+                vehicle("1FTFW1ET5DFC12345", "Ford", 2022, Vehicle.VehicleStatus.AVAILABLE, "64000.00"),
+                vehicle("1FTFW1ET5DFC12346", "Ford", 2022, Vehicle.VehicleStatus.RESERVED, null)));
+    }
+
+    @Test
+    @DisplayName("Should count every facet from one grouped query when the index is not loaded")
+    void getVehicleFacets_FromDatabase_ShouldCountEachFacet() {
+        // When
+        VehicleFacets facets = vehicleService.getVehicleFacets(null, null, null, null, null, null);
+
+        // Then
+        assertThat(facets.getMakes()).containsExactly(Map.entry("Ford", 2L), Map.entry("Toyota", 2L),
+                Map.entry("Honda", 1L));
+        assertThat(facets.getYears()).containsExactly(Map.entry(2024, 1L), Map.entry(2023, 2L), Map.entry(2022, 2L));
+        assertThat(facets.getStatuses()).containsExactly(Map.entry(Vehicle.VehicleStatus.AVAILABLE, 3L),
+                Map.entry(Vehicle.VehicleStatus.RESERVED, 1L), Map.entry(Vehicle.VehicleStatus.SOLD, 1L));
+        assertThat(facets.getConditions()).containsExactly(Map.entry(Vehicle.VehicleCondition.USED, 5L));
+        assertThat(facets.getPriceRanges()).containsExactly(Map.entry("20000-30000", 3L), Map.entry("50000+", 1L));
+    }
+
+    @Test
+    @DisplayName("Should return the first page of results together with the facets of the same filters")
+    void getFacetedVehicleSummaries_ShouldPageAndCountSameFilters() {
+        // When
+        VehicleService.FacetedVehicles<VehicleSummary> faceted = vehicleService.getFacetedVehicleSummaries(
+                null, null, null, Vehicle.VehicleStatus.AVAILABLE, new BigDecimal("25000"), null, PageRequest.of(0, 2));
+
+        // Then
+        assertThat(faceted.getResults().getTotalElements()).isEqualTo(3);
+        assertThat(faceted.getResults().getContent()).hasSize(2);
+        assertThat(faceted.getFacets().getMakes()).containsExactly(Map.entry("Toyota", 2L), Map.entry("Ford", 1L));
+        assertThat(faceted.getFacets().getPriceRanges())
+                .containsExactly(Map.entry("20000-30000", 2L), Map.entry("50000+", 1L));
+    }
+
+    private Vehicle vehicle(String vin, String make, int year, Vehicle.VehicleStatus status, String price) {
+        return Vehicle.builder()
+                .vin(vin)
+                .make(make)
+                .model("Model")
+                .year(year)
+                .mileage(10000)
+                .sellingPrice(price != null ? new BigDecimal(price) : null)
+                .status(status)
+                .condition(Vehicle.VehicleCondition.USED)
+                .build();
+    }
+}
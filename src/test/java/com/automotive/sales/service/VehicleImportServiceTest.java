@@ -0,0 +1,143 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({VehicleImportService.class, VehicleService.class, InventoryIndex.class,
+        VehicleChangePublisher.class, VehicleStatisticsSnapshot.class, VehicleSearchIndex.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@DisplayName("Vehicle Import Service Tests")
+class VehicleImportServiceTest {
+
+    @Autowired
+    private VehicleImportService vehicleImportService;
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @BeforeEach
+    void setUp() {
+        vehicleRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should import valid NDJSON rows and report rejected rows by line")
+    void importNdjson_WithMixedRows_ShouldReportPerRowErrors() {
+        // Given
+        vehicleRepository.save(vehicle("JM1BK32F781234567"));
+        String ndjson = String.join("\n",
+                "{\"vin\":\"1HGBH41JXMN109186\",\"make\":\"Toyota\",\"model\":\"Camry\",\"year\":2023,\"sellingPrice\":28000.00}",
+                "{\"vin\":\"SHORT\",\"make\":\"Honda\",\"model\":\"Civic\",\"year\":2023}",
+                "",
+                "{\"vin\":\"1HGBH41JXMN109186\",\"make\":\"Toyota\",\"model\":\"Camry\",\"year\":2023}",
+                "{\"vin\":\"JM1BK32F781234567\",\"make\":\"Mazda\",\"model\":\"CX-5\",\"year\":2023}",
+                "{not json",
+                "{\"vin\":\"1FTFW1ET5DFC12345\",\"make\":\"Ford\",\"model\":\"F-150\",\"year\":2022,\"status\":\"MAINTENANCE\"}");
+
+        // When
+        VehicleImportService.ImportResult result = vehicleImportService.importNdjson(stream(ndjson));
+
+        // Then
+        assertThat(result.getTotalRows()).isEqualTo(6);
+        assertThat(result.getImportedCount()).isEqualTo(2);
+        assertThat(result.getRejectedCount()).isEqualTo(4);
+        assertThat(result.getErrors()).extracting(VehicleImportService.RowError::getLineNumber)
+                .containsExactlyInAnyOrder(2, 4, 5, 6);
+        assertThat(vehicleRepository.findByVin("1FTFW1ET5DFC12345"))
+                .hasValueSatisfying(v -> {
+                    assertThat(v.getStatus()).isEqualTo(Vehicle.VehicleStatus.MAINTENANCE);
+                    assertThat(v.getCondition()).isEqualTo(Vehicle.VehicleCondition.NEW);
+                });
+    }
+
+    @Test
+    @DisplayName("Should map CSV columns by header and honour quoted fields")
+    void importCsv_WithHeaderAndQuotedFields_ShouldImportRows() {
+        // Given
+        String csv = String.join("\r\n",
+                "vin,make,model,year,sellingPrice,description",
+                "1HGBH41JXMN109186,Toyota,Camry,2023,28000.00,\"One owner, \"\"like new\"\"\"",
+                "1HGBH41JXMN109187,Honda,Civic,not-a-year,23000.00,",
+                "1HGBH41JXMN109188,Honda,Accord,2024,,");
+
+        // When
+        VehicleImportService.ImportResult result = vehicleImportService.importCsv(stream(csv));
+
+        // Then
+        assertThat(result.getImportedCount()).isEqualTo(2);
+        assertThat(result.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.getLineNumber()).isEqualTo(3));
+        assertThat(vehicleRepository.findByVin("1HGBH41JXMN109186"))
+                .hasValueSatisfying(v -> assertThat(v.getDescription()).isEqualTo("One owner, \"like new\""));
+        assertThat(vehicleRepository.findByVin("1HGBH41JXMN109188"))
+                .hasValueSatisfying(v -> assertThat(v.getSellingPrice()).isNull());
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: streaming import versus single vehicle creation")
+    void benchmark_ImportVersusSingleCreate() {
+        int vehicles = 5_000;
+
+        long singleStarted = System.nanoTime();
+        for (int i = 0; i < vehicles; i++) {
+            vehicleService.createVehicle(vehicle(String.format("SINGLE%011d", i)));
+        }
+        double singleSeconds = (System.nanoTime() - singleStarted) / 1e9;
+
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < vehicles; i++) {
+            ndjson.append("{\"vin\":\"").append(String.format("IMPORT%011d", i))
+                    .append("\",\"make\":\"Toyota\",\"model\":\"Camry\",\"year\":2023,\"sellingPrice\":28000.00}\n");
+        }
+        long importStarted = System.nanoTime();
+        VehicleImportService.ImportResult result = vehicleImportService.importNdjson(stream(ndjson.toString()));
+        double importSeconds = (System.nanoTime() - importStarted) / 1e9;
+
+        System.out.printf("single create: %,.0f vehicles/s, streaming import: %,.0f vehicles/s (%.1fx)%n",
+                vehicles / singleSeconds, vehicles / importSeconds, singleSeconds / importSeconds);
+        assertThat(result.getImportedCount()).isEqualTo(vehicles);
+        assertThat(vehicleRepository.count()).isEqualTo(2L * vehicles);
+    }
+
+    private Vehicle vehicle(String vin) {
+        return Vehicle.builder()
+                .vin(vin)
+                .make("Toyota")
+                .model("Camry")
+                .year(2023)
+                .sellingPrice(new BigDecimal("28000.00"))
+                .build();
+    }
+
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
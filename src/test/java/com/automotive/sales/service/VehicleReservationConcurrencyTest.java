@@ -0,0 +1,330 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Customer;
+import com.automotive.sales.model.Sale;
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.monitoring.QueryAssertions;
+import com.automotive.sales.monitoring.QueryStats;
+import com.automotive.sales.repository.CustomerRepository;
+import com.automotive.sales.repository.SaleRepository;
+import com.automotive.sales.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({VehicleService.class, SaleService.class, SalesRollupService.class, InventoryIndex.class,
+        VehicleChangePublisher.class, VehicleStatisticsSnapshot.class, VehicleSearchIndex.class})
+@DisplayName("Vehicle Reservation Concurrency Tests")
+class VehicleReservationConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        saleRepository.deleteAllInBatch();
+        vehicleRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should let exactly one of many parallel reservations win each vehicle")
+    void tryReserveVehicle_UnderContention_ShouldHaveOneWinnerPerVehicle() throws Exception {
+        // Given
+        int vehicles = 20;
+        int attemptsPerVehicle = 20;
+        List<Long> vehicleIds = new ArrayList<>();
+        for (int i = 0; i < vehicles; i++) {
+            vehicleIds.add(vehicleService.createVehicle(vehicle(i)).getId());
+        }
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < vehicles * attemptsPerVehicle; i++) {
+            Long vehicleId = vehicleIds.get(i % vehicles);
+            attempts.add(() -> vehicleService.tryReserveVehicle(vehicleId));
+        }
+
+        // When
+        List<Boolean> results = runConcurrently(attempts);
+
+        // Then
+        assertThat(results).filteredOn(Boolean::booleanValue).hasSize(vehicles);
+        assertThat(vehicleRepository.findAllById(vehicleIds)).allSatisfy(v -> {
+            assertThat(v.getStatus()).isEqualTo(Vehicle.VehicleStatus.RESERVED);
+            assertThat(v.getVersion()).isEqualTo(1L);
+        });
+    }
+
+    @Test
+    @DisplayName("Should open exactly one sale when many desks sell the same available vehicle")
+    void createSaleByReference_UnderContention_ShouldOpenOneSale() throws Exception {
+        Long vehicleId = vehicleService.createVehicle(vehicle(0)).getId();
+        assertSingleSaleWins(vehicleId, saleService::createSaleByReference);
+    }
+
+    @Test
+    @DisplayName("Should open exactly one sale when many desks sell the same held vehicle")
+    void createSaleByReference_OnHeldVehicleUnderContention_ShouldOpenOneSale() throws Exception {
+        Long vehicleId = vehicleService.createVehicle(vehicle(0)).getId();
+        vehicleService.reserveVehicle(vehicleId);
+        assertSingleSaleWins(vehicleId, saleService::createSaleByReference);
+    }
+
+    @Test
+    @DisplayName("Should create a sale by reference without loading vehicle or customer")
+    void createSaleByReference_ShouldNotLoadVehicleOrCustomer() {
+        // Given
+        Long vehicleId = vehicleService.createVehicle(vehicle(0)).getId();
+        Long customerId = customerRepository.save(customer("buyer@example.com")).getId();
+
+        // When
+        QueryStats.Snapshot used = QueryAssertions.assertMaxQueries(4,
+                () -> saleService.createSaleByReference(sale(vehicleId, customerId)));
+
+        // Then: check, claim and insert, plus the id sequence once per allocation block
+        assertThat(used.entityLoads()).isZero();
+        assertThat(saleRepository.findByVehicleId(vehicleId)).singleElement()
+                .satisfies(sale -> assertThat(sale.getStatus()).isEqualTo(Sale.SaleStatus.PENDING));
+        assertThat(vehicleRepository.findById(vehicleId))
+                .hasValueSatisfying(v -> assertThat(v.getStatus()).isEqualTo(Vehicle.VehicleStatus.RESERVED));
+    }
+
+    @Test
+    @DisplayName("Should open a new pending sale even when the given sale carries an id and workflow state")
+    void createSaleByReference_WithForgedState_ShouldOpenNewPendingSale() {
+        // Given
+        Long customerId = customerRepository.save(customer("buyer@example.com")).getId();
+        Sale existing = saleService.createSaleByReference(
+                sale(vehicleService.createVehicle(vehicle(0)).getId(), customerId));
+        Sale forged = sale(vehicleService.createVehicle(vehicle(1)).getId(), customerId);
+        forged.setId(existing.getId());
+        forged.setVersion(existing.getVersion());
+        forged.setStatus(Sale.SaleStatus.COMPLETED);
+        forged.setIsFinalized(true);
+        forged.setContractSignedAt(LocalDateTime.now());
+        forged.setCommissionAmount(new BigDecimal("9999.00"));
+
+        // When
+        Sale created = saleService.createSaleByReference(forged);
+
+        // Then
+        assertThat(created.getId()).isNotEqualTo(existing.getId());
+        assertThat(created.getStatus()).isEqualTo(Sale.SaleStatus.PENDING);
+        assertThat(created.getIsFinalized()).isFalse();
+        assertThat(created.getContractSignedAt()).isNull();
+        assertThat(created.getCommissionAmount()).isNull();
+        assertThat(saleRepository.count()).isEqualTo(2);
+        assertThatThrownBy(() -> saleService.createSaleByReference(Sale.builder()
+                .vehicle(new Vehicle()).customer(forged.getCustomer()).build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject an inactive customer before claiming the vehicle")
+    void createSaleByReference_WithInactiveCustomer_ShouldLeaveVehicleAvailable() {
+        // Given
+        Long vehicleId = vehicleService.createVehicle(vehicle(0)).getId();
+        Customer inactive = customer("inactive@example.com");
+        inactive.setIsActive(false);
+        Long customerId = customerRepository.save(inactive).getId();
+
+        // When & Then
+        assertThatThrownBy(() -> saleService.createSaleByReference(sale(vehicleId, customerId)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Customer is not active");
+        assertThatThrownBy(() -> saleService.createSaleByReference(sale(vehicleId, customerId + 1000)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(vehicleRepository.findById(vehicleId))
+                .hasValueSatisfying(v -> assertThat(v.getStatus()).isEqualTo(Vehicle.VehicleStatus.AVAILABLE));
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: parallel reservation attempts on contended vehicles")
+    void benchmark_TryReserveVehicle() throws Exception {
+        int vehicles = 200;
+        int attemptsPerVehicle = 20;
+        List<Long> vehicleIds = new ArrayList<>();
+        for (int i = 0; i < vehicles; i++) {
+            vehicleIds.add(vehicleRepository.save(vehicle(i)).getId());
+        }
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < vehicles * attemptsPerVehicle; i++) {
+            Long vehicleId = vehicleIds.get(i % vehicles);
+            attempts.add(() -> vehicleService.tryReserveVehicle(vehicleId));
+        }
+
+        long started = System.nanoTime();
+        List<Boolean> results = runConcurrently(attempts);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        System.out.printf("%d parallel reservations on %d threads: %,.0f attempts/s%n",
+                attempts.size(), THREADS, attempts.size() / seconds);
+        assertThat(results).filteredOn(Boolean::booleanValue).hasSize(vehicles);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark: sale creation by reference versus loading vehicle and customer")
+    void benchmark_CreateSaleByReferenceVersusLoading() throws Exception {
+        int sales = 2_000;
+        Long customerId = customerRepository.save(customer("buyer@example.com")).getId();
+
+        // Warm up both paths before measuring
+        runSales(200, 0, customerId, this::createSaleByLoading);
+        runSales(200, 200, customerId, saleService::createSaleByReference);
+
+        double loadingRate = runSales(sales, 1_000, customerId, this::createSaleByLoading);
+        double referenceRate = runSales(sales, 1_000 + sales, customerId, saleService::createSaleByReference);
+
+        System.out.printf("%d sales on %d threads: createSale (loading) %,.0f sales/s, createSaleByReference "
+                + "%,.0f sales/s (%.1fx)%n", sales, THREADS, loadingRate, referenceRate, referenceRate / loadingRate);
+        assertThat(saleRepository.count()).isEqualTo(2L * sales + 400);
+    }
+
+    // Baseline for the benchmark: the former createSale, which reserved the vehicle and then loaded it and the
+    // customer before saving the sale
+    private Sale createSaleByLoading(Sale sale) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Vehicle vehicle = vehicleService.reserveVehicle(sale.getVehicle().getId());
+            Customer customer = customerRepository.findById(sale.getCustomer().getId())
+                    .orElseThrow(() -> new IllegalArgumentException("Customer not found"));
+            if (!customer.getIsActive()) {
+                throw new IllegalStateException("Customer is not active");
+            }
+            sale.setVehicle(vehicle);
+            sale.setCustomer(customer);
+            SaleService.applyDefaults(sale);
+            return saleRepository.save(sale);
+        });
+    }
+
+    // Sells as many fresh vehicles concurrently and returns the sales per second
+    private double runSales(int sales, int firstVin, Long customerId, Function<Sale, Sale> create) throws Exception {
+        List<Callable<Sale>> attempts = new ArrayList<>();
+        for (int i = 0; i < sales; i++) {
+            Long vehicleId = vehicleRepository.save(vehicle(firstVin + i)).getId();
+            attempts.add(() -> create.apply(sale(vehicleId, customerId)));
+        }
+        long started = System.nanoTime();
+        runConcurrently(attempts);
+        return sales / ((System.nanoTime() - started) / 1e9);
+    }
+
+    private void assertSingleSaleWins(Long vehicleId, Function<Sale, Sale> create) throws Exception {
+        // Given
+        Long customerId = customerRepository.save(customer("buyer@example.com")).getId();
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            attempts.add(() -> {
+                try {
+                    create.apply(sale(vehicleId, customerId));
+                    return true;
+                } catch (IllegalStateException e) {
+                    return false;
+                }
+            });
+        }
+
+        // When
+        List<Boolean> results = runConcurrently(attempts);
+
+        // Then
+        assertThat(results).filteredOn(Boolean::booleanValue).hasSize(1);
+        assertThat(saleRepository.findByVehicleId(vehicleId)).hasSize(1);
+        assertThat(vehicleRepository.findById(vehicleId))
+                .hasValueSatisfying(v -> assertThat(v.getStatus()).isEqualTo(Vehicle.VehicleStatus.RESERVED));
+    }
+
+    private <T> List<T> runConcurrently(List<Callable<T>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Vehicle vehicle(int i) {
+        return Vehicle.builder()
+                .vin(String.format("CONCUR%011d", i))
+                .make("Toyota")
+                .model("Camry")
+                .year(2023)
+                .sellingPrice(new BigDecimal("28000.00"))
+                .build();
+    }
+
+    private Customer customer(String email) {
+        return Customer.builder().firstName("Test").lastName("Buyer").email(email).build();
+    }
+
+    private Sale sale(Long vehicleId, Long customerId) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(vehicleId);
+        Customer customer = new Customer();
+        customer.setId(customerId);
+        return Sale.builder()
+                .vehicle(vehicle)
+                .customer(customer)
+                .salePrice(new BigDecimal("27500.00"))
+                .build();
+    }
+}
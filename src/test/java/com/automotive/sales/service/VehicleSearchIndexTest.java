@@ -0,0 +1,72 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Vehicle Search Index Tests")
+class VehicleSearchIndexTest {
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @InjectMocks
+    private VehicleSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, "Toyota", "Camry", "White", "Well-maintained vehicle with excellent condition"});
+        rows.add(new Object[]{2L, "Ford", "F-150", "Blue", "Popular pickup truck in great condition"});
+        rows.add(new Object[]{3L, "Mazda", "CX-5", "Gray", "Compact SUV with excellent fuel economy"});
+        rows.add(new Object[]{4L, "Ford", "F-250", "Red", "Heavy duty pickup"});
+        rows.add(new Object[]{5L, "Honda", "Civic", "Black", "Low mileage, single owner"});
+        when(vehicleRepository.findSearchIndexRows()).thenReturn(rows);
+        searchIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should match partial model names the way shoppers type them")
+    void search_WithPartialWords_ShouldMatch() {
+        assertThat(searchIndex.search("f-15", 10)).hasValueSatisfying(ids -> assertThat(ids).first().isEqualTo(2L));
+        assertThat(searchIndex.search("cx", 10)).hasValueSatisfying(ids -> assertThat(ids).containsExactly(3L));
+    }
+
+    @Test
+    @DisplayName("Should tolerate a typo and rank field hits above description hits")
+    void search_WithTypo_ShouldRankByRelevance() {
+        assertThat(searchIndex.search("camery", 10)).hasValueSatisfying(ids -> assertThat(ids).containsExactly(1L));
+        assertThat(searchIndex.search("pickup ford", 10))
+                .hasValueSatisfying(ids -> assertThat(ids).containsExactly(2L, 4L));
+    }
+
+    @Test
+    @DisplayName("Should follow saves and removals")
+    void upsertAndRemove_ShouldUpdatePostings() {
+        // Given
+        Vehicle renamed = Vehicle.builder().make("Toyota").model("Corolla").color("Silver").build();
+        renamed.setId(1L);
+
+        // When
+        searchIndex.onVehicleChanged(VehicleChangedEvent.saved(renamed));
+        searchIndex.onVehicleChanged(VehicleChangedEvent.removed(3L));
+
+        // Then
+        assertThat(searchIndex.search("camry", 10)).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+        assertThat(searchIndex.search("corola", 10)).hasValueSatisfying(ids -> assertThat(ids).containsExactly(1L));
+        assertThat(searchIndex.search("cx-5", 10)).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+    }
+}
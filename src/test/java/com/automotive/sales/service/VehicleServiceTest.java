@@ -1,6 +1,8 @@
 package com.automotive.sales.service;
 
 import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.model.VehicleSummary;
+import com.automotive.sales.repository.SaleRepository;
 import com.automotive.sales.repository.VehicleRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,7 +18,9 @@ import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,6 +35,21 @@ class VehicleServiceTest {
     @Mock
     private VehicleRepository vehicleRepository;
 
+    @Mock
+    private SaleRepository saleRepository;
+
+    @Mock
+    private InventoryIndex inventoryIndex;
+
+    @Mock
+    private VehicleChangePublisher vehicleChangePublisher;
+
+    @Mock
+    private VehicleStatisticsSnapshot vehicleStatisticsSnapshot;
+
+    @Mock
+    private VehicleSearchIndex vehicleSearchIndex;
+
     @InjectMocks
     private VehicleService vehicleService;
 
@@ -205,6 +224,51 @@ class VehicleServiceTest {
         assertThat(result.getContent().get(0)).isEqualTo(testVehicle);
     }
 
+    @Test
+    @DisplayName("Should answer filtered search from the inventory index when it is ready")
+    void getVehiclesWithFilters_WithReadyIndex_ShouldLoadIndexedPage() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        Vehicle secondVehicle = createSecondVehicle();
+        when(inventoryIndex.search(isNull(), isNull(), isNull(), eq(Vehicle.VehicleStatus.AVAILABLE),
+                isNull(), isNull(), eq(pageable)))
+                .thenReturn(Optional.of(new PageImpl<>(Arrays.asList(2L, 1L), pageable, 2)));
+        when(vehicleRepository.findAllById(Arrays.asList(2L, 1L)))
+                .thenReturn(Arrays.asList(testVehicle, secondVehicle));
+
+        // When
+        Page<Vehicle> result = vehicleService.getVehiclesWithFilters(
+                null, null, null, Vehicle.VehicleStatus.AVAILABLE, null, null, pageable);
+
+        // Then
+        assertThat(result.getContent()).containsExactly(secondVehicle, testVehicle);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        verify(vehicleRepository, never()).findVehiclesWithFilters(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should load summary rows for an indexed page in index order")
+    void getVehicleSummariesWithFilters_WithReadyIndex_ShouldKeepIndexOrder() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        VehicleSummary first = VehicleSummary.of(testVehicle);
+        VehicleSummary second = VehicleSummary.of(createSecondVehicle());
+        when(inventoryIndex.search(isNull(), isNull(), isNull(), eq(Vehicle.VehicleStatus.AVAILABLE),
+                isNull(), isNull(), eq(pageable)))
+                .thenReturn(Optional.of(new PageImpl<>(Arrays.asList(2L, 1L), pageable, 2)));
+        when(vehicleRepository.findSummariesByIdIn(Arrays.asList(2L, 1L)))
+                .thenReturn(Arrays.asList(first, second));
+
+        // When
+        Page<VehicleSummary> result = vehicleService.getVehicleSummariesWithFilters(
+                null, null, null, Vehicle.VehicleStatus.AVAILABLE, null, null, pageable);
+
+        // Then
+        assertThat(result.getContent()).containsExactly(second, first);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        verify(vehicleRepository, never()).findAllById(any());
+    }
+
     @Test
     @DisplayName("Should update vehicle successfully")
     void updateVehicle_WithValidData_ShouldReturnUpdatedVehicle() {
@@ -267,8 +331,8 @@ class VehicleServiceTest {
     @DisplayName("Should delete vehicle successfully when no sales exist")
     void deleteVehicle_WithNoSales_ShouldDeleteSuccessfully() {
         // Given
-        testVehicle.setSales(Arrays.asList()); // Empty sales list
         when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
+        when(saleRepository.existsByVehicleId(1L)).thenReturn(false);
 
         // When
         vehicleService.deleteVehicle(1L);
@@ -282,8 +346,8 @@ class VehicleServiceTest {
     @DisplayName("Should throw exception when deleting vehicle with existing sales")
     void deleteVehicle_WithExistingSales_ShouldThrowException() {
         // Given
-        testVehicle.setSales(Arrays.asList(mock(com.automotive.sales.model.Sale.class)));
         when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
+        when(saleRepository.existsByVehicleId(1L)).thenReturn(true);
 
         // When & Then
         assertThatThrownBy(() -> vehicleService.deleteVehicle(1L))
@@ -332,32 +396,54 @@ class VehicleServiceTest {
     @DisplayName("Should reserve vehicle successfully")
     void reserveVehicle_WithValidId_ShouldReturnReservedVehicle() {
         // Given
+        testVehicle.setStatus(Vehicle.VehicleStatus.RESERVED);
+        when(vehicleRepository.transitionStatus(eq(1L), eq(EnumSet.of(Vehicle.VehicleStatus.AVAILABLE)),
+                eq(Vehicle.VehicleStatus.RESERVED), any(LocalDateTime.class))).thenReturn(1);
         when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
-        when(vehicleRepository.save(any(Vehicle.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
         Vehicle result = vehicleService.reserveVehicle(1L);
 
         // Then
         assertThat(result.getStatus()).isEqualTo(Vehicle.VehicleStatus.RESERVED);
-        verify(vehicleRepository).findById(1L);
-        verify(vehicleRepository).save(testVehicle);
+        verify(vehicleChangePublisher).publishStatusChanges(List.of(1L), Vehicle.VehicleStatus.RESERVED);
+        verify(vehicleRepository, never()).save(any(Vehicle.class));
+    }
+
+    @Test
+    @DisplayName("Should reject reservation when another desk already reserved the vehicle")
+    void reserveVehicle_WhenAlreadyReserved_ShouldThrowException() {
+        // Given
+        testVehicle.setStatus(Vehicle.VehicleStatus.RESERVED);
+        when(vehicleRepository.transitionStatus(eq(1L), anyCollection(), eq(Vehicle.VehicleStatus.RESERVED),
+                any(LocalDateTime.class))).thenReturn(0);
+        when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
+
+        // When & Then
+        assertThatThrownBy(() -> vehicleService.reserveVehicle(1L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Current status: RESERVED");
+
+        verify(vehicleChangePublisher, never()).publishStatusChanges(any(), any());
     }
 
     @Test
     @DisplayName("Should mark vehicle as sold successfully")
     void markVehicleAsSold_WithValidId_ShouldReturnSoldVehicle() {
         // Given
+        testVehicle.setStatus(Vehicle.VehicleStatus.SOLD);
+        when(vehicleRepository.transitionStatus(eq(1L),
+                eq(EnumSet.of(Vehicle.VehicleStatus.AVAILABLE, Vehicle.VehicleStatus.RESERVED)),
+                eq(Vehicle.VehicleStatus.SOLD), any(LocalDateTime.class))).thenReturn(1);
         when(vehicleRepository.findById(1L)).thenReturn(Optional.of(testVehicle));
-        when(vehicleRepository.save(any(Vehicle.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
         Vehicle result = vehicleService.markVehicleAsSold(1L);
 
         // Then
         assertThat(result.getStatus()).isEqualTo(Vehicle.VehicleStatus.SOLD);
-        verify(vehicleRepository).findById(1L);
-        verify(vehicleRepository).save(testVehicle);
+        verify(vehicleChangePublisher).publishStatusChanges(List.of(1L), Vehicle.VehicleStatus.SOLD);
+        verify(vehicleRepository, never()).save(any(Vehicle.class));
     }
 
     @Test
@@ -0,0 +1,96 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Vehicle Statistics Snapshot Tests")
+class VehicleStatisticsSnapshotTest {
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @InjectMocks
+    private VehicleStatisticsSnapshot snapshot;
+
+    private List<Object[]> rows;
+
+    @BeforeEach
+    void setUp() {
+        rows = new ArrayList<>();
+        rows.add(row(1L, Vehicle.VehicleStatus.AVAILABLE, "Toyota", "28000.00", "25000.00"));
+        rows.add(row(2L, Vehicle.VehicleStatus.AVAILABLE, "Honda", "23000.00", "20000.00"));
+        rows.add(row(3L, Vehicle.VehicleStatus.SOLD, "Toyota", "27000.00", "24000.00"));
+        rows.add(row(4L, Vehicle.VehicleStatus.RESERVED, "Ford", null, "30000.00"));
+        when(vehicleRepository.findStatisticsRows()).thenReturn(rows);
+    }
+
+    @Test
+    @DisplayName("Should load statistics with one query and serve repeated reads from memory")
+    void current_ShouldLoadOnceAndMatchRepositoryAggregates() {
+        // When
+        VehicleStatisticsSnapshot.VehicleStatistics first = snapshot.current();
+        VehicleStatisticsSnapshot.VehicleStatistics second = snapshot.current();
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(first.getAverageSellingPrice()).isEqualByComparingTo("25500.00");
+        assertThat(first.getTotalPotentialProfit()).isEqualByComparingTo("3000.00");
+        assertThat(first.getAvailableCount()).isEqualTo(2L);
+        assertThat(first.getSoldCount()).isEqualTo(1L);
+        assertThat(first.getReservedCount()).isEqualTo(1L);
+        assertThat(first.getMaintenanceCount()).isZero();
+        assertThat(first.getVehicleCountByMake()).first()
+                .satisfies(makeCount -> assertThat(makeCount).containsExactly("Toyota", 2L));
+        verify(vehicleRepository, times(1)).findStatisticsRows();
+    }
+
+    @Test
+    @DisplayName("Should apply saves, status changes and removals as deltas")
+    void onVehicleChanged_ShouldUpdateSnapshotIncrementally() {
+        // Given
+        snapshot.rebuild();
+        Vehicle created = Vehicle.builder()
+                .make("Honda").model("Civic").year(2024)
+                .sellingPrice(new BigDecimal("26000.00"))
+                .purchasePrice(new BigDecimal("22000.00"))
+                .status(Vehicle.VehicleStatus.AVAILABLE)
+                .build();
+        created.setId(5L);
+
+        // When
+        snapshot.onVehicleChanged(VehicleChangedEvent.saved(created));
+        snapshot.onVehicleChanged(VehicleChangedEvent.statusChanged(1L, Vehicle.VehicleStatus.SOLD));
+        snapshot.onVehicleChanged(VehicleChangedEvent.removed(3L));
+
+        // Then
+        VehicleStatisticsSnapshot.VehicleStatistics statistics = snapshot.current();
+        assertThat(statistics.getAvailableCount()).isEqualTo(2L);
+        assertThat(statistics.getSoldCount()).isEqualTo(1L);
+        assertThat(statistics.getAverageSellingPrice()).isEqualByComparingTo("24500.00");
+        assertThat(statistics.getTotalPotentialProfit()).isEqualByComparingTo("3000.00");
+        assertThat(statistics.getVehicleCountByMake()).first()
+                .satisfies(makeCount -> assertThat(makeCount).containsExactly("Honda", 2L));
+        verify(vehicleRepository, times(1)).findStatisticsRows();
+    }
+
+    private Object[] row(Long id, Vehicle.VehicleStatus status, String make, String sellingPrice, String purchasePrice) {
+        return new Object[]{id, status, make,
+                sellingPrice != null ? new BigDecimal(sellingPrice) : null,
+                purchasePrice != null ? new BigDecimal(purchasePrice) : null};
+    }
+}
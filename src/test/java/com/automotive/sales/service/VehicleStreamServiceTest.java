@@ -0,0 +1,111 @@
+package com.automotive.sales.service;
+
+import com.automotive.sales.model.Vehicle;
+import com.automotive.sales.repository.VehicleRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(VehicleStreamService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@DisplayName("Vehicle Stream Service Tests")
+class VehicleStreamServiceTest {
+
+    @Autowired
+    private VehicleStreamService vehicleStreamService;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        vehicleRepository.deleteAllInBatch();
+        vehicleRepository.saveAll(List.of(
+                vehicle("1HGBH41JXMN109186", Vehicle.VehicleStatus.AVAILABLE, 15000, "28000.00"),
+                vehicle("1HGBH41JXMN109187", Vehicle.VehicleStatus.AVAILABLE, 8000, "23000.00"),
+                vehicle("1FTFW1ET5DFC12345", Vehicle.VehicleStatus.SOLD, 5000, "38000.00")));
+    }
+
+    @Test
+    @DisplayName("Should write one JSON vehicle per line without touching the lazy sales collection")
+    void streamAvailableVehicles_ShouldWriteNdjson() throws Exception {
+        // Given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long written = vehicleStreamService.streamAvailableVehicles(out);
+
+        // Then
+        List<JsonNode> lines = parseLines(out);
+        assertThat(written).isEqualTo(2);
+        assertThat(lines).extracting(line -> line.get("vin").asText())
+                .containsExactlyInAnyOrder("1HGBH41JXMN109186", "1HGBH41JXMN109187");
+        assertThat(lines).allSatisfy(line -> assertThat(line.has("sales")).isFalse());
+    }
+
+    @Test
+    @DisplayName("Should apply the same filters as the list endpoints")
+    void streamLowMileageAndPriceRange_ShouldFilterLikeListQueries() throws Exception {
+        // Given
+        ByteArrayOutputStream lowMileage = new ByteArrayOutputStream();
+        ByteArrayOutputStream priceRange = new ByteArrayOutputStream();
+
+        // When
+        vehicleStreamService.streamLowMileageVehicles(10000, lowMileage);
+        vehicleStreamService.streamVehiclesByPriceRange(new BigDecimal("25000"), new BigDecimal("40000"), priceRange);
+
+        // Then
+        assertThat(parseLines(lowMileage)).extracting(line -> line.get("vin").asText())
+                .containsExactly("1HGBH41JXMN109187");
+        assertThat(parseLines(priceRange)).extracting(line -> line.get("vin").asText())
+                .containsExactlyInAnyOrder("1HGBH41JXMN109186", "1FTFW1ET5DFC12345");
+    }
+
+    private List<JsonNode> parseLines(ByteArrayOutputStream out) throws Exception {
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+        return lines;
+    }
+
+    private Vehicle vehicle(String vin, Vehicle.VehicleStatus status, int mileage, String price) {
+        return Vehicle.builder()
+                .vin(vin)
+                .make("Toyota")
+                .model("Camry")
+                .year(2023)
+                .mileage(mileage)
+                .sellingPrice(new BigDecimal(price))
+                .status(status)
+                .build();
+    }
+}